@@ -1,12 +1,31 @@
 package app;
 import controlador.ControladorAtencion;
+import modelo.AlmacenHistorial;
+import modelo.ExportadorOperaciones;
 import modelo.GestionAtencion;
+import modelo.GestionMultiSede;
+import modelo.HistorialEnMemoria;
+import modelo.HistorialFueraDeHeap;
+import modelo.HistorialPorNiveles;
+import modelo.MonitorGestion;
+import modelo.PoliticaAdmision;
+import modelo.PoliticaEnvejecimiento;
+import modelo.PublicadorOperaciones;
+import replicacion.ReplicadorPrimario;
+import vista.CalentamientoInterfaz;
 import vista.VentanaPrincipal;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
     /**
  * Punto de entrada de la aplicación GUI.
  *
- * <p>Inicia el modelo, la vista y el controlador y arranca el bucle de eventos Swing.
+ * <p>Inicia el modelo, la vista y el controlador y arranca el bucle de eventos Swing. La
+ * ventana se construye en el hilo de eventos mientras este hilo crea el almacén del
+ * historial y el modelo, y otro calienta fuentes y gráficos; el controlador se enlaza al
+ * final. Los almacenes con archivo empiezan vacíos: no se recarga nada de ejecuciones
+ * anteriores. Con varias sedes se abre una ventana por sede.
  *
  * @author SebasZ777-Uni
  * @since 1.0
@@ -15,15 +34,151 @@ public class Main {
     /**
      * Método principal que inicia la interfaz gráfica.
      *
-     * @param args argumentos de línea de comandos (no usados)
+     * @param args argumentos opcionales; {@code --replicar=PUERTO} publica las operaciones
+     *             del modelo a seguidores de replicación en ese puerto y
+     *             {@code --historial=directo} o {@code --historial=ARCHIVO} guarda el
+     *             historial fuera del heap (en memoria directa o proyectado en un archivo);
+     *             {@code --historial-niveles=DIRECTORIO} archiva los atendidos antiguos en
+     *             segmentos de ese directorio; {@code --envejecer=MINUTOS} pasa a urgentes a
+     *             los normales que esperan más de esos minutos y
+     *             {@code --envejecer-marcar=MINUTOS} solo los marca como vencidos;
+     *             {@code --capacidad=URGENTES,NORMALES} limita las colas y
+     *             {@code --admision=rechazar|desviar|descartar} elige qué hacer al llenarse;
+     *             {@code --exportar=ARCHIVO} anota cada operación en ese archivo;
+     *             {@code --sedes=NORTE,SUR} abre una ventana por sede, cada una con su
+     *             gestor e historial en memoria (no se combina con la replicación, los
+     *             historiales fuera del heap ni la exportación)
+     * @throws java.io.IOException si no se puede abrir el puerto de replicación o el archivo
      * @since 1.0
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
+        CalentamientoInterfaz.iniciar();
+        CompletableFuture<VentanaPrincipal> ventana = new CompletableFuture<>();
+        javax.swing.SwingUtilities.invokeLater(() -> ventana.complete(new VentanaPrincipal()));
+
+        for (String arg : args) {
+            if (arg.startsWith("--sedes=")) {
+                abrirSedes(arg.substring("--sedes=".length()).trim().split("\\s*,\\s*"), args, ventana);
+                return;
+            }
+        }
+
+        AlmacenHistorial historial = new HistorialEnMemoria();
+        for (String arg : args) {
+            if (arg.startsWith("--historial-niveles=")) {
+                historial = new HistorialPorNiveles(java.nio.file.Path.of(
+                        arg.substring("--historial-niveles=".length())), 10_000, 5_000);
+            } else if (arg.equals("--historial=directo")) {
+                historial = new HistorialFueraDeHeap();
+            } else if (arg.startsWith("--historial=")) {
+                historial = new HistorialFueraDeHeap(java.nio.file.Path.of(arg.substring("--historial=".length())));
+            }
+        }
+        AlmacenHistorial almacen = historial;
+        if (almacen instanceof java.io.Closeable) {
+            // Al salir se liberan la memoria proyectada y los archivos temporales del historial
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    ((java.io.Closeable) almacen).close();
+                } catch (java.io.IOException e) {
+                    System.err.println("No se pudo cerrar el historial: " + e.getMessage());
+                }
+            }, "cierre-historial"));
+        }
+        GestionAtencion modelo = new GestionAtencion("", historial);
+        MonitorGestion.registrar(modelo);
+        for (String arg : args) {
+            if (arg.startsWith("--replicar=")) {
+                new ReplicadorPrimario(modelo, Integer.parseInt(arg.substring("--replicar=".length())));
+            } else if (arg.startsWith("--exportar=")) {
+                exportar(modelo, java.nio.file.Path.of(arg.substring("--exportar=".length())));
+            }
+        }
+        configurar(modelo, args);
         javax.swing.SwingUtilities.invokeLater(() -> {
-            GestionAtencion modelo = new GestionAtencion();
-            VentanaPrincipal vista = new VentanaPrincipal();
+            VentanaPrincipal vista = ventana.join(); // ya construida: el hilo de eventos es FIFO
             new ControladorAtencion(modelo, vista);
             vista.setVisible(true);
         });
     }
+
+    // Una ventana, un controlador y un monitor JMX por sede; todas con la misma política de
+    // envejecimiento y admisión. La primera ventana es la que ya se está construyendo
+    private static void abrirSedes(String[] claves, String[] args, CompletableFuture<VentanaPrincipal> ventana) {
+        for (String arg : args) {
+            if (arg.startsWith("--replicar=") || arg.startsWith("--historial") || arg.startsWith("--exportar=")) {
+                throw new IllegalArgumentException("--sedes no se puede combinar con " + arg);
+            }
+        }
+        GestionMultiSede sedes = new GestionMultiSede(claves);
+        for (String clave : sedes.getSedes()) {
+            GestionAtencion modelo = sedes.getGestion(clave);
+            MonitorGestion.registrar(modelo, clave);
+            configurar(modelo, args);
+        }
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            int desplazamiento = 0;
+            for (String clave : sedes.getSedes()) {
+                VentanaPrincipal vista = desplazamiento == 0 ? ventana.join() : new VentanaPrincipal();
+                vista.setTitle(vista.getTitle() + " — Sede " + clave);
+                vista.setLocation(vista.getX() + desplazamiento, vista.getY() + desplazamiento);
+                new ControladorAtencion(sedes.getGestion(clave), vista, sedes);
+                vista.setVisible(true);
+                desplazamiento += 30;
+            }
+        });
+    }
+
+    // Envejecimiento y admisión de la línea de órdenes
+    private static void configurar(GestionAtencion modelo, String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--envejecer=")) {
+                modelo.configurarEnvejecimiento(PoliticaEnvejecimiento.uniforme(PoliticaEnvejecimiento.Modo.ESCALAR,
+                        Duration.ofMinutes(Long.parseLong(arg.substring("--envejecer=".length())))));
+            } else if (arg.startsWith("--capacidad=")) {
+                String[] capacidades = arg.substring("--capacidad=".length()).split(",");
+                modelo.configurarAdmision(PoliticaAdmision.conCapacidad(modoAdmision(args),
+                        Integer.parseInt(capacidades[0].trim()), Integer.parseInt(capacidades[1].trim())));
+            } else if (arg.startsWith("--envejecer-marcar=")) {
+                modelo.configurarEnvejecimiento(PoliticaEnvejecimiento.uniforme(PoliticaEnvejecimiento.Modo.MARCAR,
+                        Duration.ofMinutes(Long.parseLong(arg.substring("--envejecer-marcar=".length())))));
+            }
+        }
+    }
+
+    // Anota las operaciones en un archivo desde el hilo del publicador, sin frenar al modelo;
+    // al salir se entregan las ya publicadas y se cierra el archivo
+    private static void exportar(GestionAtencion modelo, java.nio.file.Path archivo) throws java.io.IOException {
+        PublicadorOperaciones publicador = new PublicadorOperaciones(modelo);
+        ExportadorOperaciones exportador = new ExportadorOperaciones(archivo);
+        publicador.subscribe(exportador);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            publicador.close();
+            try {
+                if (!exportador.esperarFin(2000)) {
+                    System.err.println("La exportación de operaciones no terminó a tiempo");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (exportador.getError() != null) {
+                System.err.println("No se pudieron exportar las operaciones: " + exportador.getError().getMessage());
+            }
+        }, "cierre-exportacion"));
+    }
+
+    // Modo de admisión de --admision=rechazar|desviar|descartar (por defecto, rechazar)
+    private static PoliticaAdmision.Modo modoAdmision(String[] args) {
+        for (String arg : args) {
+            switch (arg) {
+                case "--admision=desviar":
+                    return PoliticaAdmision.Modo.DESVIAR;
+                case "--admision=descartar":
+                    return PoliticaAdmision.Modo.DESCARTAR_NORMAL_ANTIGUO;
+                default:
+                    break;
+            }
+        }
+        return PoliticaAdmision.Modo.RECHAZAR;
+    }
 }
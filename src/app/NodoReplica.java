@@ -0,0 +1,142 @@
+package app;
+
+import modelo.Cliente;
+import modelo.GestionAtencion;
+import modelo.MonitorGestion;
+import modelo.Prioridad;
+import modelo.TipoSolicitud;
+import replicacion.ReplicadorPrimario;
+import replicacion.SeguidorReplica;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Punto de entrada sin interfaz gráfica para ejecutar un nodo de replicación.
+ *
+ * <p>Permite probar la replicación con dos procesos en la misma máquina:
+ * <pre>
+ * java -cp out app.NodoReplica primario 5050
+ * java -cp out app.NodoReplica seguidor localhost 5050
+ * </pre>
+ * Los comandos se leen de la entrada estándar ({@code agregar}, {@code atender},
+ * {@code eliminar}, {@code deshacer}, {@code rehacer}, {@code estado}, {@code promover},
+ * {@code salir}). El modelo también se publica por JMX.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class NodoReplica {
+
+    private GestionAtencion gestion;
+    private ReplicadorPrimario primario;
+    private SeguidorReplica seguidor;
+
+    /**
+     * Arranca el nodo en modo primario o seguidor y procesa comandos de consola.
+     *
+     * @param args {@code primario <puerto>} o {@code seguidor <host> <puerto>}
+     * @throws IOException si falla la red o la lectura de la consola
+     * @since 1.1
+     */
+    public static void main(String[] args) throws IOException {
+        NodoReplica nodo = new NodoReplica();
+        if (args.length == 2 && args[0].equals("primario")) {
+            nodo.gestion = new GestionAtencion();
+            nodo.primario = new ReplicadorPrimario(nodo.gestion, Integer.parseInt(args[1]));
+            System.out.println("Primario escuchando en el puerto " + nodo.primario.getPuerto());
+        } else if (args.length == 3 && args[0].equals("seguidor")) {
+            nodo.seguidor = new SeguidorReplica(args[1], Integer.parseInt(args[2]));
+            nodo.gestion = nodo.seguidor.getReplica();
+            System.out.println("Siguiendo a " + args[1] + ":" + args[2]);
+        } else {
+            System.out.println("Uso: NodoReplica primario <puerto> | seguidor <host> <puerto>");
+            return;
+        }
+        MonitorGestion.registrar(nodo.gestion);
+        nodo.leerComandos();
+    }
+
+    private void leerComandos() throws IOException {
+        BufferedReader consola = new BufferedReader(new InputStreamReader(System.in));
+        String linea;
+        while ((linea = consola.readLine()) != null) {
+            String[] partes = linea.trim().split("\\s+");
+            if (partes[0].isEmpty()) continue;
+            try {
+                if (partes[0].equals("salir")) break;
+                ejecutar(partes);
+            } catch (RuntimeException e) {
+                System.out.println("Error: " + e.getMessage());
+            }
+        }
+        if (primario != null) primario.close();
+        if (seguidor != null) seguidor.close();
+    }
+
+    private void ejecutar(String[] partes) throws IOException {
+        switch (partes[0]) {
+            case "estado":
+                mostrarEstado();
+                return;
+            case "promover":
+                if (seguidor == null) throw new IllegalStateException("El nodo ya es primario");
+                primario = seguidor.promover(Integer.parseInt(partes[1]));
+                seguidor = null;
+                System.out.println("Promovido: primario escuchando en el puerto " + primario.getPuerto());
+                return;
+            default:
+                break;
+        }
+        if (seguidor != null) {
+            throw new IllegalStateException("Un seguidor solo acepta 'estado', 'promover' y 'salir'");
+        }
+        switch (partes[0]) {
+            case "agregar":
+                Cliente c = gestion.agregarCliente(partes[1],
+                        TipoSolicitud.valueOf(partes[2].toUpperCase()), Prioridad.valueOf(partes[3].toUpperCase()));
+                System.out.println("Agregado " + c.getId());
+                break;
+            case "atender":
+                Cliente atendido = gestion.atenderCliente();
+                System.out.println(atendido == null ? "No hay clientes en espera" : "Atendido " + atendido.getId());
+                break;
+            case "eliminar":
+                System.out.println(gestion.eliminarCliente(partes[1]) ? "Eliminado" : "No encontrado");
+                break;
+            case "deshacer":
+                System.out.println("Deshecho: " + gestion.deshacerUltimaAccion());
+                break;
+            case "rehacer":
+                System.out.println("Rehecho: " + gestion.rehacerAccion());
+                break;
+            default:
+                System.out.println("Comando desconocido: " + partes[0]);
+        }
+    }
+
+    private void mostrarEstado() {
+        synchronized (gestion) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("secuencia=").append(gestion.getSecuencia())
+                    .append(" urgentes=").append(ids(gestion.getColaUrgentes()))
+                    .append(" normales=").append(ids(gestion.getColaNormales()))
+                    .append(" atendidos=").append(ids(gestion.getHistorial()));
+            if (primario != null) {
+                sb.append(" seguidores=").append(primario.getSeguidores())
+                        .append(" confirmada=").append(primario.getSecuenciaConfirmada());
+            }
+            System.out.println(sb);
+        }
+    }
+
+    private static String ids(Iterable<Cliente> clientes) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Cliente c : clientes) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(c.getId());
+        }
+        return sb.append(']').toString();
+    }
+}
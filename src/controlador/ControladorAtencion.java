@@ -2,17 +2,15 @@ package controlador;
 import modelo.*;
 import vista.*;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Stack;
-import java.util.stream.Stream;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import java.awt.*;
 import java.awt.event.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 
 /**
  * Controlador principal que coordina la interacción entre la capa de modelo
@@ -22,6 +20,15 @@ import java.util.List;
  * de clientes: agregar, atender, eliminar y deshacer acciones. También prepara
  * y actualiza las tablas y paneles de estadísticas.
  *
+ * <p>Las operaciones no se aplican en el hilo de eventos: se publican en una
+ * {@link TuberiaAtencion}, cuyo hilo de mutación es el único que modifica el gestor. Su
+ * etapa de interfaz prepara los mensajes de cada lote y, con la instantánea y las
+ * estadísticas que deja la mutación, actualiza la vista mediante
+ * {@link SwingUtilities#invokeLater}; la vista nunca lee las colas vivas.
+ *
+ * <p>Con varias sedes ({@link GestionMultiSede}) hay un controlador y una ventana por
+ * sede; cada uno opera solo la suya y muestra además las cifras de todas.
+ *
  * @author SebasZ777-Uni
  * @since 1.0
  */
@@ -30,6 +37,20 @@ public class ControladorAtencion {
     private GestionAtencion gestion;
     private VentanaPrincipal vista;
     private String tipoGrafico = "Pastel"; // por defecto
+    private MuestreadorTendencia muestreador;
+    private GraficoTendencia graficoTendencia; // null hasta que se abre la pestaña
+    private DialogoHistorial dialogoHistorial; // se crea al primer uso y se reutiliza
+    private final TuberiaAtencion tuberia; // solo publica el hilo de eventos
+    private EstadisticasGestion cifras; // últimas estadísticas mostradas
+    private final GestionMultiSede sedes; // null con una sola sede
+    private SortedMap<String, EstadisticasGestion> cifrasSedes;
+    private long secuenciaMostrada = -1;
+    // Estado de la etapa de interfaz: solo lo usa su hilo
+    private final List<Aviso> avisos = new ArrayList<>();
+    private boolean vencidos;
+    // Evita encolar más de una actualización del gráfico si el hilo de eventos va atrasado
+    private final java.util.concurrent.atomic.AtomicBoolean tendenciaPendiente =
+            new java.util.concurrent.atomic.AtomicBoolean();
 
     /**
      * Crea un controlador y enlaza la vista con el modelo.
@@ -39,10 +60,86 @@ public class ControladorAtencion {
      * @since 1.0
      */
     public ControladorAtencion(GestionAtencion gestion, VentanaPrincipal vista) {
+        this(gestion, vista, null);
+    }
+
+    /**
+     * Crea el controlador de una de varias sedes: opera el gestor de su sede y, en las
+     * estadísticas, muestra también las cifras de todas.
+     *
+     * @param gestion gestor de la sede, obtenido con {@link GestionMultiSede#getGestion(String)}
+     * @param vista ventana de la sede
+     * @param sedes gestor de todas las sedes, o {@code null} si solo hay una
+     * @since 1.1
+     */
+    public ControladorAtencion(GestionAtencion gestion, VentanaPrincipal vista, GestionMultiSede sedes) {
         this.gestion = gestion;
         this.vista = vista;
+        this.sedes = sedes;
+        this.tuberia = new TuberiaAtencion(gestion, 1024, null, null, this::procesarEnInterfaz);
         inicializarEventos();
-        actualizarTablasYEstadisticas();
+        actualizarTablasYEstadisticas(gestion.instantanea(), gestion.estadisticas());
+        iniciarTendencia();
+        iniciarVencimientos();
+        vista.alCrearEstadisticas(this::enlazarEstadisticas);
+        String titulo = vista.getTitle();
+        // El aviso llega en el hilo de mutación
+        gestion.agregarOyenteSaturacion((saturado, enEspera) -> SwingUtilities.invokeLater(() ->
+                vista.setTitle(titulo + (saturado ? " — SATURADO (" + enEspera + " en espera)" : ""))));
+        vista.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cerrar();
+            }
+        });
+    }
+
+    /**
+     * Deja de aceptar operaciones, espera a que se apliquen las ya pedidas y detiene la
+     * tubería y el muestreo de tendencia. Se llama al cerrar la ventana.
+     *
+     * @since 1.1
+     */
+    public void cerrar() {
+        tuberia.close();
+        muestreador.close();
+    }
+
+    // ------------------------------------------------------------
+    // Vencimientos de espera: se piden cada segundo a la tubería
+    // ------------------------------------------------------------
+    private void iniciarVencimientos() {
+        new Timer(1000, e -> tuberia.revisarVencimientos()).start();
+    }
+
+    // ------------------------------------------------------------
+    // Tendencia en vivo: muestreo cada segundo fuera del hilo de eventos. Muestrea desde
+    // el arranque aunque el gráfico aún no exista, para que al abrirlo tenga historia.
+    // ------------------------------------------------------------
+    private void iniciarTendencia() {
+        muestreador = new MuestreadorTendencia(gestion, 1000, () -> {
+            if (tendenciaPendiente.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> {
+                    tendenciaPendiente.set(false);
+                    if (graficoTendencia != null) graficoTendencia.actualizar();
+                });
+            }
+        });
+    }
+
+    // ------------------------------------------------------------
+    // Enlace del panel de estadísticas cuando se construye por primera vez
+    // ------------------------------------------------------------
+    private void enlazarEstadisticas(PanelEstadisticas panel) {
+        if (sedes != null) panel.mostrarSedes();
+        graficoTendencia = panel.graficoTendencia;
+        graficoTendencia.setFuente(muestreador);
+        // Combo para cambiar el tipo de gráfico
+        panel.cbTipoGrafico.addActionListener(e -> {
+            tipoGrafico = panel.cbTipoGrafico.getSelectedItem().toString();
+            dibujarGrafico();
+        });
+        actualizarEstadisticas();
     }
 
     // ------------------------------------------------------------
@@ -52,15 +149,18 @@ public class ControladorAtencion {
 
         vista.panelClientes.btnAgregar.addActionListener(e -> agregarCliente());
         vista.panelClientes.btnAtender.addActionListener(e -> atenderCliente());
+        vista.panelClientes.btnAtenderLote.addActionListener(e -> atenderLote());
         vista.panelClientes.btnEliminar.addActionListener(e -> eliminarClienteSeleccionado());
         vista.panelClientes.btnDeshacer.addActionListener(e -> deshacerAccion());
+        vista.panelClientes.btnRehacer.addActionListener(e -> rehacerAccion());
         vista.panelClientes.btnMostrarHistorial.addActionListener(e -> {
-            new DialogoHistorial(vista, gestion).setVisible(true);
-        });
-        // Combo para cambiar el tipo de gráfico
-        vista.panelEstadisticas.cbTipoGrafico.addActionListener(e -> {
-            tipoGrafico = vista.panelEstadisticas.cbTipoGrafico.getSelectedItem().toString();
-            dibujarGrafico();
+            // El diálogo lee instantáneas y búsquedas, que toman el cerrojo de lectura
+            if (dialogoHistorial == null) {
+                dialogoHistorial = new DialogoHistorial(vista, gestion);
+            } else {
+                dialogoHistorial.refrescar();
+            }
+            dialogoHistorial.setVisible(true);
         });
     }
 
@@ -92,10 +192,7 @@ public class ControladorAtencion {
                     null, Prioridad.values(), Prioridad.NORMAL
             );
             if (prioridad == null) return;
-            LocalDateTime horaIngreso = LocalDateTime.now();
-            Cliente c = gestion.agregarCliente(nombre.trim(), tipo, prioridad);
-            JOptionPane.showMessageDialog(vista, "Cliente agregado con ID: " + c.getId());
-            actualizarTablasYEstadisticas();
+            tuberia.agregar(nombre.trim(), tipo, prioridad); // el resultado llega por la tubería
 
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(vista, "Error al agregar cliente: " + ex.getMessage(),
@@ -107,14 +204,27 @@ public class ControladorAtencion {
     // Atender cliente
     // ------------------------------------------------------------
     private void atenderCliente() {
-        Cliente c = gestion.atenderCliente();
-        if (c == null) {
-            JOptionPane.showMessageDialog(vista, "No hay clientes en espera.");
+        tuberia.atender();
+    }
+
+    // ------------------------------------------------------------
+    // Atender un lote de clientes (una sola actualización de la vista)
+    // ------------------------------------------------------------
+    private void atenderLote() {
+        String texto = JOptionPane.showInputDialog(vista, "¿Cuántos clientes desea atender?", "10");
+        if (texto == null) return;
+        int n;
+        try {
+            n = Integer.parseInt(texto.trim());
+        } catch (NumberFormatException ex) {
+            n = -1;
+        }
+        if (n <= 0) {
+            JOptionPane.showMessageDialog(vista, "Ingrese un número entero positivo.",
+                    "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        JOptionPane.showMessageDialog(vista, "Cliente atendido:\n" + c.getNombre() +
-                " (" + c.getId() + ")");
-        actualizarTablasYEstadisticas();
+        tuberia.atenderLote(n);
     }
 
     // ------------------------------------------------------------
@@ -136,14 +246,7 @@ public class ControladorAtencion {
                 "Confirmar eliminación", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean eliminado = gestion.eliminarCliente(id);
-            if (eliminado) {
-                JOptionPane.showMessageDialog(vista, "Cliente eliminado correctamente.");
-                actualizarTablasYEstadisticas();
-            } else {
-                JOptionPane.showMessageDialog(vista, "No se encontró el cliente con ID " + id,
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            tuberia.eliminar(id);
         }
     }
 
@@ -151,190 +254,285 @@ public class ControladorAtencion {
     // Metodo el boton deshacer
     // ------------------------------------------------------------
     private void deshacerAccion() {
-        if (gestion.getPilaAcciones().isEmpty()) {
-            JOptionPane.showMessageDialog(vista, "No hay acciones para deshacer.", "Aviso", JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
+        tuberia.deshacer(); // si no hay nada que deshacer, lo avisa la etapa de interfaz
+    }
 
-        Accion ultima = gestion.getPilaAcciones().peek();
+    // ------------------------------------------------------------
+    // Metodo el boton rehacer
+    // ------------------------------------------------------------
+    private void rehacerAccion() {
+        tuberia.rehacer();
+    }
 
-        // Si la última acción ya fue una restauración, no seguimos
-        if (ultima.getTipoAccion() == TipoAccion.RESTAURAR) {
-            JOptionPane.showMessageDialog(vista, "No hay más acciones que restaurar.", "Aviso", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
+    // ------------------------------------------------------------
+    // Etapa de interfaz de la tubería (hilo tuberia-interfaz)
+    // ------------------------------------------------------------
+    /*
+     * Prepara el mensaje de cada evento y, al final del lote, entrega al hilo de eventos
+     * los mensajes y la instantánea que dejó la mutación: una sola actualización de la
+     * vista por lote, aunque se hayan aplicado muchas operaciones.
+     */
+    private void procesarEnInterfaz(EventoTuberia e, long secuencia, boolean finDeLote) {
+        Aviso aviso = aviso(e);
+        if (aviso != null) avisos.add(aviso);
+        vencidos |= e.getAfectados() > 0; // en modo marcar no cambia la secuencia
+        if (!finDeLote) return;
+        InstantaneaGestion foto = e.getInstantanea();
+        EstadisticasGestion nuevas = e.getEstadisticas();
+        List<Aviso> lote = List.copyOf(avisos);
+        boolean forzar = vencidos;
+        avisos.clear();
+        vencidos = false;
+        // Las demás sedes cambian sin pasar por esta tubería: sus cifras se leen en cada lote
+        SortedMap<String, EstadisticasGestion> porSede = sedes == null ? null : sedes.estadisticas();
+        SwingUtilities.invokeLater(() -> {
+            if (porSede != null) {
+                cifrasSedes = porSede;
+                if (vista.panelEstadisticas != null) vista.panelEstadisticas.lblSedes.setText(textoSedes());
+            }
+            if (forzar || foto.getSecuencia() != secuenciaMostrada) {
+                actualizarTablasYEstadisticas(foto, nuevas);
+            }
+            for (Aviso a : lote) a.mostrar(vista);
+        });
+    }
 
-        // Ejecutar la reversión
-        gestion.deshacerUltimaAccion();
-        actualizarTablasYEstadisticas();
+    private static Aviso aviso(EventoTuberia e) {
+        RuntimeException error = e.getError();
+        switch (e.getOperacion()) {
+            case AGREGAR:
+                if (error instanceof CapacidadExcedidaException) {
+                    return new Aviso(error.getMessage() + ". Intente más tarde.", "Cola llena", JOptionPane.WARNING_MESSAGE);
+                }
+                if (error != null) {
+                    return new Aviso("Error al agregar cliente: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+                return new Aviso("Cliente agregado con ID: " + e.getResultado().getId(), null, 0);
+            case ATENDER:
+                if (error != null) break;
+                Cliente c = e.getResultado();
+                return c == null ? new Aviso("No hay clientes en espera.", null, 0)
+                        : new Aviso("Cliente atendido:\n" + c.getNombre() + " (" + c.getId() + ")", null, 0);
+            case ATENDER_LOTE:
+                if (error != null) break;
+                List<Cliente> atendidos = e.getAtendidos();
+                if (atendidos.isEmpty()) return new Aviso("No hay clientes en espera.", null, 0);
+                Cliente ultimo = atendidos.get(atendidos.size() - 1);
+                return new Aviso("Clientes atendidos: " + atendidos.size() +
+                        "\nÚltimo: " + ultimo.getNombre() + " (" + ultimo.getId() + ")", null, 0);
+            case ELIMINAR:
+                if (error != null) break;
+                return e.getResultado() != null ? new Aviso("Cliente eliminado correctamente.", null, 0)
+                        : new Aviso("No se encontró el cliente con ID " + e.getIdCliente(), "Error", JOptionPane.ERROR_MESSAGE);
+            case DESHACER:
+                if (error != null) break;
+                return e.getAccion() == null
+                        ? new Aviso("No hay acciones para deshacer.", "Aviso", JOptionPane.INFORMATION_MESSAGE)
+                        : new Aviso("Se ha deshecho la acción: " + textoAccion(e.getAccion()), "Deshacer",
+                        JOptionPane.INFORMATION_MESSAGE);
+            case REHACER:
+                if (error != null) break;
+                return e.getAccion() == null
+                        ? new Aviso("No hay acciones para rehacer.", "Aviso", JOptionPane.INFORMATION_MESSAGE)
+                        : new Aviso("Se ha rehecho la acción: " + textoAccion(e.getAccion()), "Rehacer",
+                        JOptionPane.INFORMATION_MESSAGE);
+            default:
+                break;
+        }
+        return error == null ? null
+                : new Aviso("Error al aplicar " + e.getOperacion() + ": " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
 
-        JOptionPane.showMessageDialog(vista,
-                "Se ha deshecho la última acción: " + ultima.getTipoAccion() +
-                        " → " + ultima.getCliente().getNombre() +
-                        " (" + ultima.getCliente().getId() + ")",
-                "Deshacer", JOptionPane.INFORMATION_MESSAGE);
+    private static String textoAccion(Accion a) {
+        return a.getTipoAccion() + " → " + a.getCliente().getNombre() + " (" + a.getCliente().getId() + ")";
     }
 
-    private void actualizarTabla(DefaultTableModel modelo, List<Cliente> lista, GestionAtencion gestion) {
-        modelo.setRowCount(0);
-        for (Cliente c : lista) {
-            String estado = "Atendido";
-            String tiempo = String.format("%.1f", c.getTiempoAtencion());
-            if (gestion.getColaUrgentes().contains(c))
-                estado = "En Espera (Urgente)";
-            else if (gestion.getColaNormales().contains(c))
-                estado = "En Espera (Normal)";
-            else if (c.getTiempoAtencion() == 0)
-                tiempo = "-";
-
-            modelo.addRow(new Object[]{
-                    c.getId(), c.getNombre(), c.getTipoSolicitud(),
-                    c.getPrioridad(), estado, tiempo
-            });
+    // Mensaje preparado fuera del hilo de eventos; se muestra ya en él
+    private static final class Aviso {
+        private final String mensaje;
+        private final String titulo; // null: título por defecto
+        private final int tipo;
+
+        Aviso(String mensaje, String titulo, int tipo) {
+            this.mensaje = mensaje;
+            this.titulo = titulo;
+            this.tipo = tipo;
         }
-    }
 
+        void mostrar(JFrame padre) {
+            if (titulo == null) {
+                JOptionPane.showMessageDialog(padre, mensaje);
+            } else {
+                JOptionPane.showMessageDialog(padre, mensaje, titulo, tipo);
+            }
+        }
+    }
 
     // ------------------------------------------------------------
     // Actualizar tablas y estadísticas
     // ------------------------------------------------------------
-    private void actualizarTablasYEstadisticas() {
+    // En modo MARCAR, el cliente que superó su espera máxima se señala junto a la prioridad
+    private static Object prioridadConVencimiento(Cliente c) {
+        return c.isVencido() ? c.getPrioridad() + " (vencido)" : c.getPrioridad();
+    }
+
+    private void actualizarTablasYEstadisticas(InstantaneaGestion foto, EstadisticasGestion nuevas) {
+        cifras = nuevas;
+        secuenciaMostrada = foto.getSecuencia();
+        EventoJfrRefresco evento = new EventoJfrRefresco();
+        evento.begin();
         DefaultTableModel modeloEspera = (DefaultTableModel) vista.panelClientes.tablaEspera.getModel();
-        DefaultTableModel modeloAtendidos = (DefaultTableModel) vista.panelClientes.tablaAtendidos.getModel();
         modeloEspera.setRowCount(0);
-        modeloAtendidos.setRowCount(0);
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("HH:mm:ss");
         // ------------------------------------------------------------
         // Llenar tabla de espera (urgentes + normales)
         // ------------------------------------------------------------
-        for (Cliente c : gestion.getColaUrgentes()) {
+        for (Cliente c : foto.getColaUrgentes()) {
             modeloEspera.addRow(new Object[]{
                     c.getId(), c.getNombre(), c.getTipoSolicitud(),
-                    c.getPrioridad(), "-", c.getHoraIngreso().format(formato)
+                    prioridadConVencimiento(c), "-", c.getHoraIngresoTexto()
             });
         }
-        for (Cliente c : gestion.getColaNormales()) {
+        for (Cliente c : foto.getColaNormales()) {
             modeloEspera.addRow(new Object[]{
                     c.getId(), c.getNombre(), c.getTipoSolicitud(),
-                    c.getPrioridad(), "-", c.getHoraIngreso().format(formato)
+                    prioridadConVencimiento(c), "-", c.getHoraIngresoTexto()
             });
         }
 
         // ------------------------------------------------------------
-        // Llenar tabla de atendidos (historial)
+        // Tabla de atendidos: lee el historial de la instantánea por posición al pintar,
+        // sin recorrerlo (con almacenes en disco no se leen todos los segmentos)
         // ------------------------------------------------------------
-        for (Cliente c : gestion.getHistorial()) {
-            modeloAtendidos.addRow(new Object[]{
-                    c.getId(), c.getNombre(), c.getTipoSolicitud(),
-                    c.getPrioridad(), String.format("%.1f", c.getTiempoAtencion()),
-                    c.getHoraIngreso().format(formato)
-            });
-        }
+        vista.panelClientes.modeloAtendidos.setClientes(foto.getHistorial());
+
+        actualizarEstadisticas();
+        evento.cerrar(foto.getColaUrgentes().size(), foto.getColaNormales().size(),
+                foto.getTotalAtendidos());
+    }
 
+    // ------------------------------------------------------------
+    // Actualizar estadísticas (solo si la pestaña ya se construyó)
+    // ------------------------------------------------------------
+    private void actualizarEstadisticas() {
+        if (vista.panelEstadisticas == null) return;
         // ------------------------------------------------------------
         // Actualizar etiquetas resumen
         // ------------------------------------------------------------
-        vista.panelEstadisticas.lblTotalEspera.setText("Total en espera: " + gestion.getTotalEnEspera());
-        vista.panelEstadisticas.lblTotalAtendidos.setText("Total atendidos: " + gestion.getTotalAtendidos());
+        vista.panelEstadisticas.lblTotalEspera.setText("Total en espera: " + cifras.getTotalEnEspera());
+        vista.panelEstadisticas.lblTotalAtendidos.setText("Total atendidos: " + cifras.getTotalAtendidos());
         vista.panelEstadisticas.lblPromedio.setText(
-                "Promedio de atención: " + String.format("%.1f min", gestion.getPromedioTiempoAtencion())
+                "Promedio de atención: " + String.format("%.1f min", cifras.getPromedioTiempoAtencion())
+        );
+        vista.panelEstadisticas.lblIngresosHora.setText(
+                "Ingresos última hora: " + cifras.getIngresosUltimaHora()
         );
+        vista.panelEstadisticas.lblPercentiles.setText(textoPercentiles());
+        vista.panelEstadisticas.lblVentanas.setText(textoVentanas());
+        vista.panelEstadisticas.lblAgregados.setText(textoAgregados());
+        if (cifrasSedes != null) vista.panelEstadisticas.lblSedes.setText(textoSedes());
 
         // ------------------------------------------------------------
-        // Preparar datos para los gráficos
-        // ------------------------------------------------------------
-        Map<String, Integer> tipos = new HashMap<>();
-        tipos.put("SOPORTE", 0);
-        tipos.put("MANTENIMIENTO", 0);
-        tipos.put("RECLAMO", 0);
-        // ------------------------------------------------------------
-        // Calcular totales para gráficos (espera + atendidos)
+        // Gráficos: leen la copia del cubo de conteos (O(1), sin recorrer colas)
         // ------------------------------------------------------------
-        int urgentes = 0;
-        int normales = 0;
-        // Contar clientes en espera (urgentes + normales)
-        for (Cliente c : gestion.getColaUrgentes()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
-            urgentes++;
+        vista.panelEstadisticas.actualizarDatos(cifras.getConteos());
+    }
+
+
+    // ------------------------------------------------------------
+    // Tabla HTML de percentiles (min) por prioridad y tipo
+    // ------------------------------------------------------------
+    private String textoPercentiles() {
+        StringBuilder sb = new StringBuilder("<html><b>Tiempo de atención (min)</b><table>");
+        sb.append("<tr><td></td><td>p50</td><td>p90</td><td>p99</td><td>máx</td></tr>");
+        for (Prioridad p : Prioridad.values()) {
+            filaPercentiles(sb, p.name(), cifras.getPercentilesTiempoAtencion(p));
         }
-        for (Cliente c : gestion.getColaNormales()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
-            normales++;
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            filaPercentiles(sb, t.name(), cifras.getPercentilesTiempoAtencion(t));
         }
+        return sb.append("</table></html>").toString();
+    }
 
-        // Contar clientes atendidos
-        for (Cliente c : gestion.getHistorial()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
-            if (c.getPrioridad() == Prioridad.URGENTE) {
-                urgentes++;
-            } else {
-                normales++;
-            }
+    private void filaPercentiles(StringBuilder sb, String nombre, ResumenPercentiles r) {
+        sb.append("<tr><td>").append(nombre).append("</td>");
+        for (long ms : new long[]{r.getP50(), r.getP90(), r.getP99(), r.getMaximo()}) {
+            sb.append("<td>").append(String.format("%.1f", ms / 60_000.0)).append("</td>");
         }
-
-        // ------------------------------------------------------------
-        // Actualizar panel de estadísticas (envía todo)
-        // ------------------------------------------------------------
-        vista.panelEstadisticas.actualizarDatos(
-                gestion.getTotalEnEspera(),
-                gestion.getTotalAtendidos(),
-                tipos,
-                urgentes,
-                normales
-        );
+        sb.append("</tr>");
     }
 
-
     // ------------------------------------------------------------
-// Actualizar gráficos en el panel de estadísticas
-// ------------------------------------------------------------
-    private void dibujarGrafico() {
-        // ------------------------------------------------------------
-        // Inicializar mapa de tipos
-        // ------------------------------------------------------------
-        Map<String, Integer> tipos = new HashMap<>();
-        tipos.put("SOPORTE", 0);
-        tipos.put("MANTENIMIENTO", 0);
-        tipos.put("RECLAMO", 0);
-
-        // Contar clientes en espera (urgentes + normales)
-        for (Cliente c : gestion.getColaUrgentes()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
-        }
-        for (Cliente c : gestion.getColaNormales()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
+    // Tabla HTML de las cifras de cada sede y del total
+    // ------------------------------------------------------------
+    private String textoSedes() {
+        StringBuilder sb = new StringBuilder("<html><b>Sedes</b><table>");
+        sb.append("<tr><td></td><td>Espera</td><td>Atendidos</td><td>Prom. (min)</td></tr>");
+        int espera = 0, atendidos = 0;
+        double minutos = 0;
+        for (Map.Entry<String, EstadisticasGestion> e : cifrasSedes.entrySet()) {
+            EstadisticasGestion s = e.getValue();
+            filaSede(sb, e.getKey(), s.getTotalEnEspera(), s.getTotalAtendidos(), s.getPromedioTiempoAtencion());
+            espera += s.getTotalEnEspera();
+            atendidos += s.getTotalAtendidos();
+            minutos += s.getPromedioTiempoAtencion() * s.getTotalAtendidos();
         }
+        filaSede(sb, "Total", espera, atendidos, atendidos == 0 ? 0 : minutos / atendidos);
+        return sb.append("</table></html>").toString();
+    }
 
-        // Contar clientes atendidos
-        for (Cliente c : gestion.getHistorial()) {
-            String tipo = c.getTipoSolicitud().name();
-            tipos.put(tipo, tipos.get(tipo) + 1);
-        }
+    private static void filaSede(StringBuilder sb, String nombre, int espera, int atendidos, double promedio) {
+        sb.append("<tr><td>").append(nombre).append("</td><td>").append(espera).append("</td><td>")
+                .append(atendidos).append("</td><td>").append(String.format("%.1f", promedio)).append("</td></tr>");
+    }
 
-        // ------------------------------------------------------------
-        // Totales generales
-        // ------------------------------------------------------------
-        int totalEspera = gestion.getTotalEnEspera();
-        int totalAtendidos = gestion.getTotalAtendidos();
+    // ------------------------------------------------------------
+    // Tabla HTML de medidores por ventana (5/15/60 min); MetricasVentana es sincronizada
+    // ------------------------------------------------------------
+    private String textoVentanas() {
+        MetricasVentana m = gestion.getMetricas();
+        int[] ventanas = {5, 15, 60};
+        StringBuilder sb = new StringBuilder("<html><b>Últimos minutos</b><table>");
+        sb.append("<tr><td></td><td>5</td><td>15</td><td>60</td></tr>");
+        sb.append("<tr><td>Ingresos/min</td>");
+        for (int v : ventanas) sb.append("<td>").append(String.format("%.2f", m.getIngresosPorMinuto(v))).append("</td>");
+        sb.append("</tr><tr><td>Atendidos/min</td>");
+        for (int v : ventanas) sb.append("<td>").append(String.format("%.2f", m.getAtendidosPorMinuto(v))).append("</td>");
+        sb.append("</tr><tr><td>Espera media</td>");
+        for (int v : ventanas) sb.append("<td>").append(String.format("%.1f", m.getEsperaMedia(v))).append("</td>");
+        sb.append("</tr><tr><td>Espera p95</td>");
+        for (int v : ventanas) sb.append("<td>").append(String.format("%.1f", m.getEsperaP95(v))).append("</td>");
+        return sb.append("</tr></table></html>").toString();
+    }
 
-        int urgentes = gestion.getColaUrgentes().size();
-        int normales = gestion.getColaNormales().size();
+    // ------------------------------------------------------------
+    // Tabla HTML de atendidos y tiempo medio por hora y día; AgregadosTemporales es
+    // sincronizada y cada fila recorre como mucho 30 cubetas
+    // ------------------------------------------------------------
+    private String textoAgregados() {
+        AgregadosTemporales a = gestion.getAgregados();
+        LocalDateTime hora = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime dia = hora.truncatedTo(ChronoUnit.DAYS);
+        StringBuilder sb = new StringBuilder("<html><b>Tendencia</b><table>");
+        sb.append("<tr><td></td><td>Atendidos</td><td>Media (min)</td></tr>");
+        filaAgregado(sb, "Esta hora", a.total(AgregadosTemporales.Granularidad.HORA, hora, hora.plusHours(1), null, null));
+        filaAgregado(sb, "Hora anterior", a.total(AgregadosTemporales.Granularidad.HORA, hora.minusHours(1), hora, null, null));
+        filaAgregado(sb, "Hoy", a.total(AgregadosTemporales.Granularidad.DIA, dia, dia.plusDays(1), null, null));
+        filaAgregado(sb, "Ayer", a.total(AgregadosTemporales.Granularidad.DIA, dia.minusDays(1), dia, null, null));
+        filaAgregado(sb, "Últimos 7 días", a.total(AgregadosTemporales.Granularidad.DIA, dia.minusDays(6), dia.plusDays(1), null, null));
+        filaAgregado(sb, "Últimos 30 días", a.total(AgregadosTemporales.Granularidad.DIA, dia.minusDays(29), dia.plusDays(1), null, null));
+        return sb.append("</table></html>").toString();
+    }
 
-        // ------------------------------------------------------------
-        // Pasar los datos al panel (PanelEstadisticas)
-        // ------------------------------------------------------------
-        vista.panelEstadisticas.actualizarDatos(
-                totalEspera,
-                totalAtendidos,
-                tipos,
-                urgentes,
-                normales
-        );
+    private static void filaAgregado(StringBuilder sb, String nombre, PuntoTendencia p) {
+        sb.append("<tr><td>").append(nombre).append("</td><td>").append(p.getAtendidos()).append("</td><td>")
+                .append(String.format("%.1f", p.getTiempoMedio())).append("</td></tr>");
+    }
+
+    // ------------------------------------------------------------
+// Actualizar gráficos en el panel de estadísticas
+// ------------------------------------------------------------
+    private void dibujarGrafico() {
+        vista.panelEstadisticas.actualizarDatos(cifras.getConteos());
     }
 
 }
\ No newline at end of file
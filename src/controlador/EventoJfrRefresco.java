@@ -0,0 +1,34 @@
+package controlador;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de cada refresco completo de tablas y estadísticas en
+ * {@link ControladorAtencion}. Permite correlacionar los refrescos del EDT con
+ * pausas de GC y picos de latencia en una grabación.
+ */
+@Name("techclassuc.Refresco")
+@Label("Refresco de tablas y estadísticas")
+@Category({"TechClassUC", "Vista"})
+final class EventoJfrRefresco extends Event {
+
+    @Label("Urgentes en espera")
+    int colaUrgentes;
+
+    @Label("Normales en espera")
+    int colaNormales;
+
+    @Label("Total atendidos")
+    int totalAtendidos;
+
+    void cerrar(int urgentes, int normales, int atendidos) {
+        if (!shouldCommit()) return;
+        colaUrgentes = urgentes;
+        colaNormales = normales;
+        totalAtendidos = atendidos;
+        commit();
+    }
+}
@@ -13,9 +13,11 @@ import java.time.format.DateTimeFormatter;
  */
 public class Accion {
 
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private TipoAccion tipoAccion;
     private Cliente cliente;
-    private LocalDateTime fechaHora;
+    private long fechaMs; // milisegundos epoch
 
     /**
      * Crea una nueva acción asociada a un cliente; la fecha/hora se establece a la hora actual.
@@ -27,7 +29,14 @@ public class Accion {
     public Accion(TipoAccion tipoAccion, Cliente cliente) {
         this.tipoAccion = tipoAccion;
         this.cliente = cliente;
-        this.fechaHora = LocalDateTime.now();
+        this.fechaMs = System.currentTimeMillis();
+    }
+
+    // Acción con el instante ya registrado (desde un Comando o el RegistroOperaciones)
+    Accion(TipoAccion tipoAccion, Cliente cliente, long fechaMs) {
+        this.tipoAccion = tipoAccion;
+        this.cliente = cliente;
+        this.fechaMs = fechaMs;
     }
 
     /**
@@ -54,13 +63,12 @@ public class Accion {
      * @return {@link LocalDateTime} de creación
      */
     public LocalDateTime getFechaHora() {
-        return fechaHora;
+        return IndiceTemporal.aFecha(fechaMs);
     }
 
     @Override
     public String toString() {
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return "[" + fechaHora.format(formato) + "] " +
+        return "[" + getFechaHora().format(FORMATO) + "] " +
                 tipoAccion + " → " + cliente.getNombre() +
                 " (" + cliente.getId() + ")";
     }
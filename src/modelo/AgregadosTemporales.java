@@ -0,0 +1,224 @@
+package modelo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tablas de agregados por minuto, hora y día del volumen y el tiempo de atención,
+ * desglosados por {@link TipoSolicitud} y {@link Prioridad}.
+ *
+ * <p>Cada nivel es un anillo de cubetas con memoria fija: un conteo y una suma de tiempos
+ * por combinación tipo × prioridad. Al atender se actualiza la cubeta de cada nivel y al
+ * deshacer se resta, así que las tendencias y los informes se responden recorriendo
+ * cubetas, sin leer el historial. Se conservan las últimas {@value #MINUTOS} cubetas de
+ * minuto (24 h), {@value #HORAS} de hora (60 días) y {@value #DIAS} de día (2 años); las
+ * horas y los días se cuentan en la zona horaria del sistema al crear los agregados.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class AgregadosTemporales {
+
+    /** Cubetas de minuto conservadas. */
+    public static final int MINUTOS = 24 * 60;
+    /** Cubetas de hora conservadas. */
+    public static final int HORAS = 60 * 24;
+    /** Cubetas de día conservadas. */
+    public static final int DIAS = 2 * 365;
+
+    /**
+     * Tamaño de las cubetas de una consulta.
+     *
+     * @since 1.1
+     */
+    public enum Granularidad {
+        /** Cubetas de un minuto. */
+        MINUTO(60_000L),
+        /** Cubetas de una hora. */
+        HORA(3_600_000L),
+        /** Cubetas de un día. */
+        DIA(86_400_000L);
+
+        private final long milis;
+
+        Granularidad(long milis) {
+            this.milis = milis;
+        }
+    }
+
+    private static final int TIPOS = TipoSolicitud.values().length;
+    private static final int PRIORIDADES = Prioridad.values().length;
+    private static final int CELDAS = TIPOS * PRIORIDADES;
+
+    private final Nivel[] niveles = {
+            new Nivel(Granularidad.MINUTO, MINUTOS),
+            new Nivel(Granularidad.HORA, HORAS),
+            new Nivel(Granularidad.DIA, DIAS)
+    };
+    private final ZoneRules reglas = ZoneId.systemDefault().getRules();
+    private long minutoDesplazamiento = Long.MIN_VALUE; // minuto epoch del desplazamiento guardado
+    private long desplazamientoMs;
+
+    /**
+     * Suma una atención a la cubeta de minuto, hora y día que le corresponde.
+     *
+     * @param instanteMs instante de la atención en milisegundos epoch
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad del cliente
+     * @param tiempoMs tiempo de atención en milisegundos
+     * @since 1.1
+     */
+    public synchronized void registrar(long instanteMs, TipoSolicitud tipo, Prioridad prioridad, long tiempoMs) {
+        long local = aLocal(instanteMs);
+        int celda = tipo.ordinal() * PRIORIDADES + prioridad.ordinal();
+        for (Nivel n : niveles) {
+            n.sumar(local, celda, 1, tiempoMs);
+        }
+    }
+
+    /**
+     * Resta una atención registrada (al deshacerla), en los niveles que aún la conservan.
+     *
+     * @param instanteMs instante de la atención en milisegundos epoch
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad del cliente
+     * @param tiempoMs tiempo de atención que se registró
+     * @since 1.1
+     */
+    public synchronized void retirar(long instanteMs, TipoSolicitud tipo, Prioridad prioridad, long tiempoMs) {
+        long local = aLocal(instanteMs);
+        int celda = tipo.ordinal() * PRIORIDADES + prioridad.ordinal();
+        for (Nivel n : niveles) {
+            n.sumar(local, celda, -1, -tiempoMs);
+        }
+    }
+
+    /**
+     * Devuelve la serie de cubetas cuyo inicio está en {@code [desde, hasta)}, empezando
+     * por la más antigua que aún se conserva. El coste es proporcional al número de
+     * cubetas devueltas.
+     *
+     * @param granularidad tamaño de las cubetas
+     * @param desde inicio del rango (hora local, inclusive)
+     * @param hasta fin del rango (hora local, exclusivo)
+     * @param tipo tipo a incluir o {@code null} para todos
+     * @param prioridad prioridad a incluir o {@code null} para todas
+     * @return un punto por cubeta, en orden cronológico
+     * @since 1.1
+     */
+    public synchronized List<PuntoTendencia> tendencia(Granularidad granularidad, LocalDateTime desde,
+                                                       LocalDateTime hasta, TipoSolicitud tipo, Prioridad prioridad) {
+        Nivel n = niveles[granularidad.ordinal()];
+        long primera = Math.max(clave(desde, granularidad), n.masAntigua(aLocal(System.currentTimeMillis())));
+        long ultima = Math.floorDiv(milisLocales(hasta) - 1, granularidad.milis);
+        List<PuntoTendencia> serie = new ArrayList<>((int) Math.max(0, ultima - primera + 1));
+        long[] acumulado = new long[2];
+        for (long k = primera; k <= ultima; k++) {
+            acumulado[0] = 0;
+            acumulado[1] = 0;
+            n.acumular(k, tipo, prioridad, acumulado);
+            serie.add(new PuntoTendencia(aFechaLocal(k * granularidad.milis), acumulado[0], acumulado[1]));
+        }
+        return serie;
+    }
+
+    /**
+     * Devuelve el total de las cubetas cuyo inicio está en {@code [desde, hasta)}.
+     *
+     * @param granularidad tamaño de las cubetas a sumar
+     * @param desde inicio del rango (hora local, inclusive)
+     * @param hasta fin del rango (hora local, exclusivo)
+     * @param tipo tipo a incluir o {@code null} para todos
+     * @param prioridad prioridad a incluir o {@code null} para todas
+     * @return punto con el volumen y la suma de tiempos del rango
+     * @since 1.1
+     */
+    public synchronized PuntoTendencia total(Granularidad granularidad, LocalDateTime desde,
+                                             LocalDateTime hasta, TipoSolicitud tipo, Prioridad prioridad) {
+        Nivel n = niveles[granularidad.ordinal()];
+        long[] acumulado = new long[2];
+        long ultima = Math.floorDiv(milisLocales(hasta) - 1, granularidad.milis);
+        for (long k = Math.max(clave(desde, granularidad), n.masAntigua(aLocal(System.currentTimeMillis()))); k <= ultima; k++) {
+            n.acumular(k, tipo, prioridad, acumulado);
+        }
+        return new PuntoTendencia(desde, acumulado[0], acumulado[1]);
+    }
+
+    // Milisegundos "locales": epoch desplazado por la zona horaria, para cortar horas y días
+    // locales. Los cambios de horario caen en minutos exactos, así que el desplazamiento se
+    // calcula una vez por minuto y registrar o retirar no reservan memoria
+    private long aLocal(long instanteMs) {
+        long minuto = Math.floorDiv(instanteMs, 60_000L);
+        if (minuto != minutoDesplazamiento) {
+            desplazamientoMs = reglas.getOffset(Instant.ofEpochMilli(instanteMs)).getTotalSeconds() * 1000L;
+            minutoDesplazamiento = minuto;
+        }
+        return instanteMs + desplazamientoMs;
+    }
+
+    private static long milisLocales(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1000 + fecha.getNano() / 1_000_000;
+    }
+
+    private static long clave(LocalDateTime fecha, Granularidad g) {
+        return Math.floorDiv(milisLocales(fecha), g.milis);
+    }
+
+    private static LocalDateTime aFechaLocal(long milisLocales) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(milisLocales, 1000), 0, ZoneOffset.UTC);
+    }
+
+    // Anillo de cubetas de una granularidad
+    private static final class Nivel {
+        private final Granularidad granularidad;
+        private final long[] claves;
+        private final long[] conteos;
+        private final long[] sumas;
+
+        Nivel(Granularidad granularidad, int capacidad) {
+            this.granularidad = granularidad;
+            claves = new long[capacidad];
+            Arrays.fill(claves, Long.MIN_VALUE);
+            conteos = new long[capacidad * CELDAS];
+            sumas = new long[capacidad * CELDAS];
+        }
+
+        void sumar(long milisLocales, int celda, int conteo, long tiempoMs) {
+            long clave = Math.floorDiv(milisLocales, granularidad.milis);
+            int i = (int) Math.floorMod(clave, (long) claves.length);
+            if (claves[i] != clave) {
+                // Una cubeta más antigua que la guardada ya salió de la ventana
+                if (conteo < 0 || clave < claves[i]) return;
+                claves[i] = clave;
+                Arrays.fill(conteos, i * CELDAS, (i + 1) * CELDAS, 0);
+                Arrays.fill(sumas, i * CELDAS, (i + 1) * CELDAS, 0);
+            }
+            conteos[i * CELDAS + celda] += conteo;
+            sumas[i * CELDAS + celda] += tiempoMs;
+        }
+
+        void acumular(long clave, TipoSolicitud tipo, Prioridad prioridad, long[] acumulado) {
+            int i = (int) Math.floorMod(clave, (long) claves.length);
+            if (claves[i] != clave) return;
+            for (int t = 0; t < TIPOS; t++) {
+                if (tipo != null && tipo.ordinal() != t) continue;
+                for (int p = 0; p < PRIORIDADES; p++) {
+                    if (prioridad != null && prioridad.ordinal() != p) continue;
+                    acumulado[0] += conteos[i * CELDAS + t * PRIORIDADES + p];
+                    acumulado[1] += sumas[i * CELDAS + t * PRIORIDADES + p];
+                }
+            }
+        }
+
+        // Clave más antigua que el anillo puede conservar respecto a la hora local actual
+        long masAntigua(long ahoraLocal) {
+            return Math.floorDiv(ahoraLocal, granularidad.milis) - claves.length + 1;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package modelo;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Almacenamiento del historial de clientes atendidos usado por {@link GestionAtencion}.
+ *
+ * <p>El historial solo crece por el final (al atender) y solo se recorta por el final (al
+ * deshacer una atención), por lo que las implementaciones pueden guardar registros de
+ * ancho fijo en orden de atención. Además de acceso por posición, cada almacén resuelve
+ * las consultas por rango de hora de ingreso sobre sus propios datos.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public interface AlmacenHistorial {
+
+    /**
+     * Añade un cliente atendido al final del historial.
+     *
+     * @param cliente cliente con su hora y tiempo de atención ya asignados
+     * @since 1.1
+     */
+    void agregar(Cliente cliente);
+
+    /**
+     * Añade varios clientes atendidos al final del historial, en el orden de la lista.
+     * Las implementaciones pueden sobrescribirlo para reservar espacio una sola vez.
+     *
+     * @param clientes clientes con su hora y tiempo de atención ya asignados
+     * @since 1.1
+     */
+    default void agregarTodos(List<Cliente> clientes) {
+        for (Cliente c : clientes) {
+            agregar(c);
+        }
+    }
+
+    /**
+     * Quita el último cliente atendido (al deshacer su atención).
+     *
+     * @throws IllegalStateException si el historial está vacío
+     * @since 1.1
+     */
+    void quitarUltimo();
+
+    /**
+     * Devuelve el cliente atendido en la posición indicada (0 es el más antiguo).
+     *
+     * @param indice posición en el historial
+     * @return cliente en esa posición
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    Cliente obtener(int indice);
+
+    /**
+     * Devuelve el número de clientes atendidos guardados.
+     *
+     * @return tamaño del historial
+     * @since 1.1
+     */
+    int tamano();
+
+    /**
+     * Devuelve los clientes atendidos cuya hora de ingreso está en {@code [desde, hasta)}.
+     *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return clientes del rango ordenados por hora de ingreso
+     * @since 1.1
+     */
+    List<Cliente> buscarEntre(LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Cuenta los clientes atendidos cuya hora de ingreso está en {@code [desde, hasta)}.
+     *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return número de clientes en el rango
+     * @since 1.1
+     */
+    int contarEntre(LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Devuelve los clientes atendidos con el id indicado.
+     *
+     * @param id id numérico ({@link IdCliente})
+     * @return clientes con ese id (normalmente uno o ninguno)
+     * @since 1.1
+     */
+    default List<Cliente> buscarPorId(long id) {
+        return vista().stream().filter(c -> c.getIdNumerico() == id).toList();
+    }
+
+    /**
+     * Devuelve los clientes atendidos de un tipo de solicitud, en orden de atención.
+     *
+     * @param tipo tipo a filtrar
+     * @return clientes del tipo indicado
+     * @since 1.1
+     */
+    default List<Cliente> buscarPorTipo(TipoSolicitud tipo) {
+        return vista().stream().filter(c -> c.getTipoSolicitud() == tipo).toList();
+    }
+
+    /**
+     * Devuelve los clientes atendidos con una prioridad, en orden de atención.
+     *
+     * @param prioridad prioridad a filtrar
+     * @return clientes con la prioridad indicada
+     * @since 1.1
+     */
+    default List<Cliente> buscarPorPrioridad(Prioridad prioridad) {
+        return vista().stream().filter(c -> c.getPrioridad() == prioridad).toList();
+    }
+
+    /**
+     * Devuelve una lista inmutable con el historial en este instante, que no cambia aunque
+     * después se atienda o se deshaga. Debe llamarse sin escrituras en curso (el gestor la
+     * toma con su cerrojo). Por defecto copia el historial; los almacenes que puedan
+     * compartir sus datos la sobrescriben para no copiar.
+     *
+     * @return historial en orden de atención
+     * @since 1.1
+     */
+    default List<Cliente> instantanea() {
+        return List.copyOf(vista());
+    }
+
+    /**
+     * Devuelve una vista de solo lectura del historial en orden de atención.
+     *
+     * @return lista respaldada por el almacén
+     * @since 1.1
+     */
+    default List<Cliente> vista() {
+        return new AbstractList<Cliente>() {
+            @Override
+            public Cliente get(int indice) {
+                return obtener(indice);
+            }
+
+            @Override
+            public int size() {
+                return tamano();
+            }
+        };
+    }
+}
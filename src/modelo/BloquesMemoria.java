@@ -0,0 +1,67 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memoria fuera del heap organizada en bloques de tamaño fijo.
+ *
+ * <p>Cada bloque es un {@link ByteBuffer} directo o, si se indica un archivo, una región
+ * de ese archivo proyectada en memoria. Crecer solo añade bloques, sin copiar los
+ * anteriores. Todos los accesos son absolutos, así que varios hilos pueden leer a la vez.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+final class BloquesMemoria implements Closeable {
+
+    private final int tamBloque;
+    private final FileChannel canal; // null: memoria directa
+    private final List<ByteBuffer> bloques = new ArrayList<>();
+
+    BloquesMemoria(int tamBloque, Path archivo) throws IOException {
+        this.tamBloque = tamBloque;
+        this.canal = archivo == null ? null : FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    int getTamBloque() {
+        return tamBloque;
+    }
+
+    // Devuelve el bloque indicado, reservándolo (y los anteriores) si aún no existe
+    ByteBuffer bloque(int indice) {
+        while (bloques.size() <= indice) {
+            ByteBuffer nuevo;
+            if (canal == null) {
+                nuevo = ByteBuffer.allocateDirect(tamBloque);
+            } else {
+                try {
+                    nuevo = canal.map(FileChannel.MapMode.READ_WRITE, (long) bloques.size() * tamBloque, tamBloque);
+                } catch (IOException e) {
+                    throw new IllegalStateException("No se pudo ampliar el archivo del historial", e);
+                }
+            }
+            bloques.add(nuevo.order(ByteOrder.nativeOrder()));
+        }
+        return bloques.get(indice);
+    }
+
+    // Bloques reservados hasta ahora; los ya existentes no cambian de objeto al crecer
+    ByteBuffer[] fijar() {
+        return bloques.toArray(new ByteBuffer[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        bloques.clear();
+        if (canal != null) canal.close();
+    }
+}
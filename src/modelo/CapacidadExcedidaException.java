@@ -0,0 +1,52 @@
+package modelo;
+
+/**
+ * Se lanza al agregar un cliente a una cola llena cuando la {@link PoliticaAdmision} no
+ * permite admitirlo.
+ *
+ * <p>Extiende {@link IllegalStateException} porque depende del estado del gestor y no del
+ * argumento: el mismo alta puede aceptarse cuando se atienda a alguien.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class CapacidadExcedidaException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Prioridad prioridad;
+    private final int capacidad;
+
+    /**
+     * Crea la excepción para la cola llena indicada.
+     *
+     * @param prioridad prioridad de la cola llena
+     * @param capacidad capacidad de esa cola
+     * @since 1.1
+     */
+    public CapacidadExcedidaException(Prioridad prioridad, int capacidad) {
+        super("La cola de " + prioridad + " está llena (" + capacidad + " clientes)");
+        this.prioridad = prioridad;
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Devuelve la prioridad de la cola llena.
+     *
+     * @return prioridad del cliente rechazado
+     * @since 1.1
+     */
+    public Prioridad getPrioridad() {
+        return prioridad;
+    }
+
+    /**
+     * Devuelve la capacidad de la cola llena.
+     *
+     * @return máximo de clientes de esa prioridad
+     * @since 1.1
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+}
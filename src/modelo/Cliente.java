@@ -9,36 +9,74 @@ import java.time.format.DateTimeFormatter;
  * <p>Contiene información básica como identificador, nombre, tipo de solicitud,
  * prioridad, tiempo de atención (simulado) y la hora de ingreso al sistema.
  *
+ * <p>Para que las colas y el historial ocupen poco, el id se guarda como {@code long}
+ * ({@link IdCliente}, que incluye la prioridad), el tipo como ordinal y las horas como
+ * milisegundos epoch. {@link #getId()} y {@link #getHoraIngreso()} siguen devolviendo
+ * texto y {@link LocalDateTime}, construidos al consultarlos.
+ *
  * @author SebasZ777-Uni
  * @since 1.0
  */
 public class Cliente {
 
-    private String id;
-    private String nombre;
-    private TipoSolicitud tipoSolicitud;
-    private Prioridad prioridad;
+    /** Valor de {@link #getAtencionMs()} mientras el cliente espera. */
+    public static final long SIN_HORA = Long.MIN_VALUE;
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final TipoSolicitud[] TIPOS = TipoSolicitud.values();
+
+    private final long id; // espacio, prioridad y número (IdCliente)
+    private final String nombre;
+    private final byte tipoSolicitud; // ordinal
+    private final long ingresoMs;
+    private long atencionMs = SIN_HORA;
     private double tiempoAtencion; // tiempo simulado
-    private LocalDateTime horaIngreso; // NUEVO
+    private boolean vencido; // superó su umbral de espera (PoliticaEnvejecimiento)
+    RuedaTemporizadores.Temporizador temporizador; // vencimiento pendiente mientras espera
+    // Textos para las tablas, construidos la primera vez que se muestran (no cambian)
+    private String idTexto;
+    private String horaIngresoTexto;
 
     /**
      * Crea un cliente nuevo con la hora de ingreso actual.
      *
-     * @param id identificador único del cliente (ej. "U1" o "N2")
+     * @param id identificador único del cliente (ej. "U1" o "N2"); su letra debe
+     *           coincidir con la prioridad
      * @param nombre nombre del cliente
      * @param tipoSolicitud tipo de solicitud del cliente
      * @param prioridad prioridad asignada al cliente
-     * @param horaIngreso parámetro reservado (se captura la hora actual internamente)
+     * @param horaIngreso hora de ingreso; si es {@code null} se usa la hora actual
+     * @throws IllegalArgumentException si el id no tiene la forma {@code [prefijo]U|N<número>}
      * @since 1.0
      */
     public Cliente(String id, String nombre, TipoSolicitud tipoSolicitud, Prioridad prioridad, LocalDateTime horaIngreso) {
+        this(validarId(id, prioridad), nombre, tipoSolicitud,
+                horaIngreso != null ? IndiceTemporal.aMilis(horaIngreso) : System.currentTimeMillis());
+    }
+
+    /**
+     * Crea un cliente a partir de su id numérico.
+     *
+     * @param id id codificado con {@link IdCliente#codificar}
+     * @param nombre nombre del cliente
+     * @param tipoSolicitud tipo de solicitud del cliente
+     * @param ingresoMs hora de ingreso en milisegundos epoch
+     * @since 1.1
+     */
+    public Cliente(long id, String nombre, TipoSolicitud tipoSolicitud, long ingresoMs) {
         this.id = id;
         this.nombre = nombre;
-        this.tipoSolicitud = tipoSolicitud;
-        this.prioridad = prioridad;
-        this.tiempoAtencion = 0;
-        // utilizar la hora de ingreso proporcionada por el llamador
-        this.horaIngreso = horaIngreso != null ? horaIngreso : LocalDateTime.now();
+        this.tipoSolicitud = (byte) tipoSolicitud.ordinal();
+        this.ingresoMs = ingresoMs;
+    }
+
+    private static long validarId(String id, Prioridad prioridad) {
+        long numerico = IdCliente.parsear(id, true);
+        if (numerico < 0 || IdCliente.prioridad(numerico) != prioridad) {
+            throw new IllegalArgumentException("Id de cliente no válido para " + prioridad + ": " + id);
+        }
+        return numerico;
     }
 
     // Getters y Setters
@@ -47,7 +85,22 @@ public class Cliente {
      *
      * @return id del cliente
      */
-    public String getId() { return id; }
+    public String getId() {
+        String texto = idTexto;
+        if (texto == null) {
+            texto = IdCliente.aTexto(id);
+            idTexto = texto;
+        }
+        return texto;
+    }
+
+    /**
+     * Devuelve el identificador codificado del cliente.
+     *
+     * @return id numérico ({@link IdCliente})
+     * @since 1.1
+     */
+    public long getIdNumerico() { return id; }
 
     /**
      * Devuelve el nombre del cliente.
@@ -61,14 +114,14 @@ public class Cliente {
      *
      * @return tipo de solicitud ({@link TipoSolicitud})
      */
-    public TipoSolicitud getTipoSolicitud() { return tipoSolicitud; }
+    public TipoSolicitud getTipoSolicitud() { return TIPOS[tipoSolicitud]; }
 
     /**
      * Devuelve la prioridad del cliente.
      *
      * @return prioridad ({@link Prioridad})
      */
-    public Prioridad getPrioridad() { return prioridad; }
+    public Prioridad getPrioridad() { return IdCliente.prioridad(id); }
 
     /**
      * Devuelve el tiempo de atención simulado (en minutos).
@@ -84,23 +137,103 @@ public class Cliente {
      */
     public void setTiempoAtencion(double tiempoAtencion) { this.tiempoAtencion = tiempoAtencion; }
 
+    /**
+     * Indica si el cliente superó el umbral de espera de su tipo de solicitud.
+     *
+     * @return {@code true} si su espera venció según la {@link PoliticaEnvejecimiento}
+     * @since 1.1
+     */
+    public boolean isVencido() { return vencido; }
+
+    void setVencido(boolean vencido) { this.vencido = vencido; }
+
     /**
      * Devuelve la hora de ingreso del cliente al sistema.
      *
      * @return {@link LocalDateTime} de ingreso
      */
-    public LocalDateTime getHoraIngreso() { return horaIngreso; } // NUEVO
+    public LocalDateTime getHoraIngreso() { return IndiceTemporal.aFecha(ingresoMs); }
+
+    /**
+     * Devuelve la hora de ingreso en milisegundos epoch, sin crear objetos.
+     *
+     * @return instante de ingreso
+     * @since 1.1
+     */
+    public long getIngresoMs() { return ingresoMs; }
+
+    /**
+     * Devuelve la hora de ingreso formateada como {@code HH:mm:ss} para las tablas.
+     *
+     * @return hora de ingreso en texto
+     * @since 1.1
+     */
+    public String getHoraIngresoTexto() {
+        String texto = horaIngresoTexto;
+        if (texto == null) {
+            texto = getHoraIngreso().format(FORMATO_HORA);
+            horaIngresoTexto = texto;
+        }
+        return texto;
+    }
+
+    /**
+     * Devuelve la hora en que el cliente fue atendido.
+     *
+     * @return {@link LocalDateTime} de atención o {@code null} si sigue en espera
+     * @since 1.1
+     */
+    public LocalDateTime getHoraAtencion() {
+        return atencionMs == SIN_HORA ? null : IndiceTemporal.aFecha(atencionMs);
+    }
+
+    /**
+     * Devuelve la hora de atención en milisegundos epoch.
+     *
+     * @return instante de atención o {@link #SIN_HORA} si sigue en espera
+     * @since 1.1
+     */
+    public long getAtencionMs() { return atencionMs; }
+
+    /**
+     * Establece la hora de atención; {@code null} devuelve el cliente al estado de espera.
+     *
+     * @param horaAtencion hora en que se atendió
+     * @since 1.1
+     */
+    public void setHoraAtencion(LocalDateTime horaAtencion) {
+        this.atencionMs = horaAtencion == null ? SIN_HORA : IndiceTemporal.aMilis(horaAtencion);
+    }
+
+    /**
+     * Establece la hora de atención en milisegundos epoch.
+     *
+     * @param atencionMs instante de atención o {@link #SIN_HORA} para volver a espera
+     * @since 1.1
+     */
+    public void setAtencionMs(long atencionMs) { this.atencionMs = atencionMs; }
+
+    /**
+     * Devuelve el tiempo que el cliente esperó en cola (en minutos). Si aún no ha sido
+     * atendido, devuelve lo que lleva esperando hasta ahora.
+     *
+     * @return tiempo de espera en minutos
+     * @since 1.1
+     */
+    public double getTiempoEspera() {
+        long fin = atencionMs != SIN_HORA ? atencionMs : System.currentTimeMillis();
+        return (fin - ingresoMs) / 60_000.0;
+    }
 
     @Override
     public String toString() {
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         return "Cliente{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", nombre='" + nombre + '\'' +
-                ", tipoSolicitud=" + tipoSolicitud +
-                ", prioridad=" + prioridad +
+                ", tipoSolicitud=" + getTipoSolicitud() +
+                ", prioridad=" + getPrioridad() +
                 ", tiempoAtencion=" + String.format("%.2f", tiempoAtencion) +
-                ", horaIngreso=" + horaIngreso.format(formato) +
+                ", horaIngreso=" + getHoraIngreso().format(FORMATO) +
                 '}';
     }
 }
@@ -0,0 +1,253 @@
+package modelo;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Cola FIFO de clientes implementada como lista doblemente enlazada con centinela.
+ *
+ * <p>Además de las operaciones de {@link java.util.Queue}, permite desenlazar un nodo
+ * conservando sus enlaces y volver a enlazarlo en O(1) en la misma posición. El motor de
+ * deshacer/rehacer de {@link GestionAtencion} usa esta propiedad: como las operaciones se
+ * revierten en orden inverso, los vecinos de un nodo retirado vuelven a estar contiguos
+ * cuando se restaura.
+ *
+ * <p>{@link #instantanea()} devuelve la cola como {@link ColaPersistente}. La versión
+ * persistente no se mantiene en cada cambio, para que enlazar y desenlazar sigan siendo
+ * O(1) y sin reservar memoria: la cola anota en arreglos los cambios por los extremos
+ * desde la última instantánea y los aplica al pedirse la siguiente, compartiendo la
+ * estructura con ella. Si hubo cambios en medio o más cambios que clientes, la versión se
+ * reconstruye recorriendo la cola.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class ColaEnlazada extends AbstractQueue<Cliente> {
+
+    static final class Nodo {
+        final Cliente cliente;
+        Nodo anterior;
+        Nodo siguiente;
+
+        Nodo(Cliente cliente) {
+            this.cliente = cliente;
+        }
+    }
+
+    // Cambios anotados para la versión persistente
+    private static final byte AL_FINAL = 0;
+    private static final byte AL_FRENTE = 1;
+    private static final byte SIN_PRIMERO = 2;
+    private static final byte SIN_ULTIMO = 3;
+    private static final int HOLGURA_CAMBIOS = 32;
+
+    private final Nodo centinela;
+    private int tamano;
+
+    // Versión persistente: la base se actualiza al pedir una instantánea; vigente es la base
+    // si no hubo cambios después, o null. Las instantáneas la construyen con el cerrojo de
+    // lectura del gestor, y las lecturas optimistas solo leen vigente.
+    private ColaPersistente base = ColaPersistente.vacia();
+    private volatile ColaPersistente vigente = base;
+    private byte[] cambios = new byte[16];
+    private Cliente[] afectados = new Cliente[16];
+    private int pendientes;
+    private boolean reconstruir; // hubo cambios que no se pueden anotar
+
+    /**
+     * Crea una cola vacía.
+     *
+     * @since 1.1
+     */
+    public ColaEnlazada() {
+        centinela = new Nodo(null);
+        centinela.anterior = centinela;
+        centinela.siguiente = centinela;
+    }
+
+    @Override
+    public boolean offer(Cliente cliente) {
+        reenlazar(nodoAlFinal(cliente));
+        return true;
+    }
+
+    /**
+     * Inserta un cliente al frente de la cola.
+     *
+     * @param cliente cliente a insertar
+     * @since 1.1
+     */
+    public void addFirst(Cliente cliente) {
+        Nodo n = new Nodo(cliente);
+        n.anterior = centinela;
+        n.siguiente = centinela.siguiente;
+        reenlazar(n);
+    }
+
+    @Override
+    public Cliente poll() {
+        if (tamano == 0) return null;
+        Nodo n = centinela.siguiente;
+        desenlazar(n);
+        return n.cliente;
+    }
+
+    @Override
+    public Cliente peek() {
+        return tamano == 0 ? null : centinela.siguiente.cliente;
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    @Override
+    public Iterator<Cliente> iterator() {
+        return new Iterator<>() {
+            private Nodo actual = centinela.siguiente;
+            private Nodo ultimo;
+
+            @Override
+            public boolean hasNext() {
+                return actual != centinela;
+            }
+
+            @Override
+            public Cliente next() {
+                if (actual == centinela) throw new NoSuchElementException();
+                ultimo = actual;
+                actual = actual.siguiente;
+                return ultimo.cliente;
+            }
+
+            @Override
+            public void remove() {
+                if (ultimo == null) throw new IllegalStateException();
+                desenlazar(ultimo);
+                ultimo = null;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la versión actual de la cola, que ya no cambia aunque la cola siga
+     * modificándose. Solo recorre los cambios hechos desde la instantánea anterior; no debe
+     * llamarse mientras otro hilo modifica la cola.
+     *
+     * @return lista inmutable en orden de atención
+     * @since 1.1
+     */
+    public synchronized ColaPersistente instantanea() {
+        ColaPersistente v = vigente;
+        if (v != null) return v;
+        if (reconstruir) {
+            v = ColaPersistente.de(toArray(new Cliente[0]));
+        } else {
+            v = base;
+            for (int i = 0; i < pendientes; i++) {
+                switch (cambios[i]) {
+                    case AL_FINAL: v = v.conFinal(afectados[i]); break;
+                    case AL_FRENTE: v = v.conFrente(afectados[i]); break;
+                    case SIN_PRIMERO: v = v.sinPrimero(); break;
+                    default: v = v.sinUltimo(); break;
+                }
+            }
+        }
+        Arrays.fill(afectados, 0, pendientes, null);
+        pendientes = 0;
+        reconstruir = false;
+        base = v;
+        vigente = v;
+        return v;
+    }
+
+    // Versión actual si ya está construida, o null; apta para lecturas optimistas
+    ColaPersistente instantaneaVigente() {
+        return vigente;
+    }
+
+    // Nodo preparado para enlazarse al final, todavía sin enlazar
+    Nodo nodoAlFinal(Cliente cliente) {
+        Nodo n = new Nodo(cliente);
+        n.anterior = centinela.anterior;
+        n.siguiente = centinela;
+        return n;
+    }
+
+    Nodo primero() {
+        return tamano == 0 ? null : centinela.siguiente;
+    }
+
+    Nodo buscar(Predicate<Cliente> criterio) {
+        for (Nodo n = centinela.siguiente; n != centinela; n = n.siguiente) {
+            if (criterio.test(n.cliente)) return n;
+        }
+        return null;
+    }
+
+    // Quita el nodo de la cola conservando sus enlaces para poder restaurarlo
+    void desenlazar(Nodo n) {
+        if (n.anterior == centinela) anotar(SIN_PRIMERO, null);
+        else if (n.siguiente == centinela) anotar(SIN_ULTIMO, null);
+        else descartarVersion();
+        n.anterior.siguiente = n.siguiente;
+        n.siguiente.anterior = n.anterior;
+        tamano--;
+    }
+
+    // Quita los k primeros nodos de una vez, dejando en cada uno los enlaces que tendría si
+    // se hubieran desenlazado de uno en uno (anterior = centinela), para poder restaurarlos
+    // en orden inverso con reenlazar
+    void desenlazarPrimeros(int k) {
+        Nodo n = centinela.siguiente;
+        for (int i = 0; i < k; i++) {
+            n.anterior = centinela;
+            n = n.siguiente;
+        }
+        centinela.siguiente = n;
+        n.anterior = centinela;
+        tamano -= k;
+        for (int i = 0; i < k; i++) {
+            anotar(SIN_PRIMERO, null);
+        }
+    }
+
+    // Vuelve a insertar el nodo entre sus vecinos originales
+    void reenlazar(Nodo n) {
+        if (n.anterior == centinela) anotar(AL_FRENTE, n.cliente);
+        else if (n.siguiente == centinela) anotar(AL_FINAL, n.cliente);
+        else descartarVersion();
+        n.anterior.siguiente = n;
+        n.siguiente.anterior = n;
+        tamano++;
+    }
+
+    // Anota un cambio por un extremo; si ya hay más cambios que clientes, reconstruir
+    // saldrá más barato que aplicarlos
+    private void anotar(byte cambio, Cliente cliente) {
+        if (vigente != null) vigente = null;
+        if (reconstruir) return;
+        if (pendientes > tamano + HOLGURA_CAMBIOS) {
+            descartarVersion();
+            return;
+        }
+        if (pendientes == cambios.length) {
+            cambios = Arrays.copyOf(cambios, pendientes * 2);
+            afectados = Arrays.copyOf(afectados, pendientes * 2);
+        }
+        cambios[pendientes] = cambio;
+        afectados[pendientes++] = cliente;
+    }
+
+    private void descartarVersion() {
+        if (vigente != null) vigente = null;
+        if (reconstruir) return;
+        Arrays.fill(afectados, 0, pendientes, null);
+        pendientes = 0;
+        reconstruir = true;
+    }
+}
@@ -0,0 +1,309 @@
+package modelo;
+
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Cola doble inmutable de clientes con estructura compartida entre versiones.
+ *
+ * <p>Cada operación devuelve una versión nueva y deja intacta la anterior, que sigue
+ * siendo válida para quien la tenga. La cola se guarda como dos listas simplemente
+ * enlazadas de celdas inmutables: el frente en orden de atención y el fondo al revés (el
+ * último cliente primero). Agregar por cualquiera de los extremos crea una sola celda y
+ * comparte el resto; quitar por un extremo no crea celdas salvo cuando ese lado se vacía,
+ * y entonces se reparte la otra lista por la mitad, lo que deja el coste amortizado en
+ * O(1). Quitar o insertar en medio copia solo las celdas anteriores a la posición.
+ *
+ * <p>Así, guardar una versión cuesta O(1) y muchas versiones pueden convivir ocupando
+ * memoria proporcional a los cambios entre ellas, no a su tamaño. Es segura para leerla
+ * desde cualquier hilo una vez publicada.
+ *
+ * <p>Es una lista de acceso secuencial: {@link #get(int)} recorre celdas, así que debe
+ * leerse con su iterador y no con un bucle por índice.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class ColaPersistente extends AbstractSequentialList<Cliente> {
+
+    private static final ColaPersistente VACIA = new ColaPersistente(null, 0, null, 0);
+
+    private static final class Celda {
+        final Cliente cliente;
+        final Celda siguiente;
+
+        Celda(Cliente cliente, Celda siguiente) {
+            this.cliente = cliente;
+            this.siguiente = siguiente;
+        }
+    }
+
+    private final Celda frente; // en orden de atención
+    private final int tamFrente;
+    private final Celda fondo; // en orden inverso: el último cliente primero
+    private final int tamFondo;
+
+    private ColaPersistente(Celda frente, int tamFrente, Celda fondo, int tamFondo) {
+        this.frente = frente;
+        this.tamFrente = tamFrente;
+        this.fondo = fondo;
+        this.tamFondo = tamFondo;
+    }
+
+    /**
+     * Devuelve la cola vacía.
+     *
+     * @return cola sin clientes
+     * @since 1.1
+     */
+    public static ColaPersistente vacia() {
+        return VACIA;
+    }
+
+    // Cola con los clientes indicados, en ese orden, todos en el frente
+    static ColaPersistente de(Cliente[] clientes) {
+        Celda frente = null;
+        for (int i = clientes.length - 1; i >= 0; i--) {
+            frente = new Celda(clientes[i], frente);
+        }
+        return clientes.length == 0 ? VACIA : new ColaPersistente(frente, clientes.length, null, 0);
+    }
+
+    // ------------------------------------------------------------
+    // Versiones nuevas
+    // ------------------------------------------------------------
+    /**
+     * Devuelve una versión con el cliente agregado al final.
+     *
+     * @param cliente cliente a agregar
+     * @return versión nueva
+     * @since 1.1
+     */
+    public ColaPersistente conFinal(Cliente cliente) {
+        return new ColaPersistente(frente, tamFrente, new Celda(cliente, fondo), tamFondo + 1);
+    }
+
+    /**
+     * Devuelve una versión con el cliente agregado al frente.
+     *
+     * @param cliente cliente a agregar
+     * @return versión nueva
+     * @since 1.1
+     */
+    public ColaPersistente conFrente(Cliente cliente) {
+        return new ColaPersistente(new Celda(cliente, frente), tamFrente + 1, fondo, tamFondo);
+    }
+
+    /**
+     * Devuelve una versión sin el primer cliente.
+     *
+     * @return versión nueva
+     * @throws IllegalStateException si la cola está vacía
+     * @since 1.1
+     */
+    public ColaPersistente sinPrimero() {
+        return sinPrimeros(1);
+    }
+
+    /**
+     * Devuelve una versión sin los {@code k} primeros clientes.
+     *
+     * @param k clientes a quitar
+     * @return versión nueva
+     * @throws IllegalStateException si la cola tiene menos de {@code k} clientes
+     * @since 1.1
+     */
+    public ColaPersistente sinPrimeros(int k) {
+        if (k > size()) {
+            throw new IllegalStateException("La cola tiene menos de " + k + " clientes");
+        }
+        if (k == 0) return this;
+        if (tamFrente == 0) {
+            return repartirFondo().sinPrimeros(k);
+        }
+        if (k <= tamFrente) {
+            return new ColaPersistente(saltar(frente, k), tamFrente - k, fondo, tamFondo);
+        }
+        // Se va el frente entero y los más antiguos del fondo, que están al final de su lista
+        int quedan = tamFondo - (k - tamFrente);
+        return new ColaPersistente(null, 0, copiarPrimeras(fondo, quedan, null), quedan);
+    }
+
+    /**
+     * Devuelve una versión sin el último cliente.
+     *
+     * @return versión nueva
+     * @throws IllegalStateException si la cola está vacía
+     * @since 1.1
+     */
+    public ColaPersistente sinUltimo() {
+        if (isEmpty()) {
+            throw new IllegalStateException("La cola está vacía");
+        }
+        if (tamFondo == 0) {
+            return repartirFrente().sinUltimo();
+        }
+        return new ColaPersistente(frente, tamFrente, fondo.siguiente, tamFondo - 1);
+    }
+
+    /**
+     * Devuelve una versión sin el cliente indicado (comparado por identidad).
+     *
+     * @param cliente cliente a quitar
+     * @return versión nueva, o esta misma si el cliente no está
+     * @since 1.1
+     */
+    public ColaPersistente sin(Cliente cliente) {
+        int i = posicion(frente, cliente);
+        if (i >= 0) {
+            return new ColaPersistente(sinCelda(frente, i), tamFrente - 1, fondo, tamFondo);
+        }
+        i = posicion(fondo, cliente);
+        if (i >= 0) {
+            return new ColaPersistente(frente, tamFrente, sinCelda(fondo, i), tamFondo - 1);
+        }
+        return this;
+    }
+
+    /**
+     * Devuelve una versión con el cliente insertado justo delante de otro que ya está.
+     *
+     * @param cliente cliente a insertar
+     * @param siguiente cliente que quedará detrás (comparado por identidad)
+     * @return versión nueva
+     * @throws IllegalArgumentException si {@code siguiente} no está en la cola
+     * @since 1.1
+     */
+    public ColaPersistente conAntesDe(Cliente cliente, Cliente siguiente) {
+        int i = posicion(frente, siguiente);
+        if (i >= 0) {
+            Celda resto = saltar(frente, i);
+            return new ColaPersistente(copiarPrimeras(frente, i, new Celda(cliente, resto)),
+                    tamFrente + 1, fondo, tamFondo);
+        }
+        i = posicion(fondo, siguiente);
+        if (i >= 0) {
+            // En el fondo el orden está invertido: "delante" es la celda que le sigue
+            Celda resto = saltar(fondo, i + 1);
+            return new ColaPersistente(frente, tamFrente,
+                    copiarPrimeras(fondo, i + 1, new Celda(cliente, resto)), tamFondo + 1);
+        }
+        throw new IllegalArgumentException("El cliente de referencia no está en la cola");
+    }
+
+    // ------------------------------------------------------------
+    // Lectura
+    // ------------------------------------------------------------
+    @Override
+    public Cliente get(int indice) {
+        if (indice < 0 || indice >= size()) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera de 0.." + (size() - 1));
+        }
+        return indice < tamFrente
+                ? saltar(frente, indice).cliente
+                : saltar(fondo, size() - 1 - indice).cliente;
+    }
+
+    @Override
+    public int size() {
+        return tamFrente + tamFondo;
+    }
+
+    @Override
+    public ListIterator<Cliente> listIterator(int indice) {
+        return Collections.unmodifiableList(Arrays.asList(toArray(new Cliente[0]))).listIterator(indice);
+    }
+
+    @Override
+    public Iterator<Cliente> iterator() {
+        return new Iterator<>() {
+            private Celda actual = frente;
+            private Cliente[] invertido; // el fondo en orden, al terminar el frente
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return actual != null || (invertido == null ? tamFondo > 0 : i < invertido.length);
+            }
+
+            @Override
+            public Cliente next() {
+                if (actual != null) {
+                    Cliente c = actual.cliente;
+                    actual = actual.siguiente;
+                    return c;
+                }
+                if (invertido == null) {
+                    invertido = new Cliente[tamFondo];
+                    int j = tamFondo;
+                    for (Celda c = fondo; c != null; c = c.siguiente) {
+                        invertido[--j] = c.cliente;
+                    }
+                }
+                if (i >= invertido.length) throw new NoSuchElementException();
+                return invertido[i++];
+            }
+        };
+    }
+
+    // ------------------------------------------------------------
+    // Auxiliares sobre listas de celdas
+    // ------------------------------------------------------------
+    // Frente vacío: la mitad más antigua del fondo pasa, en orden, al frente
+    private ColaPersistente repartirFondo() {
+        int queda = tamFondo / 2;
+        int pasa = tamFondo - queda;
+        return new ColaPersistente(invertir(saltar(fondo, queda), null), pasa,
+                copiarPrimeras(fondo, queda, null), queda);
+    }
+
+    // Fondo vacío: la mitad más reciente del frente pasa, invertida, al fondo
+    private ColaPersistente repartirFrente() {
+        int queda = tamFrente / 2;
+        int pasa = tamFrente - queda;
+        return new ColaPersistente(copiarPrimeras(frente, queda, null), queda,
+                invertir(saltar(frente, queda), null), pasa);
+    }
+
+    private static Celda saltar(Celda c, int k) {
+        for (int i = 0; i < k; i++) {
+            c = c.siguiente;
+        }
+        return c;
+    }
+
+    // Copia las k primeras celdas y engancha la última copia a resto
+    private static Celda copiarPrimeras(Celda c, int k, Celda resto) {
+        if (k == 0) return resto;
+        Celda[] copia = new Celda[k];
+        for (int i = 0; i < k; i++, c = c.siguiente) {
+            copia[i] = c;
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            resto = new Celda(copia[i].cliente, resto);
+        }
+        return resto;
+    }
+
+    private static Celda invertir(Celda c, Celda resto) {
+        for (; c != null; c = c.siguiente) {
+            resto = new Celda(c.cliente, resto);
+        }
+        return resto;
+    }
+
+    private static Celda sinCelda(Celda c, int i) {
+        return copiarPrimeras(c, i, saltar(c, i + 1));
+    }
+
+    private static int posicion(Celda c, Cliente cliente) {
+        for (int i = 0; c != null; c = c.siguiente, i++) {
+            if (c.cliente == cliente) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,55 @@
+package modelo;
+
+/**
+ * Operación registrada en el motor de deshacer/rehacer de {@link GestionAtencion}.
+ *
+ * <p>Guarda exactamente lo necesario para invertirse y volver a aplicarse en O(1): el nodo
+ * de cola (con sus vecinos originales), la cola de origen, el ciclo prioritario antes y
+ * después de la operación y, para las atenciones, la hora y el tiempo de atención. Las
+ * escalaciones y readmisiones guardan además el nodo que ocupa el cliente en la cola de
+ * destino. La {@link Accion} solo se crea si alguien la pide al deshacer o rehacer.
+ *
+ * <p>El gestor reutiliza los comandos que olvida su registro de deshacer, así que los
+ * campos se asignan con {@link #preparar} en lugar de en el constructor.
+ */
+final class Comando {
+
+    TipoAccion tipo;
+    long registradoMs; // instante en que se creó la operación
+    ColaEnlazada cola;
+    ColaEnlazada.Nodo nodo;
+    int cicloAntes;
+    int cicloDespues;
+    long atencionMs;
+    double tiempoAtencion;
+    ColaEnlazada colaDestino; // ESCALAR y READMITIR: cola y nodo a los que pasa el cliente
+    ColaEnlazada.Nodo nodoDestino;
+
+    Comando(TipoAccion tipo, ColaEnlazada cola, ColaEnlazada.Nodo nodo, int cicloAntes, long registradoMs) {
+        preparar(tipo, cola, nodo, cicloAntes, registradoMs);
+    }
+
+    // Deja el comando como recién creado para una operación nueva
+    Comando preparar(TipoAccion tipo, ColaEnlazada cola, ColaEnlazada.Nodo nodo, int cicloAntes,
+                     long registradoMs) {
+        this.tipo = tipo;
+        this.registradoMs = registradoMs;
+        this.cola = cola;
+        this.nodo = nodo;
+        this.cicloAntes = cicloAntes;
+        this.cicloDespues = cicloAntes;
+        this.atencionMs = Cliente.SIN_HORA;
+        this.tiempoAtencion = 0;
+        this.colaDestino = null;
+        this.nodoDestino = null;
+        return this;
+    }
+
+    Cliente cliente() {
+        return nodo.cliente;
+    }
+
+    Accion accion() {
+        return new Accion(tipo, nodo.cliente, registradoMs);
+    }
+}
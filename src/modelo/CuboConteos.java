@@ -0,0 +1,140 @@
+package modelo;
+
+/**
+ * Conteos cruzados tipo × prioridad × estado de los clientes de un {@link GestionAtencion},
+ * mantenidos al aplicar y revertir cada operación.
+ *
+ * <p>Los contadores viven en un arreglo de {@code int} indexado por los ordinales de los
+ * enumerados, así que cualquier celda o total marginal se lee en tiempo constante sin
+ * recorrer colas ni historial. Lo leen a la vez las etiquetas y los gráficos de
+ * estadísticas, que así siempre muestran las mismas cifras. Solo el gestor lo modifica.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class CuboConteos {
+
+    /**
+     * Estado de un cliente a efectos de conteo.
+     *
+     * @since 1.1
+     */
+    public enum Estado {
+        /** En la cola de urgentes o de normales (no cuenta el desborde). */
+        EN_ESPERA,
+        /** En el historial de atendidos. */
+        ATENDIDO
+    }
+
+    private static final int NUM_PRIORIDADES = Prioridad.values().length;
+    private static final int NUM_ESTADOS = Estado.values().length;
+
+    private final int[] celdas = new int[TipoSolicitud.values().length * NUM_PRIORIDADES * NUM_ESTADOS];
+
+    CuboConteos() {
+    }
+
+    // Copia para las estadísticas que se leen desde otros hilos
+    CuboConteos copia() {
+        CuboConteos c = new CuboConteos();
+        System.arraycopy(celdas, 0, c.celdas, 0, celdas.length);
+        return c;
+    }
+
+    /**
+     * Devuelve los clientes de una celda del cubo.
+     *
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad
+     * @param estado estado
+     * @return número de clientes
+     * @since 1.1
+     */
+    public int contar(TipoSolicitud tipo, Prioridad prioridad, Estado estado) {
+        return celdas[indice(tipo, prioridad, estado)];
+    }
+
+    /**
+     * Devuelve los clientes de un tipo de solicitud en cualquier prioridad y estado.
+     *
+     * @param tipo tipo de solicitud
+     * @return número de clientes
+     * @since 1.1
+     */
+    public int contar(TipoSolicitud tipo) {
+        int total = 0;
+        int base = tipo.ordinal() * NUM_PRIORIDADES * NUM_ESTADOS;
+        for (int i = 0; i < NUM_PRIORIDADES * NUM_ESTADOS; i++) {
+            total += celdas[base + i];
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve los clientes de una prioridad en cualquier tipo y estado.
+     *
+     * @param prioridad prioridad
+     * @return número de clientes
+     * @since 1.1
+     */
+    public int contar(Prioridad prioridad) {
+        int total = 0;
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            for (Estado e : Estado.values()) {
+                total += celdas[indice(t, prioridad, e)];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve los clientes en un estado, de cualquier tipo y prioridad.
+     *
+     * @param estado estado
+     * @return número de clientes
+     * @since 1.1
+     */
+    public int contar(Estado estado) {
+        int total = 0;
+        for (int i = estado.ordinal(); i < celdas.length; i += NUM_ESTADOS) {
+            total += celdas[i];
+        }
+        return total;
+    }
+
+    // Cuenta al cliente en el estado indicado
+    void sumar(Cliente c, Estado estado) {
+        celdas[indice(c.getTipoSolicitud(), c.getPrioridad(), estado)]++;
+    }
+
+    // Deja de contar al cliente en el estado indicado
+    void restar(Cliente c, Estado estado) {
+        celdas[indice(c.getTipoSolicitud(), c.getPrioridad(), estado)]--;
+    }
+
+    // Pasa al cliente de un estado a otro
+    void mover(Cliente c, Estado desde, Estado hasta) {
+        int base = indice(c.getTipoSolicitud(), c.getPrioridad(), desde) - desde.ordinal();
+        celdas[base + desde.ordinal()]--;
+        celdas[base + hasta.ordinal()]++;
+    }
+
+    private static int indice(TipoSolicitud tipo, Prioridad prioridad, Estado estado) {
+        return (tipo.ordinal() * NUM_PRIORIDADES + prioridad.ordinal()) * NUM_ESTADOS + estado.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            for (Prioridad p : Prioridad.values()) {
+                sb.append(t).append('/').append(p).append('=');
+                for (Estado e : Estado.values()) {
+                    sb.append(e == Estado.EN_ESPERA ? "" : ",").append(contar(t, p, e));
+                }
+                sb.append(' ');
+            }
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,234 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Despachador con enrutamiento por habilidades: cada tipo de solicitud lo atienden los
+ * {@link GrupoAgentes} que lo declaran entre sus habilidades.
+ *
+ * <p>Al agregar un cliente se encola en la subcola (tipo, prioridad) del grupo capacitado
+ * con menos pendientes. Al pedir trabajo, un grupo elige en O(1) con máscaras de bits:
+ * aplica su ciclo 2 urgentes → 1 normal sobre las subcolas no vacías que sabe atender y
+ * rota entre tipos de la misma prioridad. Si no tiene nada, roba el primer cliente
+ * compatible de otro grupo (urgentes primero), probando primero sin esperar cerrojos
+ * ocupados. Cada grupo tiene su propio cerrojo, así que el rendimiento crece con el
+ * número de equipos. Es seguro para varios hilos.
+ *
+ * <p>Es un motor independiente de {@link GestionAtencion}, pensado para mesas con equipos
+ * especializados que lo usan en lugar del gestor: no guarda historial ni registro de
+ * deshacer, y quien atiende recibe el cliente con su hora de atención ya asignada. No se
+ * conecta a {@code atenderCliente} ni a {@code atenderLote} porque el deshacer, la
+ * replicación y la tubería del gestor dependen de sus dos colas globales y del orden total
+ * de sus operaciones, que las subcolas por grupo y el robo entre grupos no conservan.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class DespachadorHabilidades {
+
+    private static final int NUM_TIPOS = TipoSolicitud.values().length;
+    /** Número de subcolas por grupo: una por cada combinación de tipo y prioridad. */
+    public static final int SUBCOLAS = NUM_TIPOS * Prioridad.values().length;
+
+    // Las subcolas urgentes ocupan los bits altos y las normales los bajos
+    private static final int MASCARA_NORMALES = (1 << NUM_TIPOS) - 1;
+    private static final int MASCARA_URGENTES = MASCARA_NORMALES << NUM_TIPOS;
+
+    private final int espacioIds;
+    private final AtomicLong contadorUrgentes = new AtomicLong(1);
+    private final AtomicLong contadorNormales = new AtomicLong(1);
+    private volatile GrupoAgentes[] grupos = new GrupoAgentes[0];
+    private volatile GrupoAgentes[][] porTipo = new GrupoAgentes[NUM_TIPOS][0]; // grupos capacitados
+
+    /**
+     * Crea un despachador sin grupos cuyos ids llevan el espacio indicado como prefijo.
+     *
+     * @param espacioId espacio de identificadores; vacío para no usar prefijo
+     * @since 1.1
+     */
+    public DespachadorHabilidades(String espacioId) {
+        espacioIds = IdCliente.registrarEspacio(espacioId == null || espacioId.isEmpty() ? "" : espacioId + "-");
+    }
+
+    /**
+     * Da de alta un grupo de agentes con sus habilidades.
+     *
+     * @param nombre nombre del grupo
+     * @param habilidades tipos de solicitud que atiende (al menos uno)
+     * @return el grupo creado, que se pasa a {@link #siguiente(GrupoAgentes)}
+     * @throws IllegalArgumentException si no declara habilidades
+     * @since 1.1
+     */
+    public synchronized GrupoAgentes agregarGrupo(String nombre, Set<TipoSolicitud> habilidades) {
+        GrupoAgentes g = new GrupoAgentes(nombre, habilidades, grupos.length);
+        GrupoAgentes[] nuevos = Arrays.copyOf(grupos, grupos.length + 1);
+        nuevos[g.indice] = g;
+        GrupoAgentes[][] nuevosPorTipo = new GrupoAgentes[NUM_TIPOS][];
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            GrupoAgentes[] actuales = porTipo[t.ordinal()];
+            nuevosPorTipo[t.ordinal()] = g.getHabilidades().contains(t)
+                    ? anexar(actuales, g) : actuales;
+        }
+        porTipo = nuevosPorTipo;
+        grupos = nuevos;
+        return g;
+    }
+
+    /**
+     * Crea un cliente y lo encola en el grupo capacitado con menos clientes pendientes.
+     *
+     * @param nombre nombre del cliente
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad del cliente
+     * @return el cliente creado con su id
+     * @throws IllegalStateException si ningún grupo atiende ese tipo de solicitud
+     * @since 1.1
+     */
+    public Cliente agregarCliente(String nombre, TipoSolicitud tipo, Prioridad prioridad) {
+        GrupoAgentes[] capacitados = porTipo[tipo.ordinal()];
+        if (capacitados.length == 0) {
+            throw new IllegalStateException("Ningún grupo atiende solicitudes de " + tipo);
+        }
+        GrupoAgentes destino = capacitados[0];
+        for (int i = 1; i < capacitados.length; i++) {
+            if (capacitados[i].pendientes.get() < destino.pendientes.get()) destino = capacitados[i];
+        }
+
+        long numero = prioridad == Prioridad.URGENTE
+                ? contadorUrgentes.getAndIncrement() : contadorNormales.getAndIncrement();
+        Cliente c = new Cliente(IdCliente.codificar(espacioIds, prioridad, numero), nombre, tipo,
+                System.currentTimeMillis());
+        destino.cerrojo.lock();
+        try {
+            destino.encolar(c, subcola(tipo, prioridad));
+        } finally {
+            destino.cerrojo.unlock();
+        }
+        return c;
+    }
+
+    /**
+     * Entrega al grupo su siguiente cliente: de sus propias subcolas según su ciclo
+     * 2 urgentes → 1 normal o, si están vacías, robado de otro grupo con trabajo compatible.
+     *
+     * @param grupo grupo que pide trabajo
+     * @return cliente a atender, con su hora de atención asignada, o {@code null} si no hay
+     *         ningún cliente que el grupo pueda atender
+     * @since 1.1
+     */
+    public Cliente siguiente(GrupoAgentes grupo) {
+        Cliente c;
+        grupo.cerrojo.lock();
+        try {
+            c = tomarPropio(grupo);
+        } finally {
+            grupo.cerrojo.unlock();
+        }
+        if (c == null) {
+            c = robar(grupo);
+            if (c != null) grupo.robados.increment();
+        }
+        if (c != null) {
+            c.setAtencionMs(System.currentTimeMillis());
+            grupo.atendidos.increment();
+        }
+        return c;
+    }
+
+    /**
+     * Devuelve los grupos dados de alta.
+     *
+     * @return grupos en orden de alta
+     * @since 1.1
+     */
+    public List<GrupoAgentes> getGrupos() {
+        return List.of(grupos);
+    }
+
+    /**
+     * Devuelve el total de clientes en espera entre todos los grupos.
+     *
+     * @return clientes pendientes
+     * @since 1.1
+     */
+    public int getPendientes() {
+        int total = 0;
+        for (GrupoAgentes g : grupos) {
+            total += g.pendientes.get();
+        }
+        return total;
+    }
+
+    // Elige con el ciclo del grupo entre sus subcolas no vacías; requiere su cerrojo
+    private static Cliente tomarPropio(GrupoAgentes g) {
+        int elegibles = g.noVacias & g.mascaraHabilidades;
+        if (elegibles == 0) return null;
+        int urgentes = elegibles & MASCARA_URGENTES;
+        int normales = elegibles & MASCARA_NORMALES;
+        int conjunto;
+        if (urgentes != 0 && g.ciclo < 2) {
+            conjunto = urgentes;
+            g.ciclo++;
+        } else if (normales != 0) {
+            conjunto = normales;
+            g.ciclo = 0; // reinicia ciclo
+        } else {
+            conjunto = urgentes;
+        }
+        int bit = siguienteBit(conjunto, g.cursor);
+        g.cursor = (bit + 1) % SUBCOLAS;
+        return g.desencolar(bit);
+    }
+
+    /*
+     * Recorre los demás grupos empezando por el siguiente; la primera vuelta usa tryLock
+     * para no esperar a grupos ocupados y la segunda bloquea, por si todos lo estaban.
+     * La máscara de no vacías se lee sin cerrojo y se vuelve a comprobar con él.
+     */
+    private Cliente robar(GrupoAgentes ladron) {
+        GrupoAgentes[] todos = grupos;
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            boolean alguno = false;
+            for (int k = 1; k < todos.length; k++) {
+                GrupoAgentes victima = todos[(ladron.indice + k) % todos.length];
+                if ((victima.noVacias & ladron.mascaraHabilidades) == 0) continue;
+                alguno = true;
+                if (vuelta == 0) {
+                    if (!victima.cerrojo.tryLock()) continue;
+                } else {
+                    victima.cerrojo.lock();
+                }
+                try {
+                    int compatibles = victima.noVacias & ladron.mascaraHabilidades;
+                    if (compatibles == 0) continue;
+                    int urgentes = compatibles & MASCARA_URGENTES;
+                    int bit = Integer.numberOfTrailingZeros(urgentes != 0 ? urgentes : compatibles);
+                    return victima.desencolar(bit);
+                } finally {
+                    victima.cerrojo.unlock();
+                }
+            }
+            if (!alguno) return null;
+        }
+        return null;
+    }
+
+    // Primer bit activo en la posición desde o después (circular); conjunto no vacío
+    private static int siguienteBit(int conjunto, int desde) {
+        int despues = conjunto & (-1 << desde);
+        return Integer.numberOfTrailingZeros(despues != 0 ? despues : conjunto);
+    }
+
+    static int subcola(TipoSolicitud tipo, Prioridad prioridad) {
+        return prioridad == Prioridad.URGENTE ? NUM_TIPOS + tipo.ordinal() : tipo.ordinal();
+    }
+
+    private static GrupoAgentes[] anexar(GrupoAgentes[] arreglo, GrupoAgentes g) {
+        GrupoAgentes[] nuevo = Arrays.copyOf(arreglo, arreglo.length + 1);
+        nuevo[arreglo.length] = g;
+        return nuevo;
+    }
+}
@@ -0,0 +1,122 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Diccionario de cadenas guardado fuera del heap.
+ *
+ * <p>Cada cadena distinta se escribe una sola vez como {@code [longitud][UTF-8]} en
+ * {@link BloquesMemoria} y se identifica por su desplazamiento. Para encontrar una cadena
+ * ya guardada se usa una tabla hash de direccionamiento abierto con arreglos {@code int},
+ * de modo que el heap no retiene ninguna {@link String}. Las entradas no se borran.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+final class DiccionarioCadenas {
+
+    private static final int TAM_BLOQUE = 1 << 20;
+    private static final int MAX_BYTES = 0xFFFF;
+
+    private final BloquesMemoria datos;
+    private long fin; // desplazamiento del siguiente byte libre
+    private int[] tabla = new int[1024]; // código + 1; 0 = libre
+    private int[] hashes = new int[1024];
+    private int usados;
+
+    DiccionarioCadenas(Path archivo) throws IOException {
+        datos = new BloquesMemoria(TAM_BLOQUE, archivo);
+    }
+
+    // Devuelve el código de la cadena, guardándola si es nueva
+    int codigo(String cadena) {
+        byte[] bytes = cadena.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_BYTES) {
+            throw new IllegalArgumentException("Cadena demasiado larga para el historial: " + bytes.length + " bytes");
+        }
+        int hash = mezclar(cadena.hashCode());
+        int mascara = tabla.length - 1;
+        for (int i = hash & mascara; tabla[i] != 0; i = (i + 1) & mascara) {
+            if (hashes[i] == hash && iguales(tabla[i] - 1, bytes)) return tabla[i] - 1;
+        }
+
+        // Una entrada nunca cruza el límite entre bloques
+        if (fin % TAM_BLOQUE + 2 + bytes.length > TAM_BLOQUE) {
+            fin = (fin / TAM_BLOQUE + 1) * TAM_BLOQUE;
+        }
+        if (fin > Integer.MAX_VALUE - 2 - MAX_BYTES) {
+            throw new IllegalStateException("Diccionario del historial lleno");
+        }
+        int codigo = (int) fin;
+        ByteBuffer b = datos.bloque(codigo / TAM_BLOQUE);
+        int pos = codigo % TAM_BLOQUE;
+        b.putShort(pos, (short) bytes.length);
+        for (int k = 0; k < bytes.length; k++) {
+            b.put(pos + 2 + k, bytes[k]);
+        }
+        fin += 2 + bytes.length;
+
+        if (++usados * 2 > tabla.length) ampliar();
+        insertar(codigo, hash);
+        return codigo;
+    }
+
+    String cadena(int codigo) {
+        return leer(datos.bloque(codigo / TAM_BLOQUE), codigo % TAM_BLOQUE);
+    }
+
+    // Bloques guardados hasta ahora, para leer desde otro hilo los códigos ya asignados
+    ByteBuffer[] fijar() {
+        return datos.fijar();
+    }
+
+    static String cadena(ByteBuffer[] bloques, int codigo) {
+        return leer(bloques[codigo / TAM_BLOQUE], codigo % TAM_BLOQUE);
+    }
+
+    private static String leer(ByteBuffer b, int pos) {
+        byte[] bytes = new byte[b.getShort(pos) & 0xFFFF];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = b.get(pos + 2 + k);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    void cerrar() throws IOException {
+        datos.close();
+    }
+
+    private boolean iguales(int codigo, byte[] bytes) {
+        ByteBuffer b = datos.bloque(codigo / TAM_BLOQUE);
+        int pos = codigo % TAM_BLOQUE;
+        if ((b.getShort(pos) & 0xFFFF) != bytes.length) return false;
+        for (int k = 0; k < bytes.length; k++) {
+            if (b.get(pos + 2 + k) != bytes[k]) return false;
+        }
+        return true;
+    }
+
+    private void insertar(int codigo, int hash) {
+        int mascara = tabla.length - 1;
+        int i = hash & mascara;
+        while (tabla[i] != 0) i = (i + 1) & mascara;
+        tabla[i] = codigo + 1;
+        hashes[i] = hash;
+    }
+
+    private void ampliar() {
+        int[] viejaTabla = tabla, viejosHashes = hashes;
+        tabla = new int[viejaTabla.length * 2];
+        hashes = new int[viejaTabla.length * 2];
+        for (int i = 0; i < viejaTabla.length; i++) {
+            if (viejaTabla[i] != 0) insertar(viejaTabla[i] - 1, viejosHashes[i]);
+        }
+    }
+
+    private static int mezclar(int h) {
+        return h ^ (h >>> 16);
+    }
+}
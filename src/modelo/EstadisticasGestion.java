@@ -0,0 +1,129 @@
+package modelo;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cifras inmutables de un {@link GestionAtencion} en un instante: totales, promedio y
+ * percentiles del tiempo de atención, ingresos de la última hora y conteos por tipo,
+ * prioridad y estado.
+ *
+ * <p>Es la contraparte de {@link InstantaneaGestion} para las estadísticas: se calcula con
+ * el cerrojo de lectura del gestor y después se puede leer desde cualquier hilo, así que
+ * la interfaz las muestra sin tocar los contadores vivos del modelo.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class EstadisticasGestion {
+
+    private final long secuencia;
+    private final int totalEnEspera;
+    private final int totalAtendidos;
+    private final double promedioTiempoAtencion;
+    private final int ingresosUltimaHora;
+    private final Map<Prioridad, ResumenPercentiles> percentilesPorPrioridad;
+    private final Map<TipoSolicitud, ResumenPercentiles> percentilesPorTipo;
+    private final CuboConteos conteos;
+
+    EstadisticasGestion(long secuencia, int totalEnEspera, int totalAtendidos, double promedioTiempoAtencion,
+                        int ingresosUltimaHora, EnumMap<Prioridad, ResumenPercentiles> percentilesPorPrioridad,
+                        EnumMap<TipoSolicitud, ResumenPercentiles> percentilesPorTipo, CuboConteos conteos) {
+        this.secuencia = secuencia;
+        this.totalEnEspera = totalEnEspera;
+        this.totalAtendidos = totalAtendidos;
+        this.promedioTiempoAtencion = promedioTiempoAtencion;
+        this.ingresosUltimaHora = ingresosUltimaHora;
+        this.percentilesPorPrioridad = percentilesPorPrioridad;
+        this.percentilesPorTipo = percentilesPorTipo;
+        this.conteos = conteos;
+    }
+
+    /**
+     * Devuelve la secuencia de la última operación incluida.
+     *
+     * @return secuencia, comparable con {@link InstantaneaGestion#getSecuencia()}
+     * @since 1.1
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Devuelve el total de clientes en espera.
+     *
+     * @return urgentes más normales
+     * @since 1.1
+     */
+    public int getTotalEnEspera() {
+        return totalEnEspera;
+    }
+
+    /**
+     * Devuelve el total de clientes atendidos.
+     *
+     * @return tamaño del historial
+     * @since 1.1
+     */
+    public int getTotalAtendidos() {
+        return totalAtendidos;
+    }
+
+    /**
+     * Devuelve el promedio del tiempo de atención del historial.
+     *
+     * @return promedio en minutos (0 si no hay historial)
+     * @since 1.1
+     */
+    public double getPromedioTiempoAtencion() {
+        return promedioTiempoAtencion;
+    }
+
+    /**
+     * Devuelve los clientes ingresados en la hora anterior al cálculo.
+     *
+     * @return ingresos en espera o ya atendidos
+     * @since 1.1
+     */
+    public int getIngresosUltimaHora() {
+        return ingresosUltimaHora;
+    }
+
+    /**
+     * Devuelve los percentiles del tiempo de atención de una prioridad.
+     *
+     * @param prioridad prioridad a consultar
+     * @return resumen p50/p90/p99/máximo en milisegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getPercentilesTiempoAtencion(Prioridad prioridad) {
+        return percentilesPorPrioridad.get(prioridad);
+    }
+
+    /**
+     * Devuelve los percentiles del tiempo de atención de un tipo de solicitud.
+     *
+     * @param tipo tipo de solicitud
+     * @return resumen p50/p90/p99/máximo en milisegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getPercentilesTiempoAtencion(TipoSolicitud tipo) {
+        return percentilesPorTipo.get(tipo);
+    }
+
+    /**
+     * Devuelve una copia de los conteos tipo × prioridad × estado.
+     *
+     * @return cubo de conteos que ya no cambia
+     * @since 1.1
+     */
+    public CuboConteos getConteos() {
+        return conteos;
+    }
+
+    @Override
+    public String toString() {
+        return "Estadísticas #" + secuencia + " (" + totalEnEspera + " en espera, " + totalAtendidos
+                + " atendidos, promedio " + String.format("%.1f", promedioTiempoAtencion) + " min)";
+    }
+}
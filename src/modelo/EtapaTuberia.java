@@ -0,0 +1,27 @@
+package modelo;
+
+/**
+ * Etapa consumidora de una {@link TuberiaAtencion} (diario, métricas o interfaz).
+ *
+ * <p>Cada etapa corre en su propio hilo y recibe los eventos en orden de secuencia. Cuando
+ * va atrasada recibe de una vez todos los disponibles; {@code finDeLote} marca el último,
+ * que es el momento de vaciar búferes o notificar a la interfaz una sola vez por lote.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface EtapaTuberia {
+
+    /**
+     * Procesa un evento ya aplicado por la etapa de mutación.
+     *
+     * @param evento ranura del anillo; no debe guardarse después de volver
+     * @param secuencia número de secuencia del evento
+     * @param finDeLote {@code true} si es el último evento disponible por ahora
+     * @throws Exception si falla; se cuenta en {@link TuberiaAtencion#getErrores()} y la
+     *                   etapa sigue con el siguiente evento
+     * @since 1.1
+     */
+    void procesar(EventoTuberia evento, long secuencia, boolean finDeLote) throws Exception;
+}
@@ -0,0 +1,23 @@
+package modelo;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de {@link GestionAtencion#agregarCliente(String, TipoSolicitud, Prioridad)}.
+ */
+@Name("techclassuc.Agregar")
+@Label("Agregar cliente")
+final class EventoJfrAgregar extends EventoJfrCola {
+
+    private static final EventType TIPO = EventType.getEventType(EventoJfrAgregar.class);
+
+    // Devuelve el evento ya iniciado, o null si ninguna grabación lo tiene habilitado
+    static EventoJfrAgregar iniciar() {
+        if (!TIPO.isEnabled()) return null;
+        EventoJfrAgregar evento = new EventoJfrAgregar();
+        evento.begin();
+        return evento;
+    }
+}
@@ -0,0 +1,23 @@
+package modelo;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de {@link GestionAtencion#atenderCliente()}.
+ */
+@Name("techclassuc.Atender")
+@Label("Atender cliente")
+final class EventoJfrAtender extends EventoJfrCola {
+
+    private static final EventType TIPO = EventType.getEventType(EventoJfrAtender.class);
+
+    // Devuelve el evento ya iniciado, o null si ninguna grabación lo tiene habilitado
+    static EventoJfrAtender iniciar() {
+        if (!TIPO.isEnabled()) return null;
+        EventoJfrAtender evento = new EventoJfrAtender();
+        evento.begin();
+        return evento;
+    }
+}
@@ -0,0 +1,35 @@
+package modelo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base de los eventos de JDK Flight Recorder emitidos por {@link GestionAtencion}.
+ *
+ * <p>Cada evento mide la duración de una operación sobre las colas e incluye el cliente
+ * afectado, su prioridad y la profundidad de la cola al terminar. Cada subclase los crea
+ * con un {@code iniciar()} estático que consulta su {@link jdk.jfr.EventType}: sin una
+ * grabación que los habilite no se crea ningún objeto y el gestor recibe {@code null}.
+ */
+@Category({"TechClassUC", "Colas"})
+abstract class EventoJfrCola extends Event {
+
+    @Label("ID de cliente")
+    String idCliente;
+
+    @Label("Prioridad")
+    String prioridad;
+
+    @Label("Profundidad de cola")
+    int profundidadCola;
+
+    // Rellena y confirma el evento solo si la grabación lo necesita
+    void cerrar(Cliente cliente, int profundidad) {
+        if (!shouldCommit()) return;
+        idCliente = cliente.getId();
+        prioridad = cliente.getPrioridad().name();
+        profundidadCola = profundidad;
+        commit();
+    }
+}
@@ -0,0 +1,23 @@
+package modelo;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de {@link GestionAtencion#deshacerUltimaAccion()}.
+ */
+@Name("techclassuc.Deshacer")
+@Label("Deshacer acción")
+final class EventoJfrDeshacer extends EventoJfrCola {
+
+    private static final EventType TIPO = EventType.getEventType(EventoJfrDeshacer.class);
+
+    // Devuelve el evento ya iniciado, o null si ninguna grabación lo tiene habilitado
+    static EventoJfrDeshacer iniciar() {
+        if (!TIPO.isEnabled()) return null;
+        EventoJfrDeshacer evento = new EventoJfrDeshacer();
+        evento.begin();
+        return evento;
+    }
+}
@@ -0,0 +1,23 @@
+package modelo;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de {@link GestionAtencion#eliminarCliente(String)}.
+ */
+@Name("techclassuc.Eliminar")
+@Label("Eliminar cliente")
+final class EventoJfrEliminar extends EventoJfrCola {
+
+    private static final EventType TIPO = EventType.getEventType(EventoJfrEliminar.class);
+
+    // Devuelve el evento ya iniciado, o null si ninguna grabación lo tiene habilitado
+    static EventoJfrEliminar iniciar() {
+        if (!TIPO.isEnabled()) return null;
+        EventoJfrEliminar evento = new EventoJfrEliminar();
+        evento.begin();
+        return evento;
+    }
+}
@@ -0,0 +1,23 @@
+package modelo;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de {@link GestionAtencion#rehacerAccion()}.
+ */
+@Name("techclassuc.Rehacer")
+@Label("Rehacer acción")
+final class EventoJfrRehacer extends EventoJfrCola {
+
+    private static final EventType TIPO = EventType.getEventType(EventoJfrRehacer.class);
+
+    // Devuelve el evento ya iniciado, o null si ninguna grabación lo tiene habilitado
+    static EventoJfrRehacer iniciar() {
+        if (!TIPO.isEnabled()) return null;
+        EventoJfrRehacer evento = new EventoJfrRehacer();
+        evento.begin();
+        return evento;
+    }
+}
@@ -0,0 +1,212 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Ranura reutilizable del anillo de una {@link TuberiaAtencion}.
+ *
+ * <p>El productor escribe la solicitud (operación y datos del cliente), la etapa de
+ * mutación la aplica a {@link GestionAtencion} y deja el resultado, y las etapas
+ * siguientes lo leen. En el último evento de cada lote la mutación deja además una
+ * {@link InstantaneaGestion} y las {@link EstadisticasGestion} del gestor tras aplicarlo,
+ * que sí se pueden pasar a otros hilos. La misma instancia se reutiliza cuando el anillo
+ * da la vuelta, así que las etapas no deben guardarla fuera de {@link EtapaTuberia#procesar}.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class EventoTuberia {
+
+    /**
+     * Operación que el productor pide a la etapa de mutación.
+     *
+     * @since 1.1
+     */
+    public enum Operacion {
+        /** {@link GestionAtencion#agregarCliente}. */
+        AGREGAR,
+        /** {@link GestionAtencion#atenderCliente()}. */
+        ATENDER,
+        /** {@link GestionAtencion#atenderLote(int)}. */
+        ATENDER_LOTE,
+        /** {@link GestionAtencion#eliminarCliente(String)}. */
+        ELIMINAR,
+        /** {@link GestionAtencion#deshacerUltimaAccion()}. */
+        DESHACER,
+        /** {@link GestionAtencion#rehacerAccion()}. */
+        REHACER,
+        /** {@link GestionAtencion#revisarVencimientos()}. */
+        REVISAR_VENCIMIENTOS
+    }
+
+    Operacion operacion;
+    String nombre;
+    TipoSolicitud tipoSolicitud;
+    Prioridad prioridad;
+    String idCliente;
+    int cantidad;
+    Cliente resultado;
+    List<Cliente> atendidos;
+    Accion accion;
+    int afectados;
+    RuntimeException error;
+    InstantaneaGestion instantanea;
+    EstadisticasGestion estadisticas;
+
+    EventoTuberia() {
+    }
+
+    // Deja la ranura lista para una solicitud nueva
+    void preparar(Operacion operacion, String nombre, TipoSolicitud tipo, Prioridad prioridad, String id, int cantidad) {
+        this.operacion = operacion;
+        this.nombre = nombre;
+        this.tipoSolicitud = tipo;
+        this.prioridad = prioridad;
+        this.idCliente = id;
+        this.cantidad = cantidad;
+        this.resultado = null;
+        this.atendidos = null;
+        this.accion = null;
+        this.afectados = 0;
+        this.error = null;
+        this.instantanea = null;
+        this.estadisticas = null;
+    }
+
+    /**
+     * Devuelve la operación solicitada.
+     *
+     * @return operación
+     * @since 1.1
+     */
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    /**
+     * Devuelve el nombre del cliente a agregar.
+     *
+     * @return nombre, o {@code null} si la operación no es un alta
+     * @since 1.1
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve el tipo de solicitud del cliente a agregar.
+     *
+     * @return tipo, o {@code null} si la operación no es un alta
+     * @since 1.1
+     */
+    public TipoSolicitud getTipoSolicitud() {
+        return tipoSolicitud;
+    }
+
+    /**
+     * Devuelve la prioridad del cliente a agregar.
+     *
+     * @return prioridad, o {@code null} si la operación no es un alta
+     * @since 1.1
+     */
+    public Prioridad getPrioridad() {
+        return prioridad;
+    }
+
+    /**
+     * Devuelve el id del cliente a eliminar.
+     *
+     * @return id, o {@code null} si la operación no es una eliminación
+     * @since 1.1
+     */
+    public String getIdCliente() {
+        return idCliente;
+    }
+
+    /**
+     * Devuelve cuántos clientes se pidió atender en un lote.
+     *
+     * @return tamaño del lote, o 0 si la operación no es {@link Operacion#ATENDER_LOTE}
+     * @since 1.1
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Devuelve el cliente agregado, atendido o eliminado por la etapa de mutación.
+     *
+     * @return cliente afectado, o {@code null} si no hubo ninguno o la operación falló
+     * @since 1.1
+     */
+    public Cliente getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Devuelve los clientes atendidos por un lote.
+     *
+     * @return atendidos en orden de atención, o {@code null} si la operación no es
+     *         {@link Operacion#ATENDER_LOTE} o falló
+     * @since 1.1
+     */
+    public List<Cliente> getAtendidos() {
+        return atendidos;
+    }
+
+    /**
+     * Devuelve la acción deshecha o rehecha.
+     *
+     * @return acción, o {@code null} si no había nada que deshacer o rehacer
+     * @since 1.1
+     */
+    public Accion getAccion() {
+        return accion;
+    }
+
+    /**
+     * Devuelve cuántos clientes vencieron al revisar los vencimientos.
+     *
+     * @return clientes vencidos, o 0 en las demás operaciones
+     * @since 1.1
+     */
+    public int getAfectados() {
+        return afectados;
+    }
+
+    /**
+     * Devuelve el error con que falló la operación en la etapa de mutación.
+     *
+     * @return excepción lanzada por el gestor, o {@code null} si se aplicó
+     * @since 1.1
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * Devuelve el estado del gestor tras aplicar el lote.
+     *
+     * @return instantánea, o {@code null} si el evento no es el último de su lote
+     * @since 1.1
+     */
+    public InstantaneaGestion getInstantanea() {
+        return instantanea;
+    }
+
+    /**
+     * Devuelve las estadísticas del gestor tras aplicar el lote.
+     *
+     * @return estadísticas, o {@code null} si el evento no es el último de su lote
+     * @since 1.1
+     */
+    public EstadisticasGestion getEstadisticas() {
+        return estadisticas;
+    }
+
+    @Override
+    public String toString() {
+        return operacion + (nombre != null ? " " + nombre : "") + (idCliente != null ? " " + idCliente : "")
+                + (error != null ? " error=" + error.getMessage() : resultado != null ? " → " + resultado.getId() : "");
+    }
+}
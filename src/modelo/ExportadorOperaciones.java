@@ -0,0 +1,143 @@
+package modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suscriptor de {@link PublicadorOperaciones} que anota cada operación en un archivo de
+ * texto, una línea por operación con los campos separados por tabuladores: secuencia,
+ * acción, id, nombre, tipo, prioridad, ingreso y atención (milisegundos epoch; la
+ * atención vacía si no tiene) y tiempo de atención.
+ *
+ * <p>Escribe en el hilo de entrega del publicador, así que un disco lento nunca frena al
+ * gestor: como mucho llena su búfer y el publicador descarta operaciones para él. El hueco
+ * se detecta por la secuencia y queda anotado como una línea {@code # faltan N
+ * operaciones}. Pide la demanda en tandas de {@value #TANDA}.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class ExportadorOperaciones implements Flow.Subscriber<OperacionGestion> {
+
+    private static final int TANDA = 256;
+
+    private final BufferedWriter salida;
+    private final CountDownLatch fin = new CountDownLatch(1);
+    // Solo los usa el hilo de entrega: el publicador no solapa llamadas a un mismo suscriptor
+    private Flow.Subscription suscripcion;
+    private int restantes; // operaciones que quedan de la tanda pedida
+    private long ultimaSecuencia = -1;
+    private volatile IOException error;
+
+    /**
+     * Crea un exportador que añade las operaciones al final del archivo indicado.
+     *
+     * @param archivo archivo de destino (se crea si no existe)
+     * @throws IOException si no se puede abrir el archivo
+     * @since 1.1
+     */
+    public ExportadorOperaciones(Path archivo) throws IOException {
+        salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        this.suscripcion = suscripcion;
+        restantes = TANDA;
+        suscripcion.request(TANDA);
+    }
+
+    @Override
+    public void onNext(OperacionGestion op) {
+        try {
+            if (ultimaSecuencia >= 0 && op.getSecuencia() > ultimaSecuencia + 1) {
+                salida.write("# faltan " + (op.getSecuencia() - ultimaSecuencia - 1) + " operaciones");
+                salida.newLine();
+            }
+            ultimaSecuencia = op.getSecuencia();
+            escribir(op);
+            salida.flush();
+        } catch (IOException e) {
+            error = e;
+            suscripcion.cancel();
+            cerrarArchivo();
+            return;
+        }
+        if (--restantes == 0) {
+            restantes = TANDA;
+            suscripcion.request(TANDA);
+        }
+    }
+
+    @Override
+    public void onError(Throwable causa) {
+        cerrarArchivo();
+    }
+
+    @Override
+    public void onComplete() {
+        cerrarArchivo();
+    }
+
+    /**
+     * Espera a que el publicador termine (tras {@link PublicadorOperaciones#close()}) y el
+     * archivo quede cerrado.
+     *
+     * @param esperaMs tiempo máximo de espera en milisegundos
+     * @return {@code true} si el archivo se cerró a tiempo
+     * @throws InterruptedException si se interrumpe la espera
+     * @since 1.1
+     */
+    public boolean esperarFin(long esperaMs) throws InterruptedException {
+        return fin.await(esperaMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Devuelve el error de escritura que detuvo la exportación, si lo hubo.
+     *
+     * @return error, o {@code null} si no falló ninguna escritura
+     * @since 1.1
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    private void escribir(OperacionGestion op) throws IOException {
+        salida.write(Long.toString(op.getSecuencia()));
+        salida.write('\t');
+        salida.write(op.getTipo().name());
+        salida.write('\t');
+        salida.write(op.getIdCliente());
+        salida.write('\t');
+        salida.write(op.getNombre().replace('\t', ' ').replace('\n', ' '));
+        salida.write('\t');
+        salida.write(op.getTipoSolicitud().name());
+        salida.write('\t');
+        salida.write(op.getPrioridad().name());
+        salida.write('\t');
+        salida.write(Long.toString(op.getIngresoMs()));
+        salida.write('\t');
+        if (op.getAtencionMs() != Cliente.SIN_HORA) salida.write(Long.toString(op.getAtencionMs()));
+        salida.write('\t');
+        salida.write(Double.toString(op.getTiempoAtencion()));
+        salida.newLine();
+    }
+
+    private void cerrarArchivo() {
+        try {
+            salida.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        } finally {
+            fin.countDown();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package modelo;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -9,26 +12,112 @@ import java.util.stream.Stream;
  *
  * <p>Implementa una política de atención prioritaria: 2 clientes urgentes → 1 normal.
  * Mantiene colas separadas para urgentes y normales, un historial de atendidos y una pila
- * de acciones para permitir deshacer/ restaurar operaciones.
+ * de acciones. Cada operación se registra además como un comando reversible, lo que
+ * permite deshacer y rehacer a cualquier profundidad con coste O(1) por paso.
  *
  * @author SebasZ777-Uni
  * @since 1.0
  */
 public class GestionAtencion {
 
-    private Deque<Cliente> colaUrgentes;
-    private Deque<Cliente> colaNormales;
-    private LinkedList<Cliente> historial;
-    private Stack<Accion> pilaAcciones;
+    private static final long MAX_TIEMPO_MS = 24L * 60 * 60 * 1000; // rango de los histogramas
+    private static final long TICK_VENCIMIENTOS_MS = 1000;
+    private static final int RANURAS_VENCIMIENTOS = 4096; // una vuelta ≈ 68 minutos
+    private static final int CAPACIDAD_REGISTRO = 1 << 16; // operaciones retenidas
+    private static final int MAX_COMANDOS_LIBRES = 64; // comandos olvidados listos para reutilizar
+    private static final Prioridad[] PRIORIDADES = Prioridad.values(); // values() copia el arreglo
+
+    /** Operaciones que se pueden deshacer por defecto; las más antiguas se olvidan. */
+    public static final int LIMITE_DESHACER = 10_000;
+
+    private ColaEnlazada colaUrgentes;
+    private ColaEnlazada colaNormales;
+    private AlmacenHistorial historial;
+    private final RegistroOperaciones registro = new RegistroOperaciones(CAPACIDAD_REGISTRO);
+    private Deque<Comando> comandosDeshacer;
+    private Deque<Comando> comandosRehacer;
+    private final ArrayDeque<Comando> comandosLibres = new ArrayDeque<>();
+    private final Consumer<ColaEnlazada.Nodo> alVencer = this::vencer; // uno solo para todas las revisiones
+    private int limiteDeshacer = LIMITE_DESHACER;
+    private IndiceTemporal indiceIngreso; // clientes en espera por hora de ingreso
+    private Map<TipoSolicitud, HistogramaLatencia> tiempoPorTipo; // tiempos de atención en ms
+    private Map<Prioridad, HistogramaLatencia> tiempoPorPrioridad;
+    private MetricasVentana metricas;
+    private AgregadosTemporales agregados; // tendencias por minuto, hora y día
+    private MetricasOperacion operaciones; // conteos y latencias publicados por JMX
+    private double sumaTiempoAtencion; // suma de los tiempos del historial (minutos)
+    private final CuboConteos conteos = new CuboConteos(); // tipo × prioridad × estado
     private int contadorUrgentes;
     private int contadorNormales;
-    private int cicloPrioritario; // controla 2 urgentes → 1 normal
+    // Medidores que lee JMX desde otros hilos: volatile porque solo escribe el hilo de
+    // las operaciones, así que los incrementos no necesitan ser atómicos
+    private volatile int cicloPrioritario; // controla 2 urgentes → 1 normal
+    private final int espacioIds; // espacio de identificadores registrado en IdCliente
+    private final List<OyenteOperaciones> oyentes = new java.util.concurrent.CopyOnWriteArrayList<>();
+    private long secuencia; // número de operaciones publicadas
+    private PoliticaEnvejecimiento envejecimiento; // null: los clientes no envejecen
+    private RuedaTemporizadores vencimientos; // vencimientos de espera pendientes
+    private PoliticaAdmision admision; // null: colas sin límite
+    private ColaEnlazada[] desborde; // clientes desviados por prioridad, en espera de sitio
+    private volatile boolean saturado;
+    private volatile int rechazados;
+    private volatile int descartados;
+    private volatile int desviados; // clientes en las dos colas de desborde
+    private final List<OyenteSaturacion> oyentesSaturacion = new java.util.concurrent.CopyOnWriteArrayList<>();
+    // Lo toman en escritura los cambios de colas e historial; las instantáneas leen con él
+    private final StampedLock cerrojo = new StampedLock();
 
+    /**
+     * Crea un gestor con colas vacías e identificadores sin prefijo ({@code U1}, {@code N1}...).
+     *
+     * @since 1.0
+     */
     public GestionAtencion() {
-        colaUrgentes = new ArrayDeque<>();
-        colaNormales = new ArrayDeque<>();
-        historial = new LinkedList<>();
-        pilaAcciones = new Stack<>();
+        this("");
+    }
+
+    /**
+     * Crea un gestor cuyos identificadores llevan el espacio indicado como prefijo
+     * (ej. {@code "NORTE"} genera {@code NORTE-U1}), para que varias sedes no colisionen.
+     *
+     * @param espacioId espacio de identificadores; vacío para no usar prefijo
+     * @since 1.1
+     */
+    public GestionAtencion(String espacioId) {
+        this(espacioId, new HistorialEnMemoria());
+    }
+
+    /**
+     * Crea un gestor que guarda el historial de atendidos en el almacén indicado
+     * (por ejemplo, un {@link HistorialFueraDeHeap} para historiales muy grandes).
+     *
+     * @param espacioId espacio de identificadores; vacío para no usar prefijo
+     * @param historial almacén vacío para los clientes atendidos
+     * @since 1.1
+     */
+    public GestionAtencion(String espacioId, AlmacenHistorial historial) {
+        if (historial.tamano() != 0) {
+            throw new IllegalArgumentException("El almacén del historial debe estar vacío");
+        }
+        espacioIds = IdCliente.registrarEspacio(espacioId == null || espacioId.isEmpty() ? "" : espacioId + "-");
+        colaUrgentes = new ColaEnlazada();
+        colaNormales = new ColaEnlazada();
+        desborde = new ColaEnlazada[]{new ColaEnlazada(), new ColaEnlazada()};
+        this.historial = historial;
+        comandosDeshacer = new ArrayDeque<>();
+        comandosRehacer = new ArrayDeque<>();
+        indiceIngreso = new IndiceTemporal();
+        tiempoPorTipo = new EnumMap<>(TipoSolicitud.class);
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            tiempoPorTipo.put(t, new HistogramaLatencia(MAX_TIEMPO_MS));
+        }
+        tiempoPorPrioridad = new EnumMap<>(Prioridad.class);
+        for (Prioridad p : Prioridad.values()) {
+            tiempoPorPrioridad.put(p, new HistogramaLatencia(MAX_TIEMPO_MS));
+        }
+        metricas = new MetricasVentana();
+        agregados = new AgregadosTemporales();
+        operaciones = new MetricasOperacion();
         contadorUrgentes = 1;
         contadorNormales = 1;
         cicloPrioritario = 0;
@@ -39,29 +128,61 @@ public class GestionAtencion {
     // ------------------------------------------------------
     /**
      * Crea y agrega un cliente a la cola correspondiente según la prioridad.
-     * El identificador se genera con prefijo `U` para urgentes y `N` para normales.
+     * El identificador se genera con prefijo `U` para urgentes y `N` para normales,
+     * precedido del espacio de identificadores del gestor si se configuró uno.
      *
      * @param nombre nombre del cliente (no nulo)
      * @param tipo tipo de solicitud del cliente
      * @param prioridad prioridad asignada al cliente
      * @return el {@link Cliente} creado con su id
+     * @throws CapacidadExcedidaException si su cola está llena y la {@link PoliticaAdmision}
+     *         no permite admitirlo
      * @since 1.0
      */
     public Cliente agregarCliente(String nombre, TipoSolicitud tipo, Prioridad prioridad) {
-        String id;
-        Cliente nuevo;
-        LocalDateTime horaIngreso = LocalDateTime.now(); // <-- genera la hora aquí
+        boolean desviar = false;
+        if (admision != null && colaDe(prioridad).size() >= admision.getCapacidad(prioridad)) {
+            switch (admision.getModo()) {
+                case DESVIAR:
+                    desviar = true;
+                    break;
+                case DESCARTAR_NORMAL_ANTIGUO:
+                    if (colaNormales.isEmpty()) {
+                        throw rechazar(prioridad); // sin normales que descartar
+                    }
+                    descartar(colaNormales.primero());
+                    break;
+                default:
+                    throw rechazar(prioridad);
+            }
+        }
+
+        long id;
+        long horaIngreso = System.currentTimeMillis(); // <-- genera la hora aquí
         if (prioridad.equals(Prioridad.URGENTE)) {
-            id = "U" + contadorUrgentes++;
-            nuevo = new Cliente(id, nombre, tipo, prioridad, horaIngreso);
-            colaUrgentes.add(nuevo);
+            id = IdCliente.codificar(espacioIds, prioridad, contadorUrgentes++);
         } else {
-            id = "N" + contadorNormales++;
-            nuevo = new Cliente(id, nombre, tipo, prioridad, horaIngreso);
-            colaNormales.add(nuevo);
+            id = IdCliente.codificar(espacioIds, prioridad, contadorNormales++);
         }
+        return desviar ? desviar(id, nombre, tipo, horaIngreso) : agregar(id, nombre, tipo, horaIngreso);
+    }
+
+    // Cuenta el rechazo y devuelve la excepción para que quien llama la lance
+    private CapacidadExcedidaException rechazar(Prioridad prioridad) {
+        rechazados++;
+        return new CapacidadExcedidaException(prioridad, admision.getCapacidad(prioridad));
+    }
 
-        pilaAcciones.push(new Accion(TipoAccion.AGREGAR, nuevo));
+    private Cliente agregar(long id, String nombre, TipoSolicitud tipo, long horaIngreso) {
+        long inicio = System.nanoTime();
+        EventoJfrAgregar evento = EventoJfrAgregar.iniciar();
+        ColaEnlazada cola = IdCliente.prioridad(id) == Prioridad.URGENTE ? colaUrgentes : colaNormales;
+        Cliente nuevo = new Cliente(id, nombre, tipo, horaIngreso);
+
+        ejecutar(comando(TipoAccion.AGREGAR,
+                cola, cola.nodoAlFinal(nuevo), cicloPrioritario, System.currentTimeMillis()));
+        operaciones.registrar(TipoAccion.AGREGAR, System.nanoTime() - inicio);
+        if (evento != null) evento.cerrar(nuevo, cola.size());
         return nuevo;
     }
 
@@ -76,32 +197,173 @@ public class GestionAtencion {
      * @since 1.0
      */
     public Cliente atenderCliente() {
-        Cliente atendido = null;
+        revisarVencimientos();
+        Cliente atendido = atender(5 + Math.random() * 15, System.currentTimeMillis()); // 5–20 minutos
+        readmitirDesviados();
+        return atendido;
+    }
 
+    private Cliente atender(double tiempoAtencion, long atencionMs) {
         if (colaUrgentes.isEmpty() && colaNormales.isEmpty()) {
             return null;
         }
+        long inicio = System.nanoTime();
+        EventoJfrAtender evento = EventoJfrAtender.iniciar();
 
+        ColaEnlazada cola;
+        int ciclo = cicloPrioritario;
         if (!colaUrgentes.isEmpty() && cicloPrioritario < 2) {
-            atendido = colaUrgentes.poll();
-            cicloPrioritario++;
+            cola = colaUrgentes;
+            ciclo++;
         } else if (!colaNormales.isEmpty()) {
-            atendido = colaNormales.poll();
-            cicloPrioritario = 0; // reinicia ciclo
-        } else if (!colaUrgentes.isEmpty()) {
-            atendido = colaUrgentes.poll();
+            cola = colaNormales;
+            ciclo = 0; // reinicia ciclo
+        } else {
+            cola = colaUrgentes;
         }
 
-        if (atendido != null) {
-            double tiempoSimulado = 5 + Math.random() * 15; // 5–20 minutos
-            atendido.setTiempoAtencion(tiempoSimulado);
-            historial.add(atendido);
-            pilaAcciones.push(new Accion(TipoAccion.ATENDER, atendido));
-        }
+        ColaEnlazada.Nodo nodo = cola.primero();
+        Cliente atendido = nodo.cliente;
+        Comando cmd = comando(TipoAccion.ATENDER, cola, nodo, cicloPrioritario, atencionMs);
+        cmd.cicloDespues = ciclo;
+        cmd.tiempoAtencion = tiempoAtencion;
+        cmd.atencionMs = atencionMs;
+        ejecutar(cmd);
 
+        operaciones.registrar(TipoAccion.ATENDER, System.nanoTime() - inicio);
+        if (evento != null) evento.cerrar(atendido, cola.size());
         return atendido;
     }
 
+    /**
+     * Atiende hasta {@code n} clientes en una sola pasada, en el mismo orden y con el mismo
+     * ciclo 2 urgentes ⇒ 1 normal que {@code n} llamadas seguidas a {@link #atenderCliente()}.
+     *
+     * <p>Primero se decide el lote completo recorriendo las colas, y después cada cola se
+     * recorta como un bloque, el índice de espera se compacta una vez y el historial recibe
+     * todos los clientes juntos. Cada atención sigue siendo una operación propia (se publica
+     * y se deshace de una en una); todo el lote comparte la misma hora de atención. Si hay
+     * clientes desviados por la {@link PoliticaAdmision}, se atiende de uno en uno para
+     * readmitirlos entre atenciones igual que lo haría {@link #atenderCliente()}.
+     *
+     * @param n máximo de clientes a atender
+     * @return clientes atendidos, en orden de atención (vacía si no había nadie en espera)
+     * @throws IllegalArgumentException si {@code n} es negativo
+     * @since 1.1
+     */
+    public List<Cliente> atenderLote(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("El tamaño del lote no puede ser negativo");
+        }
+        revisarVencimientos();
+        if (!desborde[0].isEmpty() || !desborde[1].isEmpty()) {
+            return atenderUnoAUno(n);
+        }
+        int restantesU = colaUrgentes.size();
+        int restantesN = colaNormales.size();
+        int total = Math.min(n, restantesU + restantesN);
+        if (total == 0) return List.of();
+
+        long inicio = System.nanoTime();
+        EventoJfrAtender evento = EventoJfrAtender.iniciar();
+        long atencionMs = System.currentTimeMillis();
+
+        // Planificación: la misma decisión que atender(), con contadores en lugar de las colas
+        Comando[] lote = new Comando[total];
+        List<Cliente> atendidos = new ArrayList<>(total);
+        ColaEnlazada.Nodo urgente = colaUrgentes.primero();
+        ColaEnlazada.Nodo normal = colaNormales.primero();
+        int tomadosU = 0, tomadosN = 0;
+        int ciclo = cicloPrioritario;
+        for (int k = 0; k < total; k++) {
+            int antes = ciclo;
+            ColaEnlazada cola;
+            ColaEnlazada.Nodo nodo;
+            if (restantesU > tomadosU && ciclo < 2) {
+                cola = colaUrgentes;
+                nodo = urgente;
+                urgente = urgente.siguiente;
+                tomadosU++;
+                ciclo++;
+            } else if (restantesN > tomadosN) {
+                cola = colaNormales;
+                nodo = normal;
+                normal = normal.siguiente;
+                tomadosN++;
+                ciclo = 0; // reinicia ciclo
+            } else {
+                cola = colaUrgentes;
+                nodo = urgente;
+                urgente = urgente.siguiente;
+                tomadosU++;
+            }
+            Comando cmd = comando(TipoAccion.ATENDER, cola, nodo, antes, atencionMs);
+            cmd.cicloDespues = ciclo;
+            cmd.tiempoAtencion = 5 + Math.random() * 15; // 5–20 minutos
+            cmd.atencionMs = atencionMs;
+            lote[k] = cmd;
+            atendidos.add(nodo.cliente);
+        }
+
+        // Aplicación en bloque
+        long sello = cerrojo.writeLock();
+        long primera;
+        try {
+            colaUrgentes.desenlazarPrimeros(tomadosU);
+            colaNormales.desenlazarPrimeros(tomadosN);
+            indiceIngreso.eliminarTodos(atendidos);
+            for (Comando cmd : lote) {
+                Cliente c = cmd.cliente();
+                cancelarVencimiento(c);
+                conteos.mover(c, CuboConteos.Estado.EN_ESPERA, CuboConteos.Estado.ATENDIDO);
+                c.setTiempoAtencion(cmd.tiempoAtencion);
+                c.setAtencionMs(cmd.atencionMs);
+            }
+            historial.agregarTodos(atendidos);
+            for (Cliente c : atendidos) {
+                registrarTiempo(c);
+            }
+            cicloPrioritario = ciclo;
+            for (Comando cmd : lote) {
+                apilarDeshacer(cmd);
+            }
+            descartarRehacer();
+            primera = secuencia + 1;
+            secuencia += total;
+            for (Comando cmd : lote) {
+                registro.registrar(cmd.tipo, cmd.cliente(), cmd.registradoMs);
+            }
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+        for (int k = 0; k < total; k++) {
+            publicar(primera + k, TipoAccion.ATENDER, lote[k]);
+        }
+
+        long porCliente = (System.nanoTime() - inicio) / total;
+        for (int k = 0; k < total; k++) {
+            operaciones.registrar(TipoAccion.ATENDER, porCliente);
+        }
+        if (evento != null) evento.cerrar(atendidos.get(total - 1), colaUrgentes.size() + colaNormales.size());
+        revisarSaturacion();
+        readmitirDesviados();
+        return atendidos;
+    }
+
+    // Con clientes desviados cada atención libera sitio y readmite a alguno antes de la
+    // siguiente, así que el lote no se puede decidir de antemano: se atiende de uno en uno
+    private List<Cliente> atenderUnoAUno(int n) {
+        List<Cliente> atendidos = new ArrayList<>();
+        long atencionMs = System.currentTimeMillis();
+        for (int k = 0; k < n; k++) {
+            Cliente c = atender(5 + Math.random() * 15, atencionMs); // 5–20 minutos
+            if (c == null) break;
+            atendidos.add(c);
+            readmitirDesviados();
+        }
+        return atendidos;
+    }
+
     // ------------------------------------------------------
     // Eliminar cliente por ID
     // ------------------------------------------------------
@@ -114,29 +376,34 @@ public class GestionAtencion {
      * @since 1.0
      */
     public boolean eliminarCliente(String id) {
-        Optional<Cliente> encontrado = buscarEnColas(id);
-        if (encontrado.isPresent()) {
-            Cliente c = encontrado.get();
-
-            if (c.getPrioridad().equals(Prioridad.URGENTE)) {
-                colaUrgentes.remove(c);
-            } else if (c.getPrioridad().equals(Prioridad.NORMAL)) {
-                colaNormales.remove(c);
-            }
+        boolean eliminado = eliminar(id);
+        if (eliminado) readmitirDesviados();
+        return eliminado;
+    }
 
-            pilaAcciones.push(new Accion(TipoAccion.ELIMINAR, c));
-            return true;
+    private boolean eliminar(String id) {
+        long inicio = System.nanoTime();
+        EventoJfrEliminar evento = EventoJfrEliminar.iniciar();
+
+        // El id lleva la prioridad, así que solo se recorre la cola que puede contenerlo
+        long buscado = IdCliente.parsear(id);
+        if (buscado < 0) {
+            return false;
+        }
+        ColaEnlazada cola = IdCliente.prioridad(buscado) == Prioridad.URGENTE ? colaUrgentes : colaNormales;
+        ColaEnlazada.Nodo nodo = cola.buscar(c -> c.getIdNumerico() == buscado);
+        if (nodo == null && cola == colaNormales) {
+            cola = colaUrgentes; // un normal escalado espera entre los urgentes
+            nodo = cola.buscar(c -> c.getIdNumerico() == buscado);
+        }
+        if (nodo == null) {
+            return false;
         }
-        return false;
-    }
 
-    // ------------------------------------------------------
-    // Buscar en colas (privado)
-    // ------------------------------------------------------
-    private Optional<Cliente> buscarEnColas(String id) {
-        return Stream.concat(colaUrgentes.stream(), colaNormales.stream())
-                .filter(c -> c.getId().equalsIgnoreCase(id))
-                .findFirst();
+        ejecutar(comando(TipoAccion.ELIMINAR, cola, nodo, cicloPrioritario, System.currentTimeMillis()));
+        operaciones.registrar(TipoAccion.ELIMINAR, System.nanoTime() - inicio);
+        if (evento != null) evento.cerrar(nodo.cliente, cola.size());
+        return true;
     }
 
 // ------------------------------------------------------
@@ -144,20 +411,27 @@ public class GestionAtencion {
 // ------------------------------------------------------
 
     /**
-     * Busca clientes por su identificador en colas e historial.
+     * Busca clientes por su identificador en colas e historial. Como las demás búsquedas,
+     * lee con el cerrojo de lectura, así que se puede llamar desde cualquier hilo.
      *
      * @param id identificador a buscar
      * @return lista de clientes que coinciden con el id (puede estar vacía)
      * @since 1.0
      */
     public List<Cliente> buscarPorId(String id) {
-        return Stream.of(
-                        colaUrgentes.stream(),
-                        colaNormales.stream(),
-                        historial.stream()
-                ).flatMap(s -> s)
-                .filter(c -> c.getId().equalsIgnoreCase(id))
-                .toList();
+        long buscado = IdCliente.parsear(id);
+        if (buscado < 0) return List.of();
+        long sello = cerrojo.readLock();
+        try {
+            return Stream.of(
+                            colaUrgentes.stream().filter(c -> c.getIdNumerico() == buscado),
+                            colaNormales.stream().filter(c -> c.getIdNumerico() == buscado),
+                            historial.buscarPorId(buscado).stream()
+                    ).flatMap(s -> s)
+                    .toList();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
     }
 
     /**
@@ -168,13 +442,17 @@ public class GestionAtencion {
      * @since 1.0
      */
     public List<Cliente> buscarPorPrioridad(Prioridad prioridad) {
-        return Stream.of(
-                        colaUrgentes.stream(),
-                        colaNormales.stream(),
-                        historial.stream()
-                ).flatMap(s -> s)
-                .filter(c -> c.getPrioridad().equals(prioridad))
-                .toList();
+        long sello = cerrojo.readLock();
+        try {
+            return Stream.of(
+                            colaUrgentes.stream().filter(c -> c.getPrioridad().equals(prioridad)),
+                            colaNormales.stream().filter(c -> c.getPrioridad().equals(prioridad)),
+                            historial.buscarPorPrioridad(prioridad).stream()
+                    ).flatMap(s -> s)
+                    .toList();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
     }
 
     /**
@@ -185,60 +463,746 @@ public class GestionAtencion {
      * @since 1.0
      */
     public List<Cliente> buscarPorTipo(TipoSolicitud tipo) {
-        return Stream.of(
-                        colaUrgentes.stream(),
-                        colaNormales.stream(),
-                        historial.stream()
-                ).flatMap(s -> s)
-                .filter(c -> c.getTipoSolicitud().equals(tipo))
-                .toList();
+        long sello = cerrojo.readLock();
+        try {
+            return Stream.of(
+                            colaUrgentes.stream().filter(c -> c.getTipoSolicitud().equals(tipo)),
+                            colaNormales.stream().filter(c -> c.getTipoSolicitud().equals(tipo)),
+                            historial.buscarPorTipo(tipo).stream()
+                    ).flatMap(s -> s)
+                    .toList();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
     }
 
     /**
-     * Deshace la última acción registrada en la pila (AGREGAR, ELIMINAR o ATENDER).
-     * El comportamiento exacto depende del tipo de acción.
+     * Busca clientes (en colas o historial) cuya hora de ingreso está en el rango indicado.
      *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return clientes ingresados en el rango, en orden de llegada
+     * @since 1.1
+     */
+    public List<Cliente> buscarPorRangoIngreso(LocalDateTime desde, LocalDateTime hasta) {
+        List<Cliente> enEspera;
+        List<Cliente> atendidos;
+        long sello = cerrojo.readLock();
+        try {
+            enEspera = indiceIngreso.buscarEntre(desde, hasta);
+            atendidos = historial.buscarEntre(desde, hasta);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+        if (atendidos.isEmpty()) return enEspera;
+        if (enEspera.isEmpty()) return atendidos;
+
+        // Mezcla de dos listas ya ordenadas por hora de ingreso
+        List<Cliente> resultado = new ArrayList<>(enEspera.size() + atendidos.size());
+        int i = 0, j = 0;
+        while (i < enEspera.size() && j < atendidos.size()) {
+            if (atendidos.get(j).getIngresoMs() > enEspera.get(i).getIngresoMs()) {
+                resultado.add(enEspera.get(i++));
+            } else {
+                resultado.add(atendidos.get(j++));
+            }
+        }
+        resultado.addAll(enEspera.subList(i, enEspera.size()));
+        resultado.addAll(atendidos.subList(j, atendidos.size()));
+        return resultado;
+    }
+
+    // ------------------------------------------------------
+    // Deshacer / rehacer
+    // ------------------------------------------------------
+    /**
+     * Deshace la última operación aplicada (AGREGAR, ELIMINAR o ATENDER), restaurando la
+     * posición original en la cola y el estado del ciclo prioritario. Puede llamarse
+     * repetidamente hasta vaciar el registro de comandos, que retiene como mucho
+     * {@link #getLimiteDeshacer()} operaciones.
+     *
+     * @return la {@link Accion} deshecha o {@code null} si no hay nada que deshacer
      * @since 1.0
      */
-    public void deshacerUltimaAccion() {
-        if (pilaAcciones.isEmpty()) return;
+    public Accion deshacerUltimaAccion() {
+        if (comandosDeshacer.isEmpty()) return null;
+        long inicio = System.nanoTime();
+        EventoJfrDeshacer evento = EventoJfrDeshacer.iniciar();
+
+        long sello = cerrojo.writeLock();
+        Comando cmd;
+        long numero;
+        try {
+            cmd = comandosDeshacer.pop();
+            revertir(cmd);
+            comandosRehacer.push(cmd);
+            numero = ++secuencia;
+            registro.registrar(TipoAccion.RESTAURAR, cmd.cliente(), System.currentTimeMillis());
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+        revisarSaturacion();
+
+        publicar(numero, TipoAccion.RESTAURAR, cmd);
+        operaciones.registrar(TipoAccion.RESTAURAR, System.nanoTime() - inicio);
+        if (evento != null) evento.cerrar(cmd.cliente(), cmd.cola.size());
+        return cmd.accion();
+    }
+
+    /**
+     * Vuelve a aplicar la última operación deshecha, con el mismo cliente, posición y
+     * tiempos que la original. Cualquier operación nueva descarta lo que quede por rehacer.
+     *
+     * @return la {@link Accion} rehecha o {@code null} si no hay nada que rehacer
+     * @since 1.1
+     */
+    public Accion rehacerAccion() {
+        if (comandosRehacer.isEmpty()) return null;
+        long inicio = System.nanoTime();
+        EventoJfrRehacer evento = EventoJfrRehacer.iniciar();
+
+        long sello = cerrojo.writeLock();
+        Comando cmd;
+        long numero;
+        try {
+            cmd = comandosRehacer.pop();
+            aplicar(cmd);
+            apilarDeshacer(cmd);
+            numero = ++secuencia;
+            registro.registrar(TipoAccion.REHACER, cmd.cliente(), System.currentTimeMillis());
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+        revisarSaturacion();
+
+        publicar(numero, TipoAccion.REHACER, cmd);
+        operaciones.registrar(TipoAccion.REHACER, System.nanoTime() - inicio);
+        if (evento != null) evento.cerrar(cmd.cliente(), cmd.cola.size());
+        return cmd.accion();
+    }
+
+    /**
+     * Indica si hay operaciones que deshacer.
+     *
+     * @return {@code true} si {@link #deshacerUltimaAccion()} tendría efecto
+     * @since 1.1
+     */
+    public boolean puedeDeshacer() {
+        return !comandosDeshacer.isEmpty();
+    }
 
-        // Miramos la última acción sin borrarla todavía
-        Accion ultima = pilaAcciones.peek();
-        Cliente c = ultima.getCliente();
+    /**
+     * Indica si hay operaciones deshechas que se pueden rehacer.
+     *
+     * @return {@code true} si {@link #rehacerAccion()} tendría efecto
+     * @since 1.1
+     */
+    public boolean puedeRehacer() {
+        return !comandosRehacer.isEmpty();
+    }
 
-        switch (ultima.getTipoAccion()) {
+    /**
+     * Limita cuántas operaciones se pueden deshacer. Cada operación retenida mantiene vivo su
+     * cliente y su nodo de cola, así que sin límite el registro crecería durante toda la
+     * ejecución aunque el historial viva fuera del heap. Al superarse se olvidan las más
+     * antiguas, que son las últimas que se desharían.
+     *
+     * @param limite operaciones retenidas (0 desactiva deshacer)
+     * @throws IllegalArgumentException si el límite es negativo
+     * @since 1.1
+     */
+    public void configurarLimiteDeshacer(int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite de deshacer no puede ser negativo");
+        }
+        limiteDeshacer = limite;
+        while (comandosDeshacer.size() > limite) {
+            reciclar(comandosDeshacer.removeLast());
+        }
+        while (comandosRehacer.size() > limite) {
+            reciclar(comandosRehacer.removeLast());
+        }
+    }
+
+    /**
+     * Devuelve cuántas operaciones se pueden deshacer como máximo.
+     *
+     * @return límite configurado
+     * @since 1.1
+     */
+    public int getLimiteDeshacer() {
+        return limiteDeshacer;
+    }
+
+    // Apila la operación y olvida la más antigua si se supera el límite
+    private void apilarDeshacer(Comando cmd) {
+        comandosDeshacer.push(cmd);
+        if (comandosDeshacer.size() > limiteDeshacer) {
+            reciclar(comandosDeshacer.removeLast());
+        }
+    }
+
+    // Una operación nueva invalida todo lo que quedaba por rehacer
+    private void descartarRehacer() {
+        while (!comandosRehacer.isEmpty()) {
+            reciclar(comandosRehacer.pop());
+        }
+    }
+
+    /*
+     * Los comandos salen de la reserva de olvidados y solo se crean si está vacía, así que
+     * con el registro de deshacer lleno cada operación reutiliza el que expulsa. Un comando
+     * olvidado puede seguir en uso hasta que su operación termina de publicarse; como solo
+     * el hilo que modifica el gestor toma comandos, el siguiente no sale hasta después.
+     */
+    private Comando comando(TipoAccion tipo, ColaEnlazada cola, ColaEnlazada.Nodo nodo, int cicloAntes,
+                            long registradoMs) {
+        Comando cmd = comandosLibres.poll();
+        return cmd == null
+                ? new Comando(tipo, cola, nodo, cicloAntes, registradoMs)
+                : cmd.preparar(tipo, cola, nodo, cicloAntes, registradoMs);
+    }
+
+    private void reciclar(Comando cmd) {
+        if (comandosLibres.size() < MAX_COMANDOS_LIBRES) comandosLibres.push(cmd);
+    }
+
+    /*
+     * Aplica una operación nueva: la registra y descarta el historial de rehacer. El cambio
+     * de estado y la secuencia se hacen con el cerrojo de escritura tomado, para que las
+     * instantáneas no vean estados a medias; los oyentes se avisan ya sin él.
+     */
+    private void ejecutar(Comando cmd) {
+        long sello = cerrojo.writeLock();
+        long numero;
+        try {
+            aplicar(cmd);
+            apilarDeshacer(cmd);
+            descartarRehacer();
+            numero = ++secuencia;
+            registro.registrar(cmd.tipo, cmd.cliente(), cmd.registradoMs);
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+        revisarSaturacion();
+        publicar(numero, cmd.tipo, cmd);
+    }
+
+    private void publicar(long secuencia, TipoAccion tipo, Comando cmd) {
+        if (oyentes.isEmpty()) return;
+        Cliente c = cmd.cliente();
+        OperacionGestion op = new OperacionGestion(secuencia, tipo, c.getId(), c.getNombre(),
+                c.getTipoSolicitud(), c.getPrioridad(), c.getIngresoMs(), cmd.atencionMs, cmd.tiempoAtencion);
+        for (OyenteOperaciones oyente : oyentes) {
+            oyente.operacionAplicada(op);
+        }
+    }
+
+    private void aplicar(Comando cmd) {
+        Cliente c = cmd.cliente();
+        switch (cmd.tipo) {
             case AGREGAR:
-                if (c.getPrioridad() == Prioridad.URGENTE) {
-                    colaUrgentes.remove(c);
-                } else {
-                    colaNormales.remove(c);
-                }
+                cmd.cola.reenlazar(cmd.nodo);
+                indiceIngreso.insertar(c);
+                conteos.sumar(c, CuboConteos.Estado.EN_ESPERA);
+                metricas.registrarIngreso(c.getIngresoMs());
+                programarVencimiento(cmd.nodo);
                 break;
 
             case ELIMINAR:
-                if (c.getPrioridad() == Prioridad.URGENTE) {
-                    colaUrgentes.addFirst(c);
-                } else {
-                    colaNormales.addFirst(c);
-                }
+                cmd.cola.desenlazar(cmd.nodo);
+                indiceIngreso.eliminar(c);
+                conteos.restar(c, CuboConteos.Estado.EN_ESPERA);
+                cancelarVencimiento(c);
                 break;
 
             case ATENDER:
-                historial.remove(c);
-                if (c.getPrioridad() == Prioridad.URGENTE) {
-                    colaUrgentes.addFirst(c);
-                } else {
-                    colaNormales.addFirst(c);
-                }
+                cmd.cola.desenlazar(cmd.nodo);
+                indiceIngreso.eliminar(c);
+                cancelarVencimiento(c);
+                c.setTiempoAtencion(cmd.tiempoAtencion);
+                c.setAtencionMs(cmd.atencionMs);
+                historial.agregar(c);
+                conteos.mover(c, CuboConteos.Estado.EN_ESPERA, CuboConteos.Estado.ATENDIDO);
+                registrarTiempo(c);
+                break;
+
+            case ESCALAR:
+                cmd.cola.desenlazar(cmd.nodo);
+                cmd.colaDestino.reenlazar(cmd.nodoDestino);
+                break;
+
+            case DESVIAR:
+                cmd.cola.reenlazar(cmd.nodo);
+                metricas.registrarIngreso(c.getIngresoMs());
+                desviados++;
                 break;
+
+            case READMITIR:
+                cmd.cola.desenlazar(cmd.nodo);
+                cmd.colaDestino.reenlazar(cmd.nodoDestino);
+                desviados--;
+                indiceIngreso.insertar(c);
+                conteos.sumar(c, CuboConteos.Estado.EN_ESPERA);
+                programarVencimiento(cmd.nodoDestino);
+                break;
+
+            case DESCARTAR:
+                cmd.cola.desenlazar(cmd.nodo);
+                indiceIngreso.eliminar(c);
+                conteos.restar(c, CuboConteos.Estado.EN_ESPERA);
+                cancelarVencimiento(c);
+                descartados++;
+                break;
+
+            default:
+                break;
+        }
+        cicloPrioritario = cmd.cicloDespues;
+    }
+
+    private void revertir(Comando cmd) {
+        Cliente c = cmd.cliente();
+        switch (cmd.tipo) {
+            case AGREGAR:
+                cmd.cola.desenlazar(cmd.nodo);
+                indiceIngreso.eliminar(c);
+                conteos.restar(c, CuboConteos.Estado.EN_ESPERA);
+                metricas.retirarIngreso(c.getIngresoMs());
+                cancelarVencimiento(c);
+                break;
+
+            case ELIMINAR:
+                cmd.cola.reenlazar(cmd.nodo);
+                indiceIngreso.insertar(c);
+                conteos.sumar(c, CuboConteos.Estado.EN_ESPERA);
+                programarVencimiento(cmd.nodo);
+                break;
+
+            case ATENDER:
+                historial.quitarUltimo(); // LIFO: el último atendido es este cliente
+                conteos.mover(c, CuboConteos.Estado.ATENDIDO, CuboConteos.Estado.EN_ESPERA);
+                retirarTiempo(c);
+                c.setHoraAtencion(null);
+                c.setTiempoAtencion(0);
+                cmd.cola.reenlazar(cmd.nodo);
+                indiceIngreso.insertar(c);
+                programarVencimiento(cmd.nodo);
+                break;
+
+            case ESCALAR:
+                // El cliente sigue marcado como vencido, así que no vuelve a escalarse solo
+                cmd.colaDestino.desenlazar(cmd.nodoDestino);
+                cmd.cola.reenlazar(cmd.nodo);
+                break;
+
+            case DESVIAR:
+                cmd.cola.desenlazar(cmd.nodo);
+                metricas.retirarIngreso(c.getIngresoMs());
+                desviados--;
+                break;
+
+            case READMITIR:
+                cancelarVencimiento(c);
+                indiceIngreso.eliminar(c);
+                conteos.restar(c, CuboConteos.Estado.EN_ESPERA);
+                cmd.colaDestino.desenlazar(cmd.nodoDestino);
+                cmd.cola.reenlazar(cmd.nodo);
+                desviados++;
+                break;
+
+            case DESCARTAR:
+                cmd.cola.reenlazar(cmd.nodo);
+                indiceIngreso.insertar(c);
+                conteos.sumar(c, CuboConteos.Estado.EN_ESPERA);
+                programarVencimiento(cmd.nodo);
+                descartados--;
+                break;
+
+            default:
+                break;
+        }
+        cicloPrioritario = cmd.cicloAntes;
+    }
+
+    // ------------------------------------------------------
+    // Envejecimiento por nivel de servicio
+    // ------------------------------------------------------
+    /**
+     * Activa, cambia o desactiva el envejecimiento de los clientes en espera.
+     *
+     * <p>Cada cliente en espera cuyo tipo tenga umbral recibe un vencimiento en una
+     * {@link RuedaTemporizadores rueda de temporizadores}; atenderlo, eliminarlo o deshacer su
+     * alta lo cancela y deshacer su atención o eliminación lo vuelve a programar. Los
+     * vencimientos se procesan en {@link #revisarVencimientos()}, que también se llama al
+     * atender. En una réplica no debe configurarse: las escalaciones llegan del primario.
+     *
+     * @param politica política a aplicar, o {@code null} para desactivar el envejecimiento
+     * @since 1.1
+     */
+    public void configurarEnvejecimiento(PoliticaEnvejecimiento politica) {
+        if (vencimientos != null) {
+            for (ColaEnlazada cola : List.of(colaUrgentes, colaNormales)) {
+                for (Cliente c : cola) cancelarVencimiento(c);
+            }
+        }
+        envejecimiento = politica;
+        vencimientos = politica == null ? null
+                : new RuedaTemporizadores(TICK_VENCIMIENTOS_MS, RANURAS_VENCIMIENTOS, System.currentTimeMillis());
+        if (politica != null) {
+            for (ColaEnlazada cola : List.of(colaUrgentes, colaNormales)) {
+                for (ColaEnlazada.Nodo n = cola.primero(); n != null && n.cliente != null; n = n.siguiente) {
+                    programarVencimiento(n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Devuelve la política de envejecimiento activa.
+     *
+     * @return política, o {@code null} si los clientes no envejecen
+     * @since 1.1
+     */
+    public PoliticaEnvejecimiento getEnvejecimiento() {
+        return envejecimiento;
+    }
+
+    /**
+     * Procesa los vencimientos de espera ocurridos hasta ahora: marca a cada cliente vencido
+     * y, en modo {@link PoliticaEnvejecimiento.Modo#ESCALAR}, pasa los normales a la cola
+     * de urgentes (como una operación {@link TipoAccion#ESCALAR} que se publica y se puede
+     * deshacer). Cuesta O(1) por tick transcurrido más O(1) por vencimiento.
+     *
+     * @return número de clientes que vencieron
+     * @since 1.1
+     */
+    public int revisarVencimientos() {
+        if (vencimientos == null) return 0;
+        return vencimientos.avanzar(System.currentTimeMillis(), alVencer);
+    }
+
+    /**
+     * Devuelve cuántos clientes en espera tienen un vencimiento pendiente.
+     *
+     * @return temporizadores programados
+     * @since 1.1
+     */
+    public int getVencimientosPendientes() {
+        return vencimientos == null ? 0 : vencimientos.tamano();
+    }
+
+    private void vencer(ColaEnlazada.Nodo nodo) {
+        Cliente c = nodo.cliente;
+        c.temporizador = null;
+        c.setVencido(true);
+        if (envejecimiento.getModo() == PoliticaEnvejecimiento.Modo.ESCALAR
+                && c.getPrioridad() == Prioridad.NORMAL) {
+            escalar(nodo);
+        }
+    }
+
+    // Pasa un normal de su posición en la cola de normales al final de la de urgentes
+    private void escalar(ColaEnlazada.Nodo nodo) {
+        long inicio = System.nanoTime();
+        Cliente c = nodo.cliente;
+        c.setVencido(true);
+        Comando cmd = comando(TipoAccion.ESCALAR, colaNormales, nodo, cicloPrioritario, System.currentTimeMillis());
+        cmd.colaDestino = colaUrgentes;
+        cmd.nodoDestino = colaUrgentes.nodoAlFinal(c);
+        ejecutar(cmd);
+        operaciones.registrar(TipoAccion.ESCALAR, System.nanoTime() - inicio);
+    }
+
+    private void programarVencimiento(ColaEnlazada.Nodo nodo) {
+        Cliente c = nodo.cliente;
+        if (vencimientos == null || c.isVencido() || c.temporizador != null) return;
+        Duration umbral = envejecimiento.getUmbral(c.getTipoSolicitud());
+        if (umbral == null) return;
+        c.temporizador = vencimientos.programar(nodo, c.getIngresoMs() + umbral.toMillis());
+    }
+
+    private void cancelarVencimiento(Cliente c) {
+        if (c.temporizador == null) return;
+        vencimientos.cancelar(c.temporizador);
+        c.temporizador = null;
+    }
+
+    // ------------------------------------------------------
+    // Control de admisión y saturación
+    // ------------------------------------------------------
+    /**
+     * Activa, cambia o desactiva el límite de capacidad de las colas.
+     *
+     * <p>Con la política activa, {@link #agregarCliente} aplica su {@link PoliticaAdmision.Modo}
+     * cuando la cola del cliente está llena. Desviar y descartar quedan registrados como
+     * operaciones ({@link TipoAccion#DESVIAR}, {@link TipoAccion#DESCARTAR}) que se publican
+     * y se pueden deshacer; los desviados vuelven a su cola en orden de llegada, como
+     * operación {@link TipoAccion#READMITIR}, en cuanto esta tiene sitio. Reducir la
+     * capacidad no expulsa a nadie; desactivar la política readmite a todos los desviados.
+     * En una réplica no debe configurarse: las decisiones llegan del primario.
+     *
+     * @param politica política a aplicar, o {@code null} para colas sin límite
+     * @since 1.1
+     */
+    public void configurarAdmision(PoliticaAdmision politica) {
+        admision = politica;
+        revisarSaturacion();
+        readmitirDesviados();
+    }
+
+    /**
+     * Devuelve la política de admisión activa.
+     *
+     * @return política, o {@code null} si las colas no tienen límite
+     * @since 1.1
+     */
+    public PoliticaAdmision getAdmision() {
+        return admision;
+    }
+
+    /**
+     * Indica si el total en espera alcanzó la marca alta y aún no bajó a la baja.
+     *
+     * @return {@code true} mientras el gestor está saturado
+     * @since 1.1
+     */
+    public boolean isSaturado() {
+        return saturado;
+    }
+
+    /**
+     * Suscribe un oyente a los cambios de saturación.
+     *
+     * @param oyente oyente a registrar
+     * @since 1.1
+     */
+    public void agregarOyenteSaturacion(OyenteSaturacion oyente) {
+        oyentesSaturacion.add(oyente);
+    }
+
+    /**
+     * Cancela la suscripción de un oyente de saturación.
+     *
+     * @param oyente oyente a quitar
+     * @since 1.1
+     */
+    public void quitarOyenteSaturacion(OyenteSaturacion oyente) {
+        oyentesSaturacion.remove(oyente);
+    }
+
+    /**
+     * Devuelve los clientes desviados que esperan sitio en su cola.
+     *
+     * @param prioridad prioridad de la cola
+     * @return vista de solo lectura en orden de llegada
+     * @since 1.1
+     */
+    public Collection<Cliente> getDesviados(Prioridad prioridad) {
+        return Collections.unmodifiableCollection(desborde[prioridad.ordinal()]);
+    }
+
+    /**
+     * Devuelve cuántos clientes desviados esperan sitio, sumando las dos prioridades. A
+     * diferencia de {@link #getDesviados(Prioridad)}, se puede leer desde cualquier hilo.
+     *
+     * @return clientes en las colas de desborde
+     * @since 1.1
+     */
+    public int getTotalDesviados() {
+        return desviados;
+    }
+
+    /**
+     * Devuelve cuántas altas se rechazaron por tener la cola llena.
+     *
+     * @return altas rechazadas desde la creación del gestor
+     * @since 1.1
+     */
+    public int getRechazados() {
+        return rechazados;
+    }
+
+    /**
+     * Devuelve cuántos normales se descartaron para admitir a otros (sin contar los
+     * descartes deshechos).
+     *
+     * @return clientes descartados
+     * @since 1.1
+     */
+    public int getDescartados() {
+        return descartados;
+    }
+
+    private ColaEnlazada colaDe(Prioridad prioridad) {
+        return prioridad == Prioridad.URGENTE ? colaUrgentes : colaNormales;
+    }
+
+    private Cliente desviar(long id, String nombre, TipoSolicitud tipo, long horaIngreso) {
+        long inicio = System.nanoTime();
+        ColaEnlazada espera = desborde[IdCliente.prioridad(id).ordinal()];
+        Cliente nuevo = new Cliente(id, nombre, tipo, horaIngreso);
+        ejecutar(comando(TipoAccion.DESVIAR,
+                espera, espera.nodoAlFinal(nuevo), cicloPrioritario, System.currentTimeMillis()));
+        operaciones.registrar(TipoAccion.DESVIAR, System.nanoTime() - inicio);
+        return nuevo;
+    }
+
+    private void descartar(ColaEnlazada.Nodo nodo) {
+        long inicio = System.nanoTime();
+        ejecutar(comando(TipoAccion.DESCARTAR, colaNormales, nodo, cicloPrioritario, System.currentTimeMillis()));
+        operaciones.registrar(TipoAccion.DESCARTAR, System.nanoTime() - inicio);
+    }
+
+    // Pasa el primer desviado de la prioridad al final de su cola
+    private void readmitir(Prioridad prioridad) {
+        long inicio = System.nanoTime();
+        ColaEnlazada espera = desborde[prioridad.ordinal()];
+        ColaEnlazada cola = colaDe(prioridad);
+        ColaEnlazada.Nodo nodo = espera.primero();
+        Comando cmd = comando(TipoAccion.READMITIR, espera, nodo, cicloPrioritario, System.currentTimeMillis());
+        cmd.colaDestino = cola;
+        cmd.nodoDestino = cola.nodoAlFinal(nodo.cliente);
+        ejecutar(cmd);
+        operaciones.registrar(TipoAccion.READMITIR, System.nanoTime() - inicio);
+    }
+
+    private void readmitirDesviados() {
+        for (Prioridad p : PRIORIDADES) {
+            ColaEnlazada espera = desborde[p.ordinal()];
+            while (!espera.isEmpty() && (admision == null || colaDe(p).size() < admision.getCapacidad(p))) {
+                readmitir(p);
+            }
         }
+    }
 
-        //  Ahora sí registramos la nueva acción sin borrar la anterior
-        pilaAcciones.push(new Accion(TipoAccion.RESTAURAR, c));
+    // Histéresis: entra en saturación en la marca alta y sale en la baja
+    private void revisarSaturacion() {
+        int enEspera = colaUrgentes.size() + colaNormales.size();
+        boolean antes = saturado;
+        if (admision == null) {
+            saturado = false;
+        } else if (!saturado && enEspera >= admision.getMarcaAlta()) {
+            saturado = true;
+        } else if (saturado && enEspera <= admision.getMarcaBaja()) {
+            saturado = false;
+        }
+        if (saturado != antes) {
+            for (OyenteSaturacion oyente : oyentesSaturacion) {
+                oyente.saturacionCambiada(saturado, enEspera);
+            }
+        }
     }
 
+    // ------------------------------------------------------
+    // Registro de operaciones (oyentes y réplicas)
+    // ------------------------------------------------------
+    /**
+     * Suscribe un oyente que recibirá, en orden, cada operación aplicada a partir de ahora.
+     *
+     * @param oyente oyente a registrar
+     * @since 1.1
+     */
+    public void agregarOyente(OyenteOperaciones oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Cancela la suscripción de un oyente.
+     *
+     * @param oyente oyente a quitar
+     * @since 1.1
+     */
+    public void quitarOyente(OyenteOperaciones oyente) {
+        oyentes.remove(oyente);
+    }
 
+    /**
+     * Devuelve el número de la última operación aplicada (0 si no hubo ninguna).
+     *
+     * @return secuencia de la última operación
+     * @since 1.1
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Repite en esta instancia una operación publicada por otra (modo réplica). Las
+     * operaciones deben aplicarse en orden de secuencia sobre una réplica con el mismo
+     * estado de partida; los datos del cliente y los tiempos se toman de la operación.
+     *
+     * @param op operación a repetir
+     * @throws IllegalStateException si la operación no corresponde al estado de la réplica
+     * @since 1.1
+     */
+    public void aplicarOperacion(OperacionGestion op) {
+        if (op.getSecuencia() != secuencia + 1) {
+            throw new IllegalStateException("Secuencia " + op.getSecuencia()
+                    + " fuera de orden; se esperaba " + (secuencia + 1));
+        }
+        boolean aplicada;
+        switch (op.getTipo()) {
+            case AGREGAR:
+                long id = IdCliente.parsear(op.getIdCliente(), true);
+                actualizarContadores(id);
+                agregar(id, op.getNombre(), op.getTipoSolicitud(), op.getIngresoMs());
+                aplicada = true;
+                break;
+            case ATENDER:
+                Cliente c = atender(op.getTiempoAtencion(), op.getAtencionMs());
+                aplicada = c != null && c.getId().equals(op.getIdCliente());
+                break;
+            case ELIMINAR:
+                aplicada = eliminar(op.getIdCliente());
+                break;
+            case RESTAURAR:
+                aplicada = deshacerUltimaAccion() != null;
+                break;
+            case REHACER:
+                aplicada = rehacerAccion() != null;
+                break;
+            case ESCALAR:
+                long escalado = IdCliente.parsear(op.getIdCliente());
+                ColaEnlazada.Nodo nodo = colaNormales.buscar(x -> x.getIdNumerico() == escalado);
+                if (nodo != null) escalar(nodo);
+                aplicada = nodo != null;
+                break;
+            case DESVIAR:
+                long desviado = IdCliente.parsear(op.getIdCliente(), true);
+                actualizarContadores(desviado);
+                desviar(desviado, op.getNombre(), op.getTipoSolicitud(), op.getIngresoMs());
+                aplicada = true;
+                break;
+            case READMITIR:
+                ColaEnlazada espera = desborde[op.getPrioridad().ordinal()];
+                aplicada = !espera.isEmpty() && espera.peek().getId().equals(op.getIdCliente());
+                if (aplicada) readmitir(op.getPrioridad());
+                break;
+            case DESCARTAR:
+                aplicada = !colaNormales.isEmpty() && colaNormales.peek().getId().equals(op.getIdCliente());
+                if (aplicada) descartar(colaNormales.primero());
+                break;
+            default:
+                aplicada = false;
+        }
+        if (!aplicada) {
+            throw new IllegalStateException("La réplica divergió al aplicar " + op);
+        }
+    }
+
+    // Mantiene los contadores por encima de los ids recibidos para que no se repitan
+    private void actualizarContadores(long id) {
+        if (id < 0) {
+            throw new IllegalStateException("Id de cliente no válido en la operación replicada");
+        }
+        int numero = (int) IdCliente.numero(id);
+        if (IdCliente.prioridad(id) == Prioridad.URGENTE) {
+            contadorUrgentes = Math.max(contadorUrgentes, numero + 1);
+        } else {
+            contadorNormales = Math.max(contadorNormales, numero + 1);
+        }
+    }
 
     // ------------------------------------------------------
     // Estadísticas y contadores
@@ -260,21 +1224,19 @@ public class GestionAtencion {
      * @since 1.0
      */
     public int getTotalAtendidos() {
-        return historial.size();
+        return historial.tamano();
     }
 
     /**
-     * Calcula el promedio del tiempo de atención de los clientes del historial.
+     * Calcula el promedio del tiempo de atención de los clientes del historial, a partir de
+     * la suma que se mantiene al atender y deshacer.
      *
      * @return promedio en minutos (0 si no hay historial)
      * @since 1.0
      */
     public double getPromedioTiempoAtencion() {
-        if (historial.isEmpty()) return 0;
-        return historial.stream()
-                .mapToDouble(Cliente::getTiempoAtencion)
-                .average()
-                .orElse(0);
+        if (historial.tamano() == 0) return 0;
+        return sumaTiempoAtencion / historial.tamano();
     }
 
     /**
@@ -285,9 +1247,7 @@ public class GestionAtencion {
      * @since 1.0
      */
     public long contarPorTipo(TipoSolicitud tipo) {
-        return historial.stream()
-                .filter(c -> c.getTipoSolicitud().equals(tipo))
-                .count();
+        return tiempoPorTipo.get(tipo).getTotal(); // un registro por cliente atendido
     }
 
     /**
@@ -298,19 +1258,239 @@ public class GestionAtencion {
      * @since 1.0
      */
     public long contarPorPrioridad(Prioridad prioridad) {
-        return historial.stream()
-                .filter(c -> c.getPrioridad().equals(prioridad))
-                .count();
+        return tiempoPorPrioridad.get(prioridad).getTotal();
     }
 
 
 
 
+    /**
+     * Devuelve los conteos cruzados tipo × prioridad × estado de los clientes en cola y
+     * atendidos, que se mantienen con cada operación y se leen en tiempo constante.
+     *
+     * @return cubo de conteos del gestor (solo lectura)
+     * @since 1.1
+     */
+    public CuboConteos getConteos() {
+        return conteos;
+    }
+
+    /**
+     * Cuenta los clientes ingresados en el rango indicado, sin recorrer colas ni historial.
+     *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return número de ingresos en el rango
+     * @since 1.1
+     */
+    public int contarIngresosEntre(LocalDateTime desde, LocalDateTime hasta) {
+        long sello = cerrojo.readLock();
+        try {
+            return indiceIngreso.contarEntre(desde, hasta) + historial.contarEntre(desde, hasta);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Cuenta los clientes ingresados dentro de la ventana que termina en el instante actual.
+     *
+     * @param ventana duración de la ventana (ej. {@code Duration.ofHours(1)})
+     * @return número de ingresos en la ventana
+     * @since 1.1
+     */
+    public int contarIngresosRecientes(Duration ventana) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return contarIngresosEntre(ahora.minus(ventana), ahora.plusNanos(1_000_000));
+    }
+
+    /**
+     * Devuelve los percentiles del tiempo de atención para un tipo de solicitud.
+     * Se calcula sobre histogramas acumulados al atender, sin recorrer el historial.
+     *
+     * @param tipo tipo de solicitud
+     * @return resumen p50/p90/p99/máximo en milisegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getPercentilesTiempoAtencion(TipoSolicitud tipo) {
+        return tiempoPorTipo.get(tipo).resumen();
+    }
+
+    /**
+     * Devuelve los percentiles del tiempo de atención para una prioridad.
+     * Se calcula sobre histogramas acumulados al atender, sin recorrer el historial.
+     *
+     * @param prioridad prioridad a consultar
+     * @return resumen p50/p90/p99/máximo en milisegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getPercentilesTiempoAtencion(Prioridad prioridad) {
+        return tiempoPorPrioridad.get(prioridad).resumen();
+    }
+
+    /**
+     * Devuelve los medidores de ventana deslizante (ingresos/min, atendidos/min y espera
+     * media/p95 en los últimos 5, 15 o 60 minutos).
+     *
+     * @return {@link MetricasVentana} del sistema
+     * @since 1.1
+     */
+    public MetricasVentana getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Devuelve los agregados por minuto, hora y día del volumen y el tiempo de atención,
+     * para consultar tendencias sin recorrer el historial.
+     *
+     * @return {@link AgregadosTemporales} del sistema
+     * @since 1.1
+     */
+    public AgregadosTemporales getAgregados() {
+        return agregados;
+    }
+
+    /**
+     * Devuelve los contadores y latencias por operación (agregar, atender, eliminar, deshacer).
+     *
+     * @return {@link MetricasOperacion} del modelo
+     * @since 1.1
+     */
+    public MetricasOperacion getMetricasOperacion() {
+        return operaciones;
+    }
+
+    /**
+     * Devuelve el estado del ciclo de atención: cuántos urgentes se han atendido desde el
+     * último normal (0, 1 o 2).
+     *
+     * @return valor actual del ciclo prioritario
+     * @since 1.1
+     */
+    public int getCicloPrioritario() {
+        return cicloPrioritario;
+    }
+
+    HistogramaLatencia histogramaTiempo(Prioridad prioridad) {
+        return tiempoPorPrioridad.get(prioridad);
+    }
+
+    HistogramaLatencia histogramaTiempo(TipoSolicitud tipo) {
+        return tiempoPorTipo.get(tipo);
+    }
+
+    private void registrarTiempo(Cliente c) {
+        long ms = Math.round(c.getTiempoAtencion() * 60_000);
+        tiempoPorTipo.get(c.getTipoSolicitud()).registrar(ms);
+        tiempoPorPrioridad.get(c.getPrioridad()).registrar(ms);
+        sumaTiempoAtencion += c.getTiempoAtencion();
+        agregados.registrar(c.getAtencionMs(), c.getTipoSolicitud(), c.getPrioridad(), ms);
+        metricas.registrarAtencion(c.getAtencionMs(), esperaMs(c));
+    }
+
+    private void retirarTiempo(Cliente c) {
+        long ms = Math.round(c.getTiempoAtencion() * 60_000);
+        tiempoPorTipo.get(c.getTipoSolicitud()).retirar(ms);
+        tiempoPorPrioridad.get(c.getPrioridad()).retirar(ms);
+        sumaTiempoAtencion = historial.tamano() == 0 ? 0 : sumaTiempoAtencion - c.getTiempoAtencion();
+        agregados.retirar(c.getAtencionMs(), c.getTipoSolicitud(), c.getPrioridad(), ms);
+        metricas.retirarAtencion(c.getAtencionMs(), esperaMs(c));
+    }
+
+    private static long esperaMs(Cliente c) {
+        return c.getAtencionMs() - c.getIngresoMs();
+    }
+
+    // ------------------------------------------------------
+    // Instantáneas para lectores de otros hilos
+    // ------------------------------------------------------
+    /**
+     * Devuelve una imagen inmutable y coherente de las colas y el historial, que se puede
+     * leer desde cualquier hilo mientras el gestor sigue operando.
+     *
+     * <p>Primero intenta una lectura optimista sin bloquear y solo si una escritura se cruzó,
+     * o si alguna cola cambió desde la instantánea anterior, lee con el cerrojo de lectura.
+     * Cada cola aplica a su última {@link ColaPersistente} solo los cambios posteriores, y
+     * el historial se comparte cuando el almacén lo permite
+     * ({@link AlmacenHistorial#instantanea()}), así que no se copia nada entero.
+     *
+     * @return instantánea del estado actual
+     * @since 1.1
+     */
+    public InstantaneaGestion instantanea() {
+        long sello = cerrojo.tryOptimisticRead();
+        if (sello != 0) {
+            try {
+                // Sin cerrojo solo sirven versiones de las colas ya construidas
+                ColaPersistente urgentes = colaUrgentes.instantaneaVigente();
+                ColaPersistente normales = colaNormales.instantaneaVigente();
+                if (urgentes != null && normales != null) {
+                    InstantaneaGestion i = new InstantaneaGestion(secuencia, urgentes, normales,
+                            historial.instantanea());
+                    if (cerrojo.validate(sello)) return i;
+                }
+            } catch (RuntimeException e) {
+                // Una escritura concurrente dejó la lectura a medias: se repite con el cerrojo
+            }
+        }
+        sello = cerrojo.readLock();
+        try {
+            return new InstantaneaGestion(secuencia, colaUrgentes.instantanea(), colaNormales.instantanea(),
+                    historial.instantanea());
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Calcula con el cerrojo de lectura las cifras que muestran las estadísticas (totales,
+     * promedio y percentiles del tiempo de atención, ingresos de la última hora y conteos),
+     * para leerlas desde cualquier hilo mientras el gestor sigue operando.
+     *
+     * @return estadísticas del estado actual
+     * @since 1.1
+     */
+    public EstadisticasGestion estadisticas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        long sello = cerrojo.readLock();
+        try {
+            EnumMap<Prioridad, ResumenPercentiles> porPrioridad = new EnumMap<>(Prioridad.class);
+            for (Prioridad p : Prioridad.values()) porPrioridad.put(p, tiempoPorPrioridad.get(p).resumen());
+            EnumMap<TipoSolicitud, ResumenPercentiles> porTipo = new EnumMap<>(TipoSolicitud.class);
+            for (TipoSolicitud t : TipoSolicitud.values()) porTipo.put(t, tiempoPorTipo.get(t).resumen());
+            LocalDateTime desde = ahora.minusHours(1);
+            LocalDateTime hasta = ahora.plusNanos(1_000_000);
+            return new EstadisticasGestion(secuencia, getTotalEnEspera(), getTotalAtendidos(),
+                    getPromedioTiempoAtencion(),
+                    indiceIngreso.contarEntre(desde, hasta) + historial.contarEntre(desde, hasta),
+                    porPrioridad, porTipo, conteos.copia());
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Copia con el cerrojo de lectura el registro de operaciones, para recorrerlo desde
+     * otro hilo sin que las operaciones nuevas muevan las posiciones.
+     *
+     * @return registro con las mismas operaciones retenidas que {@link #getRegistro()}
+     * @since 1.1
+     */
+    public RegistroOperaciones instantaneaRegistro() {
+        long sello = cerrojo.readLock();
+        try {
+            return registro.copia();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
     // ------------------------------------------------------
     // Getters
     // ------------------------------------------------------
     /**
-     * Devuelve la cola de urgentes.
+     * Devuelve la cola de urgentes. Es la cola viva: solo debe recorrerla el hilo que
+     * opera el gestor; otros hilos deben usar {@link #instantanea()}.
      *
      * @return {@link Queue} con clientes urgentes en espera
      */
@@ -319,7 +1499,8 @@ public class GestionAtencion {
     }
 
     /**
-     * Devuelve la cola de normales.
+     * Devuelve la cola de normales. Es la cola viva; desde otros hilos, usar
+     * {@link #instantanea()}.
      *
      * @return {@link Queue} con clientes normales en espera
      */
@@ -328,20 +1509,40 @@ public class GestionAtencion {
     }
 
     /**
-     * Devuelve el historial de clientes atendidos.
+     * Devuelve el historial de clientes atendidos en orden de atención. Es una vista viva;
+     * desde otros hilos, usar {@link #instantanea()}.
      *
-     * @return {@link LinkedList} con los clientes atendidos
+     * @return vista de solo lectura del {@link AlmacenHistorial} del gestor
      */
-    public LinkedList<Cliente> getHistorial() {
-        return historial;
+    public List<Cliente> getHistorial() {
+        return historial.vista();
     }
 
     /**
-     * Devuelve la pila de acciones registradas.
+     * Devuelve el registro de operaciones, de la más antigua retenida a la más reciente.
+     * Registrar no crea objetos; solo se reservan al leer. Es el registro vivo; desde otros
+     * hilos, usar {@link #instantaneaRegistro()}.
      *
-     * @return {@link Stack} con las {@link Accion} registradas
+     * @return registro de operaciones del gestor (solo lectura)
+     * @since 1.1
      */
+    public RegistroOperaciones getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Devuelve las acciones registradas como una pila nueva construida a partir de
+     * {@link #getRegistro()}; modificarla no afecta al gestor.
+     *
+     * @return {@link Stack} con las {@link Accion} retenidas en el registro
+     * @deprecated crea una {@link Accion} por operación retenida; usar {@link #getRegistro()}
+     */
+    @Deprecated
     public Stack<Accion> getPilaAcciones() {
-        return pilaAcciones;
+        Stack<Accion> pila = new Stack<>();
+        for (int i = 0; i < registro.tamano(); i++) {
+            pila.push(registro.getAccion(i));
+        }
+        return pila;
     }
 }
@@ -0,0 +1,306 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Gestor de varias sedes (mesas de soporte) independientes, cada una con su propia
+ * {@link GestionAtencion}.
+ *
+ * <p>Cada sede tiene su propio cerrojo, su ciclo 2 urgentes → 1 normal y su espacio de
+ * identificadores ({@code NORTE-U1}, {@code SUR-N3}...). Las operaciones se enrutan por la
+ * clave de la sede, así que sedes distintas no compiten entre sí. Las estadísticas y
+ * búsquedas globales se reparten en paralelo entre las sedes y luego se combinan.
+ *
+ * <p>La aplicación abre una ventana por sede con {@code --sedes=NORTE,SUR}: cada ventana
+ * opera su sede con su propia tubería ({@link #getGestion(String)}) y muestra las cifras
+ * de todas con {@link #estadisticas()}.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class GestionMultiSede {
+
+    private static final class Sede {
+        final GestionAtencion gestion;
+        final ReentrantLock cerrojo = new ReentrantLock();
+
+        Sede(String clave) {
+            this.gestion = new GestionAtencion(clave);
+        }
+
+        <T> T conCerrojo(Function<GestionAtencion, T> operacion) {
+            cerrojo.lock();
+            try {
+                return operacion.apply(gestion);
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    private final Map<String, Sede> sedes = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un gestor sin sedes; se crean al primer uso de cada clave.
+     *
+     * @since 1.1
+     */
+    public GestionMultiSede() {
+    }
+
+    /**
+     * Crea un gestor con las sedes indicadas ya dadas de alta.
+     *
+     * @param claves claves de sede (ej. {@code "NORTE"}, {@code "SUR"})
+     * @since 1.1
+     */
+    public GestionMultiSede(String... claves) {
+        for (String clave : claves) {
+            sede(clave);
+        }
+    }
+
+    // ------------------------------------------------------
+    // Operaciones enrutadas por sede
+    // ------------------------------------------------------
+    /**
+     * Agrega un cliente a la sede indicada.
+     *
+     * @param sede clave de la sede
+     * @param nombre nombre del cliente
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad del cliente
+     * @return el cliente creado, con id en el espacio de la sede
+     * @since 1.1
+     */
+    public Cliente agregarCliente(String sede, String nombre, TipoSolicitud tipo, Prioridad prioridad) {
+        return sede(sede).conCerrojo(g -> g.agregarCliente(nombre, tipo, prioridad));
+    }
+
+    /**
+     * Atiende al siguiente cliente de la sede según su propio ciclo prioritario.
+     *
+     * @param sede clave de la sede
+     * @return cliente atendido o {@code null} si la sede no tiene clientes en espera
+     * @since 1.1
+     */
+    public Cliente atenderCliente(String sede) {
+        return sede(sede).conCerrojo(GestionAtencion::atenderCliente);
+    }
+
+    /**
+     * Elimina un cliente en espera; la sede se deduce del prefijo del id.
+     *
+     * @param id identificador con espacio de sede (ej. {@code NORTE-U4})
+     * @return {@code true} si se eliminó
+     * @since 1.1
+     */
+    public boolean eliminarCliente(String id) {
+        int guion = id.lastIndexOf('-');
+        if (guion <= 0) return false;
+        Sede s = sedes.get(id.substring(0, guion).toUpperCase());
+        return s != null && s.conCerrojo(g -> g.eliminarCliente(id));
+    }
+
+    /**
+     * Deshace la última operación de la sede indicada.
+     *
+     * @param sede clave de la sede
+     * @return la acción deshecha o {@code null} si no había ninguna
+     * @since 1.1
+     */
+    public Accion deshacerUltimaAccion(String sede) {
+        return sede(sede).conCerrojo(GestionAtencion::deshacerUltimaAccion);
+    }
+
+    /**
+     * Ejecuta una operación arbitraria sobre una sede con su cerrojo tomado.
+     *
+     * @param sede clave de la sede
+     * @param operacion operación a ejecutar
+     * @param <T> tipo del resultado
+     * @return resultado de la operación
+     * @since 1.1
+     */
+    public <T> T conSede(String sede, Function<GestionAtencion, T> operacion) {
+        return sede(sede).conCerrojo(operacion);
+    }
+
+    /**
+     * Devuelve el gestor de una sede, creándola si no existe, para que lo opere un único
+     * hilo propio (por ejemplo, la tubería del controlador de esa sede). Ese hilo no toma el
+     * cerrojo de la sede, así que las operaciones enrutadas de esta clase no deben usarse a
+     * la vez sobre la misma sede; {@link #estadisticas()} sí, porque lee cada gestor con su
+     * cerrojo de lectura.
+     *
+     * @param sede clave de la sede
+     * @return gestor de la sede
+     * @since 1.1
+     */
+    public GestionAtencion getGestion(String sede) {
+        return sede(sede).gestion;
+    }
+
+    /**
+     * Devuelve las claves de las sedes dadas de alta.
+     *
+     * @return claves ordenadas alfabéticamente
+     * @since 1.1
+     */
+    public Set<String> getSedes() {
+        return new TreeSet<>(sedes.keySet());
+    }
+
+    // ------------------------------------------------------
+    // Estadísticas y búsquedas globales (reparto en paralelo)
+    // ------------------------------------------------------
+    /**
+     * Calcula en paralelo las estadísticas de cada sede, cada una coherente consigo misma.
+     * Se puede llamar desde cualquier hilo aunque las sedes las opere otro.
+     *
+     * @return estadísticas por clave de sede, en orden alfabético
+     * @since 1.1
+     */
+    public SortedMap<String, EstadisticasGestion> estadisticas() {
+        return sedes.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().gestion.estadisticas(),
+                        (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * Devuelve el total de clientes en espera en todas las sedes.
+     *
+     * @return suma de clientes en espera
+     * @since 1.1
+     */
+    public int getTotalEnEspera() {
+        return sedes.values().parallelStream()
+                .mapToInt(s -> s.conCerrojo(GestionAtencion::getTotalEnEspera))
+                .sum();
+    }
+
+    /**
+     * Devuelve el total de clientes atendidos en todas las sedes.
+     *
+     * @return suma de atendidos
+     * @since 1.1
+     */
+    public int getTotalAtendidos() {
+        return sedes.values().parallelStream()
+                .mapToInt(s -> s.conCerrojo(GestionAtencion::getTotalAtendidos))
+                .sum();
+    }
+
+    /**
+     * Calcula el tiempo medio de atención ponderado por el número de atendidos de cada sede.
+     *
+     * @return promedio global en minutos (0 si no hay atendidos)
+     * @since 1.1
+     */
+    public double getPromedioTiempoAtencion() {
+        double[] suma = sedes.values().parallelStream()
+                .map(s -> s.conCerrojo(g -> new double[]{
+                        g.getPromedioTiempoAtencion() * g.getTotalAtendidos(), g.getTotalAtendidos()}))
+                .reduce(new double[2], (a, b) -> new double[]{a[0] + b[0], a[1] + b[1]});
+        return suma[1] == 0 ? 0 : suma[0] / suma[1];
+    }
+
+    /**
+     * Cuenta los atendidos de un tipo en todas las sedes.
+     *
+     * @param tipo tipo de solicitud
+     * @return total de atendidos del tipo
+     * @since 1.1
+     */
+    public long contarPorTipo(TipoSolicitud tipo) {
+        return sedes.values().parallelStream()
+                .mapToLong(s -> s.conCerrojo(g -> g.contarPorTipo(tipo)))
+                .sum();
+    }
+
+    /**
+     * Cuenta los atendidos de una prioridad en todas las sedes.
+     *
+     * @param prioridad prioridad a contar
+     * @return total de atendidos con esa prioridad
+     * @since 1.1
+     */
+    public long contarPorPrioridad(Prioridad prioridad) {
+        return sedes.values().parallelStream()
+                .mapToLong(s -> s.conCerrojo(g -> g.contarPorPrioridad(prioridad)))
+                .sum();
+    }
+
+    /**
+     * Combina los histogramas de todas las sedes y devuelve los percentiles globales del
+     * tiempo de atención para una prioridad.
+     *
+     * @param prioridad prioridad a consultar
+     * @return resumen p50/p90/p99/máximo en milisegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getPercentilesTiempoAtencion(Prioridad prioridad) {
+        return sedes.values().parallelStream()
+                .map(s -> s.conCerrojo(g -> g.histogramaTiempo(prioridad).copiar()))
+                .reduce((a, b) -> { a.sumar(b); return a; })
+                .map(HistogramaLatencia::resumen)
+                .orElseGet(() -> new ResumenPercentiles(0, 0, 0, 0, 0));
+    }
+
+    /**
+     * Busca un id en todas las sedes (colas e historial).
+     *
+     * @param id identificador a buscar
+     * @return clientes que coinciden
+     * @since 1.1
+     */
+    public List<Cliente> buscarPorId(String id) {
+        return combinar(s -> s.conCerrojo(g -> g.buscarPorId(id)));
+    }
+
+    /**
+     * Busca clientes de un tipo en todas las sedes.
+     *
+     * @param tipo tipo de solicitud
+     * @return clientes que coinciden
+     * @since 1.1
+     */
+    public List<Cliente> buscarPorTipo(TipoSolicitud tipo) {
+        return combinar(s -> s.conCerrojo(g -> g.buscarPorTipo(tipo)));
+    }
+
+    /**
+     * Busca clientes de una prioridad en todas las sedes.
+     *
+     * @param prioridad prioridad a filtrar
+     * @return clientes que coinciden
+     * @since 1.1
+     */
+    public List<Cliente> buscarPorPrioridad(Prioridad prioridad) {
+        return combinar(s -> s.conCerrojo(g -> g.buscarPorPrioridad(prioridad)));
+    }
+
+    private List<Cliente> combinar(Function<Sede, List<Cliente>> busqueda) {
+        return sedes.values().parallelStream()
+                .map(busqueda)
+                .collect(ArrayList::new, Collection::addAll, Collection::addAll);
+    }
+
+    private Sede sede(String clave) {
+        if (clave == null || clave.isBlank() || clave.contains("-")) {
+            throw new IllegalArgumentException("Clave de sede no válida: " + clave);
+        }
+        return sedes.computeIfAbsent(clave.toUpperCase(), Sede::new);
+    }
+}
@@ -0,0 +1,129 @@
+package modelo;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Equipo de agentes de un {@link DespachadorHabilidades} que atiende ciertos tipos de
+ * solicitud.
+ *
+ * <p>Cada grupo tiene sus propias subcolas por (tipo, prioridad), su cerrojo y su ciclo
+ * 2 urgentes → 1 normal, de modo que grupos distintos no compiten por una cola común. Una
+ * máscara de bits indica qué subcolas tienen clientes; se escribe con el cerrojo tomado y
+ * se lee sin él desde otros grupos para decidir si vale la pena robarles trabajo.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class GrupoAgentes {
+
+    private final String nombre;
+    private final Set<TipoSolicitud> habilidades;
+    final int indice; // posición en el despachador
+    final int mascaraHabilidades; // subcolas que el grupo puede atender
+    final ArrayDeque<Cliente>[] subcolas;
+    final ReentrantLock cerrojo = new ReentrantLock();
+    volatile int noVacias; // bit i activo si subcolas[i] tiene clientes
+    int ciclo; // urgentes atendidos en el ciclo actual (0, 1 o 2)
+    int cursor; // rotación entre tipos de la misma prioridad
+    final AtomicInteger pendientes = new AtomicInteger();
+    final LongAdder atendidos = new LongAdder();
+    final LongAdder robados = new LongAdder();
+
+    GrupoAgentes(String nombre, Set<TipoSolicitud> habilidades, int indice) {
+        if (habilidades.isEmpty()) {
+            throw new IllegalArgumentException("El grupo " + nombre + " debe tener al menos una habilidad");
+        }
+        this.nombre = nombre;
+        this.habilidades = Collections.unmodifiableSet(EnumSet.copyOf(habilidades));
+        this.indice = indice;
+        int mascara = 0;
+        for (TipoSolicitud t : habilidades) {
+            for (Prioridad p : Prioridad.values()) {
+                mascara |= 1 << DespachadorHabilidades.subcola(t, p);
+            }
+        }
+        this.mascaraHabilidades = mascara;
+        @SuppressWarnings("unchecked") // arreglo genérico: solo guarda ArrayDeque<Cliente>
+        ArrayDeque<Cliente>[] porSubcola = (ArrayDeque<Cliente>[]) new ArrayDeque<?>[DespachadorHabilidades.SUBCOLAS];
+        for (int i = 0; i < porSubcola.length; i++) {
+            porSubcola[i] = new ArrayDeque<>();
+        }
+        this.subcolas = porSubcola;
+    }
+
+    /**
+     * Devuelve el nombre del grupo.
+     *
+     * @return nombre dado al crearlo
+     * @since 1.1
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve los tipos de solicitud que atiende el grupo.
+     *
+     * @return conjunto no modificable de habilidades
+     * @since 1.1
+     */
+    public Set<TipoSolicitud> getHabilidades() {
+        return habilidades;
+    }
+
+    /**
+     * Devuelve los clientes en espera en las subcolas del grupo.
+     *
+     * @return clientes encolados en este grupo
+     * @since 1.1
+     */
+    public int getPendientes() {
+        return pendientes.get();
+    }
+
+    /**
+     * Devuelve los clientes atendidos por el grupo, incluidos los robados a otros.
+     *
+     * @return total atendido
+     * @since 1.1
+     */
+    public long getAtendidos() {
+        return atendidos.sum();
+    }
+
+    /**
+     * Devuelve cuántos de los atendidos se robaron de las subcolas de otros grupos.
+     *
+     * @return clientes robados
+     * @since 1.1
+     */
+    public long getRobados() {
+        return robados.sum();
+    }
+
+    // Añade un cliente a su subcola; requiere el cerrojo
+    void encolar(Cliente c, int subcola) {
+        subcolas[subcola].addLast(c);
+        noVacias |= 1 << subcola;
+        pendientes.incrementAndGet();
+    }
+
+    // Saca el primer cliente de la subcola; requiere el cerrojo
+    Cliente desencolar(int subcola) {
+        Cliente c = subcolas[subcola].pollFirst();
+        if (subcolas[subcola].isEmpty()) noVacias &= ~(1 << subcola);
+        pendientes.decrementAndGet();
+        return c;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + habilidades;
+    }
+}
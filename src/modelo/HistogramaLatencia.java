@@ -0,0 +1,195 @@
+package modelo;
+
+/**
+ * Histograma de memoria constante para medir latencias en flujo (estilo HdrHistogram).
+ *
+ * <p>Los valores se agrupan en cubetas logarítmicas: cada potencia de dos se divide en
+ * {@value #SUB_CUBETAS} sub-cubetas lineales, lo que da un error relativo menor al 4 %
+ * con un número fijo de contadores {@code long}. Registrar o retirar un valor es O(1) y
+ * los percentiles se calculan en O(cubetas), sin guardar los valores originales.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUB_CUBETA = 5;
+    /** Número de sub-cubetas lineales por potencia de dos. */
+    public static final int SUB_CUBETAS = 1 << BITS_SUB_CUBETA;
+
+    private final long valorMaximo;
+    private final long[] cubetas;
+    private long total;
+    private long maximo;
+
+    /**
+     * Crea un histograma capaz de distinguir valores entre 0 y {@code valorMaximo};
+     * los valores mayores se acumulan en la última cubeta.
+     *
+     * @param valorMaximo mayor valor esperado (mayor que 0)
+     * @since 1.1
+     */
+    public HistogramaLatencia(long valorMaximo) {
+        if (valorMaximo <= 0) {
+            throw new IllegalArgumentException("El valor máximo debe ser positivo");
+        }
+        this.valorMaximo = valorMaximo;
+        this.cubetas = new long[indice(valorMaximo) + 1];
+    }
+
+    /**
+     * Registra una ocurrencia del valor indicado.
+     *
+     * @param valor valor medido (los negativos se tratan como 0)
+     * @since 1.1
+     */
+    public void registrar(long valor) {
+        long v = acotar(valor);
+        cubetas[indice(v)]++;
+        total++;
+        if (v > maximo) maximo = v;
+    }
+
+    /**
+     * Retira una ocurrencia previamente registrada (por ejemplo, al deshacer una atención).
+     *
+     * @param valor valor que se registró
+     * @since 1.1
+     */
+    public void retirar(long valor) {
+        int i = indice(acotar(valor));
+        if (cubetas[i] == 0) return;
+        cubetas[i]--;
+        total--;
+        if (total == 0) maximo = 0;
+    }
+
+    /**
+     * Acumula en este histograma las cuentas de otro con la misma configuración.
+     *
+     * @param otro histograma a sumar
+     * @since 1.1
+     */
+    public void sumar(HistogramaLatencia otro) {
+        if (otro.cubetas.length != cubetas.length) {
+            throw new IllegalArgumentException("Los histogramas deben tener el mismo rango");
+        }
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] += otro.cubetas[i];
+        }
+        total += otro.total;
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Devuelve una copia independiente de este histograma.
+     *
+     * @return histograma con el mismo rango y las mismas cuentas
+     * @since 1.1
+     */
+    public HistogramaLatencia copiar() {
+        HistogramaLatencia copia = new HistogramaLatencia(valorMaximo);
+        copia.sumar(this);
+        return copia;
+    }
+
+    /**
+     * Vacía el histograma.
+     *
+     * @since 1.1
+     */
+    public void reiniciar() {
+        java.util.Arrays.fill(cubetas, 0);
+        total = 0;
+        maximo = 0;
+    }
+
+    /**
+     * Devuelve el número de valores registrados.
+     *
+     * @return total de valores
+     * @since 1.1
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Devuelve el valor por debajo del cual cae el porcentaje indicado de las muestras.
+     *
+     * @param percentil percentil entre 0 y 100 (ej. {@code 99.0})
+     * @return valor del percentil (límite superior de su cubeta) o 0 si está vacío
+     * @since 1.1
+     */
+    public long getPercentil(double percentil) {
+        if (total == 0) return 0;
+        long rango = Math.max(1, (long) Math.ceil(total * Math.min(100.0, percentil) / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= rango) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Devuelve el mayor valor registrado (con la precisión de su cubeta si hubo retiros).
+     *
+     * @return valor máximo o 0 si está vacío
+     * @since 1.1
+     */
+    public long getMaximo() {
+        for (int i = cubetas.length - 1; i >= 0; i--) {
+            if (cubetas[i] > 0) return Math.min(limiteSuperior(i), maximo);
+        }
+        return 0;
+    }
+
+    /**
+     * Calcula de una sola pasada los percentiles 50, 90 y 99 y el máximo.
+     *
+     * @return resumen con los percentiles (en las unidades registradas)
+     * @since 1.1
+     */
+    public ResumenPercentiles resumen() {
+        if (total == 0) return new ResumenPercentiles(0, 0, 0, 0, 0);
+        long r50 = Math.max(1, (long) Math.ceil(total * 0.50));
+        long r90 = Math.max(1, (long) Math.ceil(total * 0.90));
+        long r99 = Math.max(1, (long) Math.ceil(total * 0.99));
+        long p50 = -1, p90 = -1, p99 = -1, max = 0;
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            if (cubetas[i] == 0) continue;
+            acumulado += cubetas[i];
+            long valor = Math.min(limiteSuperior(i), maximo);
+            if (p50 < 0 && acumulado >= r50) p50 = valor;
+            if (p90 < 0 && acumulado >= r90) p90 = valor;
+            if (p99 < 0 && acumulado >= r99) p99 = valor;
+            max = valor;
+        }
+        return new ResumenPercentiles(total, p50, p90, p99, max);
+    }
+
+    private long acotar(long valor) {
+        return valor < 0 ? 0 : Math.min(valor, valorMaximo);
+    }
+
+    // Índice de cubeta: exacto por debajo de SUB_CUBETAS; después, potencia + mantisa
+    private static int indice(long valor) {
+        if (valor < SUB_CUBETAS) return (int) valor;
+        int potencia = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = potencia - BITS_SUB_CUBETA;
+        int mantisa = (int) ((valor >>> desplazamiento) & (SUB_CUBETAS - 1));
+        return SUB_CUBETAS + desplazamiento * SUB_CUBETAS + mantisa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUB_CUBETAS) return indice;
+        int desplazamiento = (indice - SUB_CUBETAS) / SUB_CUBETAS;
+        int mantisa = (indice - SUB_CUBETAS) % SUB_CUBETAS;
+        long inferior = ((long) (SUB_CUBETAS + mantisa)) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+}
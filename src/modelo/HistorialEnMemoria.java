@@ -0,0 +1,160 @@
+package modelo;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Historial de atendidos guardado como objetos {@link Cliente} en el heap.
+ *
+ * <p>Es el almacén por defecto: conserva las mismas instancias que pasaron por las colas
+ * y usa un {@link IndiceTemporal} para las consultas por hora de ingreso.
+ *
+ * <p>Los clientes se guardan en bloques de {@value #TAM_BLOQUE}. Una instantánea comparte
+ * los bloques y solo recuerda cuántos clientes ve, así que tomarla cuesta O(1). Como el
+ * historial solo crece por el final, los bloques compartidos solo se copian si, tras
+ * deshacer una atención, hay que escribir en una posición que alguna instantánea ve; se
+ * copia ese bloque y no el historial entero.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class HistorialEnMemoria implements AlmacenHistorial {
+
+    private static final int BITS_BLOQUE = 10;
+    /** Clientes por bloque. */
+    public static final int TAM_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA = TAM_BLOQUE - 1;
+
+    private Cliente[][] bloques = new Cliente[16][];
+    private long[] sellos = new long[16]; // instantáneas tomadas al crear o copiar cada bloque
+    private long selloBloques; // instantáneas tomadas al crear el arreglo de bloques
+    private int tamano;
+    // Las actualizan quienes toman instantáneas y las lee el escritor
+    private final AtomicLong instantaneas = new AtomicLong();
+    private final AtomicInteger maximoCompartido = new AtomicInteger(); // mayor tamaño visto
+    private final IndiceTemporal indice = new IndiceTemporal();
+
+    @Override
+    public void agregar(Cliente cliente) {
+        escribir(tamano, cliente);
+        tamano++;
+        indice.insertar(cliente);
+    }
+
+    @Override
+    public void agregarTodos(List<Cliente> nuevos) {
+        for (Cliente c : nuevos) {
+            escribir(tamano, c);
+            tamano++;
+            indice.insertar(c);
+        }
+    }
+
+    @Override
+    public void quitarUltimo() {
+        if (tamano == 0) {
+            throw new IllegalStateException("El historial está vacío");
+        }
+        tamano--;
+        Cliente c = bloques[tamano >>> BITS_BLOQUE][tamano & MASCARA];
+        if (!compartida(tamano)) {
+            bloques[tamano >>> BITS_BLOQUE][tamano & MASCARA] = null;
+        }
+        indice.eliminar(c);
+    }
+
+    @Override
+    public Cliente obtener(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera de 0.." + (tamano - 1));
+        }
+        return bloques[indice >>> BITS_BLOQUE][indice & MASCARA];
+    }
+
+    @Override
+    public int tamano() {
+        return tamano;
+    }
+
+    @Override
+    public List<Cliente> buscarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return indice.buscarEntre(desde, hasta);
+    }
+
+    @Override
+    public int contarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return indice.contarEntre(desde, hasta);
+    }
+
+    /**
+     * Devuelve una vista inmutable de los clientes actuales que comparte los bloques con el
+     * historial, en O(1).
+     *
+     * @return lista de acceso aleatorio con el historial en este instante
+     * @since 1.1
+     */
+    @Override
+    public List<Cliente> instantanea() {
+        instantaneas.incrementAndGet();
+        maximoCompartido.accumulateAndGet(tamano, Math::max);
+        return new Prefijo(bloques, tamano);
+    }
+
+    // Escribe en la posición indicada, copiando antes su bloque si una instantánea lo ve
+    private void escribir(int posicion, Cliente c) {
+        int b = posicion >>> BITS_BLOQUE;
+        if (b == bloques.length) {
+            bloques = Arrays.copyOf(bloques, b * 2);
+            sellos = Arrays.copyOf(sellos, b * 2);
+            selloBloques = instantaneas.get();
+        }
+        if (bloques[b] == null) {
+            bloques[b] = new Cliente[TAM_BLOQUE];
+            sellos[b] = instantaneas.get();
+        } else if (compartida(posicion)) {
+            long actual = instantaneas.get();
+            if (selloBloques != actual) {
+                bloques = bloques.clone();
+                selloBloques = actual;
+            }
+            bloques[b] = bloques[b].clone();
+            sellos[b] = actual;
+        }
+        bloques[b][posicion & MASCARA] = c;
+    }
+
+    // Una posición es visible para alguna instantánea si su bloque se compartió y la cubre
+    private boolean compartida(int posicion) {
+        return posicion < maximoCompartido.get() && sellos[posicion >>> BITS_BLOQUE] != instantaneas.get();
+    }
+
+    // Vista de los primeros clientes sobre bloques que el escritor ya no modifica
+    private static final class Prefijo extends AbstractList<Cliente> implements RandomAccess {
+
+        private final Cliente[][] bloques;
+        private final int tamano;
+
+        Prefijo(Cliente[][] bloques, int tamano) {
+            this.bloques = bloques;
+            this.tamano = tamano;
+        }
+
+        @Override
+        public Cliente get(int indice) {
+            if (indice < 0 || indice >= tamano) {
+                throw new IndexOutOfBoundsException("Posición " + indice + " fuera de 0.." + (tamano - 1));
+            }
+            return bloques[indice >>> BITS_BLOQUE][indice & MASCARA];
+        }
+
+        @Override
+        public int size() {
+            return tamano;
+        }
+    }
+}
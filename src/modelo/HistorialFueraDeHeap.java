@@ -0,0 +1,343 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Historial de atendidos guardado fuera del heap, en registros de ancho fijo.
+ *
+ * <p>Cada cliente ocupa {@value #TAM_REGISTRO} bytes en memoria directa o en un archivo
+ * proyectado en memoria: horas de ingreso y atención en milisegundos epoch, tiempo de
+ * atención, id numérico ({@link IdCliente}, que ya incluye la prioridad), código del
+ * nombre en un {@link DiccionarioCadenas}, ordinal del tipo y marca de vencido. El heap solo guarda un índice de ingreso con dos
+ * arreglos primitivos (12 bytes por cliente), por lo que el trabajo del recolector no
+ * crece con el historial. Los clientes se reconstruyen al leerlos; las búsquedas por id,
+ * tipo y prioridad recorren los registros leyendo solo el campo que comparan y
+ * reconstruyen únicamente los que coinciden.
+ *
+ * <p>Con archivo, el sistema operativo puede llevar a disco las páginas que no se usan.
+ * El archivo es memoria de trabajo: se vacía al abrirlo y no se reabre entre ejecuciones.
+ *
+ * <p>Una instantánea solo fija el tamaño y los bloques reservados, sin copiar registros.
+ * Como los registros solo se sobrescriben tras deshacer una atención, antes de sobrescribir
+ * uno que alguna instantánea ve se anota su valor anterior en una lista que las
+ * instantáneas consultan; la lista solo crece con esas reescrituras.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class HistorialFueraDeHeap implements AlmacenHistorial, Closeable {
+
+    /** Bytes que ocupa cada cliente atendido. */
+    public static final int TAM_REGISTRO = 40;
+
+    private static final int REGISTROS_POR_BLOQUE = 1 << 16;
+
+    // Desplazamientos dentro del registro
+    private static final int INGRESO = 0;
+    private static final int ATENCION = 8;
+    private static final int TIEMPO = 16;
+    private static final int ID = 24;
+    private static final int NOMBRE = 32;
+    private static final int TIPO = 36;
+    private static final int VENCIDO = 37;
+
+    private static final TipoSolicitud[] TIPOS = TipoSolicitud.values();
+
+    private final BloquesMemoria registros;
+    private final DiccionarioCadenas diccionario;
+    private int tamano;
+
+    // Índice por hora de ingreso: marcas ordenadas y posición del registro de cada una
+    private long[] marcas = new long[1024];
+    private int[] posiciones = new int[1024];
+
+    // Reescrituras de registros compartidos, de la más antigua a la más reciente
+    private Reescritura ultimaReescritura = new Reescritura(-1, null);
+    private final AtomicInteger maximoCompartido = new AtomicInteger(); // mayor tamaño visto
+
+    /**
+     * Crea un historial en memoria directa (fuera del heap, sin archivo).
+     *
+     * @since 1.1
+     */
+    public HistorialFueraDeHeap() {
+        try {
+            registros = new BloquesMemoria(REGISTROS_POR_BLOQUE * TAM_REGISTRO, null);
+            diccionario = new DiccionarioCadenas(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // no ocurre sin archivo
+        }
+    }
+
+    /**
+     * Crea un historial proyectado en memoria sobre el archivo indicado; los nombres se
+     * guardan en un segundo archivo con la extensión {@code .dic}.
+     *
+     * @param archivo archivo de registros (se crea o se vacía)
+     * @throws IOException si no se puede abrir el archivo
+     * @since 1.1
+     */
+    public HistorialFueraDeHeap(Path archivo) throws IOException {
+        registros = new BloquesMemoria(REGISTROS_POR_BLOQUE * TAM_REGISTRO, archivo);
+        diccionario = new DiccionarioCadenas(archivo.resolveSibling(archivo.getFileName() + ".dic"));
+    }
+
+    @Override
+    public void agregar(Cliente cliente) {
+        if (tamano < maximoCompartido.get()) {
+            anotarReescritura(tamano);
+        }
+        int nombre = diccionario.codigo(cliente.getNombre());
+        ByteBuffer b = registros.bloque(tamano / REGISTROS_POR_BLOQUE);
+        int base = (tamano % REGISTROS_POR_BLOQUE) * TAM_REGISTRO;
+        b.putLong(base + INGRESO, cliente.getIngresoMs());
+        b.putLong(base + ATENCION, cliente.getAtencionMs());
+        b.putDouble(base + TIEMPO, cliente.getTiempoAtencion());
+        b.putLong(base + ID, cliente.getIdNumerico());
+        b.putInt(base + NOMBRE, nombre);
+        b.put(base + TIPO, (byte) cliente.getTipoSolicitud().ordinal());
+        b.put(base + VENCIDO, (byte) (cliente.isVencido() ? 1 : 0));
+        indexar(cliente.getIngresoMs(), tamano);
+        tamano++;
+    }
+
+    @Override
+    public void quitarUltimo() {
+        if (tamano == 0) {
+            throw new IllegalStateException("El historial está vacío");
+        }
+        int posicion = tamano - 1;
+        long marca = leerLong(posicion, INGRESO);
+        for (int i = limiteInferior(marca); i < tamano && marcas[i] == marca; i++) {
+            if (posiciones[i] == posicion) {
+                System.arraycopy(marcas, i + 1, marcas, i, tamano - i - 1);
+                System.arraycopy(posiciones, i + 1, posiciones, i, tamano - i - 1);
+                break;
+            }
+        }
+        tamano--;
+    }
+
+    @Override
+    public Cliente obtener(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera del historial de " + tamano);
+        }
+        return leer(indice);
+    }
+
+    @Override
+    public int tamano() {
+        return tamano;
+    }
+
+    @Override
+    public List<Cliente> buscarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        int inicio = limiteInferior(IndiceTemporal.aMilis(desde));
+        int fin = limiteInferior(IndiceTemporal.aMilis(hasta));
+        List<Cliente> resultado = new ArrayList<>(Math.max(0, fin - inicio));
+        for (int i = inicio; i < fin; i++) {
+            resultado.add(obtener(posiciones[i]));
+        }
+        return resultado;
+    }
+
+    @Override
+    public int contarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return Math.max(0, limiteInferior(IndiceTemporal.aMilis(hasta))
+                - limiteInferior(IndiceTemporal.aMilis(desde)));
+    }
+
+    @Override
+    public List<Cliente> buscarPorId(long id) {
+        return buscar((b, base) -> b.getLong(base + ID) == id);
+    }
+
+    @Override
+    public List<Cliente> buscarPorTipo(TipoSolicitud tipo) {
+        return buscar((b, base) -> b.get(base + TIPO) == tipo.ordinal());
+    }
+
+    @Override
+    public List<Cliente> buscarPorPrioridad(Prioridad prioridad) {
+        return buscar((b, base) -> IdCliente.prioridad(b.getLong(base + ID)) == prioridad);
+    }
+
+    /**
+     * Devuelve una vista inmutable del historial actual que lee los mismos registros fuera
+     * del heap, en O(1) y sin copiarlos.
+     *
+     * @return lista de acceso aleatorio con el historial en este instante
+     * @since 1.1
+     */
+    @Override
+    public List<Cliente> instantanea() {
+        maximoCompartido.accumulateAndGet(tamano, Math::max);
+        return new Prefijo(registros.fijar(), diccionario.fijar(), tamano, ultimaReescritura);
+    }
+
+    /**
+     * Libera la memoria proyectada y cierra los archivos, si los hay.
+     *
+     * @throws IOException si falla el cierre de los archivos
+     * @since 1.1
+     */
+    @Override
+    public void close() throws IOException {
+        registros.close();
+        diccionario.cerrar();
+    }
+
+    private void indexar(long marca, int posicion) {
+        if (tamano == marcas.length) {
+            marcas = Arrays.copyOf(marcas, tamano * 2);
+            posiciones = Arrays.copyOf(posiciones, tamano * 2);
+        }
+        // Los atendidos llegan casi en orden de ingreso: lo habitual es añadir al final
+        int pos = tamano;
+        if (tamano > 0 && marcas[tamano - 1] > marca) {
+            pos = limiteSuperior(marca);
+        }
+        System.arraycopy(marcas, pos, marcas, pos + 1, tamano - pos);
+        System.arraycopy(posiciones, pos, posiciones, pos + 1, tamano - pos);
+        marcas[pos] = marca;
+        posiciones[pos] = posicion;
+    }
+
+    private Cliente leer(int indice) {
+        ByteBuffer b = registros.bloque(indice / REGISTROS_POR_BLOQUE);
+        int base = (indice % REGISTROS_POR_BLOQUE) * TAM_REGISTRO;
+        Cliente c = new Cliente(b.getLong(base + ID), diccionario.cadena(b.getInt(base + NOMBRE)),
+                TIPOS[b.get(base + TIPO)], b.getLong(base + INGRESO));
+        c.setTiempoAtencion(b.getDouble(base + TIEMPO));
+        c.setAtencionMs(b.getLong(base + ATENCION));
+        c.setVencido(b.get(base + VENCIDO) != 0);
+        return c;
+    }
+
+    // Recorre los registros bloque a bloque y solo reconstruye los que cumplen el filtro
+    private List<Cliente> buscar(FiltroRegistro filtro) {
+        List<Cliente> resultado = new ArrayList<>();
+        for (int inicio = 0; inicio < tamano; inicio += REGISTROS_POR_BLOQUE) {
+            ByteBuffer b = registros.bloque(inicio / REGISTROS_POR_BLOQUE);
+            int fin = Math.min(REGISTROS_POR_BLOQUE, tamano - inicio);
+            for (int k = 0; k < fin; k++) {
+                if (filtro.coincide(b, k * TAM_REGISTRO)) resultado.add(leer(inicio + k));
+            }
+        }
+        return resultado;
+    }
+
+    @FunctionalInterface
+    private interface FiltroRegistro {
+        boolean coincide(ByteBuffer bloque, int base);
+    }
+
+    // Guarda el registro que se va a sobrescribir antes de tocarlo
+    private void anotarReescritura(int posicion) {
+        Reescritura r = new Reescritura(posicion, leer(posicion));
+        ultimaReescritura.siguiente = r;
+        ultimaReescritura = r;
+    }
+
+    private long leerLong(int indice, int campo) {
+        ByteBuffer b = registros.bloque(indice / REGISTROS_POR_BLOQUE);
+        return b.getLong((indice % REGISTROS_POR_BLOQUE) * TAM_REGISTRO + campo);
+    }
+
+    // Primera posición del índice con marca >= valor
+    private int limiteInferior(long valor) {
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (marcas[medio] < valor) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    // Primera posición del índice con marca > valor
+    private int limiteSuperior(long valor) {
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (marcas[medio] <= valor) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    private static final class Reescritura {
+        final int posicion;
+        final Cliente anterior;
+        volatile Reescritura siguiente;
+
+        Reescritura(int posicion, Cliente anterior) {
+            this.posicion = posicion;
+            this.anterior = anterior;
+        }
+    }
+
+    /*
+     * Vista de los primeros registros. Lee todo el registro y después busca si se reescribió
+     * desde que se tomó: si la reescritura no está anotada al terminar la búsqueda, aún no
+     * había empezado al leer, así que lo leído es el valor original. Las lecturas del
+     * búfer son normales y la de la lista es volátil, que no impide que las anteriores se
+     * reordenen después de ella: la barrera de adquisición obliga a terminarlas antes.
+     */
+    private static final class Prefijo extends AbstractList<Cliente> implements RandomAccess {
+
+        private final ByteBuffer[] registros;
+        private final ByteBuffer[] nombres;
+        private final int tamano;
+        private final Reescritura desde;
+
+        Prefijo(ByteBuffer[] registros, ByteBuffer[] nombres, int tamano, Reescritura desde) {
+            this.registros = registros;
+            this.nombres = nombres;
+            this.tamano = tamano;
+            this.desde = desde;
+        }
+
+        @Override
+        public Cliente get(int indice) {
+            if (indice < 0 || indice >= tamano) {
+                throw new IndexOutOfBoundsException("Posición " + indice + " fuera del historial de " + tamano);
+            }
+            ByteBuffer b = registros[indice / REGISTROS_POR_BLOQUE];
+            int base = (indice % REGISTROS_POR_BLOQUE) * TAM_REGISTRO;
+            long id = b.getLong(base + ID);
+            long ingreso = b.getLong(base + INGRESO);
+            long atencion = b.getLong(base + ATENCION);
+            double tiempo = b.getDouble(base + TIEMPO);
+            int tipo = b.get(base + TIPO);
+            boolean vencido = b.get(base + VENCIDO) != 0;
+            int nombre = b.getInt(base + NOMBRE);
+            VarHandle.acquireFence();
+            for (Reescritura r = desde.siguiente; r != null; r = r.siguiente) {
+                if (r.posicion == indice) return r.anterior;
+            }
+            Cliente c = new Cliente(id, DiccionarioCadenas.cadena(nombres, nombre), TIPOS[tipo], ingreso);
+            c.setTiempoAtencion(tiempo);
+            c.setAtencionMs(atencion);
+            c.setVencido(vencido);
+            return c;
+        }
+
+        @Override
+        public int size() {
+            return tamano;
+        }
+    }
+}
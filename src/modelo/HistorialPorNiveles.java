@@ -0,0 +1,358 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Historial en dos niveles: una ventana caliente en memoria con los atendidos recientes y
+ * segmentos fríos inmutables en disco con los anteriores.
+ *
+ * <p>Cuando la ventana caliente supera {@code capacidadCaliente + tamSegmento} clientes,
+ * los {@code tamSegmento} más antiguos se sellan en un {@link SegmentoHistorial}. El
+ * archivo se escribe y se sincroniza con el disco en un hilo propio, fuera del cerrojo
+ * del gestor, mientras esos clientes siguen en la ventana caliente; el segmento se instala
+ * en la siguiente alta después de que termine la escritura, y solo se espera al escritor
+ * si va un segmento entero por detrás. De cada segmento solo queda en memoria un resumen
+ * de tamaño fijo, así que el heap está acotado por la ventana caliente. Las búsquedas por id, tipo, prioridad y hora de ingreso
+ * recorren ambos niveles, y en los segmentos usan el resumen y los índices del archivo.
+ * Si se deshacen tantas atenciones que la ventana caliente se vacía, el último segmento
+ * vuelve a memoria y su archivo se borra.
+ *
+ * <p>Una instantánea comparte los segmentos sellados, que son inmutables, y solo copia la
+ * ventana caliente, así que su coste está acotado por {@code capacidadCaliente +
+ * tamSegmento} y no crece con el historial ni lee nada del disco.
+ *
+ * <p>Solo los segmentos más recientes conservan su archivo proyectado en memoria; los
+ * demás lo vuelven a proyectar cuando una búsqueda o una instantánea los lee. Los
+ * segmentos son temporales: {@link #close()} borra sus archivos y el directorio.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class HistorialPorNiveles implements AlmacenHistorial, Closeable {
+
+    private static final int MAX_PROYECTADOS = 32; // segmentos recientes que siguen proyectados
+
+    private final Path directorio;
+    private final int capacidadCaliente;
+    private final int tamSegmento;
+    private final List<Cliente> caliente = new ArrayList<>();
+    private IndiceTemporal indiceCaliente = new IndiceTemporal();
+    private final List<SegmentoHistorial> segmentos = new ArrayList<>();
+    private int[] inicios = new int[16]; // posición global del primer cliente de cada segmento
+    private int enFrio;
+    private int secuenciaArchivo;
+    private final ExecutorService sellador; // escribe los segmentos fuera del cerrojo del gestor
+    private Future<SegmentoHistorial> pendiente; // en escritura; sus clientes siguen en caliente
+
+    /**
+     * Crea un historial por niveles que guarda sus segmentos en un subdirectorio nuevo
+     * del directorio indicado.
+     *
+     * @param directorio directorio donde crear los segmentos
+     * @param capacidadCaliente clientes recientes que siempre quedan en memoria
+     * @param tamSegmento clientes por segmento sellado
+     * @throws IOException si no se puede crear el subdirectorio
+     * @since 1.1
+     */
+    public HistorialPorNiveles(Path directorio, int capacidadCaliente, int tamSegmento) throws IOException {
+        if (capacidadCaliente < 0 || tamSegmento <= 0) {
+            throw new IllegalArgumentException("Capacidades no válidas: " + capacidadCaliente + ", " + tamSegmento);
+        }
+        Files.createDirectories(directorio);
+        this.directorio = Files.createTempDirectory(directorio, "historial-");
+        this.capacidadCaliente = capacidadCaliente;
+        this.tamSegmento = tamSegmento;
+        this.sellador = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "historial-sellado");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Devuelve el directorio donde se escriben los segmentos de este historial.
+     *
+     * @return directorio de segmentos
+     * @since 1.1
+     */
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    /**
+     * Devuelve el número de segmentos sellados en disco.
+     *
+     * @return segmentos fríos
+     * @since 1.1
+     */
+    public int getSegmentos() {
+        return segmentos.size();
+    }
+
+    /**
+     * Devuelve cuántos clientes se guardan en memoria.
+     *
+     * @return tamaño de la ventana caliente
+     * @since 1.1
+     */
+    public int getTamanoCaliente() {
+        return caliente.size();
+    }
+
+    @Override
+    public void agregar(Cliente cliente) {
+        caliente.add(cliente);
+        indiceCaliente.insertar(cliente);
+        if (pendiente != null) {
+            instalarSellado(caliente.size() >= capacidadCaliente + 2 * tamSegmento);
+        }
+        if (pendiente == null && caliente.size() >= capacidadCaliente + tamSegmento) {
+            sellar();
+        }
+    }
+
+    @Override
+    public void quitarUltimo() {
+        if (pendiente != null && caliente.size() <= tamSegmento) {
+            descartarSellado(); // se deshace un cliente que se estaba sellando
+        }
+        if (caliente.isEmpty()) {
+            if (segmentos.isEmpty()) {
+                throw new IllegalStateException("El historial está vacío");
+            }
+            restaurarUltimoSegmento();
+        }
+        indiceCaliente.eliminar(caliente.remove(caliente.size() - 1));
+    }
+
+    @Override
+    public Cliente obtener(int indice) {
+        if (indice < 0 || indice >= tamano()) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera del historial de " + tamano());
+        }
+        if (indice >= enFrio) return caliente.get(indice - enFrio);
+        int s = Arrays.binarySearch(inicios, 0, segmentos.size(), indice);
+        if (s < 0) s = -s - 2; // segmento cuyo inicio es el mayor <= indice
+        return segmentos.get(s).obtener(indice - inicios[s]);
+    }
+
+    @Override
+    public int tamano() {
+        return enFrio + caliente.size();
+    }
+
+    @Override
+    public List<Cliente> buscarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        long d = IndiceTemporal.aMilis(desde), h = IndiceTemporal.aMilis(hasta);
+        List<Cliente> resultado = new ArrayList<>();
+        for (SegmentoHistorial s : segmentos) {
+            s.buscarEntre(d, h, resultado);
+        }
+        if (resultado.isEmpty()) return indiceCaliente.buscarEntre(desde, hasta);
+        resultado.addAll(indiceCaliente.buscarEntre(desde, hasta));
+        resultado.sort(Comparator.comparingLong(Cliente::getIngresoMs)); // estable
+        return resultado;
+    }
+
+    @Override
+    public int contarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        long d = IndiceTemporal.aMilis(desde), h = IndiceTemporal.aMilis(hasta);
+        int total = indiceCaliente.contarEntre(desde, hasta);
+        for (SegmentoHistorial s : segmentos) {
+            total += s.contarEntre(d, h);
+        }
+        return total;
+    }
+
+    @Override
+    public List<Cliente> buscarPorId(long id) {
+        List<Cliente> resultado = new ArrayList<>();
+        for (SegmentoHistorial s : segmentos) {
+            s.buscarPorId(id, resultado);
+        }
+        for (Cliente c : caliente) {
+            if (c.getIdNumerico() == id) resultado.add(c);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Cliente> buscarPorTipo(TipoSolicitud tipo) {
+        List<Cliente> resultado = new ArrayList<>();
+        for (SegmentoHistorial s : segmentos) {
+            s.buscarPorTipo(tipo, resultado);
+        }
+        for (Cliente c : caliente) {
+            if (c.getTipoSolicitud() == tipo) resultado.add(c);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Cliente> buscarPorPrioridad(Prioridad prioridad) {
+        List<Cliente> resultado = new ArrayList<>();
+        for (SegmentoHistorial s : segmentos) {
+            s.buscarPorPrioridad(prioridad, resultado);
+        }
+        for (Cliente c : caliente) {
+            if (c.getPrioridad() == prioridad) resultado.add(c);
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve una vista inmutable del historial actual que comparte los segmentos sellados
+     * y copia solo la ventana caliente.
+     *
+     * @return lista de acceso aleatorio con el historial en este instante
+     * @since 1.1
+     */
+    @Override
+    public List<Cliente> instantanea() {
+        int n = segmentos.size();
+        return new Prefijo(segmentos.toArray(new SegmentoHistorial[0]), Arrays.copyOf(inicios, n),
+                enFrio, List.copyOf(caliente));
+    }
+
+    /**
+     * Detiene el hilo de sellado, suelta las proyecciones y borra los segmentos y su
+     * directorio. Después de cerrarlo, ni el historial ni sus instantáneas deben usarse.
+     *
+     * @throws IOException si no se puede borrar el directorio
+     * @since 1.1
+     */
+    @Override
+    public void close() throws IOException {
+        if (pendiente != null) descartarSellado();
+        sellador.shutdown();
+        for (SegmentoHistorial s : segmentos) {
+            s.cerrar();
+        }
+        segmentos.clear();
+        caliente.clear();
+        indiceCaliente = new IndiceTemporal();
+        enFrio = 0;
+        try (Stream<Path> restantes = Files.list(directorio)) { // archivos de escrituras fallidas
+            for (Path p : restantes.toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(directorio);
+    }
+
+    // Encarga al hilo de sellado el segmento con los tamSegmento clientes más antiguos;
+    // hasta instalarlo siguen en la ventana caliente
+    private void sellar() {
+        List<Cliente> antiguos = new ArrayList<>(caliente.subList(0, tamSegmento));
+        Path archivo = directorio.resolve(String.format("segmento-%06d.seg", secuenciaArchivo++));
+        pendiente = sellador.submit(() -> SegmentoHistorial.escribir(archivo, antiguos));
+    }
+
+    // Instala el segmento en escritura si ya terminó, o esperándolo si se pide
+    private void instalarSellado(boolean esperar) {
+        if (!esperar && !pendiente.isDone()) return;
+        SegmentoHistorial segmento = esperarSellado();
+        caliente.subList(0, segmento.getTamano()).clear();
+
+        if (segmentos.size() == inicios.length) {
+            inicios = Arrays.copyOf(inicios, inicios.length * 2);
+        }
+        inicios[segmentos.size()] = enFrio;
+        segmentos.add(segmento);
+        enFrio += segmento.getTamano();
+        reindexarCaliente();
+        for (int i = 0; i < segmentos.size() - MAX_PROYECTADOS; i++) {
+            segmentos.get(i).liberar();
+        }
+    }
+
+    private void descartarSellado() {
+        try {
+            esperarSellado().eliminar();
+        } catch (RuntimeException e) {
+            // La escritura falló: sus clientes nunca salieron de la ventana caliente
+        }
+    }
+
+    private SegmentoHistorial esperarSellado() {
+        Future<SegmentoHistorial> escritura = pendiente;
+        pendiente = null;
+        boolean interrumpido = false;
+        try {
+            while (true) {
+                try {
+                    return escritura.get();
+                } catch (InterruptedException e) {
+                    interrumpido = true; // el segmento hay que instalarlo igual
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new IllegalStateException("No se pudo sellar el segmento", e.getCause());
+        } finally {
+            if (interrumpido) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void restaurarUltimoSegmento() {
+        SegmentoHistorial ultimo = segmentos.remove(segmentos.size() - 1);
+        caliente.addAll(ultimo.leerTodos());
+        enFrio -= ultimo.getTamano();
+        ultimo.eliminar();
+        reindexarCaliente();
+    }
+
+    private void reindexarCaliente() {
+        indiceCaliente = new IndiceTemporal();
+        for (Cliente c : caliente) {
+            indiceCaliente.insertar(c);
+        }
+    }
+
+    // Vista fija: segmentos sellados compartidos más una copia de la ventana caliente
+    private static final class Prefijo extends AbstractList<Cliente> implements RandomAccess {
+
+        private final SegmentoHistorial[] segmentos;
+        private final int[] inicios;
+        private final int enFrio;
+        private final List<Cliente> caliente;
+
+        Prefijo(SegmentoHistorial[] segmentos, int[] inicios, int enFrio, List<Cliente> caliente) {
+            this.segmentos = segmentos;
+            this.inicios = inicios;
+            this.enFrio = enFrio;
+            this.caliente = caliente;
+        }
+
+        @Override
+        public Cliente get(int indice) {
+            if (indice < 0 || indice >= size()) {
+                throw new IndexOutOfBoundsException("Posición " + indice + " fuera del historial de " + size());
+            }
+            if (indice >= enFrio) return caliente.get(indice - enFrio);
+            int s = Arrays.binarySearch(inicios, 0, segmentos.length, indice);
+            if (s < 0) s = -s - 2;
+            return segmentos[s].obtener(indice - inicios[s]);
+        }
+
+        @Override
+        public int size() {
+            return enFrio + caliente.size();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package modelo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Codificación de los identificadores de cliente en un {@code long}.
+ *
+ * <p>El texto de un id ({@code U12}, {@code NORTE-N3}) se guarda como tres campos de bits:
+ * <pre>
+ *  bits 44-58  espacio de ids (índice del prefijo registrado, 0 = sin prefijo)
+ *  bits 40-43  ordinal de la {@link Prioridad} (da la letra U o N)
+ *  bits  0-39  número correlativo
+ * </pre>
+ * Los prefijos se registran una vez por proceso, así que comparar o guardar un id no
+ * crea cadenas; el texto solo se construye al mostrarlo.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class IdCliente {
+
+    private static final int BITS_NUMERO = 40;
+    private static final int BITS_PRIORIDAD = 4;
+    private static final int MAX_ESPACIOS = 1 << 15;
+    /** Mayor número correlativo representable. */
+    public static final long MAX_NUMERO = (1L << BITS_NUMERO) - 1;
+    private static final int MAX_DIGITOS = Long.toString(MAX_NUMERO).length();
+
+    private static final Prioridad[] PRIORIDADES = Prioridad.values();
+    // Prefijo de texto de cada espacio y prioridad (ej. "NORTE-U"), ya concatenado
+    private static final List<String[]> PREFIJOS = new CopyOnWriteArrayList<>();
+
+    static {
+        PREFIJOS.add(prefijos(""));
+    }
+
+    private IdCliente() {
+    }
+
+    /**
+     * Registra un espacio de ids y devuelve su índice; registrar dos veces el mismo
+     * prefijo devuelve el mismo índice.
+     *
+     * @param prefijo texto que precede a la letra de prioridad ({@code ""} o {@code "NORTE-"})
+     * @return índice del espacio
+     * @throws IllegalStateException si se agotan los espacios disponibles
+     * @since 1.1
+     */
+    public static synchronized int registrarEspacio(String prefijo) {
+        for (int i = 0; i < PREFIJOS.size(); i++) {
+            if (PREFIJOS.get(i)[0].equals(prefijo + letra(PRIORIDADES[0]))) return i;
+        }
+        if (PREFIJOS.size() == MAX_ESPACIOS) {
+            throw new IllegalStateException("No quedan espacios de ids disponibles");
+        }
+        PREFIJOS.add(prefijos(prefijo));
+        return PREFIJOS.size() - 1;
+    }
+
+    /**
+     * Compone un id numérico.
+     *
+     * @param espacio índice devuelto por {@link #registrarEspacio(String)}
+     * @param prioridad prioridad del cliente
+     * @param numero número correlativo (0 a {@link #MAX_NUMERO})
+     * @return id codificado
+     * @since 1.1
+     */
+    public static long codificar(int espacio, Prioridad prioridad, long numero) {
+        if (numero < 0 || numero > MAX_NUMERO) {
+            throw new IllegalArgumentException("Número de cliente fuera de rango: " + numero);
+        }
+        return ((long) espacio << (BITS_NUMERO + BITS_PRIORIDAD))
+                | ((long) prioridad.ordinal() << BITS_NUMERO) | numero;
+    }
+
+    /**
+     * Devuelve la prioridad codificada en el id.
+     *
+     * @param id id numérico
+     * @return prioridad del cliente
+     * @since 1.1
+     */
+    public static Prioridad prioridad(long id) {
+        return PRIORIDADES[(int) (id >>> BITS_NUMERO) & ((1 << BITS_PRIORIDAD) - 1)];
+    }
+
+    /**
+     * Devuelve el número correlativo del id.
+     *
+     * @param id id numérico
+     * @return número del cliente
+     * @since 1.1
+     */
+    public static long numero(long id) {
+        return id & MAX_NUMERO;
+    }
+
+    /**
+     * Devuelve el índice del espacio de ids.
+     *
+     * @param id id numérico
+     * @return espacio al que pertenece el id
+     * @since 1.1
+     */
+    public static int espacio(long id) {
+        return (int) (id >>> (BITS_NUMERO + BITS_PRIORIDAD));
+    }
+
+    /**
+     * Construye el texto del id (ej. {@code NORTE-U12}).
+     *
+     * @param id id numérico
+     * @return id en texto
+     * @since 1.1
+     */
+    public static String aTexto(long id) {
+        return PREFIJOS.get(espacio(id))[prioridad(id).ordinal()] + numero(id);
+    }
+
+    /**
+     * Interpreta el texto de un id sin distinguir mayúsculas, con los espacios ya registrados.
+     *
+     * @param texto id en texto
+     * @return id numérico o {@code -1} si el texto no es un id válido
+     * @since 1.1
+     */
+    public static long parsear(String texto) {
+        return parsear(texto, false);
+    }
+
+    // Si registrar es true, un prefijo desconocido se registra como espacio nuevo
+    static long parsear(String texto, boolean registrar) {
+        if (texto == null) return -1;
+        int corte = texto.length();
+        while (corte > 0 && Character.isDigit(texto.charAt(corte - 1))) corte--;
+        if (corte == 0 || corte == texto.length() || texto.length() - corte > MAX_DIGITOS) return -1;
+        long numero = Long.parseLong(texto.substring(corte));
+        if (numero > MAX_NUMERO) return -1;
+
+        char letra = Character.toUpperCase(texto.charAt(corte - 1));
+        Prioridad prioridad = null;
+        for (Prioridad p : PRIORIDADES) {
+            if (letra(p) == letra) prioridad = p;
+        }
+        if (prioridad == null) return -1;
+
+        String prefijo = texto.substring(0, corte - 1);
+        for (int i = 0; i < PREFIJOS.size(); i++) {
+            String conocido = PREFIJOS.get(i)[0];
+            if (conocido.length() == corte && conocido.regionMatches(true, 0, prefijo, 0, prefijo.length())) {
+                return codificar(i, prioridad, numero);
+            }
+        }
+        return registrar ? codificar(registrarEspacio(prefijo), prioridad, numero) : -1;
+    }
+
+    private static String[] prefijos(String prefijo) {
+        String[] porPrioridad = new String[PRIORIDADES.length];
+        for (Prioridad p : PRIORIDADES) {
+            porPrioridad[p.ordinal()] = prefijo + letra(p);
+        }
+        return porPrioridad;
+    }
+
+    private static char letra(Prioridad prioridad) {
+        return prioridad.name().charAt(0);
+    }
+}
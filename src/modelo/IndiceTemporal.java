@@ -0,0 +1,256 @@
+package modelo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice ordenado por hora de ingreso de los clientes registrados en el sistema.
+ *
+ * <p>Guarda las horas de ingreso como milisegundos epoch en un arreglo ordenado, paralelo
+ * al arreglo de clientes, de modo que las consultas por rango y los conteos por ventana
+ * de tiempo se resuelven con búsqueda binaria en O(log n). Como los clientes llegan en
+ * orden, la inserción habitual es un simple añadido al final.
+ *
+ * <p>Quitar un cliente no desplaza el arreglo: deja una lápida ({@code null}) en su
+ * posición y la anota en un árbol de Fenwick, que permite seguir contando por ventana en
+ * O(log n) descontando las lápidas del rango. Cuando las lápidas llegan a la mitad de las
+ * posiciones se compacta el arreglo de una vez, así que cada baja cuesta O(log n)
+ * amortizado en lugar de O(n).
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class IndiceTemporal {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private long[] marcas;
+    private Cliente[] clientes; // null en las posiciones con lápida
+    private int tamano; // posiciones ocupadas, con lápidas incluidas
+    private int borrados; // lápidas pendientes de compactar
+    private int[] lapidas; // árbol de Fenwick (base 1) con las lápidas; 0 por encima de tamano
+
+    /**
+     * Crea un índice vacío.
+     *
+     * @since 1.1
+     */
+    public IndiceTemporal() {
+        marcas = new long[CAPACIDAD_INICIAL];
+        clientes = new Cliente[CAPACIDAD_INICIAL];
+        lapidas = new int[CAPACIDAD_INICIAL + 1];
+        tamano = 0;
+    }
+
+    /**
+     * Registra un cliente en el índice según su hora de ingreso.
+     *
+     * @param cliente cliente a indexar (no nulo)
+     * @since 1.1
+     */
+    public void insertar(Cliente cliente) {
+        long marca = cliente.getIngresoMs();
+        if (tamano == marcas.length) {
+            marcas = Arrays.copyOf(marcas, tamano * 2);
+            clientes = Arrays.copyOf(clientes, tamano * 2);
+            lapidas = Arrays.copyOf(lapidas, tamano * 2 + 1);
+        }
+
+        // Caso habitual: llega en orden y se añade al final
+        int pos = tamano;
+        if (tamano > 0 && marcas[tamano - 1] > marca) {
+            // El desplazamiento ya es O(n): se aprovecha para quitar las lápidas
+            if (borrados > 0) compactar();
+            pos = limiteSuperior(marca);
+            System.arraycopy(marcas, pos, marcas, pos + 1, tamano - pos);
+            System.arraycopy(clientes, pos, clientes, pos + 1, tamano - pos);
+        }
+        marcas[pos] = marca;
+        clientes[pos] = cliente;
+        tamano++;
+        if (borrados > 0) {
+            // Nodo nuevo del árbol: cubre (k - bajo(k), k] y solo k está vivo
+            int k = tamano;
+            lapidas[k] = contarLapidas(k - 1) - contarLapidas(k - (k & -k));
+        }
+    }
+
+    /**
+     * Quita un cliente del índice.
+     *
+     * @param cliente cliente a quitar
+     * @return {@code true} si el cliente estaba indexado
+     * @since 1.1
+     */
+    public boolean eliminar(Cliente cliente) {
+        long marca = cliente.getIngresoMs();
+        for (int i = limiteInferior(marca); i < tamano && marcas[i] == marca; i++) {
+            if (clientes[i] == cliente) {
+                clientes[i] = null;
+                if (i == tamano - 1) {
+                    // El último se quita sin lápida; su nodo solo cuenta posiciones >= tamano
+                    lapidas[tamano--] = 0;
+                    return true;
+                }
+                borrados++;
+                for (int k = i + 1; k <= tamano; k += k & -k) {
+                    lapidas[k]++;
+                }
+                if (borrados >= tamano / 2) compactar();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quita varios clientes del índice con una sola compactación del arreglo, que de paso
+     * elimina las lápidas pendientes.
+     *
+     * @param quitar clientes a quitar (los que no estén indexados se ignoran)
+     * @return número de clientes quitados
+     * @since 1.1
+     */
+    public int eliminarTodos(Collection<Cliente> quitar) {
+        if (quitar.isEmpty()) return 0;
+        Set<Cliente> pendientes = Collections.newSetFromMap(new IdentityHashMap<>(quitar.size() * 2));
+        long menor = Long.MAX_VALUE;
+        for (Cliente c : quitar) {
+            pendientes.add(c);
+            menor = Math.min(menor, c.getIngresoMs());
+        }
+        // Con lápidas se recorre todo para quitarlas también; sin ellas basta desde el menor
+        boolean conLapidas = borrados > 0;
+        int destino = conLapidas ? 0 : limiteInferior(menor);
+        int i = destino;
+        for (; i < tamano && (conLapidas || !pendientes.isEmpty()); i++) {
+            Cliente c = clientes[i];
+            if (c != null && !pendientes.remove(c)) {
+                marcas[destino] = marcas[i];
+                clientes[destino++] = c;
+            }
+        }
+        // El resto no contiene clientes a quitar: se desplaza de una vez
+        System.arraycopy(marcas, i, marcas, destino, tamano - i);
+        System.arraycopy(clientes, i, clientes, destino, tamano - i);
+        destino += tamano - i;
+        int quitados = tamano - destino - borrados;
+        Arrays.fill(clientes, destino, tamano, null);
+        if (conLapidas) Arrays.fill(lapidas, 1, tamano + 1, 0);
+        borrados = 0;
+        tamano = destino;
+        return quitados;
+    }
+
+    /**
+     * Devuelve los clientes cuya hora de ingreso está en el rango {@code [desde, hasta)}.
+     *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return clientes del rango en orden de llegada
+     * @since 1.1
+     */
+    public List<Cliente> buscarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        int inicio = limiteInferior(aMilis(desde));
+        int fin = limiteInferior(aMilis(hasta));
+        List<Cliente> resultado = new ArrayList<>(vivosEntre(inicio, fin));
+        for (int i = inicio; i < fin; i++) {
+            if (clientes[i] != null) resultado.add(clientes[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los clientes cuya hora de ingreso está en el rango {@code [desde, hasta)}.
+     *
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (exclusivo)
+     * @return número de clientes en el rango
+     * @since 1.1
+     */
+    public int contarEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return vivosEntre(limiteInferior(aMilis(desde)), limiteInferior(aMilis(hasta)));
+    }
+
+    /**
+     * Devuelve el número de clientes indexados.
+     *
+     * @return tamaño del índice
+     * @since 1.1
+     */
+    public int getTamano() {
+        return tamano - borrados;
+    }
+
+    // ------------------------------------------------------------
+    // Lápidas
+    // ------------------------------------------------------------
+    // Clientes vivos en las posiciones [inicio, fin)
+    private int vivosEntre(int inicio, int fin) {
+        if (fin <= inicio) return 0;
+        if (borrados == 0) return fin - inicio;
+        return fin - inicio - (contarLapidas(fin) - contarLapidas(inicio));
+    }
+
+    // Lápidas en las posiciones [0, k)
+    private int contarLapidas(int k) {
+        int suma = 0;
+        for (; k > 0; k -= k & -k) {
+            suma += lapidas[k];
+        }
+        return suma;
+    }
+
+    // Quita las lápidas desplazando los vivos; el árbol queda en cero
+    private void compactar() {
+        int destino = 0;
+        for (int i = 0; i < tamano; i++) {
+            if (clientes[i] != null) {
+                marcas[destino] = marcas[i];
+                clientes[destino++] = clientes[i];
+            }
+        }
+        Arrays.fill(clientes, destino, tamano, null);
+        Arrays.fill(lapidas, 1, tamano + 1, 0);
+        tamano = destino;
+        borrados = 0;
+    }
+
+    // Primera posición con marca >= valor
+    private int limiteInferior(long valor) {
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (marcas[medio] < valor) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    // Primera posición con marca > valor
+    private int limiteSuperior(long valor) {
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (marcas[medio] <= valor) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    static long aMilis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime aFecha(long milis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(milis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,177 @@
+package modelo;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resultado inmutable de un informe de {@link MotorInformes}: una fila por cada
+ * combinación presente de las dimensiones pedidas, con conteo, medias y percentiles del
+ * tiempo de atención y de la espera.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class InformeHistorial {
+
+    /**
+     * Dimensiones por las que se puede agrupar un informe.
+     *
+     * @since 1.1
+     */
+    public enum Dimension {
+        /** Tipo de solicitud. */
+        TIPO,
+        /** Prioridad del cliente. */
+        PRIORIDAD,
+        /** Hora del día (0-23, hora local) de ingreso. */
+        HORA
+    }
+
+    /**
+     * Fila del informe: clientes que comparten los valores de las dimensiones agrupadas.
+     * Las dimensiones no agrupadas valen {@code null} (o {@code -1} en la hora).
+     *
+     * @since 1.1
+     */
+    public static final class Grupo {
+
+        private final TipoSolicitud tipo;
+        private final Prioridad prioridad;
+        private final int hora;
+        private final long total;
+        private final double servicioMedioMs;
+        private final ResumenPercentiles servicio;
+        private final double esperaMediaMs;
+        private final ResumenPercentiles espera;
+
+        Grupo(TipoSolicitud tipo, Prioridad prioridad, int hora, long total,
+              double servicioMedioMs, ResumenPercentiles servicio,
+              double esperaMediaMs, ResumenPercentiles espera) {
+            this.tipo = tipo;
+            this.prioridad = prioridad;
+            this.hora = hora;
+            this.total = total;
+            this.servicioMedioMs = servicioMedioMs;
+            this.servicio = servicio;
+            this.esperaMediaMs = esperaMediaMs;
+            this.espera = espera;
+        }
+
+        /**
+         * Devuelve el tipo de solicitud del grupo.
+         *
+         * @return tipo, o {@code null} si no se agrupó por tipo
+         */
+        public TipoSolicitud getTipo() { return tipo; }
+
+        /**
+         * Devuelve la prioridad del grupo.
+         *
+         * @return prioridad, o {@code null} si no se agrupó por prioridad
+         */
+        public Prioridad getPrioridad() { return prioridad; }
+
+        /**
+         * Devuelve la hora de ingreso del grupo.
+         *
+         * @return hora entre 0 y 23, o {@code -1} si no se agrupó por hora
+         */
+        public int getHora() { return hora; }
+
+        /**
+         * Devuelve el número de clientes del grupo.
+         *
+         * @return clientes atendidos
+         */
+        public long getTotal() { return total; }
+
+        /**
+         * Devuelve el tiempo medio de atención.
+         *
+         * @return media en milisegundos
+         */
+        public double getServicioMedioMs() { return servicioMedioMs; }
+
+        /**
+         * Devuelve los percentiles del tiempo de atención.
+         *
+         * @return resumen en milisegundos
+         */
+        public ResumenPercentiles getServicio() { return servicio; }
+
+        /**
+         * Devuelve la espera media entre ingreso y atención.
+         *
+         * @return media en milisegundos
+         */
+        public double getEsperaMediaMs() { return esperaMediaMs; }
+
+        /**
+         * Devuelve los percentiles de la espera entre ingreso y atención.
+         *
+         * @return resumen en milisegundos
+         */
+        public ResumenPercentiles getEspera() { return espera; }
+
+        @Override
+        public String toString() {
+            return (tipo != null ? tipo + " " : "") + (prioridad != null ? prioridad + " " : "")
+                    + (hora >= 0 ? String.format("%02dh ", hora) : "")
+                    + "n=" + total + String.format(" servicio=%.1f min espera=%.1f min",
+                    servicioMedioMs / 60_000.0, esperaMediaMs / 60_000.0);
+        }
+    }
+
+    private final Set<Dimension> dimensiones;
+    private final List<Grupo> grupos;
+    private final long total;
+
+    InformeHistorial(Set<Dimension> dimensiones, List<Grupo> grupos, long total) {
+        this.dimensiones = Collections.unmodifiableSet(dimensiones.isEmpty()
+                ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(dimensiones));
+        this.grupos = List.copyOf(grupos);
+        this.total = total;
+    }
+
+    /**
+     * Devuelve las dimensiones por las que se agrupó.
+     *
+     * @return conjunto no modificable
+     * @since 1.1
+     */
+    public Set<Dimension> getDimensiones() {
+        return dimensiones;
+    }
+
+    /**
+     * Devuelve las filas del informe ordenadas por tipo, prioridad y hora; solo aparecen
+     * las combinaciones con algún cliente.
+     *
+     * @return lista no modificable de grupos
+     * @since 1.1
+     */
+    public List<Grupo> getGrupos() {
+        return grupos;
+    }
+
+    /**
+     * Devuelve el número de clientes procesados.
+     *
+     * @return clientes del historial incluidos en el informe
+     * @since 1.1
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Informe ").append(dimensiones).append(" (").append(total).append(")");
+        for (Grupo g : grupos) {
+            sb.append('\n').append(g);
+        }
+        return sb.toString();
+    }
+}
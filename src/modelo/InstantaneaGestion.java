@@ -0,0 +1,98 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Imagen inmutable del estado de un {@link GestionAtencion} en un instante: las dos colas,
+ * el historial y la secuencia de la última operación aplicada.
+ *
+ * <p>Las tres listas corresponden al mismo punto de la secuencia y no cambian aunque el
+ * gestor siga operando, así que vistas, exportadores e informes pueden recorrerlas desde
+ * cualquier hilo. Los clientes son los mismos objetos del gestor: sus datos de atención
+ * cambian si se deshace después su atención. Las colas son listas de acceso secuencial
+ * ({@link ColaPersistente}): se recorren con su iterador.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class InstantaneaGestion {
+
+    private final long secuencia;
+    private final List<Cliente> colaUrgentes;
+    private final List<Cliente> colaNormales;
+    private final List<Cliente> historial;
+
+    InstantaneaGestion(long secuencia, List<Cliente> colaUrgentes, List<Cliente> colaNormales,
+                       List<Cliente> historial) {
+        this.secuencia = secuencia;
+        this.colaUrgentes = colaUrgentes;
+        this.colaNormales = colaNormales;
+        this.historial = historial;
+    }
+
+    /**
+     * Devuelve la secuencia de la última operación incluida.
+     *
+     * @return secuencia, comparable con {@link GestionAtencion#getSecuencia()}
+     * @since 1.1
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Devuelve la cola de urgentes en orden de atención.
+     *
+     * @return lista inmutable
+     * @since 1.1
+     */
+    public List<Cliente> getColaUrgentes() {
+        return colaUrgentes;
+    }
+
+    /**
+     * Devuelve la cola de normales en orden de atención.
+     *
+     * @return lista inmutable
+     * @since 1.1
+     */
+    public List<Cliente> getColaNormales() {
+        return colaNormales;
+    }
+
+    /**
+     * Devuelve el historial de atendidos en orden de atención.
+     *
+     * @return lista inmutable
+     * @since 1.1
+     */
+    public List<Cliente> getHistorial() {
+        return historial;
+    }
+
+    /**
+     * Devuelve el total de clientes en espera.
+     *
+     * @return urgentes más normales
+     * @since 1.1
+     */
+    public int getTotalEnEspera() {
+        return colaUrgentes.size() + colaNormales.size();
+    }
+
+    /**
+     * Devuelve el total de clientes atendidos.
+     *
+     * @return tamaño del historial
+     * @since 1.1
+     */
+    public int getTotalAtendidos() {
+        return historial.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Instantánea #" + secuencia + " (" + colaUrgentes.size() + " urgentes, "
+                + colaNormales.size() + " normales, " + historial.size() + " atendidos)";
+    }
+}
@@ -0,0 +1,75 @@
+package modelo;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores y latencias de las operaciones de {@link GestionAtencion}.
+ *
+ * <p>Cada operación ({@link TipoAccion}) tiene un {@link LongAdder} y un
+ * {@link HistogramaLatencia} en nanosegundos. Registrar cuesta un incremento y un acceso
+ * a una cubeta, por lo que puede llamarse en cada operación sin afectar la interfaz.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class MetricasOperacion {
+
+    private static final long MAX_LATENCIA_NS = 60_000_000_000L; // 1 minuto
+
+    private final Map<TipoAccion, LongAdder> contadores = new EnumMap<>(TipoAccion.class);
+    private final Map<TipoAccion, HistogramaLatencia> latencias = new EnumMap<>(TipoAccion.class);
+
+    /**
+     * Crea los contadores de todas las operaciones a cero.
+     *
+     * @since 1.1
+     */
+    public MetricasOperacion() {
+        for (TipoAccion t : TipoAccion.values()) {
+            contadores.put(t, new LongAdder());
+            latencias.put(t, new HistogramaLatencia(MAX_LATENCIA_NS));
+        }
+    }
+
+    /**
+     * Registra una ejecución de la operación con su duración.
+     *
+     * @param operacion operación ejecutada
+     * @param duracionNs duración en nanosegundos
+     * @since 1.1
+     */
+    public void registrar(TipoAccion operacion, long duracionNs) {
+        contadores.get(operacion).increment();
+        HistogramaLatencia h = latencias.get(operacion);
+        synchronized (h) {
+            h.registrar(duracionNs);
+        }
+    }
+
+    /**
+     * Devuelve cuántas veces se ha ejecutado la operación.
+     *
+     * @param operacion operación a consultar
+     * @return número de ejecuciones
+     * @since 1.1
+     */
+    public long getConteo(TipoAccion operacion) {
+        return contadores.get(operacion).sum();
+    }
+
+    /**
+     * Devuelve los percentiles de latencia de la operación.
+     *
+     * @param operacion operación a consultar
+     * @return resumen en nanosegundos
+     * @since 1.1
+     */
+    public ResumenPercentiles getLatencia(TipoAccion operacion) {
+        HistogramaLatencia h = latencias.get(operacion);
+        synchronized (h) {
+            return h.resumen();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package modelo;
+
+/**
+ * Medidores de ventana deslizante para ingresos, atenciones y tiempo de espera.
+ *
+ * <p>Usa un anillo de cubetas de un minuto (la última hora): cada cubeta guarda sus
+ * contadores y un {@link HistogramaLatencia} de esperas en segundos. Registrar es O(1)
+ * y leer una ventana de 5, 15 o 60 minutos recorre como mucho 60 cubetas, sin importar
+ * cuántos clientes se hayan atendido. Los métodos están sincronizados para poder leerse
+ * desde hilos de muestreo mientras la interfaz registra operaciones.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class MetricasVentana {
+
+    /** Número de minutos que cubre el anillo. */
+    public static final int MINUTOS = 60;
+
+    private static final long MS_MINUTO = 60_000L;
+    private static final long MAX_ESPERA_SEG = 24L * 60 * 60;
+
+    private final long[] minutoCubeta = new long[MINUTOS]; // minuto epoch al que pertenece
+    private final int[] ingresos = new int[MINUTOS];
+    private final int[] atendidos = new int[MINUTOS];
+    private final long[] sumaEsperaMs = new long[MINUTOS];
+    private final HistogramaLatencia[] esperas = new HistogramaLatencia[MINUTOS];
+    private final HistogramaLatencia acumulado = new HistogramaLatencia(MAX_ESPERA_SEG);
+
+    /**
+     * Crea los medidores con todas las cubetas vacías.
+     *
+     * @since 1.1
+     */
+    public MetricasVentana() {
+        for (int i = 0; i < MINUTOS; i++) {
+            minutoCubeta[i] = -1;
+            esperas[i] = new HistogramaLatencia(MAX_ESPERA_SEG);
+        }
+    }
+
+    /**
+     * Registra el ingreso de un cliente.
+     *
+     * @param instanteMs instante del ingreso en milisegundos epoch
+     * @since 1.1
+     */
+    public synchronized void registrarIngreso(long instanteMs) {
+        int i = cubeta(instanteMs, true);
+        if (i >= 0) ingresos[i]++;
+    }
+
+    /**
+     * Retira un ingreso registrado (al deshacer un alta), si su cubeta sigue en la ventana.
+     *
+     * @param instanteMs instante del ingreso en milisegundos epoch
+     * @since 1.1
+     */
+    public synchronized void retirarIngreso(long instanteMs) {
+        int i = cubeta(instanteMs, false);
+        if (i >= 0 && ingresos[i] > 0) ingresos[i]--;
+    }
+
+    /**
+     * Registra la atención de un cliente y su tiempo de espera.
+     *
+     * @param instanteMs instante de la atención en milisegundos epoch
+     * @param esperaMs tiempo que esperó en cola en milisegundos
+     * @since 1.1
+     */
+    public synchronized void registrarAtencion(long instanteMs, long esperaMs) {
+        int i = cubeta(instanteMs, true);
+        if (i < 0) return;
+        atendidos[i]++;
+        sumaEsperaMs[i] += esperaMs;
+        esperas[i].registrar(esperaMs / 1000);
+    }
+
+    /**
+     * Retira una atención registrada (al deshacerla), si su cubeta sigue en la ventana.
+     *
+     * @param instanteMs instante de la atención en milisegundos epoch
+     * @param esperaMs tiempo de espera que se registró
+     * @since 1.1
+     */
+    public synchronized void retirarAtencion(long instanteMs, long esperaMs) {
+        int i = cubeta(instanteMs, false);
+        if (i < 0 || atendidos[i] == 0) return;
+        atendidos[i]--;
+        sumaEsperaMs[i] -= esperaMs;
+        esperas[i].retirar(esperaMs / 1000);
+    }
+
+    /**
+     * Devuelve los ingresos por minuto promediados sobre los últimos minutos indicados.
+     *
+     * @param minutos tamaño de la ventana (1 a {@value #MINUTOS})
+     * @return ingresos por minuto
+     * @since 1.1
+     */
+    public synchronized double getIngresosPorMinuto(int minutos) {
+        long suma = 0;
+        long actual = System.currentTimeMillis() / MS_MINUTO;
+        int n = acotar(minutos);
+        for (int k = 0; k < n; k++) {
+            int i = vigente(actual - k);
+            if (i >= 0) suma += ingresos[i];
+        }
+        return suma / (double) n;
+    }
+
+    /**
+     * Devuelve las atenciones por minuto promediadas sobre los últimos minutos indicados.
+     *
+     * @param minutos tamaño de la ventana (1 a {@value #MINUTOS})
+     * @return atendidos por minuto
+     * @since 1.1
+     */
+    public synchronized double getAtendidosPorMinuto(int minutos) {
+        long suma = 0;
+        long actual = System.currentTimeMillis() / MS_MINUTO;
+        int n = acotar(minutos);
+        for (int k = 0; k < n; k++) {
+            int i = vigente(actual - k);
+            if (i >= 0) suma += atendidos[i];
+        }
+        return suma / (double) n;
+    }
+
+    /**
+     * Devuelve la espera media de los clientes atendidos en la ventana.
+     *
+     * @param minutos tamaño de la ventana (1 a {@value #MINUTOS})
+     * @return espera media en minutos (0 si no hubo atenciones)
+     * @since 1.1
+     */
+    public synchronized double getEsperaMedia(int minutos) {
+        long suma = 0, cuenta = 0;
+        long actual = System.currentTimeMillis() / MS_MINUTO;
+        for (int k = 0; k < acotar(minutos); k++) {
+            int i = vigente(actual - k);
+            if (i >= 0) {
+                suma += sumaEsperaMs[i];
+                cuenta += atendidos[i];
+            }
+        }
+        return cuenta == 0 ? 0 : suma / (double) cuenta / MS_MINUTO;
+    }
+
+    /**
+     * Devuelve el percentil 95 de la espera de los clientes atendidos en la ventana.
+     *
+     * @param minutos tamaño de la ventana (1 a {@value #MINUTOS})
+     * @return p95 de la espera en minutos (0 si no hubo atenciones)
+     * @since 1.1
+     */
+    public synchronized double getEsperaP95(int minutos) {
+        acumulado.reiniciar();
+        long actual = System.currentTimeMillis() / MS_MINUTO;
+        for (int k = 0; k < acotar(minutos); k++) {
+            int i = vigente(actual - k);
+            if (i >= 0 && atendidos[i] > 0) acumulado.sumar(esperas[i]);
+        }
+        return acumulado.getPercentil(95.0) / 60.0;
+    }
+
+    // Cubeta del instante; al registrar recicla la cubeta si pertenece a un minuto antiguo
+    private int cubeta(long instanteMs, boolean reciclar) {
+        long minuto = instanteMs / MS_MINUTO;
+        long actual = System.currentTimeMillis() / MS_MINUTO;
+        if (minuto <= actual - MINUTOS) return -1; // fuera de la ventana
+        int i = (int) Math.floorMod(minuto, (long) MINUTOS);
+        if (minutoCubeta[i] != minuto) {
+            if (!reciclar) return -1;
+            minutoCubeta[i] = minuto;
+            ingresos[i] = 0;
+            atendidos[i] = 0;
+            sumaEsperaMs[i] = 0;
+            esperas[i].reiniciar();
+        }
+        return i;
+    }
+
+    private int vigente(long minuto) {
+        int i = (int) Math.floorMod(minuto, (long) MINUTOS);
+        return minutoCubeta[i] == minuto ? i : -1;
+    }
+
+    private static int acotar(int minutos) {
+        return Math.max(1, Math.min(MINUTOS, minutos));
+    }
+}
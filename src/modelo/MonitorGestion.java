@@ -0,0 +1,137 @@
+package modelo;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementación JMX de {@link MonitorGestionMXBean} sobre una {@link GestionAtencion}.
+ *
+ * <p>Solo lee contadores ya mantenidos por el modelo, así que consultarlo desde una
+ * consola JMX no añade trabajo a las operaciones de la interfaz. Se consulta desde los
+ * hilos de JMX: las colas y los atendidos salen de {@link GestionAtencion#instantanea()} y
+ * el resto de medidores son campos {@code volatile} del modelo.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class MonitorGestion implements MonitorGestionMXBean {
+
+    /** Nombre JMX con el que se registra el monitor. */
+    public static final String NOMBRE = "techclassuc:type=GestionAtencion";
+
+    private final GestionAtencion gestion;
+
+    /**
+     * Crea un monitor para el modelo indicado.
+     *
+     * @param gestion modelo a publicar
+     * @since 1.1
+     */
+    public MonitorGestion(GestionAtencion gestion) {
+        this.gestion = gestion;
+    }
+
+    /**
+     * Registra un monitor del modelo en el servidor JMX de la plataforma.
+     * Si ya había uno registrado con el mismo nombre, lo reemplaza.
+     *
+     * @param gestion modelo a publicar
+     * @return el monitor registrado
+     * @throws IllegalStateException si el servidor JMX rechaza el registro
+     * @since 1.1
+     */
+    public static MonitorGestion registrar(GestionAtencion gestion) {
+        return registrarComo(gestion, NOMBRE);
+    }
+
+    /**
+     * Registra un monitor de la sede indicada, con el nombre {@value #NOMBRE} seguido de
+     * {@code ,sede=CLAVE}, para publicar varias sedes en el mismo servidor JMX.
+     *
+     * @param gestion modelo de la sede
+     * @param sede clave de la sede
+     * @return el monitor registrado
+     * @throws IllegalStateException si el servidor JMX rechaza el registro
+     * @since 1.1
+     */
+    public static MonitorGestion registrar(GestionAtencion gestion, String sede) {
+        return registrarComo(gestion, NOMBRE + ",sede=" + ObjectName.quote(sede));
+    }
+
+    private static MonitorGestion registrarComo(GestionAtencion gestion, String nombreJmx) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(nombreJmx);
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+            MonitorGestion monitor = new MonitorGestion(gestion);
+            servidor.registerMBean(monitor, nombre);
+            return monitor;
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo registrar el monitor JMX", e);
+        }
+    }
+
+    @Override
+    public int getColaUrgentes() {
+        return gestion.instantanea().getColaUrgentes().size();
+    }
+
+    @Override
+    public int getColaNormales() {
+        return gestion.instantanea().getColaNormales().size();
+    }
+
+    @Override
+    public int getTotalAtendidos() {
+        return gestion.instantanea().getTotalAtendidos();
+    }
+
+    @Override
+    public int getCicloPrioritario() {
+        return gestion.getCicloPrioritario();
+    }
+
+    @Override
+    public boolean isSaturado() {
+        return gestion.isSaturado();
+    }
+
+    @Override
+    public int getRechazados() {
+        return gestion.getRechazados();
+    }
+
+    @Override
+    public int getDesviados() {
+        return gestion.getTotalDesviados();
+    }
+
+    @Override
+    public int getDescartados() {
+        return gestion.getDescartados();
+    }
+
+    @Override
+    public Map<String, Long> getOperaciones() {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (TipoAccion t : TipoAccion.values()) {
+            conteos.put(t.name(), gestion.getMetricasOperacion().getConteo(t));
+        }
+        return conteos;
+    }
+
+    @Override
+    public Map<String, ResumenPercentiles> getLatenciasNanos() {
+        Map<String, ResumenPercentiles> latencias = new LinkedHashMap<>();
+        for (TipoAccion t : TipoAccion.values()) {
+            latencias.put(t.name(), gestion.getMetricasOperacion().getLatencia(t));
+        }
+        return latencias;
+    }
+}
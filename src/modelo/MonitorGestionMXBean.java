@@ -0,0 +1,90 @@
+package modelo;
+
+import java.util.Map;
+
+/**
+ * Interfaz de gestión JMX del motor de atención.
+ *
+ * <p>Publica la profundidad de las colas, el total atendido, el estado del ciclo
+ * 2 urgentes → 1 normal, el estado del control de admisión y los contadores y latencias
+ * de cada operación.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public interface MonitorGestionMXBean {
+
+    /**
+     * Devuelve los clientes urgentes en espera.
+     *
+     * @return tamaño de la cola de urgentes
+     */
+    int getColaUrgentes();
+
+    /**
+     * Devuelve los clientes normales en espera.
+     *
+     * @return tamaño de la cola de normales
+     */
+    int getColaNormales();
+
+    /**
+     * Devuelve el total de clientes atendidos.
+     *
+     * @return tamaño del historial
+     */
+    int getTotalAtendidos();
+
+    /**
+     * Devuelve cuántos urgentes se han atendido en el ciclo actual (0, 1 o 2).
+     *
+     * @return estado del ciclo prioritario
+     */
+    int getCicloPrioritario();
+
+    /**
+     * Indica si el gestor está saturado según su política de admisión.
+     *
+     * @return {@code true} entre la marca alta y la vuelta a la baja
+     * @since 1.1
+     */
+    boolean isSaturado();
+
+    /**
+     * Devuelve las altas rechazadas por tener la cola llena.
+     *
+     * @return clientes rechazados
+     * @since 1.1
+     */
+    int getRechazados();
+
+    /**
+     * Devuelve los clientes desviados que esperan sitio en su cola.
+     *
+     * @return clientes en el desborde
+     * @since 1.1
+     */
+    int getDesviados();
+
+    /**
+     * Devuelve los normales descartados para admitir a otros.
+     *
+     * @return clientes descartados
+     * @since 1.1
+     */
+    int getDescartados();
+
+    /**
+     * Devuelve el número de ejecuciones de cada operación.
+     *
+     * @return mapa operación → conteo
+     */
+    Map<String, Long> getOperaciones();
+
+    /**
+     * Devuelve los percentiles de latencia (en nanosegundos) de cada operación.
+     *
+     * @return mapa operación → resumen de latencia
+     */
+    Map<String, ResumenPercentiles> getLatenciasNanos();
+}
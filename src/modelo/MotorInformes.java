@@ -0,0 +1,259 @@
+package modelo;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Motor de informes de fin de jornada que agrupa el historial por cualquier combinación de
+ * tipo, prioridad y hora de ingreso.
+ *
+ * <p>El historial se divide recursivamente en tramos que se agregan en paralelo en un
+ * {@link ForkJoinPool}. Cada tramo llena un acumulador de arreglos primitivos indexados
+ * por celda (tipo × prioridad × hora) con conteos, sumas e histogramas de memoria
+ * constante, y los acumuladores se combinan sumando arreglos al volver de cada división.
+ * No hay estado compartido entre tareas, así que el rendimiento crece con los núcleos.
+ *
+ * <p>El motor solo lee la lista que recibe y no toma ningún cerrojo de
+ * {@link GestionAtencion}: la lista no debe cambiar durante el informe (por ejemplo, un
+ * historial archivado o una copia), y con {@link #generarAsync} el informe corre en el
+ * pool sin ocupar el hilo que atiende.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class MotorInformes {
+
+    /** Tamaño de tramo por debajo del cual una tarea agrega sin dividirse. */
+    public static final int TRAMO_MINIMO = 1 << 14;
+
+    private static final int NUM_TIPOS = TipoSolicitud.values().length;
+    private static final int NUM_PRIORIDADES = Prioridad.values().length;
+    private static final int HORAS = 24;
+    private static final int CELDAS = NUM_TIPOS * NUM_PRIORIDADES * HORAS;
+    private static final long HORA_MS = 3_600_000L;
+    private static final long MAXIMO_MS = 7 * 24 * HORA_MS; // una semana
+
+    private final ForkJoinPool pool;
+    private final int tramo;
+
+    /**
+     * Crea un motor que usa el pool común y el tramo mínimo por defecto.
+     *
+     * @since 1.1
+     */
+    public MotorInformes() {
+        this(ForkJoinPool.commonPool(), TRAMO_MINIMO);
+    }
+
+    /**
+     * Crea un motor sobre el pool indicado.
+     *
+     * @param pool pool donde corren las tareas
+     * @param tramo clientes por tarea hoja (mayor que 0)
+     * @throws IllegalArgumentException si el tramo no es positivo
+     * @since 1.1
+     */
+    public MotorInformes(ForkJoinPool pool, int tramo) {
+        if (tramo <= 0) {
+            throw new IllegalArgumentException("El tramo debe ser positivo");
+        }
+        this.pool = pool;
+        this.tramo = tramo;
+    }
+
+    /**
+     * Genera el informe agrupando por las dimensiones indicadas y espera el resultado.
+     *
+     * @param clientes clientes atendidos, con acceso por posición, que no cambian durante
+     *                 el informe
+     * @param dimensiones dimensiones de agrupación; vacío para una sola fila total
+     * @return el informe
+     * @since 1.1
+     */
+    public InformeHistorial generar(List<Cliente> clientes, Set<InformeHistorial.Dimension> dimensiones) {
+        Set<InformeHistorial.Dimension> dims = copiar(dimensiones);
+        Acumulador total = pool.invoke(new Tarea(clientes, 0, clientes.size(), dims, tramo));
+        return construir(total, dims);
+    }
+
+    /**
+     * Lanza el informe en el pool y vuelve de inmediato.
+     *
+     * @param clientes clientes atendidos que no cambian durante el informe
+     * @param dimensiones dimensiones de agrupación
+     * @return futuro con el informe
+     * @since 1.1
+     */
+    public CompletableFuture<InformeHistorial> generarAsync(List<Cliente> clientes,
+                                                            Set<InformeHistorial.Dimension> dimensiones) {
+        Set<InformeHistorial.Dimension> dims = copiar(dimensiones);
+        return CompletableFuture.supplyAsync(() -> construir(
+                new Tarea(clientes, 0, clientes.size(), dims, tramo).invoke(), dims), pool);
+    }
+
+    /**
+     * Lanza el informe sobre una instantánea del historial del gestor, que se toma sin
+     * copiar el historial y no cambia aunque el gestor siga atendiendo.
+     *
+     * @param gestion gestor cuyo historial se resume
+     * @param dimensiones dimensiones de agrupación
+     * @return futuro con el informe
+     * @since 1.1
+     */
+    public CompletableFuture<InformeHistorial> generarAsync(GestionAtencion gestion,
+                                                            Set<InformeHistorial.Dimension> dimensiones) {
+        return generarAsync(gestion.instantanea().getHistorial(), dimensiones);
+    }
+
+    private static Set<InformeHistorial.Dimension> copiar(Set<InformeHistorial.Dimension> dimensiones) {
+        return dimensiones.isEmpty() ? EnumSet.noneOf(InformeHistorial.Dimension.class) : EnumSet.copyOf(dimensiones);
+    }
+
+    // Recorre las celdas en orden y crea una fila por cada una con clientes
+    private static InformeHistorial construir(Acumulador a, Set<InformeHistorial.Dimension> dims) {
+        List<InformeHistorial.Grupo> grupos = new ArrayList<>();
+        long total = 0;
+        for (int celda = 0; celda < CELDAS; celda++) {
+            long n = a.totales[celda];
+            if (n == 0) continue;
+            total += n;
+            int hora = celda % HORAS;
+            int prioridad = (celda / HORAS) % NUM_PRIORIDADES;
+            int tipo = celda / (HORAS * NUM_PRIORIDADES);
+            grupos.add(new InformeHistorial.Grupo(
+                    dims.contains(InformeHistorial.Dimension.TIPO) ? TipoSolicitud.values()[tipo] : null,
+                    dims.contains(InformeHistorial.Dimension.PRIORIDAD) ? Prioridad.values()[prioridad] : null,
+                    dims.contains(InformeHistorial.Dimension.HORA) ? hora : -1,
+                    n,
+                    (double) a.sumaServicio[celda] / n, a.servicio[celda].resumen(),
+                    (double) a.sumaEspera[celda] / n, a.espera[celda].resumen()));
+        }
+        return new InformeHistorial(dims, grupos, total);
+    }
+
+    // ------------------------------------------------------------
+    // Tarea fork/join: divide en mitades hasta el tramo y combina
+    // ------------------------------------------------------------
+    private static final class Tarea extends RecursiveTask<Acumulador> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Cliente> clientes;
+        private final int desde;
+        private final int hasta;
+        private final Set<InformeHistorial.Dimension> dims;
+        private final int tramo;
+
+        Tarea(List<Cliente> clientes, int desde, int hasta, Set<InformeHistorial.Dimension> dims, int tramo) {
+            this.clientes = clientes;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.dims = dims;
+            this.tramo = tramo;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            if (hasta - desde <= tramo) {
+                return agregar();
+            }
+            int medio = (desde + hasta) >>> 1;
+            Tarea izquierda = new Tarea(clientes, desde, medio, dims, tramo);
+            izquierda.fork();
+            Acumulador derecha = new Tarea(clientes, medio, hasta, dims, tramo).compute();
+            return derecha.combinar(izquierda.join());
+        }
+
+        private Acumulador agregar() {
+            boolean porTipo = dims.contains(InformeHistorial.Dimension.TIPO);
+            boolean porPrioridad = dims.contains(InformeHistorial.Dimension.PRIORIDAD);
+            boolean porHora = dims.contains(InformeHistorial.Dimension.HORA);
+            Acumulador a = new Acumulador();
+            RelojLocal reloj = porHora ? new RelojLocal() : null;
+            for (int i = desde; i < hasta; i++) {
+                Cliente c = clientes.get(i);
+                int tipo = porTipo ? c.getTipoSolicitud().ordinal() : 0;
+                int prioridad = porPrioridad ? c.getPrioridad().ordinal() : 0;
+                int hora = porHora ? reloj.hora(c.getIngresoMs()) : 0;
+                long servicio = Math.round(c.getTiempoAtencion() * 60_000.0);
+                long espera = c.getAtencionMs() == Cliente.SIN_HORA
+                        ? 0 : Math.max(0, c.getAtencionMs() - c.getIngresoMs());
+                a.registrar((tipo * NUM_PRIORIDADES + prioridad) * HORAS + hora, servicio, espera);
+            }
+            return a;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Acumulador combinable de arreglos primitivos por celda
+    // ------------------------------------------------------------
+    private static final class Acumulador {
+
+        final long[] totales = new long[CELDAS];
+        final long[] sumaServicio = new long[CELDAS];
+        final long[] sumaEspera = new long[CELDAS];
+        // Los histogramas se crean al usar la celda: ocupan unos KB cada uno
+        final HistogramaLatencia[] servicio = new HistogramaLatencia[CELDAS];
+        final HistogramaLatencia[] espera = new HistogramaLatencia[CELDAS];
+
+        void registrar(int celda, long servicioMs, long esperaMs) {
+            if (totales[celda]++ == 0) {
+                servicio[celda] = new HistogramaLatencia(MAXIMO_MS);
+                espera[celda] = new HistogramaLatencia(MAXIMO_MS);
+            }
+            sumaServicio[celda] += servicioMs;
+            sumaEspera[celda] += esperaMs;
+            servicio[celda].registrar(servicioMs);
+            espera[celda].registrar(esperaMs);
+        }
+
+        Acumulador combinar(Acumulador otro) {
+            for (int celda = 0; celda < CELDAS; celda++) {
+                if (otro.totales[celda] == 0) continue;
+                if (totales[celda] == 0) {
+                    servicio[celda] = otro.servicio[celda];
+                    espera[celda] = otro.espera[celda];
+                } else {
+                    servicio[celda].sumar(otro.servicio[celda]);
+                    espera[celda].sumar(otro.espera[celda]);
+                }
+                totales[celda] += otro.totales[celda];
+                sumaServicio[celda] += otro.sumaServicio[celda];
+                sumaEspera[celda] += otro.sumaEspera[celda];
+            }
+            return this;
+        }
+    }
+
+    /*
+     * Hora local de un instante sin crear un LocalDateTime por cliente: recuerda los
+     * límites de la última hora calculada, que casi siempre contiene al siguiente cliente
+     * porque el historial está en orden de atención.
+     */
+    private static final class RelojLocal {
+
+        private final ZoneRules reglas = ZoneId.systemDefault().getRules();
+        private long inicio = 1;
+        private long fin = 0;
+        private int hora;
+
+        int hora(long ms) {
+            if (ms < inicio || ms >= fin) {
+                long desfase = reglas.getOffset(Instant.ofEpochMilli(ms)).getTotalSeconds() * 1000L;
+                long local = ms + desfase;
+                inicio = ms - Math.floorMod(local, HORA_MS);
+                fin = inicio + HORA_MS;
+                hora = (int) Math.floorMod(Math.floorDiv(local, HORA_MS), (long) HORAS);
+            }
+            return hora;
+        }
+    }
+}
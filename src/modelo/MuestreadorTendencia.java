@@ -0,0 +1,138 @@
+package modelo;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Muestreo periódico de la profundidad de las colas, las atenciones por minuto y la espera
+ * media, guardado en un anillo de tamaño fijo de valores {@code double}.
+ *
+ * <p>Un temporizador en segundo plano toma una muestra cada periodo, sin importar cuántas
+ * operaciones ocurran entre medias, así que dibujar la tendencia cuesta lo mismo con
+ * pocos o con miles de eventos por segundo. Las lecturas de las colas se hacen sin
+ * bloquear el modelo y pueden llegar un instante tarde; los medidores de ventana ya
+ * están sincronizados.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class MuestreadorTendencia implements Closeable {
+
+    /** Serie con los urgentes en espera. */
+    public static final int URGENTES = 0;
+    /** Serie con los normales en espera. */
+    public static final int NORMALES = 1;
+    /** Serie con las atenciones por minuto (ventana de 5 minutos). */
+    public static final int ATENDIDOS_MINUTO = 2;
+    /** Serie con la espera media en minutos (ventana de 5 minutos). */
+    public static final int ESPERA_MEDIA = 3;
+    /** Número de series muestreadas. */
+    public static final int SERIES = 4;
+    /** Muestras que conserva el anillo. */
+    public static final int CAPACIDAD = 1024;
+
+    private final GestionAtencion gestion;
+    private final Runnable alMuestrear;
+    private final double[][] valores = new double[SERIES][CAPACIDAD];
+    private long muestras; // total de muestras tomadas
+    private final ScheduledExecutorService temporizador;
+
+    /**
+     * Empieza a muestrear el modelo con la cadencia indicada.
+     *
+     * @param gestion modelo a muestrear
+     * @param periodoMs milisegundos entre muestras
+     * @param alMuestrear acción que se ejecuta en el hilo del temporizador tras cada muestra
+     *                    (por ejemplo, avisar a la vista); debe ser breve
+     * @since 1.1
+     */
+    public MuestreadorTendencia(GestionAtencion gestion, long periodoMs, Runnable alMuestrear) {
+        this.gestion = gestion;
+        this.alMuestrear = alMuestrear;
+        temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "muestreo-tendencia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        temporizador.scheduleAtFixedRate(this::muestrear, 0, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Devuelve el número total de muestras tomadas desde el inicio.
+     *
+     * @return muestras tomadas (las anteriores a las últimas {@value #CAPACIDAD} ya no están)
+     * @since 1.1
+     */
+    public synchronized long getMuestras() {
+        return muestras;
+    }
+
+    /**
+     * Devuelve el valor de una serie en una muestra concreta.
+     *
+     * @param serie índice de la serie ({@link #URGENTES}, {@link #NORMALES}...)
+     * @param muestra número de muestra, entre {@code getMuestras() - CAPACIDAD} y
+     *                {@code getMuestras() - 1}
+     * @return valor muestreado
+     * @throws IllegalArgumentException si la muestra ya no está en el anillo
+     * @since 1.1
+     */
+    public synchronized double getValor(int serie, long muestra) {
+        if (muestra < 0 || muestra >= muestras || muestra < muestras - CAPACIDAD) {
+            throw new IllegalArgumentException("Muestra fuera del anillo: " + muestra);
+        }
+        return valores[serie][(int) (muestra % CAPACIDAD)];
+    }
+
+    /**
+     * Copia en orden cronológico las últimas muestras de una serie.
+     *
+     * @param serie índice de la serie
+     * @param destino arreglo a rellenar; se copian como mucho {@code destino.length} muestras
+     * @return número de muestras copiadas
+     * @since 1.1
+     */
+    public synchronized int copiarUltimas(int serie, double[] destino) {
+        int n = (int) Math.min(Math.min(muestras, CAPACIDAD), destino.length);
+        for (int k = 0; k < n; k++) {
+            destino[k] = valores[serie][(int) ((muestras - n + k) % CAPACIDAD)];
+        }
+        return n;
+    }
+
+    /**
+     * Detiene el temporizador.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void close() {
+        temporizador.shutdownNow();
+    }
+
+    private void muestrear() {
+        MetricasVentana m = gestion.getMetricas();
+        // Corre en el hilo del temporizador: las colas vivas solo las lee el hilo del gestor
+        InstantaneaGestion foto = gestion.instantanea();
+        double urgentes = foto.getColaUrgentes().size();
+        double normales = foto.getColaNormales().size();
+        double atendidos = m.getAtendidosPorMinuto(5);
+        double espera = m.getEsperaMedia(5);
+        synchronized (this) {
+            int i = (int) (muestras % CAPACIDAD);
+            valores[URGENTES][i] = urgentes;
+            valores[NORMALES][i] = normales;
+            valores[ATENDIDOS_MINUTO][i] = atendidos;
+            valores[ESPERA_MEDIA][i] = espera;
+            muestras++;
+        }
+        try {
+            alMuestrear.run();
+        } catch (RuntimeException e) {
+            // un fallo del aviso no debe detener el temporizador
+            System.err.println("Muestreo de tendencia: " + e.getMessage());
+        }
+    }
+}
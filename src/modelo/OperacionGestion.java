@@ -0,0 +1,145 @@
+package modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Operación ya aplicada sobre una {@link GestionAtencion}, tal como se publica a los
+ * {@link OyenteOperaciones}.
+ *
+ * <p>Contiene todos los datos necesarios para repetirla de forma determinista en otra
+ * instancia: el número de secuencia, el tipo de acción y los datos completos del cliente,
+ * incluidas las horas y el tiempo de atención. Las horas viajan como milisegundos epoch,
+ * igual que las guarda {@link Cliente}, así que no dependen de la zona horaria de quien
+ * las publica ni de quien las repite. Es inmutable.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class OperacionGestion {
+
+    private final long secuencia;
+    private final TipoAccion tipo;
+    private final String idCliente;
+    private final String nombre;
+    private final TipoSolicitud tipoSolicitud;
+    private final Prioridad prioridad;
+    private final long ingresoMs;
+    private final long atencionMs;
+    private final double tiempoAtencion;
+
+    /**
+     * Crea una operación con todos sus datos.
+     *
+     * @param secuencia número de orden de la operación (empieza en 1)
+     * @param tipo tipo de acción aplicada
+     * @param idCliente id del cliente afectado
+     * @param nombre nombre del cliente
+     * @param tipoSolicitud tipo de solicitud del cliente
+     * @param prioridad prioridad del cliente
+     * @param ingresoMs hora de ingreso del cliente en milisegundos epoch
+     * @param atencionMs hora de atención en milisegundos epoch, o {@link Cliente#SIN_HORA}
+     *                   si la operación no la tiene
+     * @param tiempoAtencion tiempo de atención en minutos (solo en {@code ATENDER})
+     * @since 1.1
+     */
+    public OperacionGestion(long secuencia, TipoAccion tipo, String idCliente, String nombre,
+                            TipoSolicitud tipoSolicitud, Prioridad prioridad, long ingresoMs,
+                            long atencionMs, double tiempoAtencion) {
+        this.secuencia = secuencia;
+        this.tipo = tipo;
+        this.idCliente = idCliente;
+        this.nombre = nombre;
+        this.tipoSolicitud = tipoSolicitud;
+        this.prioridad = prioridad;
+        this.ingresoMs = ingresoMs;
+        this.atencionMs = atencionMs;
+        this.tiempoAtencion = tiempoAtencion;
+    }
+
+    /**
+     * Devuelve el número de secuencia de la operación.
+     *
+     * @return secuencia (1, 2, 3...)
+     */
+    public long getSecuencia() { return secuencia; }
+
+    /**
+     * Devuelve el tipo de acción aplicada.
+     *
+     * @return {@link TipoAccion} de la operación
+     */
+    public TipoAccion getTipo() { return tipo; }
+
+    /**
+     * Devuelve el id del cliente afectado.
+     *
+     * @return id del cliente
+     */
+    public String getIdCliente() { return idCliente; }
+
+    /**
+     * Devuelve el nombre del cliente afectado.
+     *
+     * @return nombre del cliente
+     */
+    public String getNombre() { return nombre; }
+
+    /**
+     * Devuelve el tipo de solicitud del cliente.
+     *
+     * @return {@link TipoSolicitud} del cliente
+     */
+    public TipoSolicitud getTipoSolicitud() { return tipoSolicitud; }
+
+    /**
+     * Devuelve la prioridad del cliente.
+     *
+     * @return {@link Prioridad} del cliente
+     */
+    public Prioridad getPrioridad() { return prioridad; }
+
+    /**
+     * Devuelve la hora de ingreso del cliente.
+     *
+     * @return milisegundos epoch
+     * @since 1.1
+     */
+    public long getIngresoMs() { return ingresoMs; }
+
+    /**
+     * Devuelve la hora de atención (solo en operaciones que la tienen, como {@code ATENDER}).
+     *
+     * @return milisegundos epoch, o {@link Cliente#SIN_HORA}
+     * @since 1.1
+     */
+    public long getAtencionMs() { return atencionMs; }
+
+    /**
+     * Devuelve la hora de ingreso del cliente en la zona horaria local.
+     *
+     * @return hora de ingreso
+     */
+    public LocalDateTime getHoraIngreso() { return IndiceTemporal.aFecha(ingresoMs); }
+
+    /**
+     * Devuelve la hora de atención en la zona horaria local (solo en operaciones
+     * {@code ATENDER}).
+     *
+     * @return hora de atención o {@code null}
+     */
+    public LocalDateTime getHoraAtencion() {
+        return atencionMs == Cliente.SIN_HORA ? null : IndiceTemporal.aFecha(atencionMs);
+    }
+
+    /**
+     * Devuelve el tiempo de atención en minutos (solo en operaciones {@code ATENDER}).
+     *
+     * @return tiempo de atención
+     */
+    public double getTiempoAtencion() { return tiempoAtencion; }
+
+    @Override
+    public String toString() {
+        return "#" + secuencia + " " + tipo + " " + idCliente;
+    }
+}
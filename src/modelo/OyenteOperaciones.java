@@ -0,0 +1,23 @@
+package modelo;
+
+/**
+ * Recibe, en orden, cada operación aplicada sobre una {@link GestionAtencion}.
+ *
+ * <p>Se invoca en el mismo hilo que ejecutó la operación, justo después de aplicarla, por
+ * lo que las implementaciones deben ser rápidas y no bloquear (por ejemplo, encolar la
+ * operación para procesarla en otro hilo).
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface OyenteOperaciones {
+
+    /**
+     * Notifica una operación recién aplicada.
+     *
+     * @param operacion operación aplicada
+     * @since 1.1
+     */
+    void operacionAplicada(OperacionGestion operacion);
+}
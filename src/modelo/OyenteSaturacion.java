@@ -0,0 +1,25 @@
+package modelo;
+
+/**
+ * Recibe los cambios de estado de saturación de una {@link GestionAtencion} según los
+ * umbrales de su {@link PoliticaAdmision}.
+ *
+ * <p>Se invoca en el hilo que ejecutó la operación que cruzó el umbral, por lo que las
+ * implementaciones deben ser rápidas (por ejemplo, activar una bandera que consulten los
+ * quioscos o el importador antes de seguir enviando altas).
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface OyenteSaturacion {
+
+    /**
+     * Notifica que el gestor entró en saturación o salió de ella.
+     *
+     * @param saturado {@code true} al alcanzar la marca alta; {@code false} al bajar a la baja
+     * @param enEspera clientes en espera en el momento del cambio
+     * @since 1.1
+     */
+    void saturacionCambiada(boolean saturado, int enEspera);
+}
@@ -0,0 +1,129 @@
+package modelo;
+
+/**
+ * Control de admisión de {@link GestionAtencion}: capacidad máxima de cada cola, qué hacer
+ * con un cliente que llega a una cola llena y umbrales de saturación.
+ *
+ * <p>Los umbrales alto y bajo se comparan con el total de clientes en espera: al alcanzar
+ * el alto el gestor pasa a saturado y solo deja de estarlo al bajar hasta el bajo, de modo
+ * que la señal no oscila con cada alta y atención ({@link OyenteSaturacion}). Es inmutable.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class PoliticaAdmision {
+
+    /**
+     * Qué hacer con un cliente que llega a una cola llena.
+     *
+     * @since 1.1
+     */
+    public enum Modo {
+        /** Rechazarlo con {@link CapacidadExcedidaException}. */
+        RECHAZAR,
+        /** Guardarlo en la zona de desborde hasta que su cola tenga sitio. */
+        DESVIAR,
+        /**
+         * Descartar al normal que más tiempo lleva esperando y admitirlo; si no hay normales
+         * en espera, rechazarlo. Un urgente puede así superar la capacidad de su cola a costa
+         * de los normales, pero el total en espera no aumenta.
+         */
+        DESCARTAR_NORMAL_ANTIGUO
+    }
+
+    private final Modo modo;
+    private final int capacidadUrgentes;
+    private final int capacidadNormales;
+    private final int marcaAlta;
+    private final int marcaBaja;
+
+    /**
+     * Crea una política de admisión.
+     *
+     * @param modo qué hacer al llegar a una cola llena
+     * @param capacidadUrgentes máximo de urgentes en espera
+     * @param capacidadNormales máximo de normales en espera
+     * @param marcaAlta clientes en espera a partir de los cuales el gestor está saturado
+     * @param marcaBaja clientes en espera a los que debe bajar para dejar de estarlo
+     * @throws IllegalArgumentException si una capacidad no es positiva o los umbrales no
+     *         cumplen {@code 0 <= marcaBaja < marcaAlta}
+     * @since 1.1
+     */
+    public PoliticaAdmision(Modo modo, int capacidadUrgentes, int capacidadNormales,
+                            int marcaAlta, int marcaBaja) {
+        if (capacidadUrgentes <= 0 || capacidadNormales <= 0) {
+            throw new IllegalArgumentException("Las capacidades deben ser positivas");
+        }
+        if (marcaBaja < 0 || marcaBaja >= marcaAlta) {
+            throw new IllegalArgumentException("Se requiere 0 <= marca baja < marca alta");
+        }
+        this.modo = modo;
+        this.capacidadUrgentes = capacidadUrgentes;
+        this.capacidadNormales = capacidadNormales;
+        this.marcaAlta = marcaAlta;
+        this.marcaBaja = marcaBaja;
+    }
+
+    /**
+     * Crea una política con umbrales de saturación al 90 % y 70 % de la capacidad total.
+     *
+     * @param modo qué hacer al llegar a una cola llena
+     * @param capacidadUrgentes máximo de urgentes en espera
+     * @param capacidadNormales máximo de normales en espera
+     * @return la política
+     * @since 1.1
+     */
+    public static PoliticaAdmision conCapacidad(Modo modo, int capacidadUrgentes, int capacidadNormales) {
+        int total = capacidadUrgentes + capacidadNormales;
+        int alta = Math.max(1, (int) (total * 0.9));
+        return new PoliticaAdmision(modo, capacidadUrgentes, capacidadNormales, alta,
+                Math.min(alta - 1, (int) (total * 0.7)));
+    }
+
+    /**
+     * Devuelve qué se hace con un cliente que llega a una cola llena.
+     *
+     * @return modo de la política
+     * @since 1.1
+     */
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * Devuelve la capacidad de la cola de una prioridad.
+     *
+     * @param prioridad prioridad de la cola
+     * @return máximo de clientes en espera con esa prioridad
+     * @since 1.1
+     */
+    public int getCapacidad(Prioridad prioridad) {
+        return prioridad == Prioridad.URGENTE ? capacidadUrgentes : capacidadNormales;
+    }
+
+    /**
+     * Devuelve el umbral de entrada en saturación.
+     *
+     * @return clientes en espera
+     * @since 1.1
+     */
+    public int getMarcaAlta() {
+        return marcaAlta;
+    }
+
+    /**
+     * Devuelve el umbral de salida de saturación.
+     *
+     * @return clientes en espera
+     * @since 1.1
+     */
+    public int getMarcaBaja() {
+        return marcaBaja;
+    }
+
+    @Override
+    public String toString() {
+        return modo + " urgentes=" + capacidadUrgentes + " normales=" + capacidadNormales
+                + " marcas=" + marcaBaja + "/" + marcaAlta;
+    }
+}
@@ -0,0 +1,97 @@
+package modelo;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Política de envejecimiento por nivel de servicio: cuánto puede esperar cada tipo de
+ * solicitud antes de que {@link GestionAtencion} actúe sobre el cliente.
+ *
+ * <p>Al superar su umbral, un cliente queda marcado como vencido
+ * ({@link Cliente#isVencido()}). En modo {@link Modo#ESCALAR}, además, un cliente
+ * {@code NORMAL} vencido pasa al final de la cola de urgentes, para que las ráfagas de
+ * urgentes no lo dejen sin atender indefinidamente. Los tipos sin umbral no envejecen.
+ * Es inmutable.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class PoliticaEnvejecimiento {
+
+    /**
+     * Qué hacer con un cliente que supera su umbral de espera.
+     *
+     * @since 1.1
+     */
+    public enum Modo {
+        /** Solo marcarlo como vencido. */
+        MARCAR,
+        /** Marcarlo y, si es normal, pasarlo a la cola de urgentes. */
+        ESCALAR
+    }
+
+    private final Modo modo;
+    private final Map<TipoSolicitud, Duration> umbrales;
+
+    /**
+     * Crea una política con umbrales por tipo de solicitud.
+     *
+     * @param modo acción al vencer el umbral
+     * @param umbrales espera máxima por tipo; los tipos ausentes no envejecen
+     * @throws IllegalArgumentException si algún umbral es negativo
+     * @since 1.1
+     */
+    public PoliticaEnvejecimiento(Modo modo, Map<TipoSolicitud, Duration> umbrales) {
+        this.modo = modo;
+        this.umbrales = new EnumMap<>(TipoSolicitud.class);
+        for (Map.Entry<TipoSolicitud, Duration> e : umbrales.entrySet()) {
+            if (e.getValue().isNegative()) {
+                throw new IllegalArgumentException("Umbral negativo para " + e.getKey());
+            }
+            this.umbrales.put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Crea una política con el mismo umbral para todos los tipos de solicitud.
+     *
+     * @param modo acción al vencer el umbral
+     * @param umbral espera máxima
+     * @return la política
+     * @since 1.1
+     */
+    public static PoliticaEnvejecimiento uniforme(Modo modo, Duration umbral) {
+        Map<TipoSolicitud, Duration> umbrales = new EnumMap<>(TipoSolicitud.class);
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            umbrales.put(t, umbral);
+        }
+        return new PoliticaEnvejecimiento(modo, umbrales);
+    }
+
+    /**
+     * Devuelve la acción al vencer el umbral.
+     *
+     * @return modo de la política
+     * @since 1.1
+     */
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * Devuelve la espera máxima de un tipo de solicitud.
+     *
+     * @param tipo tipo de solicitud
+     * @return umbral, o {@code null} si ese tipo no envejece
+     * @since 1.1
+     */
+    public Duration getUmbral(TipoSolicitud tipo) {
+        return umbrales.get(tipo);
+    }
+
+    @Override
+    public String toString() {
+        return modo + " " + umbrales;
+    }
+}
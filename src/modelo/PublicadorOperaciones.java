@@ -0,0 +1,146 @@
+package modelo;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publica las operaciones de una {@link GestionAtencion} como un
+ * {@link Flow.Publisher} con contrapresión.
+ *
+ * <p>Cada suscriptor tiene su propio búfer acotado y recibe elementos según la demanda
+ * que pide con {@link Flow.Subscription#request(long)}. La entrega se hace en hilos
+ * propios del publicador: el hilo que ejecuta {@code agregarCliente} o
+ * {@code atenderCliente} solo intenta encolar la operación, sin esperar nunca. Si el
+ * búfer de un suscriptor lento está lleno, la operación se descarta para ese suscriptor
+ * (los demás la reciben) y se cuenta en {@link #getDescartadas(Flow.Subscriber)}; el
+ * suscriptor puede detectar el hueco por el número de secuencia.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class PublicadorOperaciones implements Flow.Publisher<OperacionGestion>, OyenteOperaciones,
+        AutoCloseable {
+
+    /** Capacidad por defecto del búfer de cada suscriptor. */
+    public static final int CAPACIDAD_DEFECTO = 1024;
+
+    private final GestionAtencion gestion;
+    private final SubmissionPublisher<OperacionGestion> publicador;
+    private final Map<Flow.Subscriber<? super OperacionGestion>, LongAdder> descartes =
+            new ConcurrentHashMap<>();
+    private final LongAdder totalDescartadas = new LongAdder();
+
+    /**
+     * Crea un publicador con búferes de {@value #CAPACIDAD_DEFECTO} operaciones y lo
+     * registra como oyente del modelo.
+     *
+     * @param gestion modelo cuyas operaciones se publican
+     * @since 1.1
+     */
+    public PublicadorOperaciones(GestionAtencion gestion) {
+        this(gestion, CAPACIDAD_DEFECTO);
+    }
+
+    /**
+     * Crea un publicador con la capacidad de búfer indicada y lo registra como oyente del
+     * modelo.
+     *
+     * @param gestion modelo cuyas operaciones se publican
+     * @param capacidad operaciones que se retienen por suscriptor (se redondea a potencia de dos)
+     * @throws IllegalArgumentException si la capacidad no es positiva
+     * @since 1.1
+     */
+    public PublicadorOperaciones(GestionAtencion gestion, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        this.gestion = gestion;
+        // Un hilo por suscriptor ocupado: un consumidor lento no retrasa a los demás, y los
+        // hilos inactivos terminan solos
+        ExecutorService entrega = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "publicador-operaciones");
+            t.setDaemon(true);
+            return t;
+        });
+        this.publicador = new SubmissionPublisher<>(entrega, capacidad);
+        gestion.agregarOyente(this);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OperacionGestion> suscriptor) {
+        descartes.putIfAbsent(suscriptor, new LongAdder());
+        publicador.subscribe(suscriptor);
+    }
+
+    @Override
+    public void operacionAplicada(OperacionGestion operacion) {
+        if (!publicador.hasSubscribers()) return;
+        // Tiempo de espera 0: nunca bloquea; el manejador cuenta el descarte y no reintenta
+        publicador.offer(operacion, 0, TimeUnit.MILLISECONDS, (suscriptor, op) -> {
+            LongAdder d = descartes.get(suscriptor);
+            if (d != null) d.increment();
+            totalDescartadas.increment();
+            return false;
+        });
+    }
+
+    /**
+     * Devuelve las operaciones descartadas para un suscriptor por tener el búfer lleno.
+     *
+     * @param suscriptor suscriptor a consultar
+     * @return operaciones que no recibió (0 si no está suscrito)
+     * @since 1.1
+     */
+    public long getDescartadas(Flow.Subscriber<? super OperacionGestion> suscriptor) {
+        LongAdder d = descartes.get(suscriptor);
+        return d == null ? 0 : d.sum();
+    }
+
+    /**
+     * Devuelve el total de descartes entre todos los suscriptores.
+     *
+     * @return operaciones descartadas
+     * @since 1.1
+     */
+    public long getTotalDescartadas() {
+        return totalDescartadas.sum();
+    }
+
+    /**
+     * Devuelve el número de suscriptores activos.
+     *
+     * @return suscriptores que no han cancelado ni terminado
+     * @since 1.1
+     */
+    public int getSuscriptores() {
+        return publicador.getNumberOfSubscribers();
+    }
+
+    /**
+     * Devuelve el mayor número de operaciones pendientes de entrega entre los suscriptores.
+     *
+     * @return ocupación del búfer más lleno
+     * @since 1.1
+     */
+    public int getMaximoPendiente() {
+        return publicador.estimateMaximumLag();
+    }
+
+    /**
+     * Deja de escuchar el modelo y entrega {@code onComplete} a los suscriptores después de
+     * las operaciones ya encoladas.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void close() {
+        gestion.quitarOyente(this);
+        publicador.close();
+    }
+}
@@ -0,0 +1,66 @@
+package modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Valor inmutable de una serie de tendencia: clientes atendidos y tiempo de atención
+ * acumulado en un intervalo (un minuto, una hora o un día).
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class PuntoTendencia {
+
+    private final LocalDateTime inicio;
+    private final long atendidos;
+    private final long sumaTiempoMs;
+
+    /**
+     * Crea un punto con los valores ya agregados.
+     *
+     * @param inicio inicio del intervalo (hora local)
+     * @param atendidos clientes atendidos en el intervalo
+     * @param sumaTiempoMs suma de sus tiempos de atención en milisegundos
+     * @since 1.1
+     */
+    public PuntoTendencia(LocalDateTime inicio, long atendidos, long sumaTiempoMs) {
+        this.inicio = inicio;
+        this.atendidos = atendidos;
+        this.sumaTiempoMs = sumaTiempoMs;
+    }
+
+    /**
+     * Devuelve el inicio del intervalo.
+     *
+     * @return hora local de inicio
+     */
+    public LocalDateTime getInicio() { return inicio; }
+
+    /**
+     * Devuelve los clientes atendidos en el intervalo.
+     *
+     * @return volumen de atenciones
+     */
+    public long getAtendidos() { return atendidos; }
+
+    /**
+     * Devuelve la suma de los tiempos de atención del intervalo.
+     *
+     * @return suma en milisegundos
+     */
+    public long getSumaTiempoMs() { return sumaTiempoMs; }
+
+    /**
+     * Devuelve el tiempo medio de atención del intervalo.
+     *
+     * @return media en minutos (0 si no hubo atenciones)
+     */
+    public double getTiempoMedio() {
+        return atendidos == 0 ? 0 : sumaTiempoMs / (double) atendidos / 60_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return inicio + " atendidos=" + atendidos + " media=" + String.format("%.2f", getTiempoMedio());
+    }
+}
@@ -0,0 +1,185 @@
+package modelo;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Registro de operaciones de {@link GestionAtencion} sobre un anillo de ranuras
+ * reservadas al crearlo.
+ *
+ * <p>Cada ranura guarda el ordinal del {@link TipoAccion}, la referencia al cliente y el
+ * instante en milisegundos epoch, en arreglos paralelos. Registrar una operación solo
+ * escribe en esos arreglos: no crea objetos, así que el camino de alta y atención no
+ * genera basura por el registro. Cuando el anillo se llena, cada operación nueva pisa la
+ * más antigua; {@link #getSobrescritas()} dice cuántas se perdieron.
+ *
+ * <p>La lectura es por posición, de la más antigua retenida ({@code 0}) a la más reciente.
+ * Solo quien lee crea objetos, ya sea al formatear una línea o al pedir una
+ * {@link Accion}. Como el gestor, no es seguro para varios hilos: desde otro hilo se lee
+ * la copia de {@link GestionAtencion#instantaneaRegistro()}.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class RegistroOperaciones {
+
+    private static final TipoAccion[] TIPOS = TipoAccion.values();
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final byte[] tipos;
+    private final Cliente[] clientes;
+    private final long[] instantes;
+    private final int mascara;
+    private long escritas; // total registrado desde el inicio
+
+    /**
+     * Crea un registro con la capacidad indicada.
+     *
+     * @param capacidad número de ranuras (potencia de dos)
+     * @throws IllegalArgumentException si la capacidad no es una potencia de dos positiva
+     * @since 1.1
+     */
+    public RegistroOperaciones(int capacidad) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos positiva");
+        }
+        tipos = new byte[capacidad];
+        clientes = new Cliente[capacidad];
+        instantes = new long[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    // Copia independiente, para leerla desde otro hilo
+    RegistroOperaciones copia() {
+        RegistroOperaciones r = new RegistroOperaciones(clientes.length);
+        System.arraycopy(tipos, 0, r.tipos, 0, tipos.length);
+        System.arraycopy(clientes, 0, r.clientes, 0, clientes.length);
+        System.arraycopy(instantes, 0, r.instantes, 0, instantes.length);
+        r.escritas = escritas;
+        return r;
+    }
+
+    // Escribe la operación en la siguiente ranura, pisando la más antigua si está lleno
+    void registrar(TipoAccion tipo, Cliente cliente, long instanteMs) {
+        int r = (int) (escritas & mascara);
+        tipos[r] = (byte) tipo.ordinal();
+        clientes[r] = cliente;
+        instantes[r] = instanteMs;
+        escritas++;
+    }
+
+    /**
+     * Devuelve el número de operaciones retenidas.
+     *
+     * @return operaciones legibles, como mucho la capacidad
+     * @since 1.1
+     */
+    public int tamano() {
+        return (int) Math.min(escritas, clientes.length);
+    }
+
+    /**
+     * Devuelve el número de ranuras del anillo.
+     *
+     * @return capacidad
+     * @since 1.1
+     */
+    public int getCapacidad() {
+        return clientes.length;
+    }
+
+    /**
+     * Devuelve el total de operaciones registradas, incluidas las ya pisadas.
+     *
+     * @return operaciones registradas desde el inicio
+     * @since 1.1
+     */
+    public long getTotalRegistradas() {
+        return escritas;
+    }
+
+    /**
+     * Devuelve cuántas operaciones se perdieron al llenarse el anillo.
+     *
+     * @return operaciones sobrescritas
+     * @since 1.1
+     */
+    public long getSobrescritas() {
+        return escritas - tamano();
+    }
+
+    /**
+     * Devuelve el tipo de la operación en la posición indicada.
+     *
+     * @param indice posición, de 0 (más antigua retenida) a {@code tamano() - 1}
+     * @return tipo de acción
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    public TipoAccion getTipo(int indice) {
+        return TIPOS[tipos[ranura(indice)]];
+    }
+
+    /**
+     * Devuelve el cliente de la operación en la posición indicada.
+     *
+     * @param indice posición, de 0 (más antigua retenida) a {@code tamano() - 1}
+     * @return cliente afectado
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    public Cliente getCliente(int indice) {
+        return clientes[ranura(indice)];
+    }
+
+    /**
+     * Devuelve el instante de la operación en la posición indicada.
+     *
+     * @param indice posición, de 0 (más antigua retenida) a {@code tamano() - 1}
+     * @return milisegundos epoch
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    public long getInstanteMs(int indice) {
+        return instantes[ranura(indice)];
+    }
+
+    /**
+     * Crea la {@link Accion} equivalente a la operación en la posición indicada.
+     *
+     * @param indice posición, de 0 (más antigua retenida) a {@code tamano() - 1}
+     * @return acción nueva con el tipo, cliente e instante registrados
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    public Accion getAccion(int indice) {
+        int r = ranura(indice);
+        return new Accion(TIPOS[tipos[r]], clientes[r], instantes[r]);
+    }
+
+    /**
+     * Añade al texto la línea de la operación en la posición indicada, con el mismo
+     * formato que {@link Accion#toString()}.
+     *
+     * @param indice posición, de 0 (más antigua retenida) a {@code tamano() - 1}
+     * @param destino texto al que se añade la línea (sin salto final)
+     * @return {@code destino}
+     * @throws IndexOutOfBoundsException si la posición no existe
+     * @since 1.1
+     */
+    public StringBuilder formatear(int indice, StringBuilder destino) {
+        int r = ranura(indice);
+        Cliente c = clientes[r];
+        destino.append('[');
+        FORMATO.formatTo(IndiceTemporal.aFecha(instantes[r]), destino);
+        return destino.append("] ").append(TIPOS[tipos[r]]).append(" → ")
+                .append(c.getNombre()).append(" (").append(c.getId()).append(')');
+    }
+
+    private int ranura(int indice) {
+        int n = tamano();
+        if (indice < 0 || indice >= n) {
+            throw new IndexOutOfBoundsException("Posición " + indice + " fuera de 0.." + (n - 1));
+        }
+        return (int) ((escritas - n + indice) & mascara);
+    }
+}
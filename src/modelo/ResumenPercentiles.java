@@ -0,0 +1,75 @@
+package modelo;
+
+/**
+ * Resumen inmutable de una distribución de latencias: total de muestras, percentiles
+ * 50/90/99 y máximo, expresados en las unidades del {@link HistogramaLatencia} de origen.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class ResumenPercentiles {
+
+    private final long total;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long maximo;
+
+    /**
+     * Crea un resumen con los valores ya calculados.
+     *
+     * @param total número de muestras
+     * @param p50 percentil 50 (mediana)
+     * @param p90 percentil 90
+     * @param p99 percentil 99
+     * @param maximo valor máximo
+     * @since 1.1
+     */
+    public ResumenPercentiles(long total, long p50, long p90, long p99, long maximo) {
+        this.total = total;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.maximo = maximo;
+    }
+
+    /**
+     * Devuelve el número de muestras resumidas.
+     *
+     * @return total de muestras
+     */
+    public long getTotal() { return total; }
+
+    /**
+     * Devuelve la mediana.
+     *
+     * @return percentil 50
+     */
+    public long getP50() { return p50; }
+
+    /**
+     * Devuelve el percentil 90.
+     *
+     * @return percentil 90
+     */
+    public long getP90() { return p90; }
+
+    /**
+     * Devuelve el percentil 99.
+     *
+     * @return percentil 99
+     */
+    public long getP99() { return p99; }
+
+    /**
+     * Devuelve el valor máximo.
+     *
+     * @return máximo registrado
+     */
+    public long getMaximo() { return maximo; }
+
+    @Override
+    public String toString() {
+        return "p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", max=" + maximo + " (n=" + total + ")";
+    }
+}
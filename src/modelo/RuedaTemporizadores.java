@@ -0,0 +1,154 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores con dispersión (hashed timing wheel) para los vencimientos de
+ * espera de {@link GestionAtencion}.
+ *
+ * <p>El tiempo se divide en ticks de duración fija y cada tick se asigna a una de las
+ * ranuras de un arreglo circular; cada ranura es una lista doblemente enlazada de
+ * temporizadores. Programar y cancelar cuestan O(1) y avanzar un tick solo recorre su
+ * ranura, sin importar cuántos vencimientos haya pendientes. Un temporizador a más de una
+ * vuelta de distancia se queda en su ranura hasta que llega su tick.
+ *
+ * <p>Los temporizadores cancelados o vencidos vuelven a una reserva de la que salen los
+ * siguientes, y los vencidos de cada avance se ordenan en un arreglo que se reutiliza, así
+ * que en régimen estable programar, cancelar y avanzar no reservan memoria.
+ */
+final class RuedaTemporizadores {
+
+    static final class Temporizador {
+        ColaEnlazada.Nodo nodo; // nodo de cola del cliente que espera
+        long tick; // tick absoluto en que vence
+        Temporizador anterior;
+        Temporizador siguiente;
+        int ranura = -1; // -1 si no está en la rueda
+
+        Temporizador(ColaEnlazada.Nodo nodo, long tick) {
+            this.nodo = nodo;
+            this.tick = tick;
+        }
+    }
+
+    private static final Comparator<Temporizador> ORDEN = Comparator
+            .<Temporizador>comparingLong(t -> t.tick)
+            .thenComparingLong(t -> t.nodo.cliente.getIngresoMs())
+            .thenComparingLong(t -> IdCliente.numero(t.nodo.cliente.getIdNumerico()));
+
+    private final long tickMs;
+    private final Temporizador[] ranuras; // primer temporizador de cada ranura
+    private final int mascara;
+    private long tickActual; // último tick procesado
+    private int tamano;
+    private Temporizador libres; // reserva enlazada por siguiente
+    private int numLibres;
+    private Temporizador[] vencidos = new Temporizador[16]; // se reutiliza en cada avance
+
+    RuedaTemporizadores(long tickMs, int numRanuras, long ahoraMs) {
+        if (tickMs <= 0 || numRanuras <= 0 || Integer.bitCount(numRanuras) != 1) {
+            throw new IllegalArgumentException("El tick debe ser positivo y las ranuras una potencia de dos");
+        }
+        this.tickMs = tickMs;
+        this.ranuras = new Temporizador[numRanuras];
+        this.mascara = numRanuras - 1;
+        this.tickActual = ahoraMs / tickMs;
+    }
+
+    // Programa el vencimiento del cliente del nodo; si ya pasó, vence en el siguiente tick
+    Temporizador programar(ColaEnlazada.Nodo nodo, long vencimientoMs) {
+        long tick = Math.max(Math.floorDiv(vencimientoMs + tickMs - 1, tickMs), tickActual + 1);
+        Temporizador t = libres;
+        if (t == null) {
+            t = new Temporizador(nodo, tick);
+        } else {
+            libres = t.siguiente;
+            numLibres--;
+            t.siguiente = null;
+            t.nodo = nodo;
+            t.tick = tick;
+        }
+        int r = (int) (tick & mascara);
+        t.ranura = r;
+        t.siguiente = ranuras[r];
+        if (ranuras[r] != null) ranuras[r].anterior = t;
+        ranuras[r] = t;
+        tamano++;
+        return t;
+    }
+
+    // Quita el temporizador de su ranura; no hace nada si ya venció o se canceló. Quien lo
+    // cancela no debe volver a usarlo: vuelve a la reserva y lo puede recibir otro cliente
+    void cancelar(Temporizador t) {
+        if (t.ranura < 0) return;
+        desenlazar(t);
+        reciclar(t);
+    }
+
+    private void desenlazar(Temporizador t) {
+        if (t.anterior != null) t.anterior.siguiente = t.siguiente;
+        else ranuras[t.ranura] = t.siguiente;
+        if (t.siguiente != null) t.siguiente.anterior = t.anterior;
+        t.anterior = null;
+        t.siguiente = null;
+        t.ranura = -1;
+        tamano--;
+    }
+
+    // La reserva no guarda más temporizadores que ranuras, para no retener memoria tras un pico
+    private void reciclar(Temporizador t) {
+        t.nodo = null;
+        if (numLibres >= ranuras.length) return;
+        t.siguiente = libres;
+        libres = t;
+        numLibres++;
+    }
+
+    /*
+     * Avanza hasta el instante indicado y entrega los nodos vencidos en orden de tick y,
+     * dentro del mismo tick, de llegada.
+     * Si pasaron más ticks que ranuras, basta una vuelta completa. Los vencidos se sacan de
+     * la rueda antes de llamar a la acción, que puede programar o cancelar otros, y solo
+     * vuelven a la reserva cuando ya se entregaron todos. Con menos de 32 vencidos por avance
+     * la ordenación es por inserción y tampoco reserva memoria.
+     */
+    int avanzar(long ahoraMs, Consumer<ColaEnlazada.Nodo> alVencer) {
+        long objetivo = ahoraMs / tickMs;
+        if (objetivo <= tickActual) return 0;
+        int pasos = (int) Math.min(objetivo - tickActual, ranuras.length);
+        int n = 0;
+        for (int i = 1; i <= pasos; i++) {
+            int r = (int) ((tickActual + i) & mascara);
+            Temporizador t = ranuras[r];
+            while (t != null) {
+                Temporizador siguiente = t.siguiente;
+                if (t.tick <= objetivo) {
+                    desenlazar(t);
+                    if (n == vencidos.length) vencidos = Arrays.copyOf(vencidos, n * 2);
+                    vencidos[n++] = t;
+                }
+                t = siguiente;
+            }
+        }
+        tickActual = objetivo;
+        if (n == 0) return 0;
+        Arrays.sort(vencidos, 0, n, ORDEN);
+        try {
+            for (int i = 0; i < n; i++) {
+                alVencer.accept(vencidos[i].nodo);
+            }
+        } finally {
+            for (int i = 0; i < n; i++) {
+                reciclar(vencidos[i]);
+                vencidos[i] = null;
+            }
+        }
+        return n;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+}
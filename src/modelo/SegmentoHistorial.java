@@ -0,0 +1,299 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segmento inmutable del historial guardado en un archivo.
+ *
+ * <p>El archivo contiene una cabecera, un registro de ancho fijo por cliente en orden de
+ * atención, un índice por id ({@code id → posición}, ordenado), un índice por hora de
+ * ingreso (posiciones ordenadas) y los nombres distintos del segmento. En el heap solo
+ * queda un resumen de tamaño fijo (conteos por tipo y prioridad, rango de ingresos y de
+ * ids), que permite descartar el segmento sin leerlo; los índices se consultan sobre el
+ * archivo proyectado en memoria.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+final class SegmentoHistorial {
+
+    private static final int MAGICO = 0x54435347; // "TCSG"
+    private static final int CABECERA = 32;
+    private static final int TAM_REGISTRO = 40;
+    private static final int TAM_ENTRADA_ID = 12;
+
+    // Desplazamientos dentro del registro
+    private static final int INGRESO = 0;
+    private static final int ATENCION = 8;
+    private static final int TIEMPO = 16;
+    private static final int ID = 24;
+    private static final int NOMBRE = 32;
+    private static final int TIPO = 36;
+    private static final int VENCIDO = 37;
+
+    private static final TipoSolicitud[] TIPOS = TipoSolicitud.values();
+
+    private final Path archivo;
+    private final int tamano;
+    private final long ingresoMin;
+    private final long ingresoMax;
+    private final long[] idMin; // por ordinal de prioridad
+    private final long[] idMax;
+    private final int[] porTipo;
+    private final int[] porPrioridad;
+    private final long offIndiceId;
+    private final long offIndiceIngreso;
+    private final long offNombres;
+    // Proyección del archivo, creada al primer acceso; la pueden pedir instantáneas de otros hilos
+    private volatile ByteBuffer datos;
+
+    private SegmentoHistorial(Path archivo, List<Cliente> clientes, long offNombres) {
+        this.archivo = archivo;
+        this.tamano = clientes.size();
+        this.offIndiceId = CABECERA + (long) tamano * TAM_REGISTRO;
+        this.offIndiceIngreso = offIndiceId + (long) tamano * TAM_ENTRADA_ID;
+        this.offNombres = offNombres;
+        idMin = new long[Prioridad.values().length];
+        idMax = new long[Prioridad.values().length];
+        Arrays.fill(idMin, Long.MAX_VALUE);
+        Arrays.fill(idMax, Long.MIN_VALUE);
+        porTipo = new int[TIPOS.length];
+        porPrioridad = new int[Prioridad.values().length];
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (Cliente c : clientes) {
+            int p = c.getPrioridad().ordinal();
+            idMin[p] = Math.min(idMin[p], c.getIdNumerico());
+            idMax[p] = Math.max(idMax[p], c.getIdNumerico());
+            porTipo[c.getTipoSolicitud().ordinal()]++;
+            porPrioridad[p]++;
+            min = Math.min(min, c.getIngresoMs());
+            max = Math.max(max, c.getIngresoMs());
+        }
+        ingresoMin = min;
+        ingresoMax = max;
+    }
+
+    /**
+     * Escribe los clientes en un archivo de segmento nuevo.
+     *
+     * @param archivo archivo a crear
+     * @param clientes clientes atendidos, en orden de atención
+     * @return el segmento escrito, con su resumen en memoria
+     */
+    static SegmentoHistorial escribir(Path archivo, List<Cliente> clientes) {
+        int n = clientes.size();
+        Map<String, Integer> nombres = new HashMap<>();
+        List<byte[]> bytesNombres = new ArrayList<>();
+        int[] codigoNombre = new int[n];
+        int tamNombres = 0;
+        for (int i = 0; i < n; i++) {
+            String nombre = clientes.get(i).getNombre();
+            Integer codigo = nombres.get(nombre);
+            if (codigo == null) {
+                byte[] b = nombre.getBytes(StandardCharsets.UTF_8);
+                if (b.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Nombre demasiado largo para el historial: " + b.length + " bytes");
+                }
+                codigo = tamNombres;
+                nombres.put(nombre, codigo);
+                bytesNombres.add(b);
+                tamNombres += 2 + b.length;
+            }
+            codigoNombre[i] = codigo;
+        }
+
+        long offNombres = CABECERA + (long) n * (TAM_REGISTRO + TAM_ENTRADA_ID + 4);
+        ByteBuffer b = ByteBuffer.allocate((int) (offNombres + tamNombres));
+        b.putInt(MAGICO).putInt(1).putInt(n).putInt(0).putLong(offNombres).putLong(0);
+        for (int i = 0; i < n; i++) {
+            Cliente c = clientes.get(i);
+            int base = CABECERA + i * TAM_REGISTRO;
+            b.putLong(base + INGRESO, c.getIngresoMs());
+            b.putLong(base + ATENCION, c.getAtencionMs());
+            b.putDouble(base + TIEMPO, c.getTiempoAtencion());
+            b.putLong(base + ID, c.getIdNumerico());
+            b.putInt(base + NOMBRE, codigoNombre[i]);
+            b.put(base + TIPO, (byte) c.getTipoSolicitud().ordinal());
+            b.put(base + VENCIDO, (byte) (c.isVencido() ? 1 : 0));
+        }
+
+        // Índices: posiciones ordenadas por id y por hora de ingreso
+        Integer[] porId = new Integer[n];
+        Integer[] porIngreso = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            porId[i] = i;
+            porIngreso[i] = i;
+        }
+        Arrays.sort(porId, (x, y) -> Long.compare(clientes.get(x).getIdNumerico(), clientes.get(y).getIdNumerico()));
+        Arrays.sort(porIngreso, (x, y) -> Long.compare(clientes.get(x).getIngresoMs(), clientes.get(y).getIngresoMs()));
+        int offId = CABECERA + n * TAM_REGISTRO;
+        int offIngreso = offId + n * TAM_ENTRADA_ID;
+        for (int k = 0; k < n; k++) {
+            b.putLong(offId + k * TAM_ENTRADA_ID, clientes.get(porId[k]).getIdNumerico());
+            b.putInt(offId + k * TAM_ENTRADA_ID + 8, porId[k]);
+            b.putInt(offIngreso + k * 4, porIngreso[k]);
+        }
+        b.position((int) offNombres);
+        for (byte[] nombre : bytesNombres) {
+            b.putShort((short) nombre.length).put(nombre);
+        }
+        b.flip();
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (b.hasRemaining()) canal.write(b);
+            canal.force(true);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo escribir el segmento " + archivo, e);
+        }
+        return new SegmentoHistorial(archivo, clientes, offNombres);
+    }
+
+    int getTamano() {
+        return tamano;
+    }
+
+    int contarTipo(TipoSolicitud tipo) {
+        return porTipo[tipo.ordinal()];
+    }
+
+    int contarPrioridad(Prioridad prioridad) {
+        return porPrioridad[prioridad.ordinal()];
+    }
+
+    Cliente obtener(int posicion) {
+        ByteBuffer b = datos();
+        int base = CABECERA + posicion * TAM_REGISTRO;
+        int nombre = (int) offNombres + b.getInt(base + NOMBRE);
+        byte[] bytes = new byte[b.getShort(nombre) & 0xFFFF];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = b.get(nombre + 2 + k);
+        }
+        Cliente c = new Cliente(b.getLong(base + ID), new String(bytes, StandardCharsets.UTF_8),
+                TIPOS[b.get(base + TIPO)], b.getLong(base + INGRESO));
+        c.setTiempoAtencion(b.getDouble(base + TIEMPO));
+        c.setAtencionMs(b.getLong(base + ATENCION));
+        c.setVencido(b.get(base + VENCIDO) != 0);
+        return c;
+    }
+
+    List<Cliente> leerTodos() {
+        List<Cliente> clientes = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            clientes.add(obtener(i));
+        }
+        return clientes;
+    }
+
+    // Búsqueda binaria en el índice por id, tras descartar el segmento por su rango
+    void buscarPorId(long id, List<Cliente> resultado) {
+        int p = IdCliente.prioridad(id).ordinal();
+        if (id < idMin[p] || id > idMax[p]) return;
+        ByteBuffer b = datos();
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (b.getLong((int) offIndiceId + medio * TAM_ENTRADA_ID) < id) bajo = medio + 1;
+            else alto = medio;
+        }
+        for (int k = bajo; k < tamano && b.getLong((int) offIndiceId + k * TAM_ENTRADA_ID) == id; k++) {
+            resultado.add(obtener(b.getInt((int) offIndiceId + k * TAM_ENTRADA_ID + 8)));
+        }
+    }
+
+    void buscarPorTipo(TipoSolicitud tipo, List<Cliente> resultado) {
+        if (porTipo[tipo.ordinal()] == 0) return;
+        ByteBuffer b = datos();
+        for (int i = 0; i < tamano; i++) {
+            if (b.get(CABECERA + i * TAM_REGISTRO + TIPO) == tipo.ordinal()) resultado.add(obtener(i));
+        }
+    }
+
+    void buscarPorPrioridad(Prioridad prioridad, List<Cliente> resultado) {
+        if (porPrioridad[prioridad.ordinal()] == 0) return;
+        ByteBuffer b = datos();
+        for (int i = 0; i < tamano; i++) {
+            if (IdCliente.prioridad(b.getLong(CABECERA + i * TAM_REGISTRO + ID)) == prioridad) {
+                resultado.add(obtener(i));
+            }
+        }
+    }
+
+    void buscarEntre(long desde, long hasta, List<Cliente> resultado) {
+        if (hasta <= ingresoMin || desde > ingresoMax) return;
+        for (int k = rangoIngreso(desde), fin = rangoIngreso(hasta); k < fin; k++) {
+            resultado.add(obtener(datos().getInt((int) offIndiceIngreso + k * 4)));
+        }
+    }
+
+    int contarEntre(long desde, long hasta) {
+        if (hasta <= ingresoMin || desde > ingresoMax) return 0;
+        if (desde <= ingresoMin && hasta > ingresoMax) return tamano;
+        return Math.max(0, rangoIngreso(hasta) - rangoIngreso(desde));
+    }
+
+    // Borra el archivo; la proyección sigue siendo válida para las instantáneas que aún
+    // tengan el segmento
+    void eliminar() {
+        datos();
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo borrar el segmento " + archivo, e);
+        }
+    }
+
+    // Suelta la proyección; el siguiente acceso vuelve a proyectar el archivo. Quien ya
+    // tenga el búfer lo sigue usando, y el sistema lo libera cuando el GC lo recoge
+    void liberar() {
+        datos = null;
+    }
+
+    // Borra el archivo sin proyectarlo, al cerrar el historial
+    void cerrar() {
+        datos = null;
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo borrar el segmento " + archivo, e);
+        }
+    }
+
+    // Primera posición del índice de ingresos con hora >= valor
+    private int rangoIngreso(long valor) {
+        ByteBuffer b = datos();
+        int bajo = 0, alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int pos = b.getInt((int) offIndiceIngreso + medio * 4);
+            if (b.getLong(CABECERA + pos * TAM_REGISTRO + INGRESO) < valor) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    private ByteBuffer datos() {
+        if (datos == null) {
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                ByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                if (b.getInt(0) != MAGICO || b.getInt(8) != tamano) {
+                    throw new IllegalStateException("Segmento dañado: " + archivo);
+                }
+                datos = b;
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer el segmento " + archivo, e);
+            }
+        }
+        return datos;
+    }
+}
@@ -7,7 +7,12 @@ package modelo;
  *   <li>{@code AGREGAR} - cuando se añade un cliente a una cola</li>
  *   <li>{@code ELIMINAR} - cuando se elimina un cliente de las colas</li>
  *   <li>{@code ATENDER} - cuando un cliente es atendido</li>
- *   <li>{@code RESTAURAR} - cuando se restaura una acción deshecha</li>
+ *   <li>{@code RESTAURAR} - cuando se deshace una acción</li>
+ *   <li>{@code REHACER} - cuando se vuelve a aplicar una acción deshecha</li>
+ *   <li>{@code ESCALAR} - cuando un cliente normal vencido pasa a la cola de urgentes</li>
+ *   <li>{@code DESVIAR} - cuando un cliente llega a una cola llena y espera en el desborde</li>
+ *   <li>{@code READMITIR} - cuando un cliente desviado pasa a su cola al quedar sitio</li>
+ *   <li>{@code DESCARTAR} - cuando se descarta al normal más antiguo para admitir a otro</li>
  * </ul>
  *
  * @author SebasZ777-Uni
@@ -17,5 +22,10 @@ public enum TipoAccion {
     AGREGAR,
     ELIMINAR,
     ATENDER,
-    RESTAURAR
+    RESTAURAR,
+    REHACER,
+    ESCALAR,
+    DESVIAR,
+    READMITIR,
+    DESCARTAR
 }
@@ -0,0 +1,402 @@
+package modelo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tubería por etapas al estilo Disruptor para las operaciones de un
+ * {@link GestionAtencion}: ingreso → mutación → diario y métricas → interfaz.
+ *
+ * <p>Las solicitudes se escriben en un anillo de {@link EventoTuberia} reservados al
+ * crearla. Un único productor (el hilo que pide las operaciones, como el hilo de eventos
+ * de la interfaz) reclama la siguiente ranura y publica su secuencia. Cada etapa
+ * consumidora corre en su propio hilo, guarda su propia secuencia y espera a una barrera:
+ * el mínimo de las secuencias de las etapas de las que depende.
+ * <ul>
+ *   <li>La mutación depende del productor y es el único hilo que toca el gestor.</li>
+ *   <li>El diario y las métricas dependen de la mutación y corren en paralelo entre sí.</li>
+ *   <li>La interfaz depende del diario y de las métricas.</li>
+ *   <li>El productor no pisa ranuras que la interfaz no haya procesado.</li>
+ * </ul>
+ * Una etapa atrasada procesa de una vez todo lo disponible y publica su secuencia al
+ * final del lote, así que el rendimiento queda limitado por la etapa más lenta y no por
+ * la suma de todas.
+ *
+ * <p>Como el gestor solo lo modifica el hilo de mutación, nadie más debe modificarlo
+ * mientras la tubería esté activa, y los demás hilos solo deben leerlo a través de lo que
+ * toma su cerrojo de lectura (instantáneas, estadísticas y búsquedas). Al final de cada
+ * lote la mutación deja en el último evento la {@link InstantaneaGestion} y las
+ * {@link EstadisticasGestion} resultantes, que la etapa de interfaz puede entregar al
+ * hilo de eventos sin volver a consultar el gestor.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class TuberiaAtencion implements AutoCloseable {
+
+    private static final int GIROS = 100; // esperas activas antes de ceder el hilo
+    private static final int CESIONES = 100; // cesiones antes de dormir
+    private static final long PAUSA_NS = 50_000;
+
+    private final GestionAtencion gestion;
+    private final EventoTuberia[] anillo;
+    private final int mascara;
+    private final Secuencia cursor = new Secuencia(); // última secuencia publicada
+    private final Secuencia[] finales; // etapas que limitan al productor
+    private final List<Thread> hilos = new ArrayList<>();
+    private final LongAdder errores = new LongAdder();
+    private volatile RuntimeException ultimoError;
+    private volatile boolean activa;
+    private long siguienteProductor = -1; // solo lo usa el productor
+    private long cacheMinimo = -1;
+
+    /**
+     * Crea la tubería y arranca un hilo demonio por etapa.
+     *
+     * @param gestion gestor que modifica la etapa de mutación
+     * @param capacidad número de ranuras del anillo (potencia de dos)
+     * @param diario etapa de registro persistente; {@code null} si no se usa
+     * @param metricas etapa de métricas; {@code null} si no se usa
+     * @param interfaz etapa que notifica a la interfaz; {@code null} si no se usa
+     * @throws IllegalArgumentException si la capacidad no es una potencia de dos positiva
+     * @since 1.1
+     */
+    public TuberiaAtencion(GestionAtencion gestion, int capacidad,
+                           EtapaTuberia diario, EtapaTuberia metricas, EtapaTuberia interfaz) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos positiva");
+        }
+        this.gestion = gestion;
+        this.anillo = new EventoTuberia[capacidad];
+        for (int i = 0; i < capacidad; i++) {
+            anillo[i] = new EventoTuberia();
+        }
+        this.mascara = capacidad - 1;
+        this.activa = true;
+
+        Secuencia mutacion = iniciarEtapa("tuberia-mutacion", (e, s, fin) -> mutar(e, fin), cursor);
+        Secuencia sDiario = iniciarEtapa("tuberia-diario", diario, mutacion);
+        Secuencia sMetricas = iniciarEtapa("tuberia-metricas", metricas, mutacion);
+        Secuencia sInterfaz = iniciarEtapa("tuberia-interfaz", interfaz, sDiario, sMetricas);
+        this.finales = new Secuencia[]{sInterfaz};
+    }
+
+    // ------------------------------------------------------------
+    // Productor (etapa de ingreso)
+    // ------------------------------------------------------------
+    /**
+     * Solicita el alta de un cliente. Solo debe llamarse desde el hilo productor.
+     *
+     * @param nombre nombre del cliente
+     * @param tipo tipo de solicitud
+     * @param prioridad prioridad
+     * @return secuencia del evento, para {@link #esperar(long)}
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long agregar(String nombre, TipoSolicitud tipo, Prioridad prioridad) {
+        return publicar(EventoTuberia.Operacion.AGREGAR, nombre, tipo, prioridad, null, 0);
+    }
+
+    /**
+     * Solicita atender al siguiente cliente. Solo debe llamarse desde el hilo productor.
+     *
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long atender() {
+        return publicar(EventoTuberia.Operacion.ATENDER, null, null, null, null, 0);
+    }
+
+    /**
+     * Solicita atender un lote de clientes. Solo debe llamarse desde el hilo productor.
+     *
+     * @param n máximo de clientes a atender
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long atenderLote(int n) {
+        return publicar(EventoTuberia.Operacion.ATENDER_LOTE, null, null, null, null, n);
+    }
+
+    /**
+     * Solicita eliminar un cliente en espera. Solo debe llamarse desde el hilo productor.
+     *
+     * @param id id del cliente
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long eliminar(String id) {
+        return publicar(EventoTuberia.Operacion.ELIMINAR, null, null, null, id, 0);
+    }
+
+    /**
+     * Solicita deshacer la última operación. Solo debe llamarse desde el hilo productor.
+     *
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long deshacer() {
+        return publicar(EventoTuberia.Operacion.DESHACER, null, null, null, null, 0);
+    }
+
+    /**
+     * Solicita rehacer la última operación deshecha. Solo debe llamarse desde el hilo
+     * productor.
+     *
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long rehacer() {
+        return publicar(EventoTuberia.Operacion.REHACER, null, null, null, null, 0);
+    }
+
+    /**
+     * Solicita procesar los vencimientos de espera ocurridos. Solo debe llamarse desde el
+     * hilo productor.
+     *
+     * @return secuencia del evento
+     * @throws IllegalStateException si la tubería está cerrada
+     * @since 1.1
+     */
+    public long revisarVencimientos() {
+        return publicar(EventoTuberia.Operacion.REVISAR_VENCIMIENTOS, null, null, null, null, 0);
+    }
+
+    private long publicar(EventoTuberia.Operacion operacion, String nombre, TipoSolicitud tipo,
+                          Prioridad prioridad, String id, int cantidad) {
+        if (!activa) {
+            throw new IllegalStateException("La tubería está cerrada");
+        }
+        long siguiente = siguienteProductor + 1;
+        long vuelta = siguiente - anillo.length;
+        if (vuelta > cacheMinimo) {
+            long minimo;
+            int intentos = 0;
+            while (vuelta > (minimo = minimo(finales))) {
+                esperar(intentos++);
+            }
+            cacheMinimo = minimo;
+        }
+        anillo[(int) (siguiente & mascara)].preparar(operacion, nombre, tipo, prioridad, id, cantidad);
+        siguienteProductor = siguiente;
+        cursor.publicar(siguiente);
+        return siguiente;
+    }
+
+    // ------------------------------------------------------------
+    // Consulta y cierre
+    // ------------------------------------------------------------
+    /**
+     * Espera a que el evento indicado haya pasado por todas las etapas.
+     *
+     * @param secuencia secuencia devuelta al publicarlo
+     * @since 1.1
+     */
+    public void esperar(long secuencia) {
+        int intentos = 0;
+        while (minimo(finales) < secuencia) {
+            esperar(intentos++);
+        }
+    }
+
+    /**
+     * Devuelve la última secuencia publicada por el productor.
+     *
+     * @return secuencia, o {@code -1} si no se publicó nada
+     * @since 1.1
+     */
+    public long getCursor() {
+        return cursor.valor;
+    }
+
+    /**
+     * Devuelve cuántos eventos han pasado ya por todas las etapas.
+     *
+     * @return eventos completados
+     * @since 1.1
+     */
+    public long getCompletados() {
+        return minimo(finales) + 1;
+    }
+
+    /**
+     * Devuelve cuántas veces falló una etapa de diario, métricas o interfaz.
+     *
+     * @return errores de las etapas (los fallos del gestor quedan en el evento)
+     * @since 1.1
+     */
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    /**
+     * Devuelve el último error de una etapa.
+     *
+     * @return excepción, o {@code null} si no hubo ninguna
+     * @since 1.1
+     */
+    public RuntimeException getUltimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Deja de aceptar solicitudes, espera a que las publicadas pasen por todas las etapas y
+     * detiene sus hilos.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void close() {
+        if (!activa) return;
+        esperar(cursor.valor);
+        activa = false;
+        for (Thread h : hilos) {
+            LockSupport.unpark(h);
+            try {
+                h.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Etapas consumidoras
+    // ------------------------------------------------------------
+    private void mutar(EventoTuberia e, boolean finDeLote) {
+        try {
+            switch (e.operacion) {
+                case AGREGAR:
+                    e.resultado = gestion.agregarCliente(e.nombre, e.tipoSolicitud, e.prioridad);
+                    break;
+                case ATENDER:
+                    e.resultado = gestion.atenderCliente();
+                    break;
+                case ATENDER_LOTE:
+                    e.atendidos = gestion.atenderLote(e.cantidad);
+                    break;
+                case ELIMINAR:
+                    Cliente c = gestion.buscarPorId(e.idCliente).stream().findFirst().orElse(null);
+                    e.resultado = gestion.eliminarCliente(e.idCliente) ? c : null;
+                    break;
+                case DESHACER:
+                    e.accion = gestion.deshacerUltimaAccion();
+                    break;
+                case REHACER:
+                    e.accion = gestion.rehacerAccion();
+                    break;
+                case REVISAR_VENCIMIENTOS:
+                    e.afectados = gestion.revisarVencimientos();
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            e.error = ex;
+        }
+        if (finDeLote) {
+            // Una sola imagen por lote: las etapas siguientes la leen sin tocar el gestor
+            e.instantanea = gestion.instantanea();
+            e.estadisticas = gestion.estadisticas();
+        }
+    }
+
+    private Secuencia iniciarEtapa(String nombre, EtapaTuberia etapa, Secuencia... dependencias) {
+        Secuencia propia = new Secuencia();
+        EtapaTuberia manejador = etapa != null ? etapa : (e, s, fin) -> { };
+        Thread hilo = new Thread(() -> consumir(manejador, propia, dependencias), nombre);
+        hilo.setDaemon(true);
+        hilos.add(hilo);
+        hilo.start();
+        return propia;
+    }
+
+    /*
+     * Bucle de una etapa: espera a que la barrera (mínimo de sus dependencias) pase de su
+     * secuencia, procesa todo el tramo disponible como un lote y publica su secuencia una
+     * sola vez al final.
+     */
+    private void consumir(EtapaTuberia etapa, Secuencia propia, Secuencia[] dependencias) {
+        long siguiente = 0;
+        int intentos = 0;
+        while (true) {
+            long disponible = minimo(dependencias);
+            if (disponible < siguiente) {
+                if (!activa) return;
+                esperar(intentos++);
+                continue;
+            }
+            intentos = 0;
+            for (long s = siguiente; s <= disponible; s++) {
+                try {
+                    etapa.procesar(anillo[(int) (s & mascara)], s, s == disponible);
+                } catch (Exception ex) {
+                    errores.increment();
+                    ultimoError = ex instanceof RuntimeException ? (RuntimeException) ex : new IllegalStateException(ex);
+                }
+            }
+            propia.publicar(disponible);
+            siguiente = disponible + 1;
+        }
+    }
+
+    private static long minimo(Secuencia[] secuencias) {
+        long minimo = Long.MAX_VALUE;
+        for (Secuencia s : secuencias) {
+            minimo = Math.min(minimo, s.valor);
+        }
+        return minimo;
+    }
+
+    // Espera escalonada: giro activo, luego ceder el hilo y por último dormir un poco
+    private static void esperar(int intentos) {
+        if (intentos < GIROS) {
+            Thread.onSpinWait();
+        } else if (intentos < GIROS + CESIONES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PAUSA_NS);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Secuencia con relleno para que cada una ocupe su propia línea de caché
+    // ------------------------------------------------------------
+    private static class RellenoIzquierdo {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class ValorSecuencia extends RellenoIzquierdo {
+        volatile long valor = -1;
+    }
+
+    private static final class Secuencia extends ValorSecuencia {
+        private static final VarHandle VALOR;
+
+        static {
+            try {
+                VALOR = MethodHandles.lookup().findVarHandle(ValorSecuencia.class, "valor", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p9, p10, p11, p12, p13, p14, p15;
+
+        // Escritura con semántica release: lo escrito antes es visible a quien la lea
+        void publicar(long v) {
+            VALOR.setRelease(this, v);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package replicacion;
+
+import modelo.OperacionGestion;
+import modelo.Prioridad;
+import modelo.TipoAccion;
+import modelo.TipoSolicitud;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Formato binario del registro de operaciones que se envía del primario a los seguidores.
+ *
+ * <p>Al conectar, el seguidor envía {@link #MAGICO} y la última secuencia que ya aplicó.
+ * Después el primario envía lotes ({@code int} con el tamaño seguido de las operaciones) y
+ * el seguidor confirma cada lote con la secuencia de su última operación ({@code long}).
+ * Si el primario ya no conserva las operaciones que le faltan al seguidor, responde con
+ * {@link #RECHAZO} y la primera secuencia disponible, y cierra la conexión. Las horas se
+ * envían como milisegundos epoch, sin pasar por la zona horaria de ningún nodo.
+ */
+final class ProtocoloReplica {
+
+    /** Cabecera del saludo inicial del seguidor. */
+    static final int MAGICO = 0x54435552; // "TCUR"
+    /** Tamaño de lote que indica que el seguidor no puede ponerse al día. */
+    static final int RECHAZO = -1;
+
+    private ProtocoloReplica() {
+    }
+
+    static void escribir(DataOutputStream out, OperacionGestion op) throws IOException {
+        out.writeLong(op.getSecuencia());
+        out.writeByte(op.getTipo().ordinal());
+        out.writeUTF(op.getIdCliente());
+        out.writeUTF(op.getNombre());
+        out.writeByte(op.getTipoSolicitud().ordinal());
+        out.writeByte(op.getPrioridad().ordinal());
+        out.writeLong(op.getIngresoMs());
+        out.writeLong(op.getAtencionMs()); // Cliente.SIN_HORA si no tiene
+        out.writeDouble(op.getTiempoAtencion());
+    }
+
+    static OperacionGestion leer(DataInputStream in) throws IOException {
+        long secuencia = in.readLong();
+        TipoAccion tipo = TipoAccion.values()[in.readUnsignedByte()];
+        String id = in.readUTF();
+        String nombre = in.readUTF();
+        TipoSolicitud tipoSolicitud = TipoSolicitud.values()[in.readUnsignedByte()];
+        Prioridad prioridad = Prioridad.values()[in.readUnsignedByte()];
+        long ingresoMs = in.readLong();
+        long atencionMs = in.readLong();
+        double tiempo = in.readDouble();
+        return new OperacionGestion(secuencia, tipo, id, nombre, tipoSolicitud, prioridad,
+                ingresoMs, atencionMs, tiempo);
+    }
+}
@@ -0,0 +1,250 @@
+package replicacion;
+
+import modelo.GestionAtencion;
+import modelo.OperacionGestion;
+import modelo.OyenteOperaciones;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nodo primario de la replicación: publica por TCP el registro ordenado de operaciones de
+ * una {@link GestionAtencion} a uno o varios {@link SeguidorReplica}.
+ *
+ * <p>Las operaciones se añaden a un registro en memoria desde el hilo que las ejecuta, sin
+ * bloquearlo. Cada seguidor tiene un hilo emisor que envía lotes de hasta
+ * {@value #TAM_LOTE} operaciones sin esperar la confirmación del anterior (envío en
+ * tubería), con un máximo de {@value #VENTANA} operaciones pendientes de confirmar, y un
+ * hilo lector de confirmaciones. Un seguidor que se reconecta retoma desde la última
+ * secuencia que aplicó.
+ *
+ * <p>El registro es un anillo con las últimas {@value #RETENCION} operaciones, así que su
+ * memoria no crece con la vida del proceso. Un seguidor que se reconecta, o que se atrasa
+ * mientras está conectado, desde antes de la operación más antigua retenida recibe un
+ * rechazo con la secuencia desde la que hay registro.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class ReplicadorPrimario implements OyenteOperaciones, Closeable {
+
+    /** Máximo de operaciones por lote. */
+    public static final int TAM_LOTE = 256;
+    /** Máximo de operaciones enviadas y aún no confirmadas por un seguidor. */
+    public static final int VENTANA = 4096;
+    /** Operaciones más recientes que se conservan para seguidores atrasados o que se reconectan. */
+    public static final int RETENCION = 1 << 16;
+
+    private final GestionAtencion gestion;
+    private final ServerSocket servidor;
+    // Anillo: la operación con secuencia q está en (q - 1) & (RETENCION - 1)
+    private final OperacionGestion[] registro = new OperacionGestion[RETENCION];
+    private long base; // secuencia anterior a la operación más antigua retenida
+    private long ultima; // secuencia de la última operación registrada
+    private final Map<Socket, long[]> confirmadas = new ConcurrentHashMap<>();
+    private volatile boolean activo = true;
+
+    /**
+     * Empieza a replicar el modelo escuchando en el puerto indicado. El modelo debe estar
+     * recién creado (sin operaciones) para que los seguidores partan del mismo estado.
+     *
+     * @param gestion modelo a replicar
+     * @param puerto puerto TCP de escucha
+     * @throws IOException si no se puede abrir el puerto
+     * @since 1.1
+     */
+    public ReplicadorPrimario(GestionAtencion gestion, int puerto) throws IOException {
+        this(gestion, puerto, List.of());
+    }
+
+    /**
+     * Empieza a replicar un modelo que ya aplicó operaciones (por ejemplo, un seguidor
+     * promovido), conservando ese registro para los seguidores que necesiten ponerse al día
+     * (como mucho las últimas {@value #RETENCION}).
+     *
+     * @param gestion modelo a replicar
+     * @param puerto puerto TCP de escucha
+     * @param previas operaciones ya aplicadas al modelo, en orden
+     * @throws IOException si no se puede abrir el puerto
+     * @since 1.1
+     */
+    public ReplicadorPrimario(GestionAtencion gestion, int puerto, List<OperacionGestion> previas)
+            throws IOException {
+        this.gestion = gestion;
+        this.ultima = gestion.getSecuencia() - previas.size();
+        this.base = ultima;
+        for (OperacionGestion op : previas) {
+            registrar(op);
+        }
+        this.servidor = new ServerSocket(puerto);
+        gestion.agregarOyente(this);
+
+        Thread aceptador = new Thread(this::aceptar, "replica-aceptar-" + puerto);
+        aceptador.setDaemon(true);
+        aceptador.start();
+    }
+
+    @Override
+    public void operacionAplicada(OperacionGestion operacion) {
+        synchronized (registro) {
+            registrar(operacion);
+            registro.notifyAll();
+        }
+    }
+
+    // Añade al anillo; al llenarse, la más antigua deja de estar disponible
+    private void registrar(OperacionGestion operacion) {
+        registro[(int) (ultima & (RETENCION - 1))] = operacion;
+        ultima++;
+        if (ultima - base > RETENCION) {
+            base = ultima - RETENCION;
+        }
+    }
+
+    /**
+     * Devuelve el puerto en el que escucha el primario.
+     *
+     * @return puerto TCP local
+     * @since 1.1
+     */
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * Devuelve la menor secuencia confirmada entre los seguidores conectados.
+     *
+     * @return secuencia confirmada por todos, o -1 si no hay seguidores
+     * @since 1.1
+     */
+    public long getSecuenciaConfirmada() {
+        return confirmadas.values().stream().mapToLong(c -> c[0]).min().orElse(-1);
+    }
+
+    /**
+     * Devuelve el número de seguidores conectados.
+     *
+     * @return seguidores activos
+     * @since 1.1
+     */
+    public int getSeguidores() {
+        return confirmadas.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        gestion.quitarOyente(this);
+        synchronized (registro) {
+            registro.notifyAll();
+        }
+        for (Socket s : confirmadas.keySet()) {
+            s.close();
+        }
+        servidor.close();
+    }
+
+    private void aceptar() {
+        while (activo) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                Thread emisor = new Thread(() -> atender(socket), "replica-emisor-" + socket.getPort());
+                emisor.setDaemon(true);
+                emisor.start();
+            } catch (IOException e) {
+                if (activo) System.err.println("Replicación: error aceptando seguidor: " + e.getMessage());
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        long[] confirmada = new long[1];
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != ProtocoloReplica.MAGICO) return;
+            long enviada = in.readLong();
+            long retenida;
+            synchronized (registro) {
+                retenida = base;
+            }
+            if (enviada < retenida) {
+                rechazar(out, retenida);
+                return;
+            }
+            confirmada[0] = enviada;
+            confirmadas.put(socket, confirmada);
+            leerConfirmaciones(in, confirmada);
+
+            List<OperacionGestion> lote = new ArrayList<>(TAM_LOTE);
+            while (activo) {
+                lote.clear();
+                synchronized (registro) {
+                    while (activo && (ultima <= enviada || enviada - confirmada[0] >= VENTANA)) {
+                        registro.wait(100);
+                    }
+                    retenida = base;
+                    if (enviada >= retenida) {
+                        long hasta = Math.min(ultima, enviada + TAM_LOTE);
+                        for (long q = enviada; q < hasta; q++) {
+                            lote.add(registro[(int) (q & (RETENCION - 1))]);
+                        }
+                    }
+                }
+                if (enviada < retenida) {
+                    rechazar(out, retenida); // se atrasó más de lo que retiene el anillo
+                    return;
+                }
+                if (lote.isEmpty()) continue;
+                out.writeInt(lote.size());
+                for (OperacionGestion op : lote) {
+                    ProtocoloReplica.escribir(out, op);
+                }
+                out.flush();
+                enviada += lote.size();
+            }
+        } catch (IOException e) {
+            if (activo) System.err.println("Replicación: seguidor desconectado: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            confirmadas.remove(socket);
+        }
+    }
+
+    private static void rechazar(DataOutputStream out, long retenida) throws IOException {
+        out.writeInt(ProtocoloReplica.RECHAZO);
+        out.writeLong(retenida);
+        out.flush();
+    }
+
+    // Hilo que recibe las confirmaciones de un seguidor y libera la ventana de envío
+    private void leerConfirmaciones(DataInputStream in, long[] confirmada) {
+        Thread lector = new Thread(() -> {
+            try {
+                while (activo) {
+                    long ack = in.readLong();
+                    synchronized (registro) {
+                        confirmada[0] = ack;
+                        registro.notifyAll();
+                    }
+                }
+            } catch (IOException ignorada) {
+                // el emisor detecta el cierre al escribir
+            }
+        }, "replica-ack");
+        lector.setDaemon(true);
+        lector.start();
+    }
+}
@@ -0,0 +1,240 @@
+package replicacion;
+
+import modelo.GestionAtencion;
+import modelo.OperacionGestion;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Nodo seguidor de la replicación: recibe el registro de operaciones de un
+ * {@link ReplicadorPrimario} y lo aplica a su propia réplica de {@link GestionAtencion}.
+ *
+ * <p>Las operaciones se aplican en un único hilo lector, en orden, y cada lote se confirma
+ * al primario después de aplicarse. Si la conexión se corta, el seguidor vuelve a
+ * conectarse cada {@value #REINTENTO_MS} ms y retoma desde la última secuencia aplicada;
+ * solo se detiene al cerrarlo, si el primario ya no retiene esa secuencia o si la réplica
+ * no puede aplicar una operación. El seguidor puede promoverse a primario con
+ * {@link #promover(int)}, conservando las últimas {@value ReplicadorPrimario#RETENCION}
+ * operaciones recibidas para los demás seguidores.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class SeguidorReplica implements Closeable {
+
+    /** Espera entre intentos de reconexión con el primario. */
+    public static final long REINTENTO_MS = 1000;
+
+    private final GestionAtencion replica;
+    private final String host;
+    private final int puerto;
+    private volatile Socket socket;
+    private final Deque<OperacionGestion> aplicadas = new ArrayDeque<>(); // las últimas RETENCION
+    private final Thread lector;
+    private volatile boolean activo = true;
+    private volatile boolean conectado;
+    private volatile IOException error;
+
+    /**
+     * Conecta con un primario y empieza a aplicar sus operaciones sobre una réplica nueva.
+     *
+     * @param host host del primario
+     * @param puerto puerto del primario
+     * @throws IOException si no se puede conectar
+     * @since 1.1
+     */
+    public SeguidorReplica(String host, int puerto) throws IOException {
+        this(new GestionAtencion(), host, puerto);
+    }
+
+    /**
+     * Conecta con un primario y aplica sus operaciones sobre la réplica indicada, a partir
+     * de la última secuencia que la réplica ya tenga aplicada.
+     *
+     * @param replica modelo local donde se aplican las operaciones
+     * @param host host del primario
+     * @param puerto puerto del primario
+     * @throws IOException si no se puede conectar
+     * @since 1.1
+     */
+    public SeguidorReplica(GestionAtencion replica, String host, int puerto) throws IOException {
+        this.replica = replica;
+        this.host = host;
+        this.puerto = puerto;
+        this.socket = conectar();
+        lector = new Thread(this::recibir, "replica-seguidor");
+        lector.setDaemon(true);
+        lector.start();
+    }
+
+    /**
+     * Devuelve la réplica local. Solo debe modificarse después de {@link #promover(int)}.
+     *
+     * @return modelo replicado
+     * @since 1.1
+     */
+    public GestionAtencion getReplica() {
+        return replica;
+    }
+
+    /**
+     * Devuelve la secuencia de la última operación aplicada en la réplica.
+     *
+     * @return última secuencia aplicada
+     * @since 1.1
+     */
+    public long getSecuenciaAplicada() {
+        synchronized (replica) {
+            return replica.getSecuencia();
+        }
+    }
+
+    /**
+     * Indica si el seguidor está conectado al primario.
+     *
+     * @return {@code true} mientras recibe operaciones; {@code false} mientras reintenta
+     *         la conexión o tras detenerse
+     * @since 1.1
+     */
+    public boolean isConectado() {
+        return activo && conectado && lector.isAlive();
+    }
+
+    /**
+     * Devuelve el último error de la replicación: el que la detuvo o, mientras reintenta,
+     * el que cortó la conexión.
+     *
+     * @return excepción de E/S o {@code null}
+     * @since 1.1
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Deja de seguir al primario y convierte la réplica en un nuevo primario que escucha
+     * en el puerto indicado.
+     *
+     * @param puerto puerto TCP del nuevo primario
+     * @return el replicador del nuevo primario
+     * @throws IOException si no se puede abrir el puerto
+     * @since 1.1
+     */
+    public ReplicadorPrimario promover(int puerto) throws IOException {
+        close();
+        try {
+            lector.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (replica) {
+            return new ReplicadorPrimario(replica, puerto, new ArrayList<>(aplicadas));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        socket.close();
+    }
+
+    private Socket conectar() throws IOException {
+        Socket s = new Socket(host, puerto);
+        s.setTcpNoDelay(true);
+        return s;
+    }
+
+    // Recibe del primario y, si se corta la conexión, reconecta hasta que se cierre
+    private void recibir() {
+        while (activo) {
+            try {
+                recibirDe(socket);
+            } catch (IOException e) {
+                if (activo) error = e;
+            } catch (IllegalStateException e) {
+                error = new IOException("La réplica no pudo aplicar el registro del primario", e);
+                activo = false;
+            }
+            conectado = false;
+            if (!reconectar()) return;
+        }
+    }
+
+    private boolean reconectar() {
+        while (activo) {
+            try {
+                Thread.sleep(REINTENTO_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activo = false;
+                return false;
+            }
+            try {
+                Socket nuevo = conectar();
+                socket = nuevo;
+                if (!activo) { // se cerró mientras conectaba
+                    nuevo.close();
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        return false;
+    }
+
+    private void recibirDe(Socket conexion) throws IOException {
+        try (conexion) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(conexion.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(conexion.getOutputStream()));
+            out.writeInt(ProtocoloReplica.MAGICO);
+            out.writeLong(getSecuenciaAplicada());
+            out.flush();
+            conectado = true;
+
+            List<OperacionGestion> lote = new ArrayList<>();
+            while (activo) {
+                int n = in.readInt();
+                if (n == ProtocoloReplica.RECHAZO) {
+                    // Reintentar no sirve: el primario ya no tiene lo que falta
+                    error = new IOException("El primario solo conserva el registro desde la secuencia "
+                            + in.readLong());
+                    activo = false;
+                    return;
+                }
+                lote.clear();
+                for (int i = 0; i < n; i++) {
+                    lote.add(ProtocoloReplica.leer(in));
+                }
+                long ultima;
+                synchronized (replica) {
+                    for (OperacionGestion op : lote) {
+                        if (op.getSecuencia() <= replica.getSecuencia()) continue; // ya aplicada
+                        replica.aplicarOperacion(op);
+                        aplicadas.addLast(op);
+                        if (aplicadas.size() > ReplicadorPrimario.RETENCION) {
+                            aplicadas.removeFirst();
+                        }
+                    }
+                    ultima = replica.getSecuencia();
+                }
+                out.writeLong(ultima);
+                out.flush();
+            }
+        } catch (EOFException e) {
+            throw new IOException("El primario cerró la conexión", e);
+        }
+    }
+}
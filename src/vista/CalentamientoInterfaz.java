@@ -0,0 +1,78 @@
+package vista;
+
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Calentamiento en segundo plano de lo que la interfaz necesita la primera vez que pinta.
+ *
+ * <p>Resolver una fuente, calcular sus métricas y rasterizar el primer texto y las primeras
+ * figuras con antialiasing cuesta decenas de milisegundos que, sin calentar, se pagan en el
+ * hilo de eventos al mostrar la ventana o abrir la pestaña de estadísticas. Este hilo
+ * demonio hace ese trabajo sobre una imagen en memoria mientras el hilo de eventos
+ * construye la ventana, y carga de paso las clases de los paneles que se crean después.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public final class CalentamientoInterfaz {
+
+    private CalentamientoInterfaz() {
+    }
+
+    /**
+     * Lanza el calentamiento en un hilo demonio de baja prioridad y vuelve de inmediato.
+     * Cualquier fallo se ignora: solo adelanta trabajo que la interfaz haría igualmente.
+     *
+     * @return el hilo lanzado
+     * @since 1.1
+     */
+    public static Thread iniciar() {
+        Thread hilo = new Thread(CalentamientoInterfaz::calentar, "calentamiento-interfaz");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+        return hilo;
+    }
+
+    private static void calentar() {
+        try {
+            Font[] fuentes = {
+                    Estilos.FUENTE_TITULO,
+                    Estilos.FUENTE_NORMAL,
+                    Estilos.FUENTE_NORMAL.deriveFont(12f),
+                    new Font("Segoe UI", Font.PLAIN, 13),
+                    new Font("Segoe UI", Font.BOLD, 14),
+                    new Font("Segoe UI", Font.BOLD, 16),
+                    new Font("Consolas", Font.PLAIN, 13)
+            };
+            BufferedImage imagen = new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = imagen.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                for (Font f : fuentes) {
+                    g.setFont(f);
+                    g.getFontMetrics().stringWidth("Estadísticas 0123456789 áéíóúñ");
+                    g.drawString("Estadísticas 0123456789 áéíóúñ", 0, 50);
+                }
+                // Figuras de los gráficos de pastel, barras y tendencia
+                g.setStroke(new BasicStroke(1.5f));
+                g.setColor(Estilos.COLOR_PRIMARIO);
+                g.fill(new Arc2D.Double(10, 10, 80, 80, 0, 120, Arc2D.PIE));
+                g.fillRoundRect(100, 10, 20, 80, 8, 8);
+                g.drawPolyline(new int[]{0, 50, 100, 150}, new int[]{90, 40, 60, 20}, 4);
+            } finally {
+                g.dispose();
+            }
+            // Clases de lo que se construye bajo demanda
+            ClassLoader cargador = CalentamientoInterfaz.class.getClassLoader();
+            Class.forName("vista.PanelEstadisticas", false, cargador);
+            Class.forName("vista.GraficoTendencia", false, cargador);
+            Class.forName("vista.DialogoHistorial", false, cargador);
+        } catch (ClassNotFoundException | RuntimeException e) {
+            // El calentamiento es opcional; la interfaz hará el trabajo al usarse
+        }
+    }
+}
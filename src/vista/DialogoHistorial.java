@@ -6,25 +6,38 @@ import vista.*;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Stack;
-import java.util.stream.Stream;
+import java.util.Set;
 
 /**
  * Diálogo modal que muestra el historial completo de clientes y la pila de acciones.
  *
  * <p>Proporciona filtros por ID, prioridad y tipo, y una vista del registro de acciones
- * (pila) gestionada por {@link modelo.GestionAtencion}.
+ * (pila) gestionada por {@link modelo.GestionAtencion}. Se puede reutilizar entre
+ * aperturas llamando a {@link #refrescar()} antes de mostrarlo de nuevo. El botón de informe
+ * agrupa el historial con {@link modelo.MotorInformes} fuera del hilo de eventos.
  *
  * @author SebasZ777-Uni
  * @since 1.0
  */
 public class DialogoHistorial extends JDialog {
 
+    private static final String EN_ESPERA_URGENTE = "En Espera (Urgente)";
+    private static final String EN_ESPERA_NORMAL = "En Espera (Normal)";
+
     private final GestionAtencion gestion;
     private final JTable tablaHistorial;
     private final DefaultTableModel modelo;
     private final JTextArea areaAcciones;
+    private final MotorInformes motorInformes = new MotorInformes();
+    private long secuenciaMostrada = -1; // instantánea cargada con "Mostrar todos"; -1 tras una búsqueda
 
     // ------------------------------------------------------------
     // Constructor
@@ -40,7 +53,7 @@ public class DialogoHistorial extends JDialog {
         super(vista, "Historial General del Sistema", true);
         this.gestion = gestion;
 
-        setSize(1100, 550);
+        setSize(1300, 550);
         setLocationRelativeTo(vista);
         setLayout(new BorderLayout(10, 10));
 
@@ -66,10 +79,13 @@ public class DialogoHistorial extends JDialog {
         JTextField txtBuscarId = new JTextField(10);
         JComboBox<Prioridad> comboPrioridad = new JComboBox<>(Prioridad.values());
         JComboBox<TipoSolicitud> comboTipo = new JComboBox<>(TipoSolicitud.values());
+        JTextField txtDesde = new JTextField("00:00", 5);
+        JTextField txtHasta = new JTextField("23:59", 5);
 
         JButton btnBuscarId = Estilos.boton("Buscar por ID", Estilos.COLOR_PRIMARIO);
         JButton btnBuscarPrioridad = Estilos.boton("Buscar por Prioridad", Estilos.COLOR_SECUNDARIO);
         JButton btnBuscarTipo = Estilos.boton("Buscar por Tipo", Estilos.COLOR_EXITO);
+        JButton btnBuscarHora = Estilos.boton("Buscar por Hora", Estilos.COLOR_PRIMARIO);
         JButton btnReiniciar = Estilos.boton("Mostrar Todos", Estilos.COLOR_NEUTRO);
 
         JPanel panelBusqueda = new JPanel(new FlowLayout());
@@ -82,6 +98,11 @@ public class DialogoHistorial extends JDialog {
         panelBusqueda.add(new JLabel("Tipo:"));
         panelBusqueda.add(comboTipo);
         panelBusqueda.add(btnBuscarTipo);
+        panelBusqueda.add(new JLabel("Desde:"));
+        panelBusqueda.add(txtDesde);
+        panelBusqueda.add(new JLabel("Hasta:"));
+        panelBusqueda.add(txtHasta);
+        panelBusqueda.add(btnBuscarHora);
         panelBusqueda.add(btnReiniciar);
 
         // ------------------------------------------------------------
@@ -109,15 +130,58 @@ public class DialogoHistorial extends JDialog {
             actualizarTabla(resultados);
         });
 
+        btnBuscarHora.addActionListener(e -> {
+            try {
+                LocalDate hoy = LocalDate.now();
+                LocalDateTime desde = LocalDateTime.of(hoy, LocalTime.parse(txtDesde.getText().trim()));
+                LocalDateTime hasta = LocalDateTime.of(hoy, LocalTime.parse(txtHasta.getText().trim()));
+                actualizarTabla(gestion.buscarPorRangoIngreso(desde, hasta.plusMinutes(1)));
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Ingrese las horas con formato HH:mm.", "Aviso", JOptionPane.WARNING_MESSAGE);
+            }
+        });
+
         btnReiniciar.addActionListener(e -> mostrarTodos());
 
+        // ------------------------------------------------------------
+        // Informe agrupado del historial
+        // ------------------------------------------------------------
+        JCheckBox chkTipo = new JCheckBox("Tipo", true);
+        JCheckBox chkPrioridad = new JCheckBox("Prioridad", true);
+        JCheckBox chkHora = new JCheckBox("Hora");
+        JButton btnInforme = Estilos.boton("Generar Informe", Estilos.COLOR_SECUNDARIO);
+
+        JPanel panelInforme = new JPanel(new FlowLayout());
+        panelInforme.add(new JLabel("Agrupar por:"));
+        panelInforme.add(chkTipo);
+        panelInforme.add(chkPrioridad);
+        panelInforme.add(chkHora);
+        panelInforme.add(btnInforme);
+
+        btnInforme.addActionListener(e -> {
+            Set<InformeHistorial.Dimension> dimensiones = EnumSet.noneOf(InformeHistorial.Dimension.class);
+            if (chkTipo.isSelected()) dimensiones.add(InformeHistorial.Dimension.TIPO);
+            if (chkPrioridad.isSelected()) dimensiones.add(InformeHistorial.Dimension.PRIORIDAD);
+            if (chkHora.isSelected()) dimensiones.add(InformeHistorial.Dimension.HORA);
+            btnInforme.setEnabled(false);
+            motorInformes.generarAsync(gestion, dimensiones).whenComplete((informe, error) ->
+                    SwingUtilities.invokeLater(() -> {
+                        btnInforme.setEnabled(true);
+                        if (error != null) {
+                            JOptionPane.showMessageDialog(this, "No se pudo generar el informe: " + error.getMessage(),
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        } else {
+                            mostrarInforme(informe);
+                        }
+                    }));
+        });
+
         // ------------------------------------------------------------
         // HISTORIAL DE ACCIONES
         // ------------------------------------------------------------
         areaAcciones = new JTextArea(10, 40);
         areaAcciones.setEditable(false);
         areaAcciones.setFont(new Font("Consolas", Font.PLAIN, 13));
-        areaAcciones.setText("=== HISTORIAL DE ACCIONES ===\n\n");
         cargarAcciones();
 
         JScrollPane scrollAcciones = new JScrollPane(areaAcciones);
@@ -129,6 +193,7 @@ public class DialogoHistorial extends JDialog {
         JPanel panelCentro = new JPanel(new BorderLayout(10, 10));
         panelCentro.add(panelBusqueda, BorderLayout.NORTH);
         panelCentro.add(scrollTabla, BorderLayout.CENTER);
+        panelCentro.add(panelInforme, BorderLayout.SOUTH);
 
         add(panelCentro, BorderLayout.CENTER);
         add(scrollAcciones, BorderLayout.SOUTH);
@@ -136,49 +201,116 @@ public class DialogoHistorial extends JDialog {
         mostrarTodos(); // carga inicial
     }
 
+    // ------------------------------------------------------------
+    // Refrescar al reabrir
+    // ------------------------------------------------------------
+    /**
+     * Vuelve a cargar la tabla con todos los clientes y el registro de acciones, para
+     * mostrar el diálogo de nuevo sin reconstruirlo. Si el gestor no cambió desde la última
+     * carga, no hace nada.
+     *
+     * @since 1.1
+     */
+    public void refrescar() {
+        InstantaneaGestion foto = gestion.instantanea();
+        if (foto.getSecuencia() == secuenciaMostrada) return;
+        mostrarTodos(foto);
+        cargarAcciones();
+    }
+
     // ------------------------------------------------------------
     // Cargar clientes en la tabla
     // ------------------------------------------------------------
+    // Resultados de una búsqueda: el estado sale de las colas de una misma instantánea
     private void actualizarTabla(List<Cliente> lista) {
+        InstantaneaGestion foto = gestion.instantanea();
+        Set<Cliente> urgentes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Cliente> normales = Collections.newSetFromMap(new IdentityHashMap<>());
+        urgentes.addAll(foto.getColaUrgentes());
+        normales.addAll(foto.getColaNormales());
         modelo.setRowCount(0);
         for (Cliente c : lista) {
-            String estado = "Atendido";
-            String tiempo = String.format("%.1f", c.getTiempoAtencion());
-            if (gestion.getColaUrgentes().contains(c))
-                estado = "En Espera (Urgente)";
-            else if (gestion.getColaNormales().contains(c))
-                estado = "En Espera (Normal)";
-            else if (c.getTiempoAtencion() == 0)
-                tiempo = "-";
-
-            modelo.addRow(new Object[]{
-                    c.getId(), c.getNombre(), c.getTipoSolicitud(),
-                    c.getPrioridad(), estado,
-                    c.getHoraIngreso() != null ? c.getHoraIngreso().toString() : "-", // ⏰ Nueva columna
-                    tiempo
-            });
+            agregarFila(c, urgentes.contains(c) ? EN_ESPERA_URGENTE
+                    : normales.contains(c) ? EN_ESPERA_NORMAL : null);
         }
+        secuenciaMostrada = -1;
+    }
+
+    private void agregarFila(Cliente c, String enEspera) {
+        String estado = enEspera != null ? enEspera : "Atendido";
+        String tiempo = String.format("%.1f", c.getTiempoAtencion());
+        if (enEspera == null && c.getTiempoAtencion() == 0)
+            tiempo = "-";
+
+        modelo.addRow(new Object[]{
+                c.getId(), c.getNombre(), c.getTipoSolicitud(),
+                c.getPrioridad(), estado,
+                c.getHoraIngreso() != null ? c.getHoraIngreso().toString() : "-", // ⏰ Nueva columna
+                tiempo
+        });
     }
 
     // ------------------------------------------------------------
     // Mostrar todos los clientes
     // ------------------------------------------------------------
     private void mostrarTodos() {
-        List<Cliente> todos = Stream.of(
-                gestion.getColaUrgentes().stream(),
-                gestion.getColaNormales().stream(),
-                gestion.getHistorial().stream()
-        ).flatMap(s -> s).toList();
-        actualizarTabla(todos);
+        mostrarTodos(gestion.instantanea());
+    }
+
+    // Cada lista de la instantánea ya indica el estado de sus clientes
+    private void mostrarTodos(InstantaneaGestion foto) {
+        modelo.setRowCount(0);
+        for (Cliente c : foto.getColaUrgentes()) agregarFila(c, EN_ESPERA_URGENTE);
+        for (Cliente c : foto.getColaNormales()) agregarFila(c, EN_ESPERA_NORMAL);
+        for (Cliente c : foto.getHistorial()) agregarFila(c, null);
+        secuenciaMostrada = foto.getSecuencia();
+    }
+
+    // ------------------------------------------------------------
+    // Mostrar un informe agrupado
+    // ------------------------------------------------------------
+    private void mostrarInforme(InformeHistorial informe) {
+        String[] columnas = {"Tipo", "Prioridad", "Hora", "Clientes",
+                "Servicio medio (min)", "Servicio p90 (min)", "Espera media (min)", "Espera p90 (min)"};
+        JTable tabla = Estilos.tablaModelo(columnas);
+        Estilos.estilizarTabla(tabla);
+        DefaultTableModel filas = (DefaultTableModel) tabla.getModel();
+        for (InformeHistorial.Grupo g : informe.getGrupos()) {
+            filas.addRow(new Object[]{
+                    g.getTipo() != null ? g.getTipo() : "-",
+                    g.getPrioridad() != null ? g.getPrioridad() : "-",
+                    g.getHora() >= 0 ? String.format("%02d:00", g.getHora()) : "-",
+                    g.getTotal(),
+                    minutos(g.getServicioMedioMs()), minutos(g.getServicio().getP90()),
+                    minutos(g.getEsperaMediaMs()), minutos(g.getEspera().getP90())
+            });
+        }
+
+        JDialog dialogo = new JDialog(this, "Informe del Historial (" + informe.getTotal() + " clientes)", true);
+        dialogo.setLayout(new BorderLayout(10, 10));
+        dialogo.add(Estilos.scrollEstilizado(tabla), BorderLayout.CENTER);
+        dialogo.setSize(900, 400);
+        dialogo.setLocationRelativeTo(this);
+        dialogo.setVisible(true);
+    }
+
+    private static String minutos(double ms) {
+        return String.format("%.1f", ms / 60_000.0);
     }
 
     // ------------------------------------------------------------
-    // Cargar pila de acciones
+    // Cargar registro de acciones (más reciente primero)
     // ------------------------------------------------------------
     private void cargarAcciones() {
-        Stack<Accion> acciones = gestion.getPilaAcciones();
-        for (int i = acciones.size() - 1; i >= 0; i--) {
-            areaAcciones.append(acciones.get(i).toString() + "\n");
+        RegistroOperaciones registro = gestion.instantaneaRegistro();
+        StringBuilder sb = new StringBuilder("=== HISTORIAL DE ACCIONES ===\n\n");
+        for (int i = registro.tamano() - 1; i >= 0; i--) {
+            registro.formatear(i, sb).append('\n');
+        }
+        if (registro.getSobrescritas() > 0) {
+            sb.append("... ").append(registro.getSobrescritas()).append(" acciones anteriores no retenidas\n");
         }
+        areaAcciones.setText(sb.toString());
+        areaAcciones.setCaretPosition(0);
     }
 }
@@ -0,0 +1,193 @@
+package vista;
+
+import modelo.MuestreadorTendencia;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Gráfico de líneas en vivo de las series de un {@link MuestreadorTendencia}: urgentes y
+ * normales en espera, atendidos por minuto y espera media.
+ *
+ * <p>Las líneas se dibujan en una imagen en caché. Con cada muestra nueva la imagen se
+ * desplaza {@value #PASO} píxeles a la izquierda y solo se dibuja el tramo nuevo, así que
+ * el coste en el hilo de eventos no depende del número de puntos visibles. La imagen se
+ * redibuja entera solo al cambiar de tamaño o cuando un valor supera la escala actual.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class GraficoTendencia extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Píxeles horizontales entre dos muestras. */
+    public static final int PASO = 2;
+
+    private static final String[] NOMBRES = {"Urgentes", "Normales", "Atendidos/min", "Espera media (min)"};
+    private static final Color[] COLORES = {
+            new Color(255, 99, 132), new Color(54, 162, 235),
+            new Color(75, 192, 192), new Color(255, 159, 64)
+    };
+    private static final int MARGEN_LEYENDA = 22;
+    // Una muestra de margen por si el temporizador añade otra mientras se dibuja
+    private static final int MAX_VISIBLES = MuestreadorTendencia.CAPACIDAD - 1;
+
+    private MuestreadorTendencia fuente;
+    private BufferedImage imagen;
+    private double escala = 1; // valor que corresponde al borde superior
+    private long dibujadas; // muestras ya incorporadas a la imagen
+    private final double[] ultimas = new double[MuestreadorTendencia.SERIES];
+
+    /**
+     * Crea el gráfico sin fuente; no dibuja líneas hasta que se le asigne una.
+     *
+     * @since 1.1
+     */
+    public GraficoTendencia() {
+        setPreferredSize(new Dimension(600, 180));
+        setBorder(BorderFactory.createTitledBorder("Tendencia en vivo"));
+    }
+
+    /**
+     * Asigna el muestreador del que se leen las series.
+     *
+     * @param fuente muestreador del modelo
+     * @since 1.1
+     */
+    public void setFuente(MuestreadorTendencia fuente) {
+        this.fuente = fuente;
+        imagen = null;
+        repaint();
+    }
+
+    /**
+     * Incorpora a la imagen las muestras tomadas desde la última llamada. Debe llamarse
+     * en el hilo de eventos de Swing.
+     *
+     * @since 1.1
+     */
+    public void actualizar() {
+        if (fuente == null) return;
+        long total = fuente.getMuestras();
+        if (imagen == null || imagen.getWidth() != anchoGrafico() || imagen.getHeight() != altoGrafico()) {
+            redibujar(total);
+        } else {
+            long nuevas = total - dibujadas;
+            if (nuevas <= 0) return;
+            if (nuevas >= Math.min(imagen.getWidth() / PASO, MAX_VISIBLES) || superaEscala(total, (int) nuevas)) {
+                redibujar(total);
+            } else {
+                desplazar(total, (int) nuevas);
+            }
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (fuente == null) return;
+        if (imagen == null || imagen.getWidth() != anchoGrafico() || imagen.getHeight() != altoGrafico()) {
+            redibujar(fuente.getMuestras());
+        }
+        Insets in = getInsets();
+        g.drawImage(imagen, in.left, in.top + MARGEN_LEYENDA, null);
+
+        // Leyenda con los valores más recientes
+        g.setFont(Estilos.FUENTE_NORMAL.deriveFont(12f));
+        int x = in.left + 6;
+        for (int s = 0; s < NOMBRES.length; s++) {
+            String texto = NOMBRES[s] + ": " + String.format("%.1f", ultimas[s]);
+            g.setColor(COLORES[s]);
+            g.fillRect(x, in.top + 6, 10, 10);
+            g.setColor(Estilos.COLOR_TEXTO);
+            g.drawString(texto, x + 14, in.top + 16);
+            x += 24 + g.getFontMetrics().stringWidth(texto);
+        }
+        g.setColor(Color.GRAY);
+        g.drawString(String.format("máx %.0f", escala), in.left + 6, in.top + MARGEN_LEYENDA + 12);
+    }
+
+    private int anchoGrafico() {
+        Insets in = getInsets();
+        return Math.max(PASO, getWidth() - in.left - in.right);
+    }
+
+    private int altoGrafico() {
+        Insets in = getInsets();
+        return Math.max(1, getHeight() - in.top - in.bottom - MARGEN_LEYENDA);
+    }
+
+    // Mueve la imagen a la izquierda y dibuja solo los tramos de las muestras nuevas
+    private void desplazar(long total, int nuevas) {
+        int w = imagen.getWidth(), h = imagen.getHeight();
+        int dx = nuevas * PASO;
+        Graphics2D g = imagen.createGraphics();
+        g.copyArea(dx, 0, w - dx, h, -dx, 0);
+        g.setColor(Color.WHITE);
+        g.fillRect(w - dx, 0, dx, h);
+        preparar(g);
+        for (long m = total - nuevas; m < total; m++) {
+            int x = w - 1 - (int) (total - 1 - m) * PASO;
+            tramo(g, m, x, h);
+        }
+        g.dispose();
+        dibujadas = total;
+    }
+
+    private void redibujar(long total) {
+        int w = anchoGrafico(), h = altoGrafico();
+        imagen = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        int visibles = (int) Math.min(Math.min(total, MAX_VISIBLES), w / PASO);
+
+        double max = 1;
+        double[] serie = new double[visibles];
+        for (int s = 0; s < MuestreadorTendencia.SERIES; s++) {
+            int n = fuente.copiarUltimas(s, serie);
+            for (int k = 0; k < n; k++) max = Math.max(max, serie[k]);
+        }
+        escala = max * 1.25;
+
+        Graphics2D g = imagen.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, w, h);
+        preparar(g);
+        for (long m = total - visibles; m < total; m++) {
+            tramo(g, m, w - 1 - (int) (total - 1 - m) * PASO, h);
+        }
+        g.dispose();
+        dibujadas = total;
+    }
+
+    // Dibuja el segmento que une la muestra anterior con la muestra m, terminando en x
+    private void tramo(Graphics2D g, long m, int x, int h) {
+        long primera = Math.max(0, fuente.getMuestras() - MuestreadorTendencia.CAPACIDAD);
+        for (int s = 0; s < MuestreadorTendencia.SERIES; s++) {
+            double v = fuente.getValor(s, m);
+            double antes = m > primera ? fuente.getValor(s, m - 1) : v;
+            g.setColor(COLORES[s]);
+            g.drawLine(x - PASO, y(antes, h), x, y(v, h));
+            ultimas[s] = v;
+        }
+    }
+
+    private boolean superaEscala(long total, int nuevas) {
+        for (long m = total - nuevas; m < total; m++) {
+            for (int s = 0; s < MuestreadorTendencia.SERIES; s++) {
+                if (fuente.getValor(s, m) > escala) return true;
+            }
+        }
+        return false;
+    }
+
+    private int y(double valor, int h) {
+        return h - 1 - (int) Math.round(valor / escala * (h - 1));
+    }
+
+    private static void preparar(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setStroke(new BasicStroke(1.5f));
+    }
+}
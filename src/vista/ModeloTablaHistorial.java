@@ -0,0 +1,80 @@
+package vista;
+
+import modelo.Cliente;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+/**
+ * Modelo de la tabla de atendidos que lee las filas del historial por posición, solo
+ * cuando la tabla las pinta.
+ *
+ * <p>Recibe la lista de historial de una {@link modelo.InstantaneaGestion}, que es de
+ * acceso aleatorio en todos los almacenes, y no copia nada: cambiar de instantánea cuesta
+ * O(1) y cada repintado decodifica solo las filas visibles. Con el historial por niveles o
+ * fuera del heap eso evita leer todos los segmentos o registros en cada actualización. Se
+ * guarda el último cliente leído porque la tabla pide las columnas de una fila seguidas.
+ *
+ * @author SebasZ777-Uni
+ * @since 1.1
+ */
+public class ModeloTablaHistorial extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNAS = {"ID", "Nombre", "Tipo Solicitud", "Prioridad", "Tiempo (min)", "Hora de Ingreso"};
+
+    private List<Cliente> clientes = List.of();
+    private int filaLeida = -1;
+    private Cliente clienteLeido;
+
+    /**
+     * Cambia el historial mostrado y avisa a la tabla.
+     *
+     * @param clientes historial en orden de atención; se lee por posición y no se copia
+     * @since 1.1
+     */
+    public void setClientes(List<Cliente> clientes) {
+        this.clientes = clientes;
+        filaLeida = -1;
+        clienteLeido = null;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return clientes.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        if (fila != filaLeida) {
+            clienteLeido = clientes.get(fila);
+            filaLeida = fila;
+        }
+        Cliente c = clienteLeido;
+        switch (columna) {
+            case 0:
+                return c.getId();
+            case 1:
+                return c.getNombre();
+            case 2:
+                return c.getTipoSolicitud();
+            case 3:
+                return c.getPrioridad();
+            case 4:
+                return String.format("%.1f", c.getTiempoAtencion());
+            default:
+                return c.getHoraIngresoTexto();
+        }
+    }
+}
@@ -18,8 +18,10 @@ public class PanelClientes extends JPanel {
     public JTable tablaEspera;
     /** Tabla que muestra los clientes atendidos (historial). */
     public JTable tablaAtendidos;
+    /** Modelo de {@link #tablaAtendidos}: lee el historial por posición al pintar. */
+    public ModeloTablaHistorial modeloAtendidos;
     /** Botón para agregar clientes. */
-    public JButton btnAgregar, btnAtender, btnEliminar, btnDeshacer, btnMostrarHistorial;
+    public JButton btnAgregar, btnAtender, btnAtenderLote, btnEliminar, btnDeshacer, btnRehacer, btnMostrarHistorial;
 
     /**
      * Construye el panel con tablas y botones y aplica estilos.
@@ -39,7 +41,8 @@ public class PanelClientes extends JPanel {
         // --- Tablas
         String[] columnas = {"ID", "Nombre", "Tipo Solicitud", "Prioridad", "Tiempo (min)", "Hora de Ingreso"};
         tablaEspera = Estilos.tablaModelo(columnas);
-        tablaAtendidos = Estilos.tablaModelo(columnas);
+        modeloAtendidos = new ModeloTablaHistorial();
+        tablaAtendidos = new JTable(modeloAtendidos);
         Estilos.estilizarTabla(tablaEspera);
         Estilos.estilizarTabla(tablaAtendidos);
         JPanel panelTablas = new JPanel(new GridLayout(1, 2, 10, 10));
@@ -56,14 +59,18 @@ public class PanelClientes extends JPanel {
 
         btnAgregar = Estilos.boton("Agregar Cliente", Estilos.COLOR_PRIMARIO);
         btnAtender = Estilos.boton("Atender Cliente", Estilos.COLOR_EXITO);
+        btnAtenderLote = Estilos.boton("Atender Lote", Estilos.COLOR_EXITO);
         btnEliminar = Estilos.boton("Eliminar por ID", Estilos.COLOR_ERROR);
         btnDeshacer = Estilos.boton("Deshacer", Estilos.COLOR_SECUNDARIO);
+        btnRehacer = Estilos.boton("Rehacer", Estilos.COLOR_SECUNDARIO);
         btnMostrarHistorial = Estilos.boton("Mostrar Historial", new Color(155, 89, 182));
 
         panelBotones.add(btnAgregar);
         panelBotones.add(btnAtender);
+        panelBotones.add(btnAtenderLote);
         panelBotones.add(btnEliminar);
         panelBotones.add(btnDeshacer);
+        panelBotones.add(btnRehacer);
         panelBotones.add(btnMostrarHistorial);
 
         add(panelBotones, BorderLayout.SOUTH);
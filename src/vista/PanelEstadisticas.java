@@ -1,11 +1,16 @@
 package vista;
 
+import modelo.CuboConteos;
+import modelo.Prioridad;
+import modelo.TipoSolicitud;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.Arc2D;
 import java.text.DecimalFormat;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * Panel que muestra estadísticas visuales del sistema (gráficos y métricas).
@@ -21,8 +26,20 @@ public class PanelEstadisticas extends JPanel {
 
     /** Etiqueta que muestra el total en espera. */
     public JLabel lblTotalEspera, lblTotalAtendidos, lblPromedio;
+    /** Etiqueta con los ingresos de la última hora. */
+    public JLabel lblIngresosHora;
+    /** Etiqueta con la tabla de percentiles del tiempo de atención. */
+    public JLabel lblPercentiles;
+    /** Etiqueta con el rendimiento y la espera en ventanas de 5/15/60 minutos. */
+    public JLabel lblVentanas;
+    /** Etiqueta con los atendidos y el tiempo medio por hora y por día de los agregados temporales. */
+    public JLabel lblAgregados;
+    /** Etiqueta con las cifras de todas las sedes; solo se muestra tras {@link #mostrarSedes()}. */
+    public JLabel lblSedes;
     /** Paneles donde se dibujan los gráficos. */
     public JPanel panelGraficoPrincipal, panelGraficoTipos, panelGraficoUrgentes;
+    /** Gráfico de líneas en vivo de colas, atendidos por minuto y espera media. */
+    public GraficoTendencia graficoTendencia;
     /** Combo para elegir tipo de gráfico (Pastel/Barras). */
     public JComboBox<String> cbTipoGrafico;
 
@@ -31,6 +48,20 @@ public class PanelEstadisticas extends JPanel {
     private Map<String, Integer> tiposSolicitudes = new HashMap<>();
     private int urgentes = 0;
     private int normales = 0;
+    private final JPanel info;
+
+    /**
+     * Añade al panel lateral la etiqueta {@link #lblSedes}, para cuando la aplicación
+     * atiende varias sedes. Debe llamarse desde el hilo de eventos.
+     *
+     * @since 1.1
+     */
+    public void mostrarSedes() {
+        if (lblSedes.getParent() != null) return;
+        info.setLayout(new GridLayout(info.getComponentCount() + 1, 1, 10, 10));
+        info.add(lblSedes);
+        info.revalidate();
+    }
 
     /**
      * Construye el panel de estadísticas con gráficos y controles.
@@ -69,14 +100,22 @@ public class PanelEstadisticas extends JPanel {
         // ------------------------------------------------------------
         // Panel lateral con datos
         // ------------------------------------------------------------
-        JPanel info = new JPanel(new GridLayout(3, 1, 10, 10));
+        info = new JPanel(new GridLayout(7, 1, 10, 10));
         info.setOpaque(false);
 
         lblTotalEspera = new JLabel("Total en espera: 0");
         lblTotalAtendidos = new JLabel("Total atendidos: 0");
         lblPromedio = new JLabel("Promedio de atención: 0 min");
-
-        for (JLabel lbl : new JLabel[]{lblTotalEspera, lblTotalAtendidos, lblPromedio}) {
+        lblIngresosHora = new JLabel("Ingresos última hora: 0");
+        lblPercentiles = new JLabel("Percentiles de atención: -");
+        lblVentanas = new JLabel("Rendimiento reciente: -");
+        lblAgregados = new JLabel("Tendencia por hora y día: -");
+        lblSedes = new JLabel("Sedes: -");
+        lblSedes.setFont(Estilos.FUENTE_NORMAL);
+        lblSedes.setForeground(Estilos.COLOR_TEXTO);
+
+        for (JLabel lbl : new JLabel[]{lblTotalEspera, lblTotalAtendidos, lblPromedio, lblIngresosHora,
+                lblPercentiles, lblVentanas, lblAgregados}) {
             lbl.setFont(Estilos.FUENTE_NORMAL);
             lbl.setForeground(Estilos.COLOR_TEXTO);
             info.add(lbl);
@@ -127,6 +166,11 @@ public class PanelEstadisticas extends JPanel {
         panelCentral.add(panelGraficoUrgentes);
 
         add(panelCentral, BorderLayout.CENTER);
+
+        // Tendencia en vivo (la alimenta el controlador con un muestreador)
+        graficoTendencia = new GraficoTendencia();
+        graficoTendencia.setBackground(Color.WHITE);
+        add(graficoTendencia, BorderLayout.SOUTH);
     }
 
     // ------------------------------------------------------------
@@ -147,6 +191,27 @@ public class PanelEstadisticas extends JPanel {
         panelGraficoUrgentes.repaint();
     }
 
+    /**
+     * Actualiza etiquetas y gráficos a partir del cubo de conteos del modelo: espera y
+     * atendidos, clientes por tipo y urgentes frente a normales (en cola y atendidos).
+     *
+     * @param conteos cubo tipo × prioridad × estado de {@link modelo.GestionAtencion}
+     * @since 1.1
+     */
+    public void actualizarDatos(CuboConteos conteos) {
+        Map<String, Integer> tipos = new LinkedHashMap<>();
+        for (TipoSolicitud t : TipoSolicitud.values()) {
+            tipos.put(t.name(), conteos.contar(t));
+        }
+        actualizarDatos(
+                conteos.contar(CuboConteos.Estado.EN_ESPERA),
+                conteos.contar(CuboConteos.Estado.ATENDIDO),
+                tipos,
+                conteos.contar(Prioridad.URGENTE),
+                conteos.contar(Prioridad.NORMAL)
+        );
+    }
+
     // ------------------------------------------------------------
     // Gráfico principal: Espera vs Atendidos
     // ------------------------------------------------------------
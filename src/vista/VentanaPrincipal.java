@@ -2,12 +2,17 @@ package vista;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Ventana principal de la aplicación GUI.
  *
  * <p>Contiene las pestañas principales: gestión de clientes y estadísticas. Se encarga
  * de ensamblar los paneles de la interfaz y aplicar estilos visuales desde {@link Estilos}.
+ * El panel de estadísticas se construye la primera vez que se abre su pestaña, para que
+ * la ventana aparezca antes.
  *
  * @author SebasZ777-Uni
  * @since 1.0
@@ -18,9 +23,11 @@ public class VentanaPrincipal extends JFrame {
     public JTabbedPane pestañas;
     /** Panel con gestión de clientes. */
     public PanelClientes panelClientes;
-    /** Panel con estadísticas. */
+    /** Panel con estadísticas; {@code null} hasta que se abre su pestaña. */
     public PanelEstadisticas panelEstadisticas;
 
+    private final List<Consumer<PanelEstadisticas>> alCrearEstadisticas = new ArrayList<>();
+
     public VentanaPrincipal() {
         setTitle("Sistema de Atención TechClassUC");
         setSize(1100, 650);
@@ -30,14 +37,49 @@ public class VentanaPrincipal extends JFrame {
 
         pestañas = new JTabbedPane();
         panelClientes = new PanelClientes();
-        panelEstadisticas = new PanelEstadisticas();
 
         pestañas.addTab("Gestión de Clientes", panelClientes);
-        pestañas.addTab("Estadísticas", panelEstadisticas);
+        pestañas.addTab("Estadísticas", new JPanel());
+        pestañas.addChangeListener(e -> {
+            if (pestañas.getSelectedIndex() == 1) getPanelEstadisticas();
+        });
 
         add(pestañas, BorderLayout.CENTER);
 
         // Fondo uniforme
         getContentPane().setBackground(Estilos.COLOR_FONDO);
     }
+
+    /**
+     * Devuelve el panel de estadísticas, construyéndolo y colocándolo en su pestaña si
+     * todavía no existe. Debe llamarse desde el hilo de eventos.
+     *
+     * @return el panel de estadísticas
+     * @since 1.1
+     */
+    public PanelEstadisticas getPanelEstadisticas() {
+        if (panelEstadisticas == null) {
+            panelEstadisticas = new PanelEstadisticas();
+            pestañas.setComponentAt(1, panelEstadisticas);
+            for (Consumer<PanelEstadisticas> accion : alCrearEstadisticas) {
+                accion.accept(panelEstadisticas);
+            }
+        }
+        return panelEstadisticas;
+    }
+
+    /**
+     * Registra una acción que se ejecuta cuando se construye el panel de estadísticas, o
+     * en el acto si ya existe.
+     *
+     * @param accion acción que recibe el panel recién creado
+     * @since 1.1
+     */
+    public void alCrearEstadisticas(Consumer<PanelEstadisticas> accion) {
+        if (panelEstadisticas != null) {
+            accion.accept(panelEstadisticas);
+        } else {
+            alCrearEstadisticas.add(accion);
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package modelo;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Mide cuánta memoria reserva cada operación de {@link GestionAtencion} en régimen estable.
+ *
+ * <p>Usa el contador de bytes reservados por hilo de la JVM, así que no necesita un
+ * perfilador. Antes de medir, el gestor llena su registro de deshacer y la rueda de
+ * vencimientos para que los comandos y temporizadores ya salgan de sus reservas. Cada
+ * alta reserva de forma inevitable su {@link Cliente} y su nodo de cola; deshacer y rehacer
+ * solo la {@link Accion} que devuelven. Falla si alguna medida supera esos mínimos con
+ * holgura, lo que indicaría que volvió a aparecer basura por operación.
+ *
+ * <p>Se ejecuta sin grabación de JFR activa:
+ * {@code java -cp out:out-test modelo.BancoAsignaciones}
+ */
+final class BancoAsignaciones {
+
+    private static final int CALENTAMIENTO = 200_000;
+    private static final int MEDIDAS = 100_000;
+    private static final int LIMITE_DESHACER = 1_000;
+
+    // Cliente (con sus cadenas ya creadas) y nodo de cola, más margen para el historial
+    private static final long MAX_BYTES_ALTA_Y_ATENCION = 256;
+    private static final long MAX_BYTES_DESHACER_Y_REHACER = 2 * 48;
+
+    private BancoAsignaciones() {
+    }
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean hilos =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!hilos.isThreadAllocatedMemorySupported()) {
+            System.out.println("La JVM no mide la memoria reservada por hilo; no hay nada que medir");
+            return;
+        }
+        hilos.setThreadAllocatedMemoryEnabled(true);
+
+        GestionAtencion gestion = new GestionAtencion();
+        gestion.configurarLimiteDeshacer(LIMITE_DESHACER);
+        gestion.configurarEnvejecimiento(
+                PoliticaEnvejecimiento.uniforme(PoliticaEnvejecimiento.Modo.MARCAR, Duration.ofHours(1)));
+
+        String[] nombres = new String[64];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = "cliente" + i;
+        }
+        TipoSolicitud[] tipos = TipoSolicitud.values();
+
+        altasYAtenciones(gestion, nombres, tipos, CALENTAMIENTO);
+        long antes = hilos.getCurrentThreadAllocatedBytes();
+        altasYAtenciones(gestion, nombres, tipos, MEDIDAS);
+        long porAlta = (hilos.getCurrentThreadAllocatedBytes() - antes) / MEDIDAS;
+
+        deshacerYRehacer(gestion, CALENTAMIENTO);
+        antes = hilos.getCurrentThreadAllocatedBytes();
+        deshacerYRehacer(gestion, MEDIDAS);
+        long porDeshacer = (hilos.getCurrentThreadAllocatedBytes() - antes) / MEDIDAS;
+
+        System.out.printf("alta + atención: %d bytes por par (máximo %d)%n", porAlta, MAX_BYTES_ALTA_Y_ATENCION);
+        System.out.printf("deshacer + rehacer: %d bytes por par (máximo %d)%n",
+                porDeshacer, MAX_BYTES_DESHACER_Y_REHACER);
+        if (porAlta > MAX_BYTES_ALTA_Y_ATENCION || porDeshacer > MAX_BYTES_DESHACER_Y_REHACER) {
+            throw new AssertionError("Las operaciones reservan más memoria de la esperada");
+        }
+    }
+
+    // Mantiene unos pocos clientes en espera para que cada atención tenga a quién atender
+    private static void altasYAtenciones(GestionAtencion gestion, String[] nombres, TipoSolicitud[] tipos,
+                                         int pares) {
+        for (int i = 0; i < pares; i++) {
+            Prioridad prioridad = (i & 3) == 0 ? Prioridad.URGENTE : Prioridad.NORMAL;
+            gestion.agregarCliente(nombres[i & 63], tipos[i % tipos.length], prioridad);
+            gestion.atenderCliente();
+        }
+    }
+
+    private static void deshacerYRehacer(GestionAtencion gestion, int pares) {
+        for (int i = 0; i < pares; i++) {
+            gestion.deshacerUltimaAccion();
+            gestion.rehacerAccion();
+        }
+    }
+}
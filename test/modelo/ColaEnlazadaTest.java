@@ -0,0 +1,152 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas de {@link ColaEnlazada} y {@link Comando}: desenlazar y reenlazar en orden
+ * inverso devuelve cada nodo a su posición, la retirada en bloque se deshace igual que la
+ * de uno en uno, las instantáneas no cambian con la cola y los comandos reutilizados
+ * empiezan limpios. Cierra con el deshacer/rehacer del gestor sobre clientes del medio.
+ */
+final class ColaEnlazadaTest {
+
+    private ColaEnlazadaTest() {
+    }
+
+    public static void main(String[] args) {
+        reenlazaEnOrdenInverso();
+        deshaceRetiradaEnBloque();
+        instantaneasInmutables();
+        comandoReutilizadoEmpiezaLimpio();
+        gestorDeshaceYRehaceEnMedio();
+        System.out.println("ColaEnlazadaTest: ok");
+    }
+
+    private static void reenlazaEnOrdenInverso() {
+        ColaEnlazada cola = cola("a", "b", "c", "d", "e");
+        ColaEnlazada.Nodo a = cola.buscar(c -> c.getNombre().equals("a"));
+        ColaEnlazada.Nodo c = cola.buscar(x -> x.getNombre().equals("c"));
+        ColaEnlazada.Nodo d = cola.buscar(x -> x.getNombre().equals("d"));
+        ColaEnlazada.Nodo e = cola.buscar(x -> x.getNombre().equals("e"));
+
+        cola.desenlazar(c);
+        cola.desenlazar(d);
+        cola.desenlazar(a);
+        cola.desenlazar(e);
+        comprobar(nombres(cola).equals(List.of("b")) && cola.size() == 1, "solo queda b: " + nombres(cola));
+
+        cola.reenlazar(e);
+        cola.reenlazar(a);
+        cola.reenlazar(d);
+        cola.reenlazar(c);
+        comprobar(nombres(cola).equals(List.of("a", "b", "c", "d", "e")), "orden restaurado: " + nombres(cola));
+        comprobar(cola.size() == 5 && cola.peek().getNombre().equals("a"), "tamaño y frente restaurados");
+    }
+
+    private static void deshaceRetiradaEnBloque() {
+        ColaEnlazada cola = cola("a", "b", "c", "d");
+        List<ColaEnlazada.Nodo> retirados = new ArrayList<>();
+        for (ColaEnlazada.Nodo n = cola.primero(); retirados.size() < 3; n = n.siguiente) {
+            retirados.add(n);
+        }
+        cola.desenlazarPrimeros(3);
+        comprobar(nombres(cola).equals(List.of("d")), "quedan los no retirados");
+        for (int i = retirados.size() - 1; i >= 0; i--) {
+            cola.reenlazar(retirados.get(i));
+        }
+        comprobar(nombres(cola).equals(List.of("a", "b", "c", "d")), "bloque restaurado: " + nombres(cola));
+        comprobar(cola.instantanea().equals(List.of(cola.toArray())), "la instantánea sigue a la cola");
+    }
+
+    private static void instantaneasInmutables() {
+        ColaEnlazada cola = cola("a", "b", "c");
+        ColaPersistente antes = cola.instantanea();
+        comprobar(cola.instantanea() == antes, "sin cambios se reutiliza la misma versión");
+
+        cola.poll();
+        cola.offer(cliente(9, "z"));
+        ColaPersistente despues = cola.instantanea();
+        comprobar(nombres(antes).equals(List.of("a", "b", "c")), "la versión anterior no cambia");
+        comprobar(nombres(despues).equals(List.of("b", "c", "z")), "la nueva versión tiene los cambios");
+
+        // Un cambio en medio obliga a reconstruir la versión
+        cola.desenlazar(cola.buscar(c -> c.getNombre().equals("c")));
+        comprobar(nombres(cola.instantanea()).equals(List.of("b", "z")), "reconstruida tras un cambio en medio");
+        comprobar(nombres(despues).equals(List.of("b", "c", "z")), "y la anterior sigue intacta");
+    }
+
+    private static void comandoReutilizadoEmpiezaLimpio() {
+        ColaEnlazada origen = cola("a");
+        ColaEnlazada destino = new ColaEnlazada();
+        ColaEnlazada.Nodo nodo = origen.primero();
+        Comando cmd = new Comando(TipoAccion.ESCALAR, origen, nodo, 1, 1_000L);
+        cmd.cicloDespues = 2;
+        cmd.atencionMs = 5_000L;
+        cmd.tiempoAtencion = 7.5;
+        cmd.colaDestino = destino;
+        cmd.nodoDestino = destino.nodoAlFinal(nodo.cliente);
+
+        ColaEnlazada.Nodo otro = origen.nodoAlFinal(cliente(2, "b"));
+        comprobar(cmd.preparar(TipoAccion.AGREGAR, origen, otro, 0, 2_000L) == cmd, "preparar devuelve el mismo comando");
+        comprobar(cmd.tipo == TipoAccion.AGREGAR && cmd.nodo == otro && cmd.registradoMs == 2_000L,
+                "campos de la nueva operación");
+        comprobar(cmd.cicloAntes == 0 && cmd.cicloDespues == 0, "el ciclo después parte del de antes");
+        comprobar(cmd.atencionMs == Cliente.SIN_HORA && cmd.tiempoAtencion == 0, "sin atención anterior");
+        comprobar(cmd.colaDestino == null && cmd.nodoDestino == null, "sin destino anterior");
+        Accion accion = cmd.accion();
+        comprobar(accion.getTipoAccion() == TipoAccion.AGREGAR && accion.getCliente() == cmd.cliente(),
+                "la acción describe la operación");
+    }
+
+    private static void gestorDeshaceYRehaceEnMedio() {
+        GestionAtencion gestion = new GestionAtencion();
+        List<Cliente> clientes = new ArrayList<>();
+        for (String nombre : new String[]{"a", "b", "c", "d"}) {
+            clientes.add(gestion.agregarCliente(nombre, TipoSolicitud.SOPORTE, Prioridad.NORMAL));
+        }
+        comprobar(gestion.eliminarCliente(clientes.get(1).getId()), "elimina b");
+        comprobar(gestion.eliminarCliente(clientes.get(2).getId()), "elimina c");
+        gestion.atenderCliente();
+        comprobar(nombres(gestion.getColaNormales()).equals(List.of("d")), "queda d");
+
+        gestion.deshacerUltimaAccion();
+        gestion.deshacerUltimaAccion();
+        gestion.deshacerUltimaAccion();
+        comprobar(nombres(gestion.getColaNormales()).equals(List.of("a", "b", "c", "d")),
+                "deshacer vuelve a enlazar en su sitio: " + nombres(gestion.getColaNormales()));
+        comprobar(gestion.getTotalAtendidos() == 0, "la atención se deshizo");
+
+        gestion.rehacerAccion();
+        gestion.rehacerAccion();
+        comprobar(nombres(gestion.getColaNormales()).equals(List.of("a", "d")), "rehacer repite las eliminaciones");
+        comprobar(nombres(gestion.instantanea().getColaNormales()).equals(List.of("a", "d")),
+                "la instantánea coincide con la cola");
+        comprobar(gestion.puedeRehacer() && !gestion.getColaNormales().isEmpty(), "queda la atención por rehacer");
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static ColaEnlazada cola(String... nombres) {
+        ColaEnlazada cola = new ColaEnlazada();
+        for (int i = 0; i < nombres.length; i++) {
+            cola.offer(cliente(i + 1, nombres[i]));
+        }
+        return cola;
+    }
+
+    private static Cliente cliente(long id, String nombre) {
+        return new Cliente(id, nombre, TipoSolicitud.SOPORTE, 0L);
+    }
+
+    private static List<String> nombres(Iterable<Cliente> cola) {
+        List<String> nombres = new ArrayList<>();
+        for (Cliente c : cola) nombres.add(c.getNombre());
+        return nombres;
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
@@ -0,0 +1,183 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Pruebas de {@link ColaPersistente}: las operaciones por ambos extremos y en medio,
+ * incluidas las que reparten una lista cuando el otro lado se vacía, dan el orden de una
+ * lista de referencia, y todas las versiones anteriores siguen leyendo exactamente lo que
+ * tenían tras miles de operaciones sobre las nuevas.
+ */
+final class ColaPersistenteTest {
+
+    private ColaPersistenteTest() {
+    }
+
+    public static void main(String[] args) {
+        extremosYReparto();
+        enMedioDelFrenteYDelFondo();
+        rechazaOperacionesInvalidas();
+        versionesAnterioresNoCambian();
+        System.out.println("ColaPersistenteTest: ok");
+    }
+
+    private static void extremosYReparto() {
+        List<Cliente> c = clientes(8);
+        ColaPersistente cola = ColaPersistente.vacia();
+        for (int i = 0; i < 6; i++) cola = cola.conFinal(c.get(i)); // todos en el fondo
+        comprobar(nombres(cola).equals(List.of("c0", "c1", "c2", "c3", "c4", "c5")), "altas por el final");
+        comprobar(cola.get(0) == c.get(0) && cola.get(5) == c.get(5), "get sobre el fondo");
+
+        cola = cola.sinPrimero(); // frente vacío: reparte el fondo
+        comprobar(nombres(cola).equals(List.of("c1", "c2", "c3", "c4", "c5")), "quitar el primero reparte");
+        cola = cola.conFrente(c.get(6)).sinPrimeros(4); // se va el frente y parte del fondo
+        comprobar(nombres(cola).equals(List.of("c4", "c5")), "quitar más que el frente: " + nombres(cola));
+        cola = cola.sinUltimo().conFrente(c.get(7));
+        comprobar(nombres(cola).equals(List.of("c7", "c4")), "quitar el último");
+        cola = cola.sinUltimo().sinUltimo(); // fondo vacío: reparte el frente
+        comprobar(cola.isEmpty() && !cola.iterator().hasNext(), "vacía");
+
+        ColaPersistente de = ColaPersistente.de(c.toArray(new Cliente[0]));
+        comprobar(nombres(de).equals(nombres(c)) && de.size() == 8, "creada a partir de un arreglo");
+        comprobar(de.sinPrimeros(0) == de, "quitar cero no crea versión");
+        comprobar(ColaPersistente.de(new Cliente[0]) == ColaPersistente.vacia(), "arreglo vacío");
+    }
+
+    private static void enMedioDelFrenteYDelFondo() {
+        List<Cliente> c = clientes(8);
+        // c0..c3 en el frente y c4..c7 en el fondo
+        ColaPersistente cola = ColaPersistente.de(c.subList(0, 4).toArray(new Cliente[0]));
+        for (int i = 4; i < 8; i++) cola = cola.conFinal(c.get(i));
+
+        Cliente x = new Cliente(100, "x", TipoSolicitud.SOPORTE, 0);
+        Cliente y = new Cliente(101, "y", TipoSolicitud.SOPORTE, 0);
+        ColaPersistente con = cola.conAntesDe(x, c.get(2)).conAntesDe(y, c.get(6));
+        comprobar(nombres(con).equals(List.of("c0", "c1", "x", "c2", "c3", "c4", "c5", "y", "c6", "c7")),
+                "insertar en el frente y en el fondo: " + nombres(con));
+        Cliente z = new Cliente(102, "z", TipoSolicitud.SOPORTE, 0);
+        comprobar(nombres(con.conAntesDe(z, c.get(4))).subList(4, 7).equals(List.of("c3", "z", "c4")),
+                "insertar ante el más antiguo del fondo");
+
+        ColaPersistente sin = con.sin(c.get(1)).sin(c.get(6)).sin(x);
+        comprobar(nombres(sin).equals(List.of("c0", "c2", "c3", "c4", "c5", "y", "c7")), "quitar en medio");
+        Cliente igualPeroOtro = new Cliente(c.get(3).getIdNumerico(), "c3", TipoSolicitud.SOPORTE, 0);
+        comprobar(sin.sin(igualPeroOtro) == sin, "quitar compara por identidad");
+        comprobar(nombres(cola).equals(List.of("c0", "c1", "c2", "c3", "c4", "c5", "c6", "c7")), "la original no cambia");
+    }
+
+    private static void rechazaOperacionesInvalidas() {
+        ColaPersistente cola = ColaPersistente.vacia().conFinal(clientes(1).get(0));
+        try {
+            cola.sinPrimeros(2);
+            throw new AssertionError("debía rechazar quitar más de los que hay");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+        try {
+            ColaPersistente.vacia().sinUltimo();
+            throw new AssertionError("debía rechazar quitar de una cola vacía");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+        try {
+            cola.conAntesDe(clientes(1).get(0), new Cliente(9, "ajeno", TipoSolicitud.SOPORTE, 0));
+            throw new AssertionError("debía rechazar una referencia que no está");
+        } catch (IllegalArgumentException esperado) {
+            // correcto
+        }
+        try {
+            cola.get(1);
+            throw new AssertionError("debía rechazar una posición fuera de rango");
+        } catch (IndexOutOfBoundsException esperado) {
+            // correcto
+        }
+        Iterator<Cliente> it = cola.iterator();
+        it.next();
+        try {
+            it.next();
+            throw new AssertionError("debía rechazar avanzar tras el último");
+        } catch (NoSuchElementException esperado) {
+            // correcto
+        }
+        try {
+            cola.listIterator(0).set(null);
+            throw new AssertionError("la lista debía ser inmutable");
+        } catch (UnsupportedOperationException esperado) {
+            // correcto
+        }
+    }
+
+    private static void versionesAnterioresNoCambian() {
+        Random azar = new Random(11);
+        List<ColaPersistente> versiones = new ArrayList<>();
+        List<List<String>> esperadas = new ArrayList<>();
+        ColaPersistente cola = ColaPersistente.vacia();
+        List<Cliente> referencia = new ArrayList<>();
+        int siguiente = 0;
+        for (int paso = 0; paso < 5_000; paso++) {
+            int accion = azar.nextInt(10);
+            if (accion < 3 || referencia.isEmpty()) {
+                Cliente c = new Cliente(++siguiente, "c" + siguiente, TipoSolicitud.SOPORTE, 0);
+                cola = cola.conFinal(c);
+                referencia.add(c);
+            } else if (accion == 3) {
+                Cliente c = new Cliente(++siguiente, "c" + siguiente, TipoSolicitud.SOPORTE, 0);
+                cola = cola.conFrente(c);
+                referencia.add(0, c);
+            } else if (accion == 4) {
+                int k = 1 + azar.nextInt(Math.min(3, referencia.size()));
+                cola = cola.sinPrimeros(k);
+                referencia.subList(0, k).clear();
+            } else if (accion == 5) {
+                cola = cola.sinUltimo();
+                referencia.remove(referencia.size() - 1);
+            } else if (accion == 6) {
+                cola = cola.sin(referencia.remove(azar.nextInt(referencia.size())));
+            } else if (accion == 7) {
+                int i = azar.nextInt(referencia.size());
+                Cliente c = new Cliente(++siguiente, "c" + siguiente, TipoSolicitud.SOPORTE, 0);
+                cola = cola.conAntesDe(c, referencia.get(i));
+                referencia.add(i, c);
+            } else {
+                cola = cola.sinPrimero();
+                referencia.remove(0);
+            }
+            comprobar(cola.size() == referencia.size(), "tamaño en el paso " + paso);
+            if (paso % 50 == 0) {
+                comprobar(nombres(cola).equals(nombres(referencia)), "orden en el paso " + paso);
+                comprobar(referencia.isEmpty() || cola.get(referencia.size() / 2) == referencia.get(referencia.size() / 2),
+                        "get en el paso " + paso);
+                versiones.add(cola);
+                esperadas.add(nombres(referencia));
+            }
+        }
+        for (int i = 0; i < versiones.size(); i++) {
+            comprobar(nombres(versiones.get(i)).equals(esperadas.get(i)), "la versión " + i + " no cambió");
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static List<Cliente> clientes(int n) {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            clientes.add(new Cliente(i + 1, "c" + i, TipoSolicitud.SOPORTE, 0));
+        }
+        return clientes;
+    }
+
+    private static List<String> nombres(Iterable<Cliente> clientes) {
+        List<String> nombres = new ArrayList<>();
+        for (Cliente c : clientes) nombres.add(c.getNombre());
+        return nombres;
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
@@ -0,0 +1,88 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Pruebas de {@link DespachadorHabilidades} y {@link GrupoAgentes}: reparto al grupo
+ * capacitado con menos pendientes, ciclo 2 urgentes → 1 normal dentro de un grupo y robo
+ * solo de trabajo compatible.
+ */
+final class DespachadorHabilidadesTest {
+
+    private DespachadorHabilidadesTest() {
+    }
+
+    public static void main(String[] args) {
+        repartePorHabilidadYCarga();
+        cicloDosUrgentesUnNormal();
+        robaSoloTrabajoCompatible();
+        rechazaTiposSinGrupo();
+        System.out.println("DespachadorHabilidadesTest: ok");
+    }
+
+    private static void repartePorHabilidadYCarga() {
+        DespachadorHabilidades d = new DespachadorHabilidades("");
+        GrupoAgentes soporte = d.agregarGrupo("soporte", EnumSet.of(TipoSolicitud.SOPORTE));
+        GrupoAgentes mixto = d.agregarGrupo("mixto", EnumSet.of(TipoSolicitud.SOPORTE, TipoSolicitud.RECLAMO));
+        for (int i = 0; i < 4; i++) {
+            d.agregarCliente("s" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+        }
+        d.agregarCliente("r", TipoSolicitud.RECLAMO, Prioridad.NORMAL);
+        comprobar(soporte.getPendientes() == 2 && mixto.getPendientes() == 3,
+                "el soporte se reparte entre los dos grupos y el reclamo solo va al mixto");
+        comprobar(d.getPendientes() == 5, "pendientes totales");
+    }
+
+    private static void cicloDosUrgentesUnNormal() {
+        DespachadorHabilidades d = new DespachadorHabilidades("");
+        GrupoAgentes grupo = d.agregarGrupo("todos", EnumSet.allOf(TipoSolicitud.class));
+        for (int i = 0; i < 4; i++) {
+            d.agregarCliente("u" + i, TipoSolicitud.SOPORTE, Prioridad.URGENTE);
+        }
+        for (int i = 0; i < 2; i++) {
+            d.agregarCliente("n" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+        }
+        List<String> orden = new ArrayList<>();
+        Cliente c;
+        while ((c = d.siguiente(grupo)) != null) {
+            comprobar(c.getAtencionMs() != Cliente.SIN_HORA, "el cliente sale con hora de atención");
+            orden.add(c.getNombre());
+        }
+        comprobar(orden.equals(List.of("u0", "u1", "n0", "u2", "u3", "n1")), "orden 2 → 1: " + orden);
+        comprobar(grupo.getAtendidos() == 6 && grupo.getRobados() == 0, "contadores del grupo");
+    }
+
+    private static void robaSoloTrabajoCompatible() {
+        DespachadorHabilidades d = new DespachadorHabilidades("");
+        GrupoAgentes mixto = d.agregarGrupo("mixto", EnumSet.of(TipoSolicitud.SOPORTE, TipoSolicitud.RECLAMO));
+        GrupoAgentes soporte = d.agregarGrupo("soporte", EnumSet.of(TipoSolicitud.SOPORTE));
+        d.agregarCliente("reclamo", TipoSolicitud.RECLAMO, Prioridad.URGENTE);
+        comprobar(d.siguiente(soporte) == null, "soporte no puede robar un reclamo");
+
+        d.agregarCliente("s0", TipoSolicitud.SOPORTE, Prioridad.NORMAL); // al soporte, que está vacío
+        d.agregarCliente("s1", TipoSolicitud.SOPORTE, Prioridad.NORMAL); // al mixto, que tiene uno menos
+        comprobar(mixto.getPendientes() == 2 && soporte.getPendientes() == 1, "reparto previo al robo");
+        comprobar(d.siguiente(soporte).getNombre().equals("s0"), "primero atiende lo propio");
+        Cliente robado = d.siguiente(soporte);
+        comprobar(robado != null && robado.getNombre().equals("s1"), "roba el soporte compatible del mixto");
+        comprobar(soporte.getRobados() == 1, "cuenta el robo");
+        comprobar(d.siguiente(mixto).getNombre().equals("reclamo"), "el reclamo sigue en su grupo");
+    }
+
+    private static void rechazaTiposSinGrupo() {
+        DespachadorHabilidades d = new DespachadorHabilidades("");
+        d.agregarGrupo("soporte", EnumSet.of(TipoSolicitud.SOPORTE));
+        try {
+            d.agregarCliente("m", TipoSolicitud.MANTENIMIENTO, Prioridad.NORMAL);
+            throw new AssertionError("debía rechazar un tipo sin grupo capacitado");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
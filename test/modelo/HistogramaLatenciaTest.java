@@ -0,0 +1,159 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Pruebas de {@link HistogramaLatencia} y {@link MetricasVentana}: percentiles exactos por
+ * debajo de {@link HistogramaLatencia#SUB_CUBETAS} y con error relativo acotado por
+ * encima, {@code retirar} deja los percentiles como si el valor no se hubiera registrado
+ * (el máximo queda con la precisión de su cubeta), la suma y la copia, y las ventanas de
+ * 5, 15 y 60 minutos de los medidores.
+ */
+final class HistogramaLatenciaTest {
+
+    private static final double ERROR_RELATIVO = 1.0 / HistogramaLatencia.SUB_CUBETAS;
+
+    private HistogramaLatenciaTest() {
+    }
+
+    public static void main(String[] args) {
+        percentilesExactosEnValoresPequenos();
+        percentilesConErrorAcotado();
+        retirarDeshaceElRegistro();
+        acotaYCombina();
+        ventanasDeMetricas();
+        System.out.println("HistogramaLatenciaTest: ok");
+    }
+
+    private static void percentilesExactosEnValoresPequenos() {
+        HistogramaLatencia h = new HistogramaLatencia(1_000);
+        comprobar(h.getPercentil(50) == 0 && h.getMaximo() == 0, "vacío");
+        for (int v = 1; v <= 20; v++) h.registrar(v);
+        comprobar(h.getTotal() == 20, "total");
+        comprobar(h.getPercentil(50) == 10, "p50 exacto: " + h.getPercentil(50));
+        comprobar(h.getPercentil(90) == 18, "p90 exacto: " + h.getPercentil(90));
+        comprobar(h.getPercentil(0) == 1, "p0 es el menor");
+        comprobar(h.getPercentil(100) == 20 && h.getMaximo() == 20, "p100 y máximo");
+        comprobar(h.getPercentil(150) == 20, "percentiles por encima de 100 se acotan");
+    }
+
+    private static void percentilesConErrorAcotado() {
+        HistogramaLatencia h = new HistogramaLatencia(60_000_000L);
+        Random azar = new Random(7);
+        long[] valores = new long[50_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (long) Math.exp(azar.nextDouble() * Math.log(50_000_000L)); // muy sesgado
+            h.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+        ResumenPercentiles r = h.resumen();
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exacto = valores[(int) Math.ceil(valores.length * p / 100) - 1];
+            long medido = h.getPercentil(p);
+            comprobar(medido >= exacto && medido <= exacto + Math.max(1, exacto * ERROR_RELATIVO),
+                    "p" + p + ": " + medido + " frente a " + exacto);
+        }
+        comprobar(r.getTotal() == valores.length, "total del resumen");
+        comprobar(r.getP50() == h.getPercentil(50) && r.getP90() == h.getPercentil(90)
+                && r.getP99() == h.getPercentil(99), "el resumen coincide con getPercentil");
+        comprobar(r.getMaximo() == valores[valores.length - 1] && h.getMaximo() == r.getMaximo(),
+                "el máximo es exacto sin retiros");
+    }
+
+    private static void retirarDeshaceElRegistro() {
+        HistogramaLatencia h = new HistogramaLatencia(100_000);
+        HistogramaLatencia referencia = new HistogramaLatencia(100_000);
+        for (int v = 1; v <= 1_000; v++) {
+            h.registrar(v * 10L);
+            if (v <= 500) referencia.registrar(v * 10L);
+        }
+        for (int v = 1_000; v > 500; v--) {
+            h.retirar(v * 10L);
+        }
+        comprobar(h.getTotal() == 500, "quedan 500");
+        for (double p : new double[]{1, 50, 90, 99}) {
+            comprobar(h.getPercentil(p) == referencia.getPercentil(p),
+                    "p" + p + " igual que sin los retirados: " + h.getPercentil(p));
+        }
+        // El máximo exacto se perdió con el retiro: queda el límite de su cubeta
+        long maximo = h.getMaximo();
+        comprobar(maximo >= 5_000 && maximo <= 5_000 * (1 + ERROR_RELATIVO), "máximo por cubeta: " + maximo);
+
+        h.retirar(99_999); // nunca registrado y en una cubeta vacía: no hace nada
+        comprobar(h.getTotal() == 500, "retirar un valor ausente no cambia el total");
+        for (int v = 1; v <= 500; v++) {
+            h.retirar(v * 10L);
+        }
+        comprobar(h.getTotal() == 0 && h.getPercentil(50) == 0 && h.getMaximo() == 0, "vacío tras retirar todo");
+        h.registrar(3);
+        comprobar(h.getMaximo() == 3 && h.getPercentil(99) == 3, "el máximo se reinicia al vaciarse");
+    }
+
+    private static void acotaYCombina() {
+        HistogramaLatencia h = new HistogramaLatencia(1_000);
+        h.registrar(-5);
+        h.registrar(1_000_000);
+        comprobar(h.getPercentil(1) == 0, "los negativos cuentan como 0");
+        comprobar(h.getMaximo() <= 1_000 && h.getMaximo() >= 1_000 * (1 - ERROR_RELATIVO),
+                "los mayores se acumulan al final: " + h.getMaximo());
+
+        HistogramaLatencia otro = new HistogramaLatencia(1_000);
+        for (int v = 0; v < 10; v++) otro.registrar(v);
+        HistogramaLatencia copia = otro.copiar();
+        otro.sumar(h);
+        comprobar(otro.getTotal() == 12 && copia.getTotal() == 10, "la copia es independiente");
+        copia.reiniciar();
+        comprobar(copia.getTotal() == 0 && otro.getTotal() == 12, "reiniciar la copia no toca el original");
+        try {
+            otro.sumar(new HistogramaLatencia(1_000_000));
+            throw new AssertionError("debía rechazar sumar rangos distintos");
+        } catch (IllegalArgumentException esperado) {
+            // correcto
+        }
+        try {
+            new HistogramaLatencia(0);
+            throw new AssertionError("debía rechazar un máximo no positivo");
+        } catch (IllegalArgumentException esperado) {
+            // correcto
+        }
+    }
+
+    // Usa instantes a uno y dos minutos del actual, que siguen dentro de la ventana de 5
+    // aunque el minuto cambie durante la prueba
+    private static void ventanasDeMetricas() {
+        MetricasVentana m = new MetricasVentana();
+        long ahora = System.currentTimeMillis();
+        long haceUno = ahora - 60_000L, haceDos = ahora - 120_000L;
+        for (int i = 0; i < 10; i++) m.registrarIngreso(haceUno);
+        for (int i = 0; i < 5; i++) m.registrarIngreso(haceDos);
+        m.registrarIngreso(ahora - 61 * 60_000L); // fuera de la hora: se ignora
+        comprobar(m.getIngresosPorMinuto(5) == 15 / 5.0, "ingresos en 5 min: " + m.getIngresosPorMinuto(5));
+        comprobar(m.getIngresosPorMinuto(60) == 15 / 60.0, "ingresos en 60 min");
+        comprobar(m.getIngresosPorMinuto(500) == m.getIngresosPorMinuto(MetricasVentana.MINUTOS),
+                "la ventana se acota a una hora");
+
+        // Esperas de 1 a 10 minutos
+        for (int k = 1; k <= 10; k++) m.registrarAtencion(haceUno, k * 60_000L);
+        comprobar(m.getAtendidosPorMinuto(5) == 10 / 5.0, "atendidos en 5 min");
+        comprobar(Math.abs(m.getEsperaMedia(15) - 5.5) < 1e-9, "espera media: " + m.getEsperaMedia(15));
+        double p95 = m.getEsperaP95(5);
+        comprobar(p95 >= 10 && p95 <= 10 * (1 + ERROR_RELATIVO), "p95 de la espera: " + p95);
+
+        // Retirar deshace ingresos y atenciones, pero no lo que ya salió de la ventana
+        m.retirarIngreso(haceDos);
+        m.retirarAtencion(haceUno, 10 * 60_000L);
+        comprobar(m.getIngresosPorMinuto(5) == 14 / 5.0, "retirar un ingreso");
+        comprobar(m.getAtendidosPorMinuto(5) == 9 / 5.0, "retirar una atención");
+        comprobar(Math.abs(m.getEsperaMedia(5) - 5.0) < 1e-9, "la media sin la espera retirada");
+        comprobar(m.getEsperaP95(5) <= 9 * (1 + ERROR_RELATIVO), "el p95 sin la espera retirada");
+        m.retirarIngreso(ahora - 30 * 60_000L); // minuto sin registros: no hace nada
+        comprobar(m.getIngresosPorMinuto(60) == 14 / 60.0, "retirar de un minuto vacío");
+        comprobar(new MetricasVentana().getEsperaMedia(5) == 0 && new MetricasVentana().getEsperaP95(5) == 0,
+                "sin atenciones la espera es 0");
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
@@ -0,0 +1,168 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pruebas de {@link HistorialFueraDeHeap}: cada campo del registro (incluida la marca de
+ * vencido) sobrevive a la ida y vuelta, las búsquedas por id, tipo y prioridad recorren
+ * los registros de varios bloques, el índice de ingreso acepta llegadas desordenadas y
+ * las instantáneas conservan los registros que se reescriben tras deshacer.
+ */
+final class HistorialFueraDeHeapTest {
+
+    private static final int ESPACIO = IdCliente.registrarEspacio("");
+    private static final long BASE_MS = IndiceTemporal.aMilis(LocalDateTime.of(2025, 11, 13, 8, 0));
+    private static final long MINUTO_MS = 60_000L;
+
+    private HistorialFueraDeHeapTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        conservaTodosLosCampos();
+        buscaEnVariosBloques();
+        indexaIngresosDesordenados();
+        instantaneaVeElRegistroOriginal();
+        guardaEnArchivo();
+        System.out.println("HistorialFueraDeHeapTest: ok");
+    }
+
+    private static void conservaTodosLosCampos() {
+        HistorialFueraDeHeap historial = new HistorialFueraDeHeap();
+        Cliente original = atendido(7, "Ana\tLópez", TipoSolicitud.RECLAMO, Prioridad.URGENTE, 3);
+        original.setVencido(true);
+        historial.agregar(original);
+        historial.agregar(atendido(8, "Beto", TipoSolicitud.SOPORTE, Prioridad.NORMAL, 4));
+
+        Cliente leido = historial.obtener(0);
+        comprobar(leido.getIdNumerico() == original.getIdNumerico(), "id");
+        comprobar(leido.getId().equals(original.getId()), "id en texto");
+        comprobar(leido.getNombre().equals("Ana\tLópez"), "nombre");
+        comprobar(leido.getTipoSolicitud() == TipoSolicitud.RECLAMO, "tipo");
+        comprobar(leido.getPrioridad() == Prioridad.URGENTE, "prioridad");
+        comprobar(leido.getIngresoMs() == original.getIngresoMs(), "ingreso");
+        comprobar(leido.getAtencionMs() == original.getAtencionMs(), "atención");
+        comprobar(leido.getTiempoAtencion() == original.getTiempoAtencion(), "tiempo de atención");
+        comprobar(leido.isVencido(), "la marca de vencido se guarda");
+        comprobar(!historial.obtener(1).isVencido(), "sin marca si no venció");
+        comprobar(historial.instantanea().get(0).isVencido(), "la instantánea también lee la marca");
+        try {
+            historial.obtener(2);
+            throw new AssertionError("debía rechazar una posición fuera del historial");
+        } catch (IndexOutOfBoundsException esperado) {
+            // correcto
+        }
+    }
+
+    private static void buscaEnVariosBloques() {
+        HistorialFueraDeHeap historial = new HistorialFueraDeHeap();
+        int total = (1 << 16) + 1_000; // más de un bloque de registros
+        TipoSolicitud[] tipos = TipoSolicitud.values();
+        for (int i = 0; i < total; i++) {
+            Prioridad p = i % 3 == 0 ? Prioridad.URGENTE : Prioridad.NORMAL;
+            historial.agregar(atendido(i + 1, "c" + (i % 50), tipos[i % tipos.length], p, i));
+        }
+        comprobar(historial.tamano() == total, "tamaño");
+
+        Cliente ultimo = historial.obtener(total - 1);
+        List<Cliente> porId = historial.buscarPorId(ultimo.getIdNumerico());
+        comprobar(porId.size() == 1 && porId.get(0).getNombre().equals(ultimo.getNombre()),
+                "encuentra por id un registro del segundo bloque");
+
+        int urgentes = (total + 2) / 3;
+        List<Cliente> porPrioridad = historial.buscarPorPrioridad(Prioridad.URGENTE);
+        comprobar(porPrioridad.size() == urgentes, "urgentes: " + porPrioridad.size());
+        for (Cliente c : porPrioridad) {
+            comprobar(c.getPrioridad() == Prioridad.URGENTE, "solo urgentes");
+        }
+
+        long esperados = 0;
+        for (int i = 0; i < total; i++) {
+            if (tipos[i % tipos.length] == TipoSolicitud.SOPORTE) esperados++;
+        }
+        List<Cliente> porTipo = historial.buscarPorTipo(TipoSolicitud.SOPORTE);
+        comprobar(porTipo.size() == esperados, "por tipo: " + porTipo.size() + " de " + esperados);
+        comprobar(porTipo.get(0).getTipoSolicitud() == TipoSolicitud.SOPORTE, "solo del tipo pedido");
+    }
+
+    private static void indexaIngresosDesordenados() {
+        HistorialFueraDeHeap historial = new HistorialFueraDeHeap();
+        int[] minutos = {10, 5, 20, 5, 15};
+        for (int i = 0; i < minutos.length; i++) {
+            historial.agregar(atendido(i + 1, "c" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL, minutos[i]));
+        }
+        List<Cliente> entre = historial.buscarEntre(hora(5), hora(15));
+        comprobar(entre.size() == 3, "tres ingresos en [5, 15): " + entre.size());
+        comprobar(entre.get(0).getIngresoMs() <= entre.get(1).getIngresoMs()
+                && entre.get(1).getIngresoMs() <= entre.get(2).getIngresoMs(), "ordenados por ingreso");
+        comprobar(historial.contarEntre(hora(5), hora(15)) == 3, "contar coincide con buscar");
+        comprobar(historial.contarEntre(hora(21), hora(30)) == 0, "rango vacío");
+
+        // Quitar el último (ingreso 15) lo saca también del índice
+        historial.quitarUltimo();
+        comprobar(historial.contarEntre(hora(0), hora(60)) == 4, "índice tras quitar el último");
+        comprobar(historial.buscarEntre(hora(15), hora(16)).isEmpty(), "el quitado ya no aparece");
+    }
+
+    private static void instantaneaVeElRegistroOriginal() {
+        HistorialFueraDeHeap historial = new HistorialFueraDeHeap();
+        historial.agregar(atendido(1, "a", TipoSolicitud.SOPORTE, Prioridad.NORMAL, 1));
+        historial.agregar(atendido(2, "b", TipoSolicitud.SOPORTE, Prioridad.NORMAL, 2));
+        List<Cliente> foto = historial.instantanea();
+
+        // Deshacer la última atención y atender a otro reescribe el registro 1
+        historial.quitarUltimo();
+        historial.agregar(atendido(3, "c", TipoSolicitud.RECLAMO, Prioridad.URGENTE, 3));
+        comprobar(historial.obtener(1).getNombre().equals("c"), "el historial tiene el nuevo registro");
+        comprobar(foto.size() == 2 && foto.get(1).getNombre().equals("b"), "la instantánea ve el original");
+        comprobar(foto.get(1).getTipoSolicitud() == TipoSolicitud.SOPORTE, "con todos sus campos");
+        comprobar(historial.instantanea().get(1).getNombre().equals("c"), "una instantánea nueva ve el cambio");
+
+        historial.quitarUltimo();
+        historial.quitarUltimo();
+        try {
+            historial.quitarUltimo();
+            throw new AssertionError("debía rechazar quitar de un historial vacío");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+    }
+
+    private static void guardaEnArchivo() throws IOException {
+        Path archivo = Files.createTempFile("historial", ".bin");
+        Path diccionario = archivo.resolveSibling(archivo.getFileName() + ".dic");
+        try (HistorialFueraDeHeap historial = new HistorialFueraDeHeap(archivo)) {
+            for (int i = 0; i < 100; i++) {
+                historial.agregar(atendido(i + 1, "c" + (i % 7), TipoSolicitud.SOPORTE, Prioridad.NORMAL, i));
+            }
+            comprobar(historial.obtener(99).getNombre().equals("c1"), "lee desde el archivo proyectado");
+            comprobar(historial.buscarPorId(historial.obtener(42).getIdNumerico()).size() == 1, "busca en el archivo");
+        } finally {
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(diccionario);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static Cliente atendido(long numero, String nombre, TipoSolicitud tipo, Prioridad prioridad,
+                                    int minutoIngreso) {
+        long ingreso = BASE_MS + minutoIngreso * MINUTO_MS;
+        Cliente c = new Cliente(IdCliente.codificar(ESPACIO, prioridad, numero), nombre, tipo, ingreso);
+        c.setAtencionMs(ingreso + 5 * MINUTO_MS);
+        c.setTiempoAtencion(5 + numero % 10);
+        return c;
+    }
+
+    private static LocalDateTime hora(int minuto) {
+        return IndiceTemporal.aFecha(BASE_MS + minuto * MINUTO_MS);
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
@@ -0,0 +1,204 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Pruebas de {@link HistorialPorNiveles} y {@link SegmentoHistorial}: un segmento sellado
+ * devuelve los mismos clientes y responde a sus índices, detecta un archivo dañado, y el
+ * historial sella la ventana caliente en segmentos y, al deshacer, los restaura a memoria
+ * borrando sus archivos sin que cambien las instantáneas ya tomadas.
+ */
+final class HistorialPorNivelesTest {
+
+    private static final int ESPACIO = IdCliente.registrarEspacio("");
+    private static final long BASE_MS = IndiceTemporal.aMilis(LocalDateTime.of(2025, 11, 13, 8, 0));
+    private static final long MINUTO_MS = 60_000L;
+    private static final int CALIENTE = 4;
+    private static final int SEGMENTO = 3;
+
+    private HistorialPorNivelesTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directorio = Files.createTempDirectory("niveles-test");
+        try {
+            segmentoConservaClientesEIndices(directorio);
+            segmentoDanadoSeRechaza(directorio);
+            sellaYRestauraSegmentos(directorio);
+            cierreBorraLosSegmentos(directorio);
+        } finally {
+            try (Stream<Path> restantes = Files.list(directorio)) {
+                for (Path p : restantes.toList()) Files.deleteIfExists(p);
+            }
+            Files.deleteIfExists(directorio);
+        }
+        System.out.println("HistorialPorNivelesTest: ok");
+    }
+
+    private static void segmentoConservaClientesEIndices(Path directorio) {
+        List<Cliente> clientes = new ArrayList<>();
+        int[] minutos = {30, 10, 20, 10, 50};
+        for (int i = 0; i < minutos.length; i++) {
+            Prioridad p = i % 2 == 0 ? Prioridad.URGENTE : Prioridad.NORMAL;
+            clientes.add(atendido(10 - i, i == 0 ? "Íñigo" : "c" + i, TipoSolicitud.values()[i % 2], p, minutos[i]));
+        }
+        clientes.get(2).setVencido(true);
+        Path archivo = directorio.resolve("suelto.seg");
+        SegmentoHistorial s = SegmentoHistorial.escribir(archivo, clientes);
+        comprobar(Files.exists(archivo) && s.getTamano() == 5, "archivo escrito con cinco registros");
+
+        for (int i = 0; i < clientes.size(); i++) {
+            comprobar(iguales(s.obtener(i), clientes.get(i)), "registro " + i + " igual al original");
+        }
+        comprobar(s.obtener(0).getNombre().equals("Íñigo"), "nombres en UTF-8");
+        comprobar(s.obtener(2).isVencido() && !s.obtener(1).isVencido(), "marca de vencido");
+        comprobar(s.contarPrioridad(Prioridad.URGENTE) == 3 && s.contarTipo(TipoSolicitud.values()[1]) == 2,
+                "resumen por prioridad y tipo");
+
+        List<Cliente> resultado = new ArrayList<>();
+        s.buscarPorId(clientes.get(3).getIdNumerico(), resultado);
+        comprobar(resultado.size() == 1 && resultado.get(0).getNombre().equals("c3"), "índice por id");
+        resultado.clear();
+        s.buscarPorId(IdCliente.codificar(ESPACIO, Prioridad.NORMAL, 999), resultado);
+        comprobar(resultado.isEmpty(), "un id fuera del rango no se busca");
+
+        resultado.clear();
+        s.buscarEntre(min(10), min(30), resultado);
+        comprobar(resultado.size() == 3 && resultado.get(2).getIngresoMs() == min(20), "índice por ingreso");
+        comprobar(s.contarEntre(min(10), min(30)) == 3, "contar por ingreso");
+        comprobar(s.contarEntre(min(0), min(60)) == 5, "rango que cubre todo el segmento");
+
+        // Tras soltar la proyección se vuelve a proyectar al leer
+        s.liberar();
+        comprobar(iguales(s.obtener(4), clientes.get(4)), "lee de nuevo tras liberar");
+        s.cerrar();
+        comprobar(!Files.exists(archivo), "cerrar borra el archivo");
+    }
+
+    private static void segmentoDanadoSeRechaza(Path directorio) throws IOException {
+        Path archivo = directorio.resolve("danado.seg");
+        List<Cliente> clientes = List.of(atendido(1, "a", TipoSolicitud.SOPORTE, Prioridad.NORMAL, 1));
+        SegmentoHistorial s = SegmentoHistorial.escribir(archivo, clientes);
+        s.liberar();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4), 0); // borra el número mágico
+        }
+        try {
+            s.obtener(0);
+            throw new AssertionError("debía rechazar un segmento con la cabecera dañada");
+        } catch (IllegalStateException esperado) {
+            comprobar(esperado.getMessage().contains("dañado"), "mensaje del segmento dañado");
+        }
+        try {
+            SegmentoHistorial.escribir(archivo, clientes);
+            throw new AssertionError("no debía sobrescribir un segmento existente");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+        s.cerrar();
+    }
+
+    private static void sellaYRestauraSegmentos(Path directorio) throws IOException {
+        try (HistorialPorNiveles historial = new HistorialPorNiveles(directorio, CALIENTE, SEGMENTO)) {
+            List<Cliente> esperados = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Cliente c = atendido(i + 1, "c" + i, TipoSolicitud.values()[i % 3],
+                        i % 4 == 0 ? Prioridad.URGENTE : Prioridad.NORMAL, i);
+                historial.agregar(c);
+                esperados.add(c);
+                comprobar(historial.getTamanoCaliente() < CALIENTE + 2 * SEGMENTO, "la ventana caliente está acotada");
+            }
+            comprobar(historial.getSegmentos() >= 2, "sella segmentos: " + historial.getSegmentos());
+            comprobar(archivos(historial) >= historial.getSegmentos(), "un archivo por segmento");
+            comprobar(historial.tamano() == 20, "tamaño total");
+            comprobarContenido(historial, esperados);
+            comprobar(historial.contarEntre(fecha(2), fecha(12)) == 10, "contar recorre ambos niveles");
+            comprobar(historial.buscarEntre(fecha(2), fecha(12)).get(0).getNombre().equals("c2"),
+                    "buscar por ingreso en orden");
+            comprobar(historial.buscarPorPrioridad(Prioridad.URGENTE).size() == 5, "urgentes en ambos niveles");
+            comprobar(historial.buscarPorId(esperados.get(0).getIdNumerico()).size() == 1, "id en el segmento más antiguo");
+
+            List<Cliente> foto = historial.instantanea();
+            int segmentosAntes = historial.getSegmentos();
+            while (historial.tamano() > 0) {
+                historial.quitarUltimo();
+                esperados.remove(esperados.size() - 1);
+                comprobarContenido(historial, esperados);
+            }
+            comprobar(segmentosAntes > 0 && historial.getSegmentos() == 0, "los segmentos vuelven a memoria");
+            comprobar(archivos(historial) == 0, "y sus archivos se borran");
+            comprobar(foto.size() == 20 && foto.get(0).getNombre().equals("c0") && foto.get(19).getNombre().equals("c19"),
+                    "la instantánea anterior sigue leyendo los segmentos");
+            try {
+                historial.quitarUltimo();
+                throw new AssertionError("debía rechazar quitar de un historial vacío");
+            } catch (IllegalStateException esperado) {
+                // correcto
+            }
+        }
+    }
+
+    private static void cierreBorraLosSegmentos(Path directorio) throws IOException {
+        HistorialPorNiveles historial = new HistorialPorNiveles(directorio, CALIENTE, SEGMENTO);
+        for (int i = 0; i < 30; i++) {
+            historial.agregar(atendido(i + 1, "c" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL, i));
+        }
+        Path propio = historial.getDirectorio();
+        comprobar(Files.isDirectory(propio) && propio.getParent().equals(directorio), "subdirectorio propio");
+        historial.close();
+        comprobar(!Files.exists(propio), "close borra el subdirectorio");
+        comprobar(historial.tamano() == 0, "y vacía el historial");
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static void comprobarContenido(HistorialPorNiveles historial, List<Cliente> esperados) {
+        comprobar(historial.tamano() == esperados.size(), "tamaño " + historial.tamano() + " de " + esperados.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            comprobar(iguales(historial.obtener(i), esperados.get(i)), "posición " + i);
+        }
+    }
+
+    private static long archivos(HistorialPorNiveles historial) throws IOException {
+        try (Stream<Path> lista = Files.list(historial.getDirectorio())) {
+            return lista.count();
+        }
+    }
+
+    private static boolean iguales(Cliente a, Cliente b) {
+        return a.getIdNumerico() == b.getIdNumerico() && a.getNombre().equals(b.getNombre())
+                && a.getTipoSolicitud() == b.getTipoSolicitud() && a.getIngresoMs() == b.getIngresoMs()
+                && a.getAtencionMs() == b.getAtencionMs() && a.getTiempoAtencion() == b.getTiempoAtencion()
+                && a.isVencido() == b.isVencido();
+    }
+
+    private static Cliente atendido(long numero, String nombre, TipoSolicitud tipo, Prioridad prioridad,
+                                    int minutoIngreso) {
+        Cliente c = new Cliente(IdCliente.codificar(ESPACIO, prioridad, numero), nombre, tipo, min(minutoIngreso));
+        c.setAtencionMs(min(minutoIngreso + 5));
+        c.setTiempoAtencion(5 + numero % 10);
+        return c;
+    }
+
+    private static long min(int minuto) {
+        return BASE_MS + minuto * MINUTO_MS;
+    }
+
+    private static LocalDateTime fecha(int minuto) {
+        return IndiceTemporal.aFecha(min(minuto));
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
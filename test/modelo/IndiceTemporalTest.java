@@ -0,0 +1,191 @@
+package modelo;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Pruebas de {@link IndiceTemporal}: las bajas del medio dejan lápidas que el árbol de
+ * Fenwick descuenta en los conteos (también tras añadir al final con lápidas pendientes),
+ * la baja del último no deja lápida, la compactación se dispara a la mitad y las
+ * inserciones desordenadas y {@code eliminarTodos} la aprovechan. Termina comparando el
+ * índice con una lista ordenada en una secuencia aleatoria de operaciones.
+ */
+final class IndiceTemporalTest {
+
+    private static final long BASE_MS = IndiceTemporal.aMilis(LocalDateTime.of(2025, 11, 13, 8, 0));
+    private static final long MINUTO_MS = 60_000L;
+
+    private IndiceTemporalTest() {
+    }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        lapidasSeDescuentan();
+        compactaALaMitad();
+        insercionDesordenadaCompacta();
+        eliminarTodosQuitaLapidas();
+        coincideConReferencia();
+        System.out.println("IndiceTemporalTest: ok");
+    }
+
+    private static void lapidasSeDescuentan() throws ReflectiveOperationException {
+        IndiceTemporal indice = new IndiceTemporal();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            clientes.add(insertar(indice, i, i));
+        }
+        comprobar(indice.eliminar(clientes.get(2)) && indice.eliminar(clientes.get(5)), "bajas del medio");
+        comprobar(lapidas(indice) == 2, "dos lápidas sin compactar");
+        comprobar(indice.getTamano() == 8, "tamaño sin las bajas");
+        comprobar(indice.contarEntre(fecha(0), fecha(10)) == 8, "todo el rango");
+        comprobar(indice.contarEntre(fecha(2), fecha(6)) == 2, "rango con las dos lápidas");
+        comprobar(indice.contarEntre(fecha(3), fecha(5)) == 2, "rango entre lápidas");
+        comprobar(indice.contarEntre(fecha(5), fecha(6)) == 0, "rango de una lápida");
+        comprobar(nombres(indice.buscarEntre(fecha(1), fecha(7))).equals(List.of("c1", "c3", "c4", "c6")),
+                "buscar salta las lápidas");
+        comprobar(!indice.eliminar(clientes.get(2)), "una baja repetida no encuentra al cliente");
+
+        // Al añadir al final con lápidas pendientes, el nodo nuevo del árbol debe cubrir
+        // correctamente las lápidas de su rango
+        for (int i = 10; i < 17; i++) {
+            clientes.add(insertar(indice, i, i));
+            comprobar(indice.contarEntre(fecha(0), fecha(i + 1)) == i - 1, "conteo tras añadir " + i);
+            comprobar(indice.contarEntre(fecha(2), fecha(i + 1)) == i - 3, "conteo parcial tras añadir " + i);
+        }
+
+        // Quitar el último no deja lápida
+        comprobar(indice.eliminar(clientes.get(16)), "baja del último");
+        comprobar(lapidas(indice) == 2 && indice.getTamano() == 14, "sin lápida nueva");
+        comprobar(indice.contarEntre(fecha(0), fecha(20)) == 14, "conteo tras quitar el último");
+        clientes.set(16, insertar(indice, 16, 16));
+        comprobar(indice.contarEntre(fecha(15), fecha(20)) == 2, "la posición del último se reutiliza");
+    }
+
+    private static void compactaALaMitad() throws ReflectiveOperationException {
+        IndiceTemporal indice = new IndiceTemporal();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clientes.add(insertar(indice, i, i));
+        }
+        for (int i = 0; i < 9; i++) {
+            indice.eliminar(clientes.get(i * 2));
+        }
+        comprobar(lapidas(indice) == 9, "nueve lápidas, aún por debajo de la mitad");
+        indice.eliminar(clientes.get(18));
+        comprobar(lapidas(indice) == 0, "la décima baja compacta");
+        comprobar(indice.getTamano() == 10, "quedan los impares");
+        comprobar(indice.contarEntre(fecha(0), fecha(20)) == 10, "conteo tras compactar");
+        comprobar(nombres(indice.buscarEntre(fecha(0), fecha(6))).equals(List.of("c1", "c3", "c5")),
+                "orden tras compactar");
+    }
+
+    private static void insercionDesordenadaCompacta() throws ReflectiveOperationException {
+        IndiceTemporal indice = new IndiceTemporal();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            clientes.add(insertar(indice, i * 2, i));
+        }
+        indice.eliminar(clientes.get(3));
+        comprobar(lapidas(indice) == 1, "una lápida");
+        insertar(indice, 5, 99); // entre c2 (4) y c3 (6, borrado)
+        comprobar(lapidas(indice) == 0, "la inserción en medio compacta de paso");
+        comprobar(nombres(indice.buscarEntre(fecha(4), fecha(9))).equals(List.of("c2", "c99", "c4")),
+                "insertado en su sitio");
+        insertar(indice, 4, 100); // misma marca que c2: va detrás
+        comprobar(nombres(indice.buscarEntre(fecha(4), fecha(5))).equals(List.of("c2", "c100")),
+                "las marcas iguales conservan el orden de llegada");
+    }
+
+    private static void eliminarTodosQuitaLapidas() throws ReflectiveOperationException {
+        IndiceTemporal indice = new IndiceTemporal();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            clientes.add(insertar(indice, i, i));
+        }
+        indice.eliminar(clientes.get(1));
+        Cliente ajeno = new Cliente(999, "ajeno", TipoSolicitud.SOPORTE, min(3));
+        int quitados = indice.eliminarTodos(List.of(clientes.get(0), clientes.get(6), ajeno));
+        comprobar(quitados == 2, "solo cuenta los indexados: " + quitados);
+        comprobar(lapidas(indice) == 0 && indice.getTamano() == 9, "sin lápidas tras el bloque");
+        comprobar(indice.contarEntre(fecha(0), fecha(12)) == 9, "conteo tras el bloque");
+        comprobar(indice.eliminarTodos(List.of()) == 0, "bloque vacío");
+    }
+
+    private static void coincideConReferencia() {
+        Random azar = new Random(42);
+        IndiceTemporal indice = new IndiceTemporal();
+        List<Cliente> vivos = new ArrayList<>();
+        int siguiente = 0;
+        for (int paso = 0; paso < 20_000; paso++) {
+            int accion = azar.nextInt(10);
+            if (accion < 5 || vivos.isEmpty()) {
+                // Casi siempre en orden, a veces con un ingreso anterior
+                int minuto = accion == 0 ? azar.nextInt(siguiente / 4 + 1) : siguiente / 4;
+                vivos.add(insertar(indice, minuto, siguiente++));
+            } else if (accion < 9) {
+                Cliente c = vivos.remove(azar.nextInt(vivos.size()));
+                comprobar(indice.eliminar(c), "baja de un cliente indexado");
+            } else {
+                Set<Cliente> quitar = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (int k = azar.nextInt(4); k > 0 && !vivos.isEmpty(); k--) {
+                    quitar.add(vivos.remove(azar.nextInt(vivos.size())));
+                }
+                comprobar(indice.eliminarTodos(quitar) == quitar.size(), "baja en bloque");
+            }
+            comprobar(indice.getTamano() == vivos.size(), "tamaño en el paso " + paso);
+            int desde = azar.nextInt(siguiente / 4 + 2), hasta = desde + azar.nextInt(50);
+            int esperado = 0;
+            for (Cliente c : vivos) {
+                if (c.getIngresoMs() >= min(desde) && c.getIngresoMs() < min(hasta)) esperado++;
+            }
+            comprobar(indice.contarEntre(fecha(desde), fecha(hasta)) == esperado, "conteo en el paso " + paso);
+            if (paso % 500 == 0) {
+                List<Cliente> encontrados = indice.buscarEntre(fecha(desde), fecha(hasta));
+                comprobar(encontrados.size() == esperado, "búsqueda en el paso " + paso);
+                for (int k = 1; k < encontrados.size(); k++) {
+                    comprobar(encontrados.get(k - 1).getIngresoMs() <= encontrados.get(k).getIngresoMs(),
+                            "búsqueda ordenada en el paso " + paso);
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static Cliente insertar(IndiceTemporal indice, int minuto, int numero) {
+        Cliente c = new Cliente(numero + 1, "c" + numero, TipoSolicitud.SOPORTE, min(minuto));
+        indice.insertar(c);
+        return c;
+    }
+
+    // Lápidas pendientes de compactar; no hay otra forma de observar la compactación
+    private static int lapidas(IndiceTemporal indice) throws ReflectiveOperationException {
+        Field borrados = IndiceTemporal.class.getDeclaredField("borrados");
+        borrados.setAccessible(true);
+        return borrados.getInt(indice);
+    }
+
+    private static List<String> nombres(List<Cliente> clientes) {
+        List<String> nombres = new ArrayList<>();
+        for (Cliente c : clientes) nombres.add(c.getNombre());
+        return nombres;
+    }
+
+    private static long min(int minuto) {
+        return BASE_MS + minuto * MINUTO_MS;
+    }
+
+    private static LocalDateTime fecha(int minuto) {
+        return IndiceTemporal.aFecha(min(minuto));
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
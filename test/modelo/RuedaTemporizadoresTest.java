@@ -0,0 +1,148 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas de {@link RuedaTemporizadores}: los temporizadores a varias vueltas de distancia
+ * comparten ranura sin vencer antes de su tick, un avance de más de una vuelta los entrega
+ * todos en orden, los cancelados no vencen y vuelven a la reserva, y la acción de
+ * vencimiento puede programar y cancelar otros.
+ */
+final class RuedaTemporizadoresTest {
+
+    private static final long TICK_MS = 1_000L;
+    private static final int RANURAS = 8;
+    private static final long INICIO_MS = 1_000_000L;
+
+    private RuedaTemporizadoresTest() {
+    }
+
+    public static void main(String[] args) {
+        venceTrasVariasVueltas();
+        saltoDeMasDeUnaVueltaEntregaEnOrden();
+        vencimientoPasadoEnElSiguienteTick();
+        canceladosNoVencenYSeReutilizan();
+        accionPuedeProgramarYCancelar();
+        rechazaRanurasNoPotenciaDeDos();
+        System.out.println("RuedaTemporizadoresTest: ok");
+    }
+
+    private static void venceTrasVariasVueltas() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(TICK_MS, RANURAS, INICIO_MS);
+        // Los tres caen en la misma ranura: ticks +4, +12 (una vuelta) y +20 (dos vueltas)
+        rueda.programar(nodo(1, "vuelta0"), tick(4));
+        rueda.programar(nodo(2, "vuelta1"), tick(4 + RANURAS));
+        rueda.programar(nodo(3, "vuelta2"), tick(4 + 2 * RANURAS));
+        List<String> vencidos = new ArrayList<>();
+
+        comprobar(rueda.avanzar(tick(3), n -> vencidos.add(n.cliente.getNombre())) == 0, "nada antes del tick 4");
+        comprobar(rueda.avanzar(tick(4), n -> vencidos.add(n.cliente.getNombre())) == 1, "uno en el tick 4");
+        comprobar(vencidos.equals(List.of("vuelta0")), "solo el de la primera vuelta: " + vencidos);
+        comprobar(rueda.tamano() == 2, "los otros siguen en la ranura");
+
+        comprobar(rueda.avanzar(tick(4 + RANURAS - 1), n -> vencidos.add(n.cliente.getNombre())) == 0,
+                "la ranura se recorre de nuevo sin vencer el de la segunda vuelta");
+        rueda.avanzar(tick(4 + RANURAS), n -> vencidos.add(n.cliente.getNombre()));
+        comprobar(vencidos.equals(List.of("vuelta0", "vuelta1")), "vence tras una vuelta: " + vencidos);
+        rueda.avanzar(tick(4 + 2 * RANURAS), n -> vencidos.add(n.cliente.getNombre()));
+        comprobar(vencidos.equals(List.of("vuelta0", "vuelta1", "vuelta2")), "vence tras dos vueltas");
+        comprobar(rueda.tamano() == 0, "rueda vacía");
+        comprobar(rueda.avanzar(tick(4 + 2 * RANURAS), n -> vencidos.add("x")) == 0, "avanzar sin tiempo no hace nada");
+    }
+
+    private static void saltoDeMasDeUnaVueltaEntregaEnOrden() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(TICK_MS, RANURAS, INICIO_MS);
+        // Programados en desorden, varios en el mismo tick y a más de una vuelta
+        rueda.programar(nodo(5, "t30", 0), tick(30));
+        rueda.programar(nodo(4, "t2b", 20), tick(2));
+        rueda.programar(nodo(3, "t2a", 10), tick(2));
+        rueda.programar(nodo(2, "t9", 0), tick(9));
+        rueda.programar(nodo(1, "t2c", 20), tick(2)); // mismo tick e ingreso que t2b, menor id
+        rueda.programar(nodo(6, "t50", 0), tick(50));
+        List<String> vencidos = new ArrayList<>();
+
+        int n = rueda.avanzar(tick(40), x -> vencidos.add(x.cliente.getNombre()));
+        comprobar(n == 5, "vencen los cinco de hasta el tick 40: " + n);
+        comprobar(vencidos.equals(List.of("t2a", "t2c", "t2b", "t9", "t30")),
+                "orden por tick, ingreso e id: " + vencidos);
+        comprobar(rueda.tamano() == 1, "queda el del tick 50");
+        rueda.avanzar(tick(1_000), x -> vencidos.add(x.cliente.getNombre()));
+        comprobar(vencidos.get(vencidos.size() - 1).equals("t50"), "un salto muy largo también lo entrega");
+    }
+
+    private static void vencimientoPasadoEnElSiguienteTick() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(TICK_MS, RANURAS, INICIO_MS);
+        rueda.programar(nodo(1, "pasado"), INICIO_MS - 60_000L);
+        List<String> vencidos = new ArrayList<>();
+        rueda.avanzar(tick(1), n -> vencidos.add(n.cliente.getNombre()));
+        comprobar(vencidos.equals(List.of("pasado")), "un vencimiento ya pasado vence en el siguiente tick");
+
+        // Un vencimiento a mitad de tick se redondea al tick siguiente
+        rueda.programar(nodo(2, "medio"), tick(3) + TICK_MS / 2);
+        comprobar(rueda.avanzar(tick(3), n -> vencidos.add(n.cliente.getNombre())) == 0, "aún no");
+        comprobar(rueda.avanzar(tick(4), n -> vencidos.add(n.cliente.getNombre())) == 1, "en el tick siguiente");
+    }
+
+    private static void canceladosNoVencenYSeReutilizan() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(TICK_MS, RANURAS, INICIO_MS);
+        RuedaTemporizadores.Temporizador a = rueda.programar(nodo(1, "a"), tick(2));
+        RuedaTemporizadores.Temporizador b = rueda.programar(nodo(2, "b"), tick(2));
+        RuedaTemporizadores.Temporizador c = rueda.programar(nodo(3, "c"), tick(2));
+        rueda.cancelar(b); // en medio de la lista de su ranura
+        rueda.cancelar(b); // una segunda cancelación no hace nada
+        comprobar(rueda.tamano() == 2, "quedan dos");
+
+        RuedaTemporizadores.Temporizador d = rueda.programar(nodo(4, "d"), tick(3));
+        comprobar(d == b, "el cancelado vuelve a la reserva");
+        rueda.cancelar(c);
+        List<String> vencidos = new ArrayList<>();
+        rueda.avanzar(tick(3), n -> vencidos.add(n.cliente.getNombre()));
+        comprobar(vencidos.equals(List.of("a", "d")), "solo vencen los no cancelados: " + vencidos);
+        rueda.cancelar(a); // ya vencido: no hace nada
+        comprobar(rueda.tamano() == 0, "rueda vacía");
+    }
+
+    private static void accionPuedeProgramarYCancelar() {
+        RuedaTemporizadores rueda = new RuedaTemporizadores(TICK_MS, RANURAS, INICIO_MS);
+        rueda.programar(nodo(1, "primero"), tick(1));
+        RuedaTemporizadores.Temporizador otro = rueda.programar(nodo(2, "cancelado"), tick(5));
+        List<String> vencidos = new ArrayList<>();
+        rueda.avanzar(tick(1), n -> {
+            vencidos.add(n.cliente.getNombre());
+            rueda.cancelar(otro);
+            rueda.programar(nodo(3, "reprogramado"), tick(1)); // ya pasado: al tick siguiente
+        });
+        comprobar(vencidos.equals(List.of("primero")), "el programado durante el avance no vence en él");
+        rueda.avanzar(tick(10), n -> vencidos.add(n.cliente.getNombre()));
+        comprobar(vencidos.equals(List.of("primero", "reprogramado")), "ni vence el cancelado: " + vencidos);
+    }
+
+    private static void rechazaRanurasNoPotenciaDeDos() {
+        try {
+            new RuedaTemporizadores(TICK_MS, 6, INICIO_MS);
+            throw new AssertionError("debía rechazar 6 ranuras");
+        } catch (IllegalArgumentException esperado) {
+            // correcto
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static ColaEnlazada.Nodo nodo(long numero, String nombre) {
+        return nodo(numero, nombre, 0);
+    }
+
+    private static ColaEnlazada.Nodo nodo(long numero, String nombre, long ingresoMs) {
+        return new ColaEnlazada.Nodo(new Cliente(numero, nombre, TipoSolicitud.SOPORTE, ingresoMs));
+    }
+
+    private static long tick(int ticks) {
+        return INICIO_MS + ticks * TICK_MS;
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
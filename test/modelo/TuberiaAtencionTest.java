@@ -0,0 +1,183 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pruebas de {@link TuberiaAtencion}: un anillo pequeño que da muchas vueltas aplica las
+ * operaciones en el orden publicado y deja el gestor igual que aplicarlas directamente,
+ * cada etapa ve los eventos en orden y solo después de sus dependencias, el último evento
+ * de cada lote de la interfaz lleva la imagen del gestor, los fallos del gestor y de las
+ * etapas no paran la tubería, el productor no pisa ranuras pendientes y {@code close}
+ * vacía la tubería.
+ */
+final class TuberiaAtencionTest {
+
+    private static final int CAPACIDAD = 8;
+    private static final int OPERACIONES = 5_000;
+
+    private TuberiaAtencionTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        aplicaEnOrdenComoElGestor();
+        erroresNoDetienenLaTuberia();
+        productorEsperaALaEtapaLenta();
+        cierreVaciaYRechaza();
+        System.out.println("TuberiaAtencionTest: ok");
+    }
+
+    private static void aplicaEnOrdenComoElGestor() {
+        GestionAtencion gestion = new GestionAtencion();
+        GestionAtencion referencia = new GestionAtencion();
+        AtomicLong diario = new AtomicLong(-1), metricas = new AtomicLong(-1);
+        List<String> fallos = new ArrayList<>(); // solo lo escribe la etapa de interfaz
+        long[] ultimaImagen = {-1};
+        long[] lotes = {0};
+
+        TuberiaAtencion tuberia = new TuberiaAtencion(gestion, CAPACIDAD,
+                (e, s, fin) -> avanzarEnOrden(diario, s),
+                (e, s, fin) -> avanzarEnOrden(metricas, s),
+                (e, s, fin) -> {
+                    if (diario.get() < s || metricas.get() < s) fallos.add("interfaz antes que diario y métricas en " + s);
+                    if (e.getError() != null) fallos.add("error del gestor en " + s + ": " + e.getError());
+                    if (fin) {
+                        lotes[0]++;
+                        if (e.getInstantanea() == null || e.getEstadisticas() == null) fallos.add("lote sin imagen en " + s);
+                        else ultimaImagen[0] = e.getInstantanea().getSecuencia();
+                    }
+                });
+        long ultima = -1;
+        for (int i = 0; i < OPERACIONES; i++) {
+            TipoSolicitud tipo = TipoSolicitud.values()[i % TipoSolicitud.values().length];
+            Prioridad prioridad = i % 5 == 0 ? Prioridad.URGENTE : Prioridad.NORMAL;
+            long s;
+            switch (i % 7) {
+                case 2:
+                case 5:
+                    s = tuberia.atender();
+                    referencia.atenderCliente();
+                    break;
+                case 4:
+                    s = tuberia.deshacer();
+                    referencia.deshacerUltimaAccion();
+                    break;
+                case 6:
+                    s = tuberia.atenderLote(2);
+                    referencia.atenderLote(2);
+                    break;
+                default:
+                    s = tuberia.agregar("c" + i, tipo, prioridad);
+                    referencia.agregarCliente("c" + i, tipo, prioridad);
+                    break;
+            }
+            comprobar(s == ++ultima, "secuencias consecutivas: " + s);
+        }
+        tuberia.close();
+
+        comprobar(fallos.isEmpty(), "fallos en la interfaz: " + fallos);
+        comprobar(tuberia.getCompletados() == OPERACIONES && tuberia.getCursor() == OPERACIONES - 1, "todas completadas");
+        comprobar(diario.get() == OPERACIONES - 1 && metricas.get() == OPERACIONES - 1, "diario y métricas al día");
+        comprobar(tuberia.getErrores() == 0, "sin errores de etapa: " + tuberia.getUltimoError());
+        comprobar(lotes[0] >= 1 && ultimaImagen[0] == gestion.getSecuencia(), "el último lote lleva la imagen final");
+        comprobar(nombres(gestion.getColaUrgentes()).equals(nombres(referencia.getColaUrgentes()))
+                && nombres(gestion.getColaNormales()).equals(nombres(referencia.getColaNormales()))
+                && nombres(gestion.getHistorial()).equals(nombres(referencia.getHistorial())),
+                "mismo estado que aplicando directamente");
+    }
+
+    private static void erroresNoDetienenLaTuberia() {
+        GestionAtencion gestion = new GestionAtencion();
+        gestion.configurarAdmision(PoliticaAdmision.conCapacidad(PoliticaAdmision.Modo.RECHAZAR, 1, 1));
+        List<String> vistos = new ArrayList<>();
+        TuberiaAtencion tuberia = new TuberiaAtencion(gestion, CAPACIDAD,
+                (e, s, fin) -> {
+                    if (s == 1) throw new IllegalStateException("diario caído");
+                },
+                null,
+                (e, s, fin) -> vistos.add(e.getOperacion() + ":" + (e.getError() != null ? "error"
+                        : e.getResultado() != null ? e.getResultado().getNombre() : "-")));
+        tuberia.agregar("a", TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+        tuberia.agregar("b", TipoSolicitud.SOPORTE, Prioridad.NORMAL); // cola llena
+        tuberia.eliminar("NO-EXISTE");
+        tuberia.atender();
+        tuberia.esperar(tuberia.getCursor());
+
+        comprobar(vistos.equals(List.of("AGREGAR:a", "AGREGAR:error", "ELIMINAR:-", "ATENDER:a")),
+                "el rechazo queda en el evento y la tubería sigue: " + vistos);
+        comprobar(tuberia.getErrores() == 1 && tuberia.getUltimoError().getMessage().equals("diario caído"),
+                "el fallo de la etapa se cuenta");
+        comprobar(gestion.getHistorial().size() == 1, "el fallo del diario no deshace la mutación");
+        tuberia.close();
+    }
+
+    private static void productorEsperaALaEtapaLenta() throws InterruptedException {
+        GestionAtencion gestion = new GestionAtencion();
+        CountDownLatch soltar = new CountDownLatch(1);
+        TuberiaAtencion tuberia = new TuberiaAtencion(gestion, CAPACIDAD, null, null,
+                (e, s, fin) -> soltar.await());
+        for (int i = 0; i < CAPACIDAD; i++) {
+            tuberia.agregar("c" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+        }
+        CountDownLatch publicado = new CountDownLatch(1);
+        Thread productor = new Thread(() -> {
+            tuberia.agregar("extra", TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+            publicado.countDown();
+        }, "productor-prueba");
+        productor.start();
+        comprobar(!publicado.await(200, TimeUnit.MILLISECONDS), "con el anillo lleno el productor espera");
+        comprobar(tuberia.getCompletados() == 0, "la interfaz aún no soltó ninguna ranura");
+
+        soltar.countDown();
+        comprobar(publicado.await(10, TimeUnit.SECONDS), "publica cuando la interfaz avanza");
+        productor.join();
+        tuberia.close();
+        comprobar(gestion.getTotalEnEspera() == CAPACIDAD + 1, "todas las altas aplicadas");
+    }
+
+    private static void cierreVaciaYRechaza() {
+        GestionAtencion gestion = new GestionAtencion();
+        TuberiaAtencion tuberia = new TuberiaAtencion(gestion, CAPACIDAD, null, null, null);
+        for (int i = 0; i < 100; i++) {
+            tuberia.agregar("c" + i, TipoSolicitud.SOPORTE, Prioridad.NORMAL);
+        }
+        tuberia.close();
+        comprobar(gestion.getTotalEnEspera() == 100 && tuberia.getCompletados() == 100, "close espera a las publicadas");
+        tuberia.close(); // un segundo cierre no hace nada
+        try {
+            tuberia.atender();
+            throw new AssertionError("debía rechazar publicar tras cerrar");
+        } catch (IllegalStateException esperado) {
+            // correcto
+        }
+        try {
+            new TuberiaAtencion(gestion, 6, null, null, null);
+            throw new AssertionError("debía rechazar una capacidad que no es potencia de dos");
+        } catch (IllegalArgumentException esperado) {
+            // correcto
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    private static void avanzarEnOrden(AtomicLong vista, long secuencia) {
+        if (vista.get() != secuencia - 1) {
+            throw new IllegalStateException("evento " + secuencia + " tras " + vista.get());
+        }
+        vista.set(secuencia);
+    }
+
+    private static List<String> nombres(Iterable<Cliente> clientes) {
+        List<String> nombres = new ArrayList<>();
+        for (Cliente c : clientes) nombres.add(c.getNombre());
+        return nombres;
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}
@@ -0,0 +1,198 @@
+package replicacion;
+
+import modelo.Cliente;
+import modelo.GestionAtencion;
+import modelo.OperacionGestion;
+import modelo.Prioridad;
+import modelo.TipoSolicitud;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pruebas de {@link ProtocoloReplica}, {@link ReplicadorPrimario} y {@link SeguidorReplica}:
+ * ida y vuelta de las operaciones por el formato binario, un seguidor que alcanza al
+ * primario por TCP local, el descarte por secuencia de las operaciones que un primario
+ * reenvía tras una reconexión y el rechazo de un seguidor más atrasado que el registro.
+ */
+final class ReplicacionTest {
+
+    private static final long ESPERA_MS = 10_000;
+
+    private ReplicacionTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        protocoloIdaYVuelta();
+        seguidorAlcanzaAlPrimario();
+        seguidorDescartaDuplicadosTrasReconectar();
+        primarioRechazaSeguidorAtrasado();
+        System.out.println("ReplicacionTest: ok");
+    }
+
+    private static void protocoloIdaYVuelta() throws IOException {
+        List<OperacionGestion> ops = operaciones(new GestionAtencion(), 6);
+        ops.add(new OperacionGestion(99, ops.get(0).getTipo(), "U-7", "Ñandú \"ü\" 🙂",
+                TipoSolicitud.RECLAMO, Prioridad.URGENTE, Long.MIN_VALUE + 1, Cliente.SIN_HORA, 0.0));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (OperacionGestion op : ops) ProtocoloReplica.escribir(out, op);
+        out.flush();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (OperacionGestion esperada : ops) {
+            OperacionGestion leida = ProtocoloReplica.leer(in);
+            comprobar(iguales(leida, esperada), "ida y vuelta de " + esperada + ": " + leida);
+        }
+        comprobar(in.available() == 0, "sin bytes sobrantes");
+        comprobar(ops.stream().anyMatch(op -> op.getAtencionMs() != Cliente.SIN_HORA),
+                "alguna operación lleva hora de atención");
+    }
+
+    private static void seguidorAlcanzaAlPrimario() throws Exception {
+        GestionAtencion primario = new GestionAtencion();
+        try (ReplicadorPrimario replicador = new ReplicadorPrimario(primario, 0)) {
+            SeguidorReplica seguidor = new SeguidorReplica("localhost", replicador.getPuerto());
+            try {
+                operaciones(primario, 40);
+                esperar(() -> seguidor.getSecuenciaAplicada() == primario.getSecuencia(), "el seguidor alcanza al primario");
+                GestionAtencion replica = seguidor.getReplica();
+                synchronized (replica) {
+                    comprobar(ids(replica.getColaUrgentes()).equals(ids(primario.getColaUrgentes())), "mismos urgentes");
+                    comprobar(ids(replica.getColaNormales()).equals(ids(primario.getColaNormales())), "mismos normales");
+                    comprobar(ids(replica.getHistorial()).equals(ids(primario.getHistorial())), "mismo historial");
+                    comprobar(replica.getHistorial().get(0).getAtencionMs() == primario.getHistorial().get(0).getAtencionMs(),
+                            "la hora de atención llega en milisegundos");
+                }
+                esperar(() -> replicador.getSecuenciaConfirmada() == primario.getSecuencia(), "el seguidor confirma");
+                comprobar(replicador.getSeguidores() == 1 && seguidor.isConectado(), "un seguidor conectado");
+            } finally {
+                seguidor.close();
+            }
+        }
+    }
+
+    // Un primario de prueba que, tras la reconexión, reenvía operaciones que el seguidor ya
+    // aplicó junto con las nuevas
+    private static void seguidorDescartaDuplicadosTrasReconectar() throws Exception {
+        List<OperacionGestion> ops = operaciones(new GestionAtencion(), 8);
+        long[] saludos = new long[2];
+        long[] confirmaciones = new long[2];
+        try (ServerSocket servidor = new ServerSocket(0)) {
+            Thread primario = new Thread(() -> {
+                try {
+                    for (int conexion = 0; conexion < 2; conexion++) {
+                        try (Socket s = servidor.accept()) {
+                            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                            comprobar(in.readInt() == ProtocoloReplica.MAGICO, "saludo del seguidor");
+                            saludos[conexion] = in.readLong();
+                            List<OperacionGestion> lote = conexion == 0 ? ops.subList(0, 5) : ops.subList(2, 8);
+                            out.writeInt(lote.size());
+                            for (OperacionGestion op : lote) ProtocoloReplica.escribir(out, op);
+                            out.flush();
+                            confirmaciones[conexion] = in.readLong();
+                        } // cerrar la conexión obliga al seguidor a reconectar
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, "primario-prueba");
+            primario.setDaemon(true);
+            primario.start();
+
+            SeguidorReplica seguidor = new SeguidorReplica("localhost", servidor.getLocalPort());
+            try {
+                primario.join(ESPERA_MS + SeguidorReplica.REINTENTO_MS);
+                comprobar(!primario.isAlive(), "el primario de prueba atiende las dos conexiones");
+                comprobar(saludos[0] == 0 && confirmaciones[0] == 5, "primera conexión: aplica 1..5");
+                comprobar(saludos[1] == 5, "al reconectar pide desde la 5: " + saludos[1]);
+                comprobar(confirmaciones[1] == 8, "descarta 3..5 y aplica 6..8: " + confirmaciones[1]);
+                comprobar(seguidor.getSecuenciaAplicada() == 8, "secuencia aplicada");
+                IOException error = seguidor.getError();
+                comprobar(error == null || !(error.getCause() instanceof IllegalStateException),
+                        "los duplicados no hacen divergir la réplica: " + error);
+                GestionAtencion esperado = new GestionAtencion();
+                for (OperacionGestion op : ops) esperado.aplicarOperacion(op);
+                comprobar(ids(seguidor.getReplica().getColaNormales()).equals(ids(esperado.getColaNormales()))
+                        && ids(seguidor.getReplica().getHistorial()).equals(ids(esperado.getHistorial())),
+                        "la réplica queda como si cada operación llegara una vez");
+            } finally {
+                seguidor.close();
+            }
+        }
+    }
+
+    private static void primarioRechazaSeguidorAtrasado() throws Exception {
+        GestionAtencion origen = new GestionAtencion();
+        List<OperacionGestion> ops = operaciones(origen, 10);
+        // Un primario promovido que solo conserva las tres últimas operaciones
+        try (ReplicadorPrimario replicador = new ReplicadorPrimario(origen, 0, ops.subList(7, 10))) {
+            SeguidorReplica seguidor = new SeguidorReplica("localhost", replicador.getPuerto());
+            try {
+                esperar(() -> seguidor.getError() != null && !seguidor.isConectado(), "el seguidor se detiene");
+                comprobar(seguidor.getError().getMessage().endsWith("secuencia 7"),
+                        "el rechazo indica desde dónde hay registro: " + seguidor.getError().getMessage());
+                comprobar(seguidor.getSecuenciaAplicada() == 0, "no aplica nada");
+            } finally {
+                seguidor.close();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Utilidades
+    // ------------------------------------------------------------
+    // Aplica altas y atenciones variadas y devuelve las operaciones publicadas
+    private static List<OperacionGestion> operaciones(GestionAtencion gestion, int n) {
+        List<OperacionGestion> ops = new ArrayList<>();
+        gestion.agregarOyente(ops::add);
+        TipoSolicitud[] tipos = TipoSolicitud.values();
+        for (int i = 0; ops.size() < n; i++) {
+            if (i % 3 == 2) {
+                gestion.atenderCliente();
+            } else {
+                gestion.agregarCliente("cliente " + i, tipos[i % tipos.length],
+                        i % 4 == 0 ? Prioridad.URGENTE : Prioridad.NORMAL);
+            }
+        }
+        return ops;
+    }
+
+    private static boolean iguales(OperacionGestion a, OperacionGestion b) {
+        return a.getSecuencia() == b.getSecuencia() && a.getTipo() == b.getTipo()
+                && a.getIdCliente().equals(b.getIdCliente()) && a.getNombre().equals(b.getNombre())
+                && a.getTipoSolicitud() == b.getTipoSolicitud() && a.getPrioridad() == b.getPrioridad()
+                && a.getIngresoMs() == b.getIngresoMs() && a.getAtencionMs() == b.getAtencionMs()
+                && Double.compare(a.getTiempoAtencion(), b.getTiempoAtencion()) == 0;
+    }
+
+    private static List<String> ids(Iterable<Cliente> clientes) {
+        List<String> ids = new ArrayList<>();
+        for (Cliente c : clientes) ids.add(c.getId());
+        return ids;
+    }
+
+    private static void esperar(BooleanSupplier condicion, String mensaje) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) throw new AssertionError("tiempo agotado: " + mensaje);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void comprobar(boolean condicion, String mensaje) {
+        if (!condicion) throw new AssertionError(mensaje);
+    }
+}